@@ -1,9 +1,15 @@
 package org.ed06.app;
 
 import org.ed06.model.Cliente;
+import org.ed06.model.EventosConsola;
+import org.ed06.model.EventosHotel;
 import org.ed06.model.Habitacion;
 import org.ed06.model.Hotel;
+import org.ed06.persistencia.DiarioHotel;
+import org.ed06.persistencia.PoliticaSincronizacion;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.Scanner;
 
@@ -16,6 +22,10 @@ import java.util.Scanner;
  * al usuario interactuar con el sistema a través de la consola. Esta clase simula la gestión
  * de un hotel, permitiendo realizar operaciones de administración de reservas y clientes.</p>
  *
+ * <p>Si se indica un directorio como primer argumento, el estado del hotel se guarda en él
+ * con un {@link DiarioHotel} y se recupera al volver a arrancar. El segundo argumento,
+ * opcional, es la {@link PoliticaSincronizacion} (por defecto {@code SIEMPRE}).</p>
+ *
  * @author Patricia Cid González
  */
 public class Main {
@@ -36,26 +46,28 @@ public class Main {
      * El sistema simula un entorno de gestión de reservas de un hotel, permitiendo realizar
      * operaciones como registrar habitaciones, registrar clientes y realizar reservas.
      *
-     *  @param args Parámetros de línea de comandos (no utilizados en este caso).
+     *  @param args Directorio de datos y política de sincronización (ambos opcionales).
+     * @throws IOException si no se pueden leer o escribir los datos persistentes
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         String tipo;
 
-        Hotel hotel = new Hotel("El mirador", "Calle Entornos de Desarrollo 6", "123456789");
-
-        // Registramos algunas habitaciones
-        hotel.registrarHabitacion("SIMPLE", 50);
-        hotel.registrarHabitacion("DOBLE", 80);
-        hotel.registrarHabitacion("SUITE", 120);
-        hotel.registrarHabitacion("LITERAS", 200);
-        hotel.registrarHabitacion("SIMPLE", 65);
-        hotel.registrarHabitacion("DOBLE", 100);
-        hotel.registrarHabitacion("SUITE", 150);
-        hotel.registrarHabitacion("LITERAS", 250);
+        Hotel hotel;
+        DiarioHotel diario = null;
+        if (args.length > 0) {
+            PoliticaSincronizacion politica = args.length > 1
+                ? PoliticaSincronizacion.valueOf(args[1].toUpperCase()) : PoliticaSincronizacion.SIEMPRE;
+            diario = DiarioHotel.abrir(Path.of(args[0]), politica);
+            hotel = diario.recuperar("El mirador", "Calle Entornos de Desarrollo 6", "123456789");
+            hotel.setEventos(EventosHotel.combinar(new EventosConsola(), diario));
+        } else {
+            hotel = new Hotel("El mirador", "Calle Entornos de Desarrollo 6", "123456789");
+            hotel.setEventos(new EventosConsola());
+        }
 
-        // Registramos algunos clientes
-        hotel.registrarCliente("Daniel", "daniel@daniel.com", "12345678A", true);
-        hotel.registrarCliente("Adrián", "adrian@adrian.es", "87654321B", false);
+        if (hotel.getNumeroHabitaciones() == 0) {
+            registrarDatosDePrueba(hotel);
+        }
 
         while (true) {
             mostrarMenu();
@@ -151,11 +163,19 @@ public class Main {
                     }
                     System.out.println("¿Es VIP? (true/false): ");
                     boolean esVip = scanner.nextBoolean();
-                    hotel.registrarCliente(nombre, email, dni, esVip);
+                    try {
+                        hotel.registrarCliente(nombre, email, dni, esVip);
+                    } catch (IllegalArgumentException e) {
+                        System.out.println(e.getMessage());
+                    }
                     break;
                 case SALIR:
                     System.out.println("Saliendo del programa...");
                     scanner.close();
+                    if (diario != null) {
+                        diario.instantanea(hotel);
+                        diario.close();
+                    }
                     return;
                 default:
                     System.out.println("Opción no válida");
@@ -164,6 +184,27 @@ public class Main {
         }
     }
 
+    /**
+     * Registra las habitaciones y los clientes de prueba con los que arranca un hotel vacío.
+     *
+     * @param hotel Hotel en el que se registran los datos.
+     */
+    static void registrarDatosDePrueba(Hotel hotel) {
+        // Registramos algunas habitaciones
+        hotel.registrarHabitacion("SIMPLE", 50);
+        hotel.registrarHabitacion("DOBLE", 80);
+        hotel.registrarHabitacion("SUITE", 120);
+        hotel.registrarHabitacion("LITERAS", 200);
+        hotel.registrarHabitacion("SIMPLE", 65);
+        hotel.registrarHabitacion("DOBLE", 100);
+        hotel.registrarHabitacion("SUITE", 150);
+        hotel.registrarHabitacion("LITERAS", 250);
+
+        // Registramos algunos clientes
+        hotel.registrarCliente("Daniel", "daniel@daniel.com", "12345678A", true);
+        hotel.registrarCliente("Adrián", "adrian@adrian.es", "87654321B", false);
+    }
+
     /**
      * Muestra por consola el menú principal de opciones para la gestión del hotel.
      * Las opciones incluyen registrar habitaciones y clientes, listar datos y realizar reservas.
@@ -0,0 +1,63 @@
+package org.ed06.app;
+
+import org.ed06.model.Hotel;
+import org.ed06.model.MetricasHotel;
+import org.ed06.persistencia.DiarioHotel;
+import org.ed06.persistencia.PoliticaSincronizacion;
+import org.ed06.servidor.ServidorHotel;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Arranca el hotel como servidor de red con {@link ServidorHotel} en lugar de con el menú
+ * de consola de {@link Main}, con las {@link MetricasHotel} activadas para poder
+ * consultarlas con el comando {@code METRICAS}. El servidor se detiene al pulsar Intro.
+ *
+ * <p>Argumentos, todos opcionales: puerto (por defecto {@value #PUERTO_PREDETERMINADO}),
+ * directorio de datos y {@link PoliticaSincronizacion}, con el mismo significado que en
+ * {@link Main}.</p>
+ *
+ * @author Patricia Cid González
+ */
+public class MainServidor {
+    private static final int PUERTO_PREDETERMINADO = 7070;
+
+    /**
+     * Arranca el servidor.
+     *
+     * @param args Puerto, directorio de datos y política de sincronización (opcionales).
+     * @throws IOException si no se puede abrir el puerto o leer los datos persistentes
+     */
+    public static void main(String[] args) throws IOException {
+        int puerto = args.length > 0 ? Integer.parseInt(args[0]) : PUERTO_PREDETERMINADO;
+        Hotel hotel;
+        DiarioHotel diario = null;
+        if (args.length > 1) {
+            PoliticaSincronizacion politica = args.length > 2
+                ? PoliticaSincronizacion.valueOf(args[2].toUpperCase()) : PoliticaSincronizacion.SIEMPRE;
+            diario = DiarioHotel.abrir(Path.of(args[1]), politica);
+            hotel = diario.recuperar("El mirador", "Calle Entornos de Desarrollo 6", "123456789");
+            hotel.setEventos(diario);
+        } else {
+            hotel = new Hotel("El mirador", "Calle Entornos de Desarrollo 6", "123456789");
+        }
+        hotel.setMetricas(new MetricasHotel());
+        if (hotel.getNumeroHabitaciones() == 0) {
+            Main.registrarDatosDePrueba(hotel);
+        }
+
+        try (ServidorHotel servidor = new ServidorHotel(hotel, puerto)) {
+            System.out.println("Servidor escuchando en el puerto " + servidor.getPuerto() + ". Pulsa Intro para detenerlo.");
+            // Termina con Intro o al cerrarse la entrada estándar
+            int leido;
+            do {
+                leido = System.in.read();
+            } while (leido != '\n' && leido != -1);
+        }
+        if (diario != null) {
+            diario.instantanea(hotel);
+            diario.close();
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package org.ed06.model;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché acotada de las consultas de disponibilidad y del estado VIP de los clientes de un
+ * {@link Hotel}, con contadores de aciertos y fallos.
+ *
+ * <p>Las cotizaciones se guardan por tipo de habitación, fechas y estado VIP, y cada tipo
+ * conserva como mucho las {@code capacidadCotizaciones} usadas más recientemente. El hotel
+ * descarta exactamente las que se solapan con cada reserva realizada, cancelada o
+ * modificada; registrar una habitación o reoptimizar un tipo descarta las de ese tipo.</p>
+ *
+ * <p>El estado VIP se guarda junto con el día en que deja de valer, que es aquel en que el
+ * cliente se queda sin reservas suficientes en el último año; así el cambio de día no
+ * obliga a vaciar nada. Cualquier reserva del cliente descarta su estado.</p>
+ *
+ * <p>Las cotizaciones de cada tipo tienen un número de versión que cambia al descartar
+ * entradas, y los estados VIP uno por cada franja de {@value #FRANJAS_VIP} clientes, según
+ * su ID: un valor calculado mientras otro hilo reservaba solo se guarda si la versión no ha
+ * cambiado, de modo que la caché nunca devuelve un valor anterior a una reserva ya
+ * terminada. Las reservas de un cliente solo impiden guardar el estado de los de su franja.
+ * Un hotel recién creado usa {@link #DESACTIVADA}, que no guarda nada.</p>
+ *
+ * <p>Ejemplo de uso:</p>
+ * <pre>
+ * hotel.setCache(new CacheHotel(256, 10_000));
+ * ...
+ * System.out.println(hotel.getCache().getTasaAciertosCotizaciones());
+ * </pre>
+ *
+ * @author Patricia Cid González
+ */
+public final class CacheHotel {
+
+    /**
+     * Caché que no guarda nada. Es la que usa un hotel recién creado.
+     */
+    public static final CacheHotel DESACTIVADA = new CacheHotel();
+
+    static final int SIN_DATO = -1;
+
+    private static final int FRANJAS_VIP = 1_024; // Potencia de dos
+
+    private final boolean activa;
+    private final int capacidadCotizaciones;
+    private final Map<String,Entradas<Long,Disponibilidad>> cotizaciones = new ConcurrentHashMap<>();
+    private final Entradas<Integer,Long> vip; // Día de caducidad en los bits altos y el estado en el bit 0
+    private final long[] versionesVip;        // Por franja de clientes, protegidas por el monitor de vip
+    private final LongAdder aciertosCotizaciones = new LongAdder();
+    private final LongAdder fallosCotizaciones = new LongAdder();
+    private final LongAdder aciertosVip = new LongAdder();
+    private final LongAdder fallosVip = new LongAdder();
+
+    /**
+     * Crea una caché activa y vacía.
+     *
+     * @param capacidadCotizaciones Cotizaciones que se conservan por tipo de habitación.
+     * @param capacidadVip          Clientes cuyo estado VIP se conserva.
+     * @throws IllegalArgumentException si alguna capacidad no es positiva
+     */
+    public CacheHotel(int capacidadCotizaciones, int capacidadVip) {
+        if (capacidadCotizaciones < 1 || capacidadVip < 1) {
+            throw new IllegalArgumentException("La capacidad de la caché debe ser positiva");
+        }
+        this.activa = true;
+        this.capacidadCotizaciones = capacidadCotizaciones;
+        this.vip = new Entradas<>(capacidadVip);
+        this.versionesVip = new long[FRANJAS_VIP];
+    }
+
+    private CacheHotel() {
+        this.activa = false;
+        this.capacidadCotizaciones = 0;
+        this.vip = null;
+        this.versionesVip = null;
+    }
+
+    public boolean isActiva() {
+        return activa;
+    }
+
+    /**
+     * Versión actual de las cotizaciones de un tipo, para pasarla a {@link #guardarCotizacion}.
+     *
+     * @param tipo Tipo de habitación.
+     * @return Versión de las cotizaciones del tipo.
+     */
+    long versionCotizaciones(String tipo) {
+        if (!activa) {
+            return 0;
+        }
+        Entradas<Long,Disponibilidad> entradas = cotizacionesDe(tipo);
+        synchronized (entradas) {
+            return entradas.version;
+        }
+    }
+
+    /**
+     * Busca una cotización guardada.
+     *
+     * @param tipo   Tipo de habitación.
+     * @param inicio Día de entrada desde la época.
+     * @param fin    Día de salida desde la época.
+     * @param vip    Indica si la cotización es para un cliente VIP.
+     * @return Cotización guardada o {@code null} si no está.
+     */
+    Disponibilidad cotizacion(String tipo, int inicio, int fin, boolean vip) {
+        if (!activa) {
+            return null;
+        }
+        Entradas<Long,Disponibilidad> entradas = cotizaciones.get(tipo);
+        Disponibilidad disponibilidad = null;
+        if (entradas != null) {
+            synchronized (entradas) {
+                disponibilidad = entradas.get(clave(inicio, fin, vip));
+            }
+        }
+        (disponibilidad == null ? fallosCotizaciones : aciertosCotizaciones).increment();
+        return disponibilidad;
+    }
+
+    /**
+     * Guarda una cotización si las del tipo no han cambiado desde que se leyó la versión.
+     *
+     * @param tipo           Tipo de habitación.
+     * @param version        Versión leída antes de calcular la cotización.
+     * @param inicio         Día de entrada desde la época.
+     * @param fin            Día de salida desde la época.
+     * @param vip            Indica si la cotización es para un cliente VIP.
+     * @param disponibilidad Cotización calculada.
+     */
+    void guardarCotizacion(String tipo, long version, int inicio, int fin, boolean vip,
+                           Disponibilidad disponibilidad) {
+        if (!activa) {
+            return;
+        }
+        Entradas<Long,Disponibilidad> entradas = cotizacionesDe(tipo);
+        synchronized (entradas) {
+            if (entradas.version == version) {
+                entradas.put(clave(inicio, fin, vip), disponibilidad);
+            }
+        }
+    }
+
+    /**
+     * Descarta las cotizaciones de un tipo que se solapan con una estancia.
+     *
+     * @param tipo   Tipo de habitación.
+     * @param inicio Día de entrada desde la época.
+     * @param fin    Día de salida desde la época.
+     */
+    void invalidarCotizaciones(String tipo, int inicio, int fin) {
+        if (!activa) {
+            return;
+        }
+        Entradas<Long,Disponibilidad> entradas = cotizaciones.get(tipo);
+        if (entradas == null) {
+            return;
+        }
+        synchronized (entradas) {
+            entradas.version++;
+            Iterator<Long> claves = entradas.keySet().iterator();
+            while (claves.hasNext()) {
+                long clave = claves.next();
+                int inicioGuardado = (int) (clave >> 32);
+                int finGuardado = inicioGuardado + (int) ((clave & 0xFFFFFFFFL) >>> 1);
+                if (inicioGuardado < fin && finGuardado > inicio) {
+                    claves.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Descarta todas las cotizaciones de un tipo.
+     *
+     * @param tipo Tipo de habitación.
+     */
+    void invalidarCotizaciones(String tipo) {
+        invalidarCotizaciones(tipo, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Descarta todas las cotizaciones, por ejemplo al cambiar el motor de precios.
+     */
+    void vaciarCotizaciones() {
+        if (activa) {
+            cotizaciones.keySet().forEach(this::invalidarCotizaciones);
+        }
+    }
+
+    /**
+     * Versión actual del estado VIP de un cliente, para pasarla a {@link #guardarVip}.
+     *
+     * @param clienteId ID del cliente.
+     * @return Versión de la franja del cliente.
+     */
+    long versionVip(int clienteId) {
+        if (!activa) {
+            return 0;
+        }
+        synchronized (vip) {
+            return versionesVip[clienteId & (FRANJAS_VIP - 1)];
+        }
+    }
+
+    /**
+     * Busca el estado VIP guardado de un cliente.
+     *
+     * @param clienteId ID del cliente.
+     * @param hoy       Día actual desde la época.
+     * @return {@code 1} si es VIP, {@code 0} si no lo es o {@link #SIN_DATO} si no está
+     * guardado o ha caducado.
+     */
+    int estadoVip(int clienteId, int hoy) {
+        if (!activa) {
+            return SIN_DATO;
+        }
+        Long estado;
+        synchronized (vip) {
+            estado = vip.get(clienteId);
+        }
+        if (estado == null || (estado >> 1) <= hoy) {
+            fallosVip.increment();
+            return SIN_DATO;
+        }
+        aciertosVip.increment();
+        return (int) (estado & 1);
+    }
+
+    /**
+     * Guarda el estado VIP de un cliente si no ha cambiado el de ninguno de su franja desde
+     * que se leyó la versión.
+     *
+     * @param clienteId ID del cliente.
+     * @param version   Versión leída antes de calcular el estado.
+     * @param esVip     Estado VIP del cliente.
+     * @param caduca    Primer día desde la época en que el estado deja de valer.
+     */
+    void guardarVip(int clienteId, long version, boolean esVip, int caduca) {
+        if (!activa) {
+            return;
+        }
+        synchronized (vip) {
+            if (versionesVip[clienteId & (FRANJAS_VIP - 1)] == version) {
+                vip.put(clienteId, (long) caduca << 1 | (esVip ? 1 : 0));
+            }
+        }
+    }
+
+    /**
+     * Descarta el estado VIP de un cliente.
+     *
+     * @param clienteId ID del cliente.
+     */
+    void invalidarVip(int clienteId) {
+        if (activa) {
+            synchronized (vip) {
+                versionesVip[clienteId & (FRANJAS_VIP - 1)]++;
+                vip.remove(clienteId);
+            }
+        }
+    }
+
+    public long getAciertosCotizaciones() {
+        return aciertosCotizaciones.sum();
+    }
+
+    public long getFallosCotizaciones() {
+        return fallosCotizaciones.sum();
+    }
+
+    public long getAciertosVip() {
+        return aciertosVip.sum();
+    }
+
+    public long getFallosVip() {
+        return fallosVip.sum();
+    }
+
+    /**
+     * Fracción de las consultas de disponibilidad que se han servido desde la caché.
+     *
+     * @return Tasa de aciertos entre 0 y 1, o 0 si no ha habido consultas.
+     */
+    public double getTasaAciertosCotizaciones() {
+        return tasa(getAciertosCotizaciones(), getFallosCotizaciones());
+    }
+
+    /**
+     * Fracción de las consultas del estado VIP que se han servido desde la caché.
+     *
+     * @return Tasa de aciertos entre 0 y 1, o 0 si no ha habido consultas.
+     */
+    public double getTasaAciertosVip() {
+        return tasa(getAciertosVip(), getFallosVip());
+    }
+
+    private static double tasa(long aciertos, long fallos) {
+        return aciertos + fallos == 0 ? 0 : (double) aciertos / (aciertos + fallos);
+    }
+
+    private Entradas<Long,Disponibilidad> cotizacionesDe(String tipo) {
+        return cotizaciones.computeIfAbsent(tipo, t -> new Entradas<>(capacidadCotizaciones));
+    }
+
+    /**
+     * Clave de una cotización: día de entrada en los 32 bits altos, noches y estado VIP en
+     * los bajos.
+     */
+    private static long clave(int inicio, int fin, boolean vip) {
+        return (long) inicio << 32 | (long) (fin - inicio) << 1 | (vip ? 1 : 0);
+    }
+
+    /**
+     * Entradas en orden de uso que descartan la menos usada recientemente al pasar de su
+     * capacidad. Se protegen con su propio monitor. No se serializan nunca.
+     */
+    @SuppressWarnings("serial")
+    private static final class Entradas<K, V> extends LinkedHashMap<K, V> {
+        private final int capacidad;
+        private long version;
+
+        private Entradas(int capacidad) {
+            super(16, 0.75f, true);
+            this.capacidad = capacidad;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> mayor) {
+            return size() > capacidad;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package org.ed06.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Cadena de hoteles repartidos en particiones, cada una atendida por un único hilo.
+ *
+ * <p>Cada hotel pertenece a una partición según su identificador, y todas las operaciones
+ * sobre él se envían como mensajes a la cola del hilo de esa partición, que las ejecuta
+ * en orden. Así, las reservas de hoteles de particiones distintas avanzan en paralelo sin
+ * competir por ningún cerrojo, y el rendimiento crece con el número de particiones
+ * mientras haya hoteles suficientes para repartir. Las operaciones devuelven un
+ * {@link CompletableFuture} con el resultado.</p>
+ *
+ * <p>Las búsquedas de disponibilidad en toda la cadena se reparten entre todas las
+ * particiones a la vez; cada una consulta sus hoteles y al final se mezclan los
+ * resultados.</p>
+ *
+ * <p>Ejemplo de uso:</p>
+ * <pre>
+ * try (Cadena cadena = new Cadena()) {
+ *     int id = cadena.registrarHotel(hotel);
+ *     int habitacion = cadena.reservar(id, clienteId, "DOBLE", entrada, salida).join();
+ *     List&lt;OfertaHotel&gt; ofertas = cadena.buscarDisponibilidad(entrada, salida, false).join();
+ * }
+ * </pre>
+ *
+ * @author Patricia Cid González
+ */
+public final class Cadena implements AutoCloseable {
+    private final ExecutorService[] particiones;
+    private final RegistroDenso<Hotel> hoteles = new RegistroDenso<>(); // Posición = ID del hotel - 1
+
+    /**
+     * Crea una cadena con una partición por procesador.
+     */
+    public Cadena() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Crea una cadena con un número de particiones concreto.
+     *
+     * @param numeroParticiones Número de particiones (y de hilos).
+     * @throws IllegalArgumentException si el número de particiones no es positivo
+     */
+    public Cadena(int numeroParticiones) {
+        if (numeroParticiones < 1) {
+            throw new IllegalArgumentException("La cadena necesita al menos una partición");
+        }
+        particiones = new ExecutorService[numeroParticiones];
+        for (int i = 0; i < numeroParticiones; i++) {
+            String nombre = "cadena-particion-" + i;
+            particiones[i] = Executors.newSingleThreadExecutor(tarea -> {
+                Thread hilo = new Thread(tarea, nombre);
+                hilo.setDaemon(true);
+                return hilo;
+            });
+        }
+    }
+
+    /**
+     * Añade un hotel a la cadena. A partir de ese momento conviene operar con él solo a
+     * través de la cadena para que todas sus operaciones pasen por su partición.
+     *
+     * @param hotel Hotel a añadir.
+     * @return Identificador del hotel en la cadena, empezando en 1.
+     */
+    public int registrarHotel(Hotel hotel) {
+        synchronized (hoteles) {
+            hoteles.anadir(hotel);
+            return hoteles.size();
+        }
+    }
+
+    /**
+     * Número de hoteles de la cadena.
+     *
+     * @return Número de hoteles.
+     */
+    public int getNumeroHoteles() {
+        return hoteles.size();
+    }
+
+    /**
+     * Número de particiones de la cadena.
+     *
+     * @return Número de particiones.
+     */
+    public int getNumeroParticiones() {
+        return particiones.length;
+    }
+
+    /**
+     * Ejecuta una operación sobre un hotel en el hilo de su partición.
+     *
+     * @param hotelId   Identificador del hotel.
+     * @param operacion Operación a ejecutar.
+     * @param <T>       Tipo del resultado.
+     * @return Resultado de la operación cuando termine.
+     * @throws IllegalArgumentException si el hotel no existe
+     */
+    public <T> CompletableFuture<T> ejecutar(int hotelId, Function<Hotel, T> operacion) {
+        Hotel hotel = hoteles.get(hotelId - 1);
+        if (hotel == null) {
+            throw new IllegalArgumentException("No existe el hotel #" + hotelId);
+        }
+        return CompletableFuture.supplyAsync(() -> operacion.apply(hotel), particion(hotelId));
+    }
+
+    /**
+     * Reserva una habitación en un hotel de la cadena.
+     *
+     * @param hotelId      Identificador del hotel.
+     * @param clienteId    ID del cliente en ese hotel.
+     * @param tipo         Tipo de habitación deseado.
+     * @param fechaEntrada Fecha de entrada.
+     * @param fechaSalida  Fecha de salida.
+     * @return El mismo resultado que {@link Hotel#reservarHabitacion}.
+     * @throws IllegalArgumentException si el hotel no existe
+     */
+    public CompletableFuture<Integer> reservar(int hotelId, int clienteId, String tipo, LocalDate fechaEntrada,
+                                               LocalDate fechaSalida) {
+        return ejecutar(hotelId, hotel -> hotel.reservarHabitacion(clienteId, tipo, fechaEntrada, fechaSalida));
+    }
+
+    /**
+     * Realiza un lote de reservas en un hotel de la cadena.
+     *
+     * @param hotelId     Identificador del hotel.
+     * @param solicitudes Solicitudes de reserva.
+     * @return El mismo resultado que {@link Hotel#reservarLote}.
+     * @throws IllegalArgumentException si el hotel no existe
+     */
+    public CompletableFuture<int[]> reservarLote(int hotelId, List<SolicitudReserva> solicitudes) {
+        return ejecutar(hotelId, hotel -> hotel.reservarLote(solicitudes));
+    }
+
+    /**
+     * Busca los tipos de habitación libres entre dos fechas en todos los hoteles de la
+     * cadena. Cada partición consulta sus hoteles con {@link Hotel#buscarDisponibilidad} en
+     * paralelo con las demás.
+     *
+     * @param fechaEntrada Fecha de entrada.
+     * @param fechaSalida  Fecha de salida.
+     * @param vip          Indica si los precios se calculan para un cliente VIP.
+     * @return Ofertas de todos los hoteles ordenadas de menor a mayor precio.
+     * @throws IllegalArgumentException si la fecha de entrada no es anterior a la de salida
+     */
+    public CompletableFuture<List<OfertaHotel>> buscarDisponibilidad(LocalDate fechaEntrada, LocalDate fechaSalida,
+                                                                    boolean vip) {
+        if (!fechaEntrada.isBefore(fechaSalida)) {
+            throw new IllegalArgumentException("La fecha de entrada debe ser anterior a la de salida");
+        }
+        int numeroHoteles = hoteles.size();
+        List<CompletableFuture<List<OfertaHotel>>> parciales = new ArrayList<>(particiones.length);
+        for (int p = 0; p < particiones.length; p++) {
+            int particion = p;
+            parciales.add(CompletableFuture.supplyAsync(() -> {
+                List<OfertaHotel> ofertas = new ArrayList<>();
+                // Los hoteles de la partición p son los de ID p + 1, p + 1 + particiones...
+                for (int id = particion + 1; id <= numeroHoteles; id += particiones.length) {
+                    Hotel hotel = hoteles.get(id - 1);
+                    for (Disponibilidad disponibilidad : hotel.buscarDisponibilidad(fechaEntrada, fechaSalida, vip)) {
+                        ofertas.add(new OfertaHotel(id, hotel.getNombre(), disponibilidad));
+                    }
+                }
+                return ofertas;
+            }, particiones[particion]));
+        }
+        return CompletableFuture.allOf(parciales.toArray(new CompletableFuture<?>[0])).thenApply(nada -> {
+            List<OfertaHotel> ofertas = new ArrayList<>();
+            parciales.forEach(parcial -> ofertas.addAll(parcial.join()));
+            ofertas.sort(Comparator.comparingDouble(oferta -> oferta.getDisponibilidad().getPrecio()));
+            return ofertas;
+        });
+    }
+
+    private ExecutorService particion(int hotelId) {
+        return particiones[(hotelId - 1) % particiones.length];
+    }
+
+    /**
+     * Termina las operaciones pendientes y detiene los hilos de las particiones.
+     */
+    @Override
+    public void close() {
+        for (ExecutorService particion : particiones) {
+            particion.shutdown();
+        }
+        try {
+            for (ExecutorService particion : particiones) {
+                particion.awaitTermination(1, TimeUnit.MINUTES);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,19 +1,31 @@
 package org.ed06.model;
 
+import java.util.Locale;
+
 /**
  * Representa un cliente del hotel.
  * Cada cliente tiene un identificador único, nombre, DNI, email y estado VIP.
  * La clase incluye validaciones para asegurar que los atributos sean correctos
- * (como el formato del DNI, nombre y email).
+ * (como el formato del DNI, nombre y email). El hotel no admite dos clientes con el
+ * mismo DNI ni con el mismo email, sin distinguir mayúsculas en este último.
+ * Un cliente que pasa a ser VIP por sus reservas deja de serlo cuando ya no tiene
+ * suficientes en el último año; el que se registra como VIP lo es siempre.
  *
  * @author Patricia Cid González
  */
 public class Cliente {
+    private static final String LETRAS_DNI = "TRWAGMYFPDXBNJZSQVHLCKE"; // Letra de control según el resto entre 23
+    private static final int DIGITOS_DNI = 8;
+    private static final int LONGITUD_MINIMA_DOMINIO_SUPERIOR = 2;
+
     public final int id;
     public final String nombre;
     public final String dni;
     public final String email;
-    public boolean esVip;
+    public volatile boolean esVip;
+
+    final HistorialReservas historial = new HistorialReservas(); // Días de entrada de sus reservas
+    volatile boolean vipPorReservas; // VIP por sus reservas y no desde el alta; lo pierde si dejan de bastar
 
     /**
      * Crea un nuevo cliente con los datos indicados.
@@ -39,6 +51,25 @@ public class Cliente {
         this.esVip = esVip;
     }
 
+    /**
+     * Indica si el cliente es VIP desde el alta, y no solo por sus reservas.
+     *
+     * @return {@code true} si es VIP y lo seguirá siendo aunque deje de reservar
+     */
+    public synchronized boolean isVipDesdeAlta() {
+        return esVip && !vipPorReservas;
+    }
+
+    /**
+     * Indica si el cliente es VIP solo por sus reservas del último año, de modo que deja de
+     * serlo cuando ya no le bastan.
+     *
+     * @return {@code true} si es VIP por sus reservas
+     */
+    public boolean isVipPorReservas() {
+        return vipPorReservas;
+    }
+
     /**
      * Valida que el nombre no sea nulo, vacío ni demasiado corto.
      *
@@ -58,11 +89,56 @@ public class Cliente {
      * @throws IllegalArgumentException si el email no es válido
      */
     public static void validarEmail(String email) throws IllegalArgumentException{
-        if (!email.matches("[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}")) {
+        if (!esEmailValido(email)) {
             throw new IllegalArgumentException("El email no es válido");
         }
     }
 
+    /**
+     * Comprueba el formato del email recorriendo sus caracteres, sin expresiones regulares
+     * ni reservas de memoria. Acepta lo mismo que el patrón
+     * {@code [a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\.[a-zA-Z]{2,}}: una parte local no vacía, una
+     * única arroba y un dominio cuyo último punto va precedido de al menos un carácter y
+     * seguido de al menos dos letras.
+     *
+     * @param email email a comprobar
+     * @return {@code true} si el formato es correcto
+     */
+    public static boolean esEmailValido(String email) {
+        if (email == null) {
+            return false;
+        }
+        int longitud = email.length();
+        int arroba = -1;
+        int ultimoPunto = -1;
+        for (int i = 0; i < longitud; i++) {
+            char c = email.charAt(i);
+            if (c == '@') {
+                if (arroba >= 0) {
+                    return false;
+                }
+                arroba = i;
+            } else if (arroba < 0) {
+                if (!esAlfanumerico(c) && c != '.' && c != '_' && c != '%' && c != '+' && c != '-') {
+                    return false;
+                }
+            } else if (c == '.') {
+                ultimoPunto = i;
+            } else if (!esAlfanumerico(c) && c != '-') {
+                return false;
+            }
+        }
+        if (arroba < 1 || ultimoPunto < arroba + 2 || longitud - ultimoPunto - 1 < LONGITUD_MINIMA_DOMINIO_SUPERIOR) {
+            return false;
+        }
+        for (int i = ultimoPunto + 1; i < longitud; i++) {
+            if (!esLetra(email.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Valida que el DNI tenga el formato correcto (8 dígitos y una letra mayúscula).
      *
@@ -70,9 +146,83 @@ public class Cliente {
      * @throws IllegalArgumentException si el DNI no es válido
      */
     public static void validarDni(String dni) throws IllegalArgumentException{
-        if (!dni.matches("[0-9]{8}[A-Z]")) {
+        if (!esDniValido(dni)) {
             throw new IllegalArgumentException("El DNI no es válido");
         }
     }
 
+    /**
+     * Comprueba que el DNI tenga 8 dígitos y una letra mayúscula recorriendo sus caracteres,
+     * sin expresiones regulares ni reservas de memoria. No comprueba la letra de control.
+     *
+     * @param dni DNI a comprobar
+     * @return {@code true} si el formato es correcto
+     */
+    public static boolean esDniValido(String dni) {
+        if (dni == null || dni.length() != DIGITOS_DNI + 1) {
+            return false;
+        }
+        for (int i = 0; i < DIGITOS_DNI; i++) {
+            char c = dni.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        char letra = dni.charAt(DIGITOS_DNI);
+        return letra >= 'A' && letra <= 'Z';
+    }
+
+    /**
+     * Comprueba que el DNI tenga el formato correcto y que su letra sea la que corresponde
+     * al número (resto de dividir el número entre 23).
+     *
+     * @param dni DNI a comprobar
+     * @return {@code true} si el formato y la letra de control son correctos
+     */
+    public static boolean esLetraDniCorrecta(String dni) {
+        if (!esDniValido(dni)) {
+            return false;
+        }
+        int numero = 0;
+        for (int i = 0; i < DIGITOS_DNI; i++) {
+            numero = numero * 10 + (dni.charAt(i) - '0');
+        }
+        return dni.charAt(DIGITOS_DNI) == LETRAS_DNI.charAt(numero % LETRAS_DNI.length());
+    }
+
+    /**
+     * Convierte un DNI en una clave numérica para indexarlo sin crear objetos: los 8 dígitos
+     * en los bits altos y la letra en los 8 bits bajos.
+     *
+     * @param dni DNI con formato correcto
+     * @return Clave del DNI; dos DNI tienen la misma clave solo si son iguales
+     * @throws IllegalArgumentException si el DNI no es válido
+     */
+    public static long claveDni(String dni) {
+        validarDni(dni);
+        long numero = 0;
+        for (int i = 0; i < DIGITOS_DNI; i++) {
+            numero = numero * 10 + (dni.charAt(i) - '0');
+        }
+        return numero << Byte.SIZE | dni.charAt(DIGITOS_DNI);
+    }
+
+    /**
+     * Normaliza un email para indexarlo sin distinguir mayúsculas de minúsculas.
+     *
+     * @param email email a normalizar
+     * @return Email en minúsculas
+     */
+    public static String claveEmail(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean esLetra(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean esAlfanumerico(char c) {
+        return esLetra(c) || (c >= '0' && c <= '9');
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package org.ed06.model;
+
+/**
+ * Resultado de una consulta de disponibilidad de {@link Hotel}: cuántas habitaciones de
+ * un tipo están libres entre dos fechas y cuánto costaría la estancia en la más barata.
+ *
+ * @author Patricia Cid González
+ */
+public final class Disponibilidad {
+    private final String tipo;
+    private final int habitacionesLibres;
+    private final double precio;
+
+    /**
+     * Crea el resultado de una consulta.
+     *
+     * @param tipo               Tipo de habitación.
+     * @param habitacionesLibres Número de habitaciones del tipo libres en todo el periodo.
+     * @param precio             Precio de la estancia en la habitación libre más barata, o
+     *                           {@code 0} si no hay ninguna libre.
+     */
+    public Disponibilidad(String tipo, int habitacionesLibres, double precio) {
+        this.tipo = tipo;
+        this.habitacionesLibres = habitacionesLibres;
+        this.precio = precio;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public int getHabitacionesLibres() {
+        return habitacionesLibres;
+    }
+
+    public double getPrecio() {
+        return precio;
+    }
+
+    /**
+     * Indica si queda alguna habitación libre del tipo.
+     *
+     * @return {@code true} si hay al menos una habitación libre.
+     */
+    public boolean isDisponible() {
+        return habitacionesLibres > 0;
+    }
+
+    @Override
+    public String toString() {
+        return tipo + ": " + habitacionesLibres + " libres desde " + String.format("%.2f €", precio);
+    }
+}
@@ -0,0 +1,79 @@
+package org.ed06.model;
+
+import java.util.Locale;
+
+/**
+ * Copia inmutable de los valores registrados en un histograma de {@link MetricasHotel}:
+ * cuántos hay, su media, su máximo y cualquier percentil.
+ *
+ * <p>Los percentiles se calculan a partir de cubetas logarítmicas, así que se devuelve el
+ * límite superior de la cubeta en la que cae el percentil, con un error relativo de como
+ * mucho un 6,25 % por exceso.</p>
+ *
+ * @author Patricia Cid González
+ */
+public final class Distribucion {
+    private final long[] cubetas;
+    private final long cuenta;
+    private final long suma;
+    private final long maximo;
+
+    Distribucion(long[] cubetas, long cuenta, long suma, long maximo) {
+        this.cubetas = cubetas;
+        this.cuenta = cuenta;
+        this.suma = suma;
+        this.maximo = maximo;
+    }
+
+    public long getCuenta() {
+        return cuenta;
+    }
+
+    public long getMaximo() {
+        return maximo;
+    }
+
+    /**
+     * Media de los valores registrados.
+     *
+     * @return Media, o 0 si no hay ningún valor.
+     */
+    public double getMedia() {
+        return cuenta == 0 ? 0 : (double) suma / cuenta;
+    }
+
+    /**
+     * Valor por debajo del cual queda una fracción de los valores registrados.
+     *
+     * @param fraccion Fracción entre 0 y 1 (por ejemplo, 0.99 para el p99).
+     * @return Percentil, nunca mayor que el máximo, o 0 si no hay ningún valor.
+     * @throws IllegalArgumentException si la fracción no está entre 0 y 1
+     */
+    public long getPercentil(double fraccion) {
+        if (!(fraccion >= 0 && fraccion <= 1)) {
+            throw new IllegalArgumentException("La fracción debe estar entre 0 y 1");
+        }
+        long total = 0;
+        for (long valor : cubetas) {
+            total += valor;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long objetivo = Math.max(1, (long) Math.ceil(total * fraccion));
+        long acumulado = 0;
+        for (int i = 0; i < cubetas.length; i++) {
+            acumulado += cubetas[i];
+            if (acumulado >= objetivo) {
+                return Math.min(Histograma.limiteSuperior(i), maximo);
+            }
+        }
+        return maximo;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "n=%d media=%.1f p50=%d p90=%d p99=%d máx=%d", cuenta, getMedia(),
+            getPercentil(0.5), getPercentil(0.9), getPercentil(0.99), maximo);
+    }
+}
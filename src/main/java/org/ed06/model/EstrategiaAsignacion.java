@@ -0,0 +1,47 @@
+package org.ed06.model;
+
+/**
+ * Criterio con el que un {@link Hotel} elige, entre las habitaciones libres del tipo
+ * solicitado, cuál ocupa una nueva reserva.
+ *
+ * <p>El hotel recorre las habitaciones del tipo en orden de número y puntúa cada una que
+ * esté libre según las noches que quedan libres justo antes de la entrada y justo después
+ * de la salida. Elige la de menor puntuación y, a igualdad, la de menor número. Una
+ * puntuación de 0 o menos se considera un ajuste perfecto y detiene el recorrido, así que
+ * {@link #PRIMERA_LIBRE} solo mira hasta la primera habitación libre.</p>
+ *
+ * @author Patricia Cid González
+ */
+@FunctionalInterface
+public interface EstrategiaAsignacion {
+
+    /**
+     * Noches libres que se indican cuando no hay ninguna estancia antes o después.
+     */
+    int SIN_LIMITE = Integer.MAX_VALUE;
+
+    /**
+     * Ocupa la primera habitación libre en orden de número. Es la que usa un hotel recién
+     * creado.
+     */
+    EstrategiaAsignacion PRIMERA_LIBRE = (habitacion, libresAntes, libresDespues) -> 0;
+
+    /**
+     * Ocupa la habitación cuyo hueco libre se ajusta más a la estancia, de modo que los
+     * huecos que quedan son los menos posibles y las habitaciones vacías siguen vacías. Sin
+     * un ajuste perfecto recorre todas las habitaciones del tipo.
+     */
+    EstrategiaAsignacion MEJOR_AJUSTE = (habitacion, libresAntes, libresDespues) -> (long) libresAntes + libresDespues;
+
+    /**
+     * Puntúa una habitación libre para la estancia solicitada.
+     *
+     * @param habitacion    Habitación candidata.
+     * @param libresAntes   Noches libres entre la estancia anterior y la entrada, o
+     *                      {@link #SIN_LIMITE} si no hay ninguna anterior.
+     * @param libresDespues Noches libres entre la salida y la estancia siguiente, o
+     *                      {@link #SIN_LIMITE} si no hay ninguna posterior.
+     * @return Puntuación; se elige la menor.
+     */
+    long puntuar(Habitacion habitacion, int libresAntes, int libresDespues);
+}
@@ -0,0 +1,92 @@
+package org.ed06.model;
+
+import java.io.PrintStream;
+import java.time.LocalDate;
+
+/**
+ * Receptor de eventos que escribe cada evento como una línea de texto, con los mismos
+ * mensajes que mostraba el hotel por consola.
+ *
+ * <p>Esta implementación escribe de forma síncrona en el {@link PrintStream} indicado.
+ * Las subclases pueden cambiar el destino sobrescribiendo {@link #escribir(String)}.</p>
+ *
+ * @author Patricia Cid González
+ */
+public class EventosConsola implements EventosHotel {
+    private final PrintStream salida;
+
+    /**
+     * Crea un receptor que escribe en la salida estándar.
+     */
+    public EventosConsola() {
+        this(System.out);
+    }
+
+    /**
+     * Crea un receptor que escribe en el flujo indicado.
+     *
+     * @param salida Flujo en el que se escriben los mensajes.
+     */
+    public EventosConsola(PrintStream salida) {
+        this.salida = salida;
+    }
+
+    @Override
+    public void reservaRealizada(Reserva reserva) {
+        escribir("Reserva realizada con éxito");
+    }
+
+    @Override
+    public void reservaCancelada(Reserva reserva) {
+        escribir("Reserva #" + reserva.getId() + " cancelada");
+    }
+
+    @Override
+    public void reservaModificada(Reserva anterior, Reserva nueva) {
+        escribir("Reserva #" + nueva.getId() + " modificada: del " + nueva.getFechaInicio() + " al " + nueva.getFechaFin());
+    }
+
+    @Override
+    public void reservasReoptimizadas(String tipo, LocalDate desde) {
+        escribir("Se han reasignado las habitaciones del tipo " + tipo + " desde el " + desde);
+    }
+
+    @Override
+    public void clientePromovidoVip(Cliente cliente) {
+        escribir("El cliente " + cliente.nombre + " ha pasado a ser VIP");
+    }
+
+    @Override
+    public void clienteDegradadoVip(Cliente cliente) {
+        escribir("El cliente " + cliente.nombre + " ha dejado de ser VIP");
+    }
+
+    @Override
+    public void tipoNoDisponible(String tipo) {
+        escribir("No hay habitaciones disponibles del tipo " + tipo);
+    }
+
+    @Override
+    public void fechasInvalidas(LocalDate fechaEntrada, LocalDate fechaSalida) {
+        escribir("La fecha de entrada es posterior a la fecha de salida");
+    }
+
+    @Override
+    public void clienteNoExiste(int clienteId) {
+        escribir("No existe el cliente con id " + clienteId);
+    }
+
+    @Override
+    public void sinHabitaciones() {
+        escribir("No hay habitaciones en el hotel");
+    }
+
+    /**
+     * Escribe un mensaje ya formateado.
+     *
+     * @param mensaje Mensaje sin salto de línea final.
+     */
+    protected void escribir(String mensaje) {
+        salida.println(mensaje);
+    }
+}
@@ -0,0 +1,287 @@
+package org.ed06.model;
+
+import java.time.LocalDate;
+
+/**
+ * Receptor de los eventos que se producen al operar con un {@link Hotel}.
+ *
+ * <p>Todos los métodos tienen una implementación vacía, así que cada receptor solo
+ * sobrescribe los eventos que le interesan. Los métodos se invocan desde el hilo que
+ * realiza la operación, por lo que deben ser rápidos y seguros para varios hilos.</p>
+ *
+ * <p>Los métodos {@code anotar...} son distintos: el hotel los llama con tomado el monitor
+ * que protege el cambio y antes de aplicarlo, de modo que los cambios de una misma
+ * habitación llegan en el mismo orden en que se aplican. Sirven a receptores que necesitan
+ * ese orden, como un diario, y deben limitarse a anotar el cambio sin bloquearse; si lanzan
+ * una excepción, el cambio no se aplica. El evento correspondiente se notifica después,
+ * ya sin el monitor.</p>
+ *
+ * @author Patricia Cid González
+ */
+public interface EventosHotel {
+
+    /**
+     * Receptor que ignora todos los eventos. Es el que usa un hotel recién creado.
+     */
+    EventosHotel NINGUNO = new EventosHotel() {
+    };
+
+    /**
+     * Combina varios receptores en uno que notifica cada evento a todos ellos, en el
+     * orden indicado.
+     *
+     * @param receptores Receptores a combinar.
+     * @return Receptor combinado.
+     */
+    static EventosHotel combinar(EventosHotel... receptores) {
+        EventosHotel[] todos = receptores.clone();
+        return new EventosHotel() {
+            @Override
+            public void habitacionRegistrada(Habitacion habitacion) {
+                for (EventosHotel receptor : todos) receptor.habitacionRegistrada(habitacion);
+            }
+
+            @Override
+            public void clienteRegistrado(Cliente cliente) {
+                for (EventosHotel receptor : todos) receptor.clienteRegistrado(cliente);
+            }
+
+            @Override
+            public void anotarHabitacion(Habitacion habitacion) {
+                for (EventosHotel receptor : todos) receptor.anotarHabitacion(habitacion);
+            }
+
+            @Override
+            public void anotarCliente(Cliente cliente) {
+                for (EventosHotel receptor : todos) receptor.anotarCliente(cliente);
+            }
+
+            @Override
+            public void anotarReserva(Reserva reserva) {
+                for (EventosHotel receptor : todos) receptor.anotarReserva(reserva);
+            }
+
+            @Override
+            public void anotarCancelacion(Reserva reserva) {
+                for (EventosHotel receptor : todos) receptor.anotarCancelacion(reserva);
+            }
+
+            @Override
+            public void anotarModificacion(Reserva anterior, Reserva nueva) {
+                for (EventosHotel receptor : todos) receptor.anotarModificacion(anterior, nueva);
+            }
+
+            @Override
+            public void anotarReubicacion(String tipo, int[] reservas, int[] habitaciones) {
+                for (EventosHotel receptor : todos) receptor.anotarReubicacion(tipo, reservas, habitaciones);
+            }
+
+            @Override
+            public void reservaRealizada(Reserva reserva) {
+                for (EventosHotel receptor : todos) receptor.reservaRealizada(reserva);
+            }
+
+            @Override
+            public void reservaCancelada(Reserva reserva) {
+                for (EventosHotel receptor : todos) receptor.reservaCancelada(reserva);
+            }
+
+            @Override
+            public void reservaModificada(Reserva anterior, Reserva nueva) {
+                for (EventosHotel receptor : todos) receptor.reservaModificada(anterior, nueva);
+            }
+
+            @Override
+            public void reservasReoptimizadas(String tipo, LocalDate desde) {
+                for (EventosHotel receptor : todos) receptor.reservasReoptimizadas(tipo, desde);
+            }
+
+            @Override
+            public void clientePromovidoVip(Cliente cliente) {
+                for (EventosHotel receptor : todos) receptor.clientePromovidoVip(cliente);
+            }
+
+            @Override
+            public void clienteDegradadoVip(Cliente cliente) {
+                for (EventosHotel receptor : todos) receptor.clienteDegradadoVip(cliente);
+            }
+
+            @Override
+            public void tipoNoDisponible(String tipo) {
+                for (EventosHotel receptor : todos) receptor.tipoNoDisponible(tipo);
+            }
+
+            @Override
+            public void fechasInvalidas(LocalDate fechaEntrada, LocalDate fechaSalida) {
+                for (EventosHotel receptor : todos) receptor.fechasInvalidas(fechaEntrada, fechaSalida);
+            }
+
+            @Override
+            public void clienteNoExiste(int clienteId) {
+                for (EventosHotel receptor : todos) receptor.clienteNoExiste(clienteId);
+            }
+
+            @Override
+            public void sinHabitaciones() {
+                for (EventosHotel receptor : todos) receptor.sinHabitaciones();
+            }
+        };
+    }
+
+    /**
+     * Se ha registrado una habitación.
+     *
+     * @param habitacion Habitación registrada.
+     */
+    default void habitacionRegistrada(Habitacion habitacion) {
+    }
+
+    /**
+     * Se ha registrado un cliente.
+     *
+     * @param cliente Cliente registrado.
+     */
+    default void clienteRegistrado(Cliente cliente) {
+    }
+
+    /**
+     * Se va a registrar una habitación. Se llama antes de que se pueda reservar en ella y en
+     * el mismo orden en que se numeran.
+     *
+     * @param habitacion Habitación que se va a registrar.
+     */
+    default void anotarHabitacion(Habitacion habitacion) {
+    }
+
+    /**
+     * Se va a registrar un cliente. Se llama antes de que se pueda buscar o reservar a su
+     * nombre.
+     *
+     * @param cliente Cliente que se va a registrar.
+     */
+    default void anotarCliente(Cliente cliente) {
+    }
+
+    /**
+     * Se va a realizar una reserva. Se llama con el monitor de su habitación tomado.
+     *
+     * @param reserva Reserva que se va a realizar.
+     */
+    default void anotarReserva(Reserva reserva) {
+    }
+
+    /**
+     * Se va a cancelar una reserva. Se llama con el monitor de su habitación tomado.
+     *
+     * @param reserva Reserva tal como está antes de cancelarla.
+     */
+    default void anotarCancelacion(Reserva reserva) {
+    }
+
+    /**
+     * Se van a cambiar las fechas de una reserva. Se llama con el monitor de su habitación
+     * tomado.
+     *
+     * @param anterior Reserva antes del cambio.
+     * @param nueva    Reserva con las nuevas fechas y el nuevo precio.
+     */
+    default void anotarModificacion(Reserva anterior, Reserva nueva) {
+    }
+
+    /**
+     * Una reoptimización va a cambiar de habitación unas reservas. Se llama con todas las
+     * habitaciones del tipo bloqueadas por {@link Hotel#reoptimizar}, así que ninguna otra
+     * operación las cambia hasta que se aplique.
+     *
+     * @param tipo         Tipo de habitación, en mayúsculas.
+     * @param reservas     Identificadores de las reservas que cambian de habitación.
+     * @param habitaciones Número de la nueva habitación de cada reserva, en el mismo orden.
+     */
+    default void anotarReubicacion(String tipo, int[] reservas, int[] habitaciones) {
+    }
+
+    /**
+     * Se ha realizado una reserva.
+     *
+     * @param reserva Reserva realizada.
+     */
+    default void reservaRealizada(Reserva reserva) {
+    }
+
+    /**
+     * Se ha cancelado una reserva con {@link Hotel#cancelarReserva}.
+     *
+     * @param reserva Reserva tal como estaba antes de cancelarla.
+     */
+    default void reservaCancelada(Reserva reserva) {
+    }
+
+    /**
+     * Se han cambiado las fechas de una reserva con {@link Hotel#modificarReserva}. Ambas
+     * reservas tienen el mismo identificador, habitación y cliente.
+     *
+     * @param anterior Reserva antes del cambio.
+     * @param nueva    Reserva con las nuevas fechas y el nuevo precio.
+     */
+    default void reservaModificada(Reserva anterior, Reserva nueva) {
+    }
+
+    /**
+     * Se han repartido de nuevo entre las habitaciones de un tipo las reservas que empiezan
+     * a partir de una fecha, con {@link Hotel#reoptimizar}. Las reservas conservan fechas,
+     * cliente y precio, pero pueden haber cambiado de habitación.
+     *
+     * @param tipo  Tipo de habitación, en mayúsculas.
+     * @param desde Fecha a partir de la cual se han movido reservas.
+     */
+    default void reservasReoptimizadas(String tipo, LocalDate desde) {
+    }
+
+    /**
+     * Un cliente ha pasado a ser VIP por el número de reservas del último año.
+     *
+     * @param cliente Cliente promocionado.
+     */
+    default void clientePromovidoVip(Cliente cliente) {
+    }
+
+    /**
+     * Un cliente que era VIP por sus reservas ha dejado de serlo porque ya no tiene
+     * suficientes en el último año.
+     *
+     * @param cliente Cliente que deja de ser VIP.
+     */
+    default void clienteDegradadoVip(Cliente cliente) {
+    }
+
+    /**
+     * No queda ninguna habitación libre del tipo solicitado para esas fechas.
+     *
+     * @param tipo Tipo de habitación solicitado.
+     */
+    default void tipoNoDisponible(String tipo) {
+    }
+
+    /**
+     * La fecha de entrada no es anterior a la de salida.
+     *
+     * @param fechaEntrada Fecha de entrada solicitada.
+     * @param fechaSalida  Fecha de salida solicitada.
+     */
+    default void fechasInvalidas(LocalDate fechaEntrada, LocalDate fechaSalida) {
+    }
+
+    /**
+     * Se ha pedido una operación para un cliente que no existe.
+     *
+     * @param clienteId ID solicitado.
+     */
+    default void clienteNoExiste(int clienteId) {
+    }
+
+    /**
+     * Se ha intentado reservar en un hotel sin habitaciones registradas.
+     */
+    default void sinHabitaciones() {
+    }
+}
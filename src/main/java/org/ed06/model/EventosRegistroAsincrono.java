@@ -0,0 +1,143 @@
+package org.ed06.model;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Receptor de eventos que escribe los mensajes de forma asíncrona y por lotes.
+ *
+ * <p>Los hilos que operan con el hotel solo encolan el mensaje en una cola acotada; un
+ * hilo de fondo la vacía por lotes de hasta {@value #TAMANIO_LOTE} mensajes, los escribe
+ * en el destino y lo vacía una sola vez por lote. Si la cola está llena el mensaje se
+ * descarta y se contabiliza en {@link #getDescartados()}, de forma que el registro nunca
+ * frena una reserva.</p>
+ *
+ * <p>Hay que llamar a {@link #close()} para escribir los mensajes pendientes y detener
+ * el hilo de fondo.</p>
+ *
+ * @author Patricia Cid González
+ */
+public class EventosRegistroAsincrono extends EventosConsola implements AutoCloseable {
+    private static final int CAPACIDAD_POR_DEFECTO = 65_536;
+    private static final int TAMANIO_LOTE = 1_024;
+    private static final String FIN = new String("FIN"); // Marca de cierre, se compara por identidad
+    private static final long ESPERA_CIERRE_MS = 100;
+
+    private final BlockingQueue<String> pendientes;
+    private final Writer destino;
+    private final Thread escritor;
+    private final LongAdder descartados = new LongAdder();
+    private volatile boolean cerrado;
+    private volatile boolean terminado; // El hilo de fondo ya no lee la cola
+
+    /**
+     * Crea un registro asíncrono que escribe en la salida estándar.
+     */
+    public EventosRegistroAsincrono() {
+        this(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), CAPACIDAD_POR_DEFECTO);
+    }
+
+    /**
+     * Crea un registro asíncrono que escribe en el destino indicado.
+     *
+     * @param destino   Destino de los mensajes. No se cierra al cerrar el registro.
+     * @param capacidad Número máximo de mensajes pendientes de escribir.
+     */
+    public EventosRegistroAsincrono(Writer destino, int capacidad) {
+        this.destino = new BufferedWriter(destino);
+        this.pendientes = new ArrayBlockingQueue<>(capacidad);
+        this.escritor = new Thread(this::escribirPendientes, "eventos-hotel");
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+    }
+
+    /**
+     * Número de mensajes descartados por tener la cola llena o el registro cerrado.
+     *
+     * @return Mensajes descartados.
+     */
+    public long getDescartados() {
+        return descartados.sum();
+    }
+
+    @Override
+    protected void escribir(String mensaje) {
+        if (cerrado || !pendientes.offer(mensaje)) {
+            descartados.increment();
+        } else if (terminado && pendientes.remove(mensaje)) {
+            // Se encoló cuando el cierre ya había vaciado la cola: nadie lo va a escribir
+            descartados.increment();
+        }
+    }
+
+    /**
+     * Escribe los mensajes pendientes y detiene el hilo de fondo. El destino queda vaciado
+     * pero abierto. Los mensajes que no se llegan a escribir, porque el hilo de fondo ha
+     * fallado o porque se encolan mientras se cierra, se cuentan como descartados. Si el
+     * hilo que cierra es interrumpido, deja de esperar y conserva el estado de interrupción.
+     */
+    @Override
+    public void close() {
+        if (cerrado) {
+            return;
+        }
+        cerrado = true;
+        try {
+            // Si el hilo de fondo ha muerto con la cola llena, nunca habría sitio para FIN
+            while (escritor.isAlive() && !pendientes.offer(FIN, ESPERA_CIERRE_MS, TimeUnit.MILLISECONDS)) {
+                // Se reintenta mientras el hilo de fondo siga vaciando la cola
+            }
+            escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        terminado = true;
+        List<String> restantes = new ArrayList<>();
+        pendientes.drainTo(restantes);
+        for (String mensaje : restantes) {
+            if (mensaje != FIN) {
+                descartados.increment();
+            }
+        }
+    }
+
+    private void escribirPendientes() {
+        List<String> lote = new ArrayList<>(TAMANIO_LOTE);
+        try {
+            boolean terminar = false;
+            while (!terminar) {
+                lote.add(pendientes.take());
+                pendientes.drainTo(lote, TAMANIO_LOTE - 1);
+                for (String mensaje : lote) {
+                    // Los mensajes del lote que llegaron después de FIN también se escriben
+                    if (mensaje == FIN) {
+                        terminar = true;
+                        continue;
+                    }
+                    destino.write(mensaje);
+                    destino.write(System.lineSeparator());
+                }
+                destino.flush();
+                lote.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // El lote que se estaba escribiendo se pierde
+            lote.removeIf(mensaje -> mensaje == FIN);
+            descartados.add(lote.size());
+            throw new UncheckedIOException(e);
+        }
+    }
+}
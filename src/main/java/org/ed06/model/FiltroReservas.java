@@ -0,0 +1,113 @@
+package org.ed06.model;
+
+import java.time.LocalDate;
+
+/**
+ * Criterios para seleccionar reservas en {@link Hotel#streamReservas} y
+ * {@link Hotel#paginarReservas}. Los filtros son inmutables: cada método devuelve un filtro
+ * nuevo que añade una condición, de modo que se pueden encadenar a partir de
+ * {@link #TODAS}.
+ *
+ * <pre>
+ * FiltroReservas filtro = FiltroReservas.TODAS.cliente(7).entre(desde, hasta);
+ * </pre>
+ *
+ * @author Patricia Cid González
+ */
+public final class FiltroReservas {
+    /**
+     * Filtro que acepta todas las reservas.
+     */
+    public static final FiltroReservas TODAS = new FiltroReservas(0, 0, null, null);
+
+    private final int numeroHabitacion; // 0 = cualquier habitación
+    private final int clienteId;        // 0 = cualquier cliente
+    private final LocalDate desde;
+    private final LocalDate hasta;
+    private final int diaDesde;         // Días desde la época, para filtrar sin crear objetos
+    private final int diaHasta;
+
+    private FiltroReservas(int numeroHabitacion, int clienteId, LocalDate desde, LocalDate hasta) {
+        this.numeroHabitacion = numeroHabitacion;
+        this.clienteId = clienteId;
+        this.desde = desde;
+        this.hasta = hasta;
+        this.diaDesde = desde == null ? Integer.MIN_VALUE : (int) desde.toEpochDay();
+        this.diaHasta = hasta == null ? Integer.MAX_VALUE : (int) hasta.toEpochDay();
+    }
+
+    /**
+     * Limita el filtro a las reservas de una habitación.
+     *
+     * @param numero Número de la habitación.
+     * @return Nuevo filtro.
+     */
+    public FiltroReservas habitacion(int numero) {
+        return new FiltroReservas(numero, clienteId, desde, hasta);
+    }
+
+    /**
+     * Limita el filtro a las reservas de un cliente.
+     *
+     * @param id ID del cliente.
+     * @return Nuevo filtro.
+     */
+    public FiltroReservas cliente(int id) {
+        return new FiltroReservas(numeroHabitacion, id, desde, hasta);
+    }
+
+    /**
+     * Limita el filtro a las reservas con alguna noche entre dos fechas.
+     *
+     * @param desde Primer día del periodo.
+     * @param hasta Día siguiente al último día del periodo.
+     * @return Nuevo filtro.
+     * @throws IllegalArgumentException si la fecha de inicio no es anterior a la de fin
+     */
+    public FiltroReservas entre(LocalDate desde, LocalDate hasta) {
+        if (!desde.isBefore(hasta)) {
+            throw new IllegalArgumentException("La fecha de inicio debe ser anterior a la de fin");
+        }
+        return new FiltroReservas(numeroHabitacion, clienteId, desde, hasta);
+    }
+
+    /**
+     * Número de habitación del filtro.
+     *
+     * @return Número de habitación o {@code 0} si se aceptan todas.
+     */
+    public int getNumeroHabitacion() {
+        return numeroHabitacion;
+    }
+
+    /**
+     * Comprueba si una reserva cumple todas las condiciones del filtro.
+     *
+     * @param reserva Reserva a comprobar.
+     * @return {@code true} si la reserva se acepta.
+     */
+    public boolean acepta(Reserva reserva) {
+        return acepta(reserva.getHabitacion().getNumero(), reserva.getCliente().id,
+            reserva.getDiaInicio(), reserva.getDiaFin());
+    }
+
+    /**
+     * Comprueba las condiciones del filtro sobre los datos de una reserva guardada, antes de
+     * crear el objeto {@link Reserva}.
+     *
+     * @param numero  Número de la habitación.
+     * @param cliente ID del cliente.
+     * @param inicio  Día de entrada desde la época.
+     * @param fin     Día de salida desde la época.
+     * @return {@code true} si la reserva se acepta.
+     */
+    boolean acepta(int numero, int cliente, int inicio, int fin) {
+        if (numeroHabitacion != 0 && numero != numeroHabitacion) {
+            return false;
+        }
+        if (clienteId != 0 && cliente != clienteId) {
+            return false;
+        }
+        return inicio < diaHasta && fin > diaDesde;
+    }
+}
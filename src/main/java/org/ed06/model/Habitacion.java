@@ -1,12 +1,17 @@
 package org.ed06.model;
 
+import java.time.Clock;
+import java.time.LocalDate;
+
 /**
  * Clase que representa una habitación en el hotel.
  * Cada habitación tiene un número, un tipo (por ejemplo, SIMPLE, DOBLE, SUITE)
  * y un precio base asociado.
  *
- * <p>La clase permite gestionar la disponibilidad de la habitación y
- * reservarla si está disponible.</p>
+ * <p>La clase permite gestionar la disponibilidad de la habitación por fechas y
+ * reservarla si está libre en el periodo solicitado. Las reservas se sincronizan con el
+ * monitor de la propia habitación; las consultas de disponibilidad no toman ningún
+ * cerrojo y leen una versión inmutable de las estancias.</p>
  *
  * @author Patricia Cid González
  */
@@ -15,8 +20,7 @@ public class Habitacion {
     private final String tipo;
     private final double precioBase;
 
-    // TODO: cambiar la forma de gestionar la disponibilidad en base a las fechas de las reservas
-    private boolean disponible; // Indica si la habitación está disponible para reservar
+    private final Ocupacion ocupacion = new Ocupacion(); // Estancias reservadas ordenadas por fecha
 
     /**
      * Crea una nueva instancia de la clase Habitacion.
@@ -24,13 +28,12 @@ public class Habitacion {
      * @param numero      Número de la habitación.
      * @param tipo        Tipo de la habitación (por ejemplo, SIMPLE, DOBLE, SUITE).
      * @param precioBase  Precio base de la habitación.
-     * El parámetro disponible no es necesario pasarlo al constructor, ya que la habitación se inicia siempre como disponible.
+     * La habitación se crea sin ninguna estancia reservada.
      */
     public Habitacion(int numero, String tipo, double precioBase) {
         this.numero = numero;
         this.tipo = tipo;
         this.precioBase = precioBase;
-        this.disponible = true;
     }
 
 
@@ -46,19 +49,90 @@ public class Habitacion {
         return precioBase;
     }
 
-    public boolean isDisponible() {
-        return disponible;
+    /**
+     * Indica si la habitación está libre la noche de hoy según un reloj, normalmente el del
+     * hotel ({@link Hotel#getReloj()}).
+     *
+     * @param reloj Reloj del que se toma el día actual.
+     * @return {@code true} si no hay ninguna estancia que ocupe la noche actual.
+     */
+    public boolean isDisponible(Clock reloj) {
+        LocalDate hoy = LocalDate.now(reloj);
+        return isDisponible(hoy, hoy.plusDays(1));
     }
 
+    /**
+     * Indica si la habitación está libre entre dos fechas.
+     *
+     * @param fechaEntrada Fecha de entrada.
+     * @param fechaSalida  Fecha de salida (la noche de salida no se ocupa).
+     * @return {@code true} si ninguna estancia reservada se solapa con el periodo.
+     */
+    public boolean isDisponible(LocalDate fechaEntrada, LocalDate fechaSalida) {
+        return estaLibre((int) fechaEntrada.toEpochDay(), (int) fechaSalida.toEpochDay());
+    }
 
-     /**
-     * Reserva la habitación si está disponible.
-     * Si ya está reservada, no realiza la acción.
+    /**
+     * Indica si la habitación está libre en el intervalo {@code [inicio, fin)} de días desde la época.
+     */
+    boolean estaLibre(int inicio, int fin) {
+        return ocupacion.estaLibre(inicio, fin);
+    }
+
+    /**
+     * Noches libres alrededor del intervalo {@code [inicio, fin)}, como en {@link Ocupacion#hueco}.
+     */
+    long hueco(int inicio, int fin) {
+        return ocupacion.hueco(inicio, fin);
+    }
+
+    /**
+     * Recorrido de las estancias desde {@code dia}, como en {@link Ocupacion#recorrer}.
+     */
+    Ocupacion.Recorrido recorrerOcupacion(int dia) {
+        return ocupacion.recorrer(dia);
+    }
+
+    int contarHuecos(int dia) {
+        return ocupacion.contarHuecos(dia);
+    }
+
+    /**
+     * Sustituye las estancias que empiezan en {@code dia} o después, como en
+     * {@link Ocupacion#reemplazarDesde}.
+     */
+    synchronized boolean reemplazarDesde(int dia, int[] inicios, int[] fines, int cuantas) {
+        return ocupacion.reemplazarDesde(dia, inicios, fines, cuantas);
+    }
+
+    /**
+     * Ocupa el intervalo {@code [inicio, fin)} de días desde la época si está libre, sin
+     * mostrar nada por consola.
+     *
+     * @return {@code true} si se ha ocupado, {@code false} si ya estaba ocupado.
+     */
+    synchronized boolean ocupar(int inicio, int fin) {
+        return ocupacion.ocupar(inicio, fin);
+    }
+
+    /**
+     * Libera la estancia {@code [inicio, fin)} de días desde la época, como en
+     * {@link Ocupacion#liberar}.
+     */
+    synchronized boolean liberar(int inicio, int fin) {
+        return ocupacion.liberar(inicio, fin);
+    }
+
+    /**
+     * Reserva la habitación entre dos fechas si está libre en ese periodo.
+     * Si ya está reservada para alguna de esas noches, no realiza la acción y lo indica
+     * devolviendo {@code false}.
+     *
+     * @param fechaEntrada Fecha de entrada.
+     * @param fechaSalida  Fecha de salida (la noche de salida no se ocupa).
+     * @return {@code true} si se ha reservado, {@code false} si ya estaba ocupada.
      */
-    public void reservar() {
-        if (disponible) {
-            System.out.println("Habitación #" + numero + " ya reservada");
-        }
-        disponible = true;
+    public boolean reservar(LocalDate fechaEntrada, LocalDate fechaSalida) {
+        return ocupar((int) fechaEntrada.toEpochDay(), (int) fechaSalida.toEpochDay());
     }
 }
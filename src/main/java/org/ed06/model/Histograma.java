@@ -0,0 +1,86 @@
+package org.ed06.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de valores no negativos con cubetas logarítmicas, al estilo de HdrHistogram.
+ *
+ * <p>Cada potencia de dos se divide en {@value #SUBCUBETAS} cubetas iguales, así que el
+ * error relativo de cualquier valor es como mucho de 1/{@value #SUBCUBETAS} sea cual sea
+ * su magnitud, y todo el rango de {@code long} cabe en {@value #NUMERO_CUBETAS} contadores
+ * fijos. Registrar un valor no reserva memoria ni toma cerrojos, por lo que varios hilos
+ * pueden registrar a la vez.</p>
+ *
+ * @author Patricia Cid González
+ */
+final class Histograma {
+    private static final int BITS_SUBCUBETA = 4;
+    static final int SUBCUBETAS = 1 << BITS_SUBCUBETA;
+    static final int NUMERO_CUBETAS = (Long.SIZE - BITS_SUBCUBETA) * SUBCUBETAS;
+
+    private final AtomicLongArray cubetas = new AtomicLongArray(NUMERO_CUBETAS);
+    private final LongAdder cuenta = new LongAdder();
+    private final LongAdder suma = new LongAdder();
+    private final AtomicLong maximo = new AtomicLong();
+
+    /**
+     * Registra un valor. Los negativos se registran como 0.
+     *
+     * @param valor Valor a registrar.
+     */
+    void registrar(long valor) {
+        valor = Math.max(0, valor);
+        cubetas.getAndIncrement(cubeta(valor));
+        cuenta.increment();
+        suma.add(valor);
+        if (valor > maximo.get()) {
+            maximo.accumulateAndGet(valor, Math::max);
+        }
+    }
+
+    /**
+     * Copia el estado actual del histograma. Los valores registrados durante la copia
+     * pueden aparecer en unos contadores y no en otros.
+     *
+     * @return Distribución de los valores registrados hasta ahora.
+     */
+    Distribucion distribucion() {
+        long[] copia = new long[NUMERO_CUBETAS];
+        for (int i = 0; i < NUMERO_CUBETAS; i++) {
+            copia[i] = cubetas.get(i);
+        }
+        return new Distribucion(copia, cuenta.sum(), suma.sum(), maximo.get());
+    }
+
+    /**
+     * Cubeta en la que se cuenta un valor.
+     *
+     * @param valor Valor no negativo.
+     * @return Posición de la cubeta.
+     */
+    static int cubeta(long valor) {
+        if (valor < SUBCUBETAS) {
+            return (int) valor;
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(valor);
+        int mantisa = (int) (valor >>> (exponente - BITS_SUBCUBETA)) & (SUBCUBETAS - 1);
+        return (exponente - BITS_SUBCUBETA + 1) * SUBCUBETAS + mantisa;
+    }
+
+    /**
+     * Mayor valor que se cuenta en una cubeta.
+     *
+     * @param cubeta Posición de la cubeta.
+     * @return Límite superior de la cubeta.
+     */
+    static long limiteSuperior(int cubeta) {
+        if (cubeta < SUBCUBETAS) {
+            return cubeta;
+        }
+        int desplazamiento = cubeta / SUBCUBETAS - 1;
+        long inferior = (long) (SUBCUBETAS + cubeta % SUBCUBETAS) << desplazamiento;
+        return inferior + (1L << desplazamiento) - 1;
+    }
+}
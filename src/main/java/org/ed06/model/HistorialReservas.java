@@ -0,0 +1,96 @@
+package org.ed06.model;
+
+import java.util.Arrays;
+
+/**
+ * Historial de reservas de un cliente ordenado por fecha de inicio.
+ *
+ * <p>Guarda únicamente el día de inicio de cada reserva (días desde la época) en un array
+ * ordenado, de forma que contar las reservas posteriores a una fecha es una búsqueda
+ * binaria en O(log k), siendo k el número de reservas del cliente. Es seguro para varios
+ * hilos, ya que un mismo cliente puede reservar a la vez habitaciones distintas.</p>
+ *
+ * @author Patricia Cid González
+ */
+final class HistorialReservas {
+    private static final int CAPACIDAD_INICIAL = 4;
+    private static final int[] VACIO = new int[0]; // Muchos clientes no llegan a reservar
+
+    private int[] inicios = VACIO;
+    private int tamanio;
+
+    /**
+     * Añade una reserva al historial manteniendo el orden por fecha.
+     *
+     * @param inicio Día de inicio de la reserva (día desde la época).
+     */
+    synchronized void registrar(int inicio) {
+        int posicion = primeraPosterior(inicio);
+        if (tamanio == inicios.length) {
+            inicios = Arrays.copyOf(inicios, Math.max(CAPACIDAD_INICIAL, tamanio * 2));
+        }
+        System.arraycopy(inicios, posicion, inicios, posicion + 1, tamanio - posicion);
+        inicios[posicion] = inicio;
+        tamanio++;
+    }
+
+    /**
+     * Quita del historial una reserva que empieza el día indicado.
+     *
+     * @param inicio Día de inicio de la reserva (día desde la época).
+     */
+    synchronized void eliminar(int inicio) {
+        int posicion = primeraPosterior(inicio) - 1;
+        if (posicion >= 0 && inicios[posicion] == inicio) {
+            System.arraycopy(inicios, posicion + 1, inicios, posicion, tamanio - posicion - 1);
+            tamanio--;
+        }
+    }
+
+    /**
+     * Cuenta las reservas que empiezan estrictamente después del día indicado.
+     *
+     * @param dia Día de referencia (día desde la época).
+     * @return Número de reservas con inicio posterior a {@code dia}.
+     */
+    synchronized int contarPosterioresA(int dia) {
+        return tamanio - primeraPosterior(dia);
+    }
+
+    /**
+     * Devuelve el día de inicio de la reserva que ocupa una posición contando desde la
+     * más tardía.
+     *
+     * @param posicion Posición desde el final, empezando en 1 para la más tardía.
+     * @return Día de inicio (día desde la época) o {@link Integer#MIN_VALUE} si hay menos reservas.
+     */
+    synchronized int inicioDesdeElFinal(int posicion) {
+        return posicion <= tamanio ? inicios[tamanio - posicion] : Integer.MIN_VALUE;
+    }
+
+    /**
+     * Número total de reservas del historial.
+     *
+     * @return Número de reservas registradas.
+     */
+    synchronized int getTamanio() {
+        return tamanio;
+    }
+
+    /**
+     * Devuelve la primera posición cuyo inicio es estrictamente mayor que {@code dia}.
+     */
+    private int primeraPosterior(int dia) {
+        int bajo = 0;
+        int alto = tamanio;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (inicios[medio] <= dia) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+}
@@ -1,15 +1,54 @@
 package org.ed06.model;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 /**
  * Clase que representa un hotel con capacidad para gestionar habitaciones,
  * clientes y reservas. Permite registrar nuevas habitaciones y clientes,
  * realizar reservas y listar datos relevantes.
  *
- * <p>Utiliza estructuras de datos como {@link Map} y {@link List} para organizar
- * internamente los clientes, habitaciones y reservas, proporcionando una interfaz
- * simple para el manejo de estos elementos.</p>
+ * <p>Internamente guarda los clientes y las habitaciones en arrays indexados por su
+ * identificador, y las reservas de cada habitación por columnas de tipos primitivos; los
+ * objetos {@link Reserva} solo se crean al devolverlas. Así no hay claves envueltas ni
+ * nodos de mapa por cada elemento.</p>
+ *
+ * <p>La clase es segura para varios hilos. Las reservas se sincronizan con el monitor de
+ * cada habitación, de modo que reservas sobre habitaciones distintas avanzan en paralelo
+ * y una misma habitación nunca se reserva dos veces para la misma noche. Los
+ * identificadores de clientes y reservas se generan con contadores atómicos.</p>
+ *
+ * <p>Las operaciones no escriben por consola: notifican lo ocurrido a un
+ * {@link EventosHotel}, que por defecto ignora los eventos.</p>
+ *
+ * <p>El precio de cada reserva lo calcula un {@link MotorPrecios}, que por defecto aplica
+ * los descuentos para clientes VIP y estancias largas.</p>
+ *
+ * <p>La habitación de cada reserva la elige una {@link EstrategiaAsignacion}, que por
+ * defecto ocupa la primera libre; {@link #reoptimizar} reparte de nuevo las reservas
+ * futuras de un tipo para dejar juntas las noches libres.</p>
+ *
+ * <p>Las reservas se pueden cancelar o cambiar de fechas. Un índice por identificador de
+ * reserva indica su habitación, así que ninguna de las dos operaciones recorre el hotel;
+ * las reservas canceladas se marcan y se compactan cuando pasan de la mitad de las de su
+ * habitación.</p>
+ *
+ * <p>Las latencias y resultados de las operaciones se pueden medir con
+ * {@link MetricasHotel}; por defecto no se mide nada. Las consultas de disponibilidad y
+ * del estado VIP se pueden guardar en una {@link CacheHotel}; por defecto no se guardan.</p>
+ *
+ * <p>Las fechas se manejan internamente como días desde la época y solo se convierten a
+ * {@link LocalDate} al recibirlas o devolverlas. El día actual se toma de un {@link Clock}
+ * que se puede cambiar con {@link #setReloj} y se calcula una vez por día, no en cada
+ * operación.</p>
  *
  * @author Patricia Cid González
  */
@@ -19,10 +58,29 @@ public class Hotel {
     private final String direccion;
     private final String telefono;
 
-    private final Map<Integer,Cliente> clientes = new HashMap<>();
-    private final List<Habitacion> habitaciones = new ArrayList<>();
-    private final Map<Integer,List<Reserva>> reservasPorHabitacion = new HashMap<>();
+    private final RegistroPorId<Cliente> clientes = new RegistroPorId<>();
+    private final IndiceClaves<Cliente> clientesPorDni = new IndiceClaves<>(); // Las altas se serializan con su monitor
+    private final Map<String,Cliente> clientesPorEmail = new ConcurrentHashMap<>();
+    private final RegistroDenso<Habitacion> habitaciones = new RegistroDenso<>(); // Posición = número de habitación - 1
+    private final Map<String,RegistroDenso<Habitacion>> habitacionesPorTipo = new ConcurrentHashMap<>();
+    private final RegistroDenso<ReservasHabitacion> reservasPorHabitacion = new RegistroDenso<>(); // Como habitaciones; protegidas por el monitor de su habitación
+    private final UbicacionReservas ubicaciones = new UbicacionReservas(); // Habitación de cada reserva activa
+
+    private final AtomicInteger siguienteClienteId = new AtomicInteger(1);
+    private final AtomicInteger siguienteReservaId = new AtomicInteger(1);
 
+    private volatile EventosHotel eventos = EventosHotel.NINGUNO;
+    private volatile MotorPrecios precios;
+    private boolean preciosPredeterminados = true; // Protegido por el monitor de habitaciones
+    private volatile MetricasHotel metricas = MetricasHotel.DESACTIVADAS;
+    private volatile CacheHotel cache = CacheHotel.DESACTIVADA;
+    private volatile EstrategiaAsignacion estrategia = EstrategiaAsignacion.PRIMERA_LIBRE;
+    private volatile Clock reloj = Clock.systemDefaultZone();
+    private volatile Dia dia = Dia.calcular(reloj);
+
+    private static final int RESERVAS_VIP = 3; // Hay que superarlas en el último año para ser VIP
+
+    private static final int ERROR_RESERVA_NO_EXISTE = -5;
     private static final int ERROR_NO_HABITACIONES = -4;
     private static final int ERROR_CLIENTE_NO_EXISTE = -3;
     private static final int ERROR_FECHAS_INVALIDAS = -2;
@@ -39,32 +97,398 @@ public class Hotel {
         this.nombre = nombre;
         this.direccion = direccion;
         this.telefono = telefono;
+        this.precios = MotorPrecios.predeterminado(reloj);
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public String getDireccion() {
+        return direccion;
+    }
+
+    public String getTelefono() {
+        return telefono;
+    }
+
+    /**
+     * Número de habitaciones registradas. Las habitaciones se numeran de 1 a este valor.
+     *
+     * @return Número de habitaciones.
+     */
+    public int getNumeroHabitaciones() {
+        return habitaciones.size();
+    }
+
+    /**
+     * Devuelve una vista de solo lectura de los clientes registrados.
+     *
+     * @return Clientes del hotel.
+     */
+    public Collection<Cliente> getClientes() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<Cliente> iterator() {
+                return streamClientes().iterator();
+            }
+
+            @Override
+            public int size() {
+                return clientes.size();
+            }
+        };
+    }
+
+    /**
+     * Busca un cliente por su DNI sin recorrer el resto de clientes.
+     *
+     * @param dni DNI del cliente.
+     * @return Cliente con ese DNI o {@code null} si no existe o el DNI no es válido.
+     */
+    public Cliente getClientePorDni(String dni) {
+        return Cliente.esDniValido(dni) ? clientesPorDni.get(Cliente.claveDni(dni)) : null;
+    }
+
+    /**
+     * Busca un cliente por su email, sin distinguir mayúsculas de minúsculas y sin recorrer
+     * el resto de clientes.
+     *
+     * @param email Email del cliente.
+     * @return Cliente con ese email o {@code null} si no existe.
+     */
+    public Cliente getClientePorEmail(String email) {
+        return email == null ? null : clientesPorEmail.get(Cliente.claveEmail(email));
+    }
+
+    /**
+     * Devuelve una copia de las reservas de una habitación.
+     *
+     * @param numeroHabitacion Número de la habitación.
+     * @return Reservas de la habitación o una lista vacía si no existe.
+     */
+    public List<Reserva> getReservas(int numeroHabitacion) {
+        Habitacion habitacion = getHabitacion(numeroHabitacion);
+        if (habitacion == null) {
+            return List.of();
+        }
+        synchronized (habitacion) {
+            ReservasHabitacion reservas = reservasDe(habitacion);
+            List<Reserva> copia = new ArrayList<>(reservas.size());
+            for (int i = 0; i < reservas.size(); i++) {
+                if (reservas.isActiva(i)) {
+                    copia.add(reserva(habitacion, reservas, i));
+                }
+            }
+            return copia;
+        }
+    }
+
+    private ReservasHabitacion reservasDe(Habitacion habitacion) {
+        return reservasPorHabitacion.get(habitacion.getNumero() - 1);
+    }
+
+    /**
+     * Crea el objeto {@link Reserva} de una reserva guardada. Se llama con el monitor de la
+     * habitación tomado.
+     */
+    private Reserva reserva(Habitacion habitacion, ReservasHabitacion reservas, int posicion) {
+        return new Reserva(reservas.getId(posicion), habitacion, clientes.get(reservas.getClienteId(posicion)),
+            reservas.getInicio(posicion), reservas.getFin(posicion), reservas.getPrecio(posicion));
+    }
+
+    public Clock getReloj() {
+        return reloj;
     }
 
     /**
-     * Registra una nueva habitación en el hotel, añadiéndola a la lista de habitaciones.
+     * Establece el reloj del que se toma el día actual para el estado VIP y las reservas
+     * del último año. Sirve, por ejemplo, para fijar la fecha en una simulación. Si no se
+     * ha establecido otro motor de precios, el predeterminado se vuelve a crear con el
+     * horizonte centrado en el nuevo día.
+     *
+     * @param reloj Reloj del hotel.
+     */
+    public void setReloj(Clock reloj) {
+        this.reloj = Objects.requireNonNull(reloj);
+        this.dia = Dia.calcular(reloj);
+        synchronized (habitaciones) {
+            if (preciosPredeterminados) {
+                cambiarMotorPrecios(MotorPrecios.predeterminado(reloj), true);
+            }
+        }
+    }
+
+    /**
+     * Devuelve el día actual según el reloj del hotel. Solo se vuelve a calcular cuando el
+     * reloj sale del día guardado, así que normalmente no crea ningún objeto.
+     */
+    private Dia hoy() {
+        Dia dia = this.dia;
+        Clock reloj = this.reloj;
+        if (dia.reloj != reloj || !dia.contiene(reloj.millis())) {
+            dia = Dia.calcular(reloj);
+            this.dia = dia;
+        }
+        return dia;
+    }
+
+    /**
+     * Establece el receptor al que se notifican los eventos del hotel.
+     *
+     * @param eventos Receptor de eventos; {@link EventosHotel#NINGUNO} para ignorarlos.
+     */
+    public void setEventos(EventosHotel eventos) {
+        this.eventos = Objects.requireNonNull(eventos);
+    }
+
+    public MetricasHotel getMetricas() {
+        return metricas;
+    }
+
+    /**
+     * Establece dónde se registran las métricas de las operaciones del hotel.
+     *
+     * @param metricas Métricas; {@link MetricasHotel#DESACTIVADAS} para no medir nada.
+     */
+    public void setMetricas(MetricasHotel metricas) {
+        this.metricas = Objects.requireNonNull(metricas);
+    }
+
+    public CacheHotel getCache() {
+        return cache;
+    }
+
+    /**
+     * Establece dónde se guardan las consultas de disponibilidad y del estado VIP.
+     *
+     * @param cache Caché vacía; {@link CacheHotel#DESACTIVADA} para no guardar nada.
+     */
+    public void setCache(CacheHotel cache) {
+        this.cache = Objects.requireNonNull(cache);
+    }
+
+    public EstrategiaAsignacion getEstrategiaAsignacion() {
+        return estrategia;
+    }
+
+    /**
+     * Establece cómo se elige la habitación de las nuevas reservas.
+     *
+     * @param estrategia Estrategia de asignación; {@link EstrategiaAsignacion#PRIMERA_LIBRE}
+     *                   para ocupar la primera habitación libre.
+     */
+    public void setEstrategiaAsignacion(EstrategiaAsignacion estrategia) {
+        this.estrategia = Objects.requireNonNull(estrategia);
+    }
+
+    public MotorPrecios getMotorPrecios() {
+        return precios;
+    }
+
+    /**
+     * Establece el motor con el que se calcula el precio de las nuevas reservas. Las
+     * habitaciones y reservas existentes se le notifican para que pueda calcular la
+     * ocupación, así que conviene establecerlo antes de empezar a reservar.
+     *
+     * @param precios Motor de precios sin habitaciones ni reservas anotadas.
+     */
+    public void setMotorPrecios(MotorPrecios precios) {
+        cambiarMotorPrecios(Objects.requireNonNull(precios), false);
+    }
+
+    private void cambiarMotorPrecios(MotorPrecios precios, boolean predeterminado) {
+        synchronized (habitaciones) {
+            for (Habitacion habitacion : habitaciones) {
+                precios.habitacionRegistrada(habitacion.getTipo());
+                synchronized (habitacion) {
+                    ReservasHabitacion reservas = reservasDe(habitacion);
+                    for (int i = 0; i < reservas.size(); i++) {
+                        if (reservas.isActiva(i)) {
+                            precios.ocupar(habitacion.getTipo(), reservas.getInicio(i), reservas.getFin(i));
+                        }
+                    }
+                }
+            }
+            this.precios = precios;
+            this.preciosPredeterminados = predeterminado;
+        }
+        cache.vaciarCotizaciones();
+    }
+
+    /**
+     * Registra una nueva habitación en el hotel, añadiéndola a la lista de habitaciones
+     * y al índice de habitaciones por tipo.
      *
      * @param tipo       Tipo de habitación (por ejemplo, SIMPLE, DOBLE, SUITE).
      * @param precioBase Precio base de la habitación.
+     * @return Número asignado a la habitación.
      */
 
-    public void registrarHabitacion(String tipo, double precioBase) {
-        Habitacion habitacion = new Habitacion(habitaciones.size() + 1, tipo, precioBase);
-        habitaciones.add(habitacion);
-        reservasPorHabitacion.put(habitacion.getNumero(), new ArrayList<>());
+    public int registrarHabitacion(String tipo, double precioBase) {
+        Habitacion habitacion;
+        // El número se deriva de la posición, así que el alta completa se serializa
+        synchronized (habitaciones) {
+            habitacion = new Habitacion(habitaciones.size() + 1, tipo, precioBase);
+            eventos.anotarHabitacion(habitacion);
+            reservasPorHabitacion.anadir(new ReservasHabitacion());
+            habitacionesPorTipo.computeIfAbsent(tipo, t -> new RegistroDenso<>()).anadir(habitacion);
+            precios.habitacionRegistrada(tipo);
+            habitaciones.anadir(habitacion);
+            cache.invalidarCotizaciones(tipo);
+        }
+        eventos.habitacionRegistrada(habitacion);
+        return habitacion.getNumero();
     }
 
     /**
-     * Muestra por consola las habitaciones disponibles (no reservadas).
+     * Muestra por consola las habitaciones disponibles (sin reserva para la noche de hoy,
+     * según el reloj del hotel).
      */
     public void listarHabitacionesDisponibles() {
+        int hoy = hoy().hoy;
         for(Habitacion habitacion : habitaciones) {
-            if(habitacion.isDisponible()) {
+            if(habitacion.estaLibre(hoy, hoy + 1)) {
                 System.out.println("Habitación #" + habitacion.getNumero() + " - Tipo: " + habitacion.getTipo() + " - Precio base: " + habitacion.getPrecioBase());
             }
         }
     }
 
+    /**
+     * Consulta cuántas habitaciones de un tipo están libres entre dos fechas y cuánto
+     * costaría la estancia, sin reservar nada ni notificar ningún evento. No toma ningún
+     * cerrojo: lee la versión de la ocupación de cada habitación vigente en ese momento,
+     * así que se puede llamar desde muchos hilos a la vez sin frenar las reservas. Si hay
+     * una {@link CacheHotel}, la respuesta se guarda hasta que cambien las reservas del tipo
+     * en esas fechas.
+     *
+     * @param tipo         Tipo de habitación.
+     * @param fechaEntrada Fecha de entrada.
+     * @param fechaSalida  Fecha de salida.
+     * @param vip          Indica si el precio se calcula para un cliente VIP.
+     * @return Disponibilidad del tipo; sin habitaciones libres si el tipo no existe.
+     * @throws IllegalArgumentException si la fecha de entrada no es anterior a la de salida
+     */
+    public Disponibilidad consultarDisponibilidad(String tipo, LocalDate fechaEntrada, LocalDate fechaSalida,
+                                                  boolean vip) {
+        validarPeriodo(fechaEntrada, fechaSalida);
+        MetricasHotel metricas = this.metricas;
+        long inicioOperacion = metricas.iniciar();
+        String clave = tipo.toUpperCase();
+        Disponibilidad disponibilidad = disponibilidadGuardada(clave, habitacionesPorTipo.get(clave),
+            (int) fechaEntrada.toEpochDay(), (int) fechaSalida.toEpochDay(), vip);
+        metricas.terminar(MetricasHotel.Operacion.CONSULTAR_DISPONIBILIDAD, inicioOperacion);
+        return disponibilidad;
+    }
+
+    /**
+     * Busca los tipos de habitación con alguna habitación libre entre dos fechas, con las
+     * mismas garantías que {@link #consultarDisponibilidad}.
+     *
+     * @param fechaEntrada Fecha de entrada.
+     * @param fechaSalida  Fecha de salida.
+     * @param vip          Indica si los precios se calculan para un cliente VIP.
+     * @return Tipos disponibles ordenados de menor a mayor precio.
+     * @throws IllegalArgumentException si la fecha de entrada no es anterior a la de salida
+     */
+    public List<Disponibilidad> buscarDisponibilidad(LocalDate fechaEntrada, LocalDate fechaSalida, boolean vip) {
+        validarPeriodo(fechaEntrada, fechaSalida);
+        MetricasHotel metricas = this.metricas;
+        long inicioOperacion = metricas.iniciar();
+        int inicio = (int) fechaEntrada.toEpochDay();
+        int fin = (int) fechaSalida.toEpochDay();
+        List<Disponibilidad> disponibles = new ArrayList<>();
+        habitacionesPorTipo.forEach((tipo, candidatas) -> {
+            // Las reservas buscan el tipo en mayúsculas, así que solo esos tipos se pueden reservar
+            if (tipo.equals(tipo.toUpperCase())) {
+                Disponibilidad disponibilidad = disponibilidadGuardada(tipo, candidatas, inicio, fin, vip);
+                if (disponibilidad.isDisponible()) {
+                    disponibles.add(disponibilidad);
+                }
+            }
+        });
+        disponibles.sort(Comparator.comparingDouble(Disponibilidad::getPrecio));
+        metricas.terminar(MetricasHotel.Operacion.BUSCAR_DISPONIBILIDAD, inicioOperacion);
+        return disponibles;
+    }
+
+    private Disponibilidad disponibilidadGuardada(String tipo, RegistroDenso<Habitacion> candidatas, int inicio,
+                                                  int fin, boolean vip) {
+        CacheHotel cache = this.cache;
+        Disponibilidad disponibilidad = cache.cotizacion(tipo, inicio, fin, vip);
+        if (disponibilidad == null) {
+            // La versión se lee antes de calcular para no guardar lo que cambie mientras tanto
+            long version = cache.versionCotizaciones(tipo);
+            disponibilidad = disponibilidad(tipo, candidatas, inicio, fin, vip);
+            cache.guardarCotizacion(tipo, version, inicio, fin, vip, disponibilidad);
+        }
+        return disponibilidad;
+    }
+
+    private Disponibilidad disponibilidad(String tipo, RegistroDenso<Habitacion> candidatas, int inicio, int fin,
+                                          boolean vip) {
+        int libres = 0;
+        Habitacion masBarata = null;
+        if (candidatas != null) {
+            for (Habitacion habitacion : candidatas) {
+                if (habitacion.estaLibre(inicio, fin)) {
+                    libres++;
+                    if (masBarata == null || habitacion.getPrecioBase() < masBarata.getPrecioBase()) {
+                        masBarata = habitacion;
+                    }
+                }
+            }
+        }
+        double precio = masBarata == null ? 0
+            : precios.cotizar(masBarata.getTipo(), masBarata.getPrecioBase(), vip, inicio, fin);
+        return new Disponibilidad(tipo, libres, precio);
+    }
+
+    /**
+     * Calcula la ocupación, la tarifa media diaria y los ingresos por habitación disponible
+     * entre dos fechas, por tipo de habitación y por día. Las habitaciones se reparten entre
+     * los hilos del {@link java.util.concurrent.ForkJoinPool} común; cada uno acumula las
+     * reservas de sus habitaciones en series propias que al final se suman.
+     *
+     * @param desde Primer día del periodo.
+     * @param hasta Día siguiente al último día del periodo.
+     * @return Informe del periodo.
+     * @throws IllegalArgumentException si la fecha de inicio no es anterior a la de fin
+     */
+    public InformeOcupacion analizarOcupacion(LocalDate desde, LocalDate hasta) {
+        validarPeriodo(desde, hasta);
+        MetricasHotel metricas = this.metricas;
+        long inicioOperacion = metricas.iniciar();
+        int primerDia = (int) desde.toEpochDay();
+        int dias = (int) (hasta.toEpochDay() - primerDia);
+        Map<String,SerieOcupacion> series = IntStream.rangeClosed(1, habitaciones.size()).parallel()
+            .mapToObj(this::getHabitacion)
+            .collect(HashMap::new,
+                (acumuladas, habitacion) -> anotarOcupacion(acumuladas, habitacion, primerDia, dias),
+                (acumuladas, otras) -> otras.forEach((tipo, serie) -> acumuladas.merge(tipo, serie, SerieOcupacion::combinar)));
+        metricas.terminar(MetricasHotel.Operacion.ANALIZAR_OCUPACION, inicioOperacion);
+        return new InformeOcupacion(desde, dias, series);
+    }
+
+    private void anotarOcupacion(Map<String,SerieOcupacion> series, Habitacion habitacion, int primerDia, int dias) {
+        SerieOcupacion serie = series.computeIfAbsent(habitacion.getTipo(), t -> new SerieOcupacion(primerDia, dias));
+        serie.habitaciones++;
+        synchronized (habitacion) {
+            ReservasHabitacion reservas = reservasDe(habitacion);
+            for (int i = 0; i < reservas.size(); i++) {
+                if (reservas.isActiva(i)) {
+                    serie.anotar(reservas.getInicio(i), reservas.getFin(i), reservas.getPrecio(i));
+                }
+            }
+        }
+    }
+
+    private static void validarPeriodo(LocalDate fechaEntrada, LocalDate fechaSalida) {
+        if (!fechaEntrada.isBefore(fechaSalida)) {
+            throw new IllegalArgumentException("La fecha de entrada debe ser anterior a la de salida");
+        }
+    }
+
     /**
      * Devuelve una habitación a partir de su número.
      *
@@ -72,18 +496,14 @@ public class Hotel {
      * @return La habitación correspondiente o {@code null} si no se encuentra.
      */
     public Habitacion getHabitacion(int numero) {
-        for(Habitacion habitacion : habitaciones) {
-            if(habitacion.getNumero() == numero) {
-                return habitacion;
-            }
-        }
-        return null;
+        // Los números se asignan de forma consecutiva desde 1, así que el número indica la posición
+        return habitaciones.get(numero - 1);
     }
 
     /**
-     * Realiza una reserva para un cliente, si hay habitaciones del tipo solicitado disponibles
-     * y las fechas son válidas. Si todo es correcto, realiza la reserva y marca la habitación
-     * como ocupada.
+     * Realiza una reserva para un cliente, si hay habitaciones del tipo solicitado libres
+     * entre las fechas indicadas y las fechas son válidas. Si todo es correcto, realiza la
+     * reserva y marca la habitación como ocupada durante ese periodo.
      *
      * @param clienteId    ID del cliente que desea reservar.
      * @param tipo         Tipo de habitación deseado.
@@ -98,31 +518,719 @@ public class Hotel {
      * </ul>
      */
     public int reservarHabitacion(int clienteId, String tipo, LocalDate fechaEntrada, LocalDate fechaSalida) {
+        return (int) reservarMidiendo(clienteId, tipo, fechaEntrada, fechaSalida);
+    }
 
+    /**
+     * Realiza una reserva como {@link #reservarHabitacion}, pero devuelve también el
+     * identificador de la reserva, por ejemplo para poder cancelarla o modificarla después.
+     *
+     * @param clienteId    ID del cliente que desea reservar.
+     * @param tipo         Tipo de habitación deseado.
+     * @param fechaEntrada Fecha de entrada.
+     * @param fechaSalida  Fecha de salida.
+     * @return Habitación e identificador de la reserva, o el mismo código de error que
+     * devolvería {@link #reservarHabitacion}.
+     */
+    public ResultadoReserva realizarReserva(int clienteId, String tipo, LocalDate fechaEntrada, LocalDate fechaSalida) {
+        long resultado = reservarMidiendo(clienteId, tipo, fechaEntrada, fechaSalida);
+        return new ResultadoReserva((int) resultado, resultado > 0 ? (int) (resultado >>> 32) : 0);
+    }
+
+    private long reservarMidiendo(int clienteId, String tipo, LocalDate fechaEntrada, LocalDate fechaSalida) {
+        MetricasHotel metricas = this.metricas;
+        long inicioOperacion = metricas.iniciar();
+        long resultado = reservar(clienteId, tipo, fechaEntrada, fechaSalida);
+        metricas.resultadoReserva((int) resultado);
+        metricas.terminar(MetricasHotel.Operacion.RESERVAR, inicioOperacion);
+        return resultado;
+    }
+
+    /**
+     * Realiza una reserva suelta.
+     *
+     * @return Identificador de la reserva en los 32 bits altos y número de habitación en los
+     * bajos, o el código de error (negativo) si falla.
+     */
+    private long reservar(int clienteId, String tipo, LocalDate fechaEntrada, LocalDate fechaSalida) {
         if(!hayHabitaciones())  return ERROR_NO_HABITACIONES;
 
         Cliente cliente = getCliente(clienteId);
         if (cliente == null) return ERROR_CLIENTE_NO_EXISTE;
 
         if (!fechaEntrada.isBefore(fechaSalida)) {
-            System.out.println("La fecha de entrada es posterior a la fecha de salida");
+            eventos.fechasInvalidas(fechaEntrada, fechaSalida);
             return ERROR_FECHAS_INVALIDAS;
         }
 
-        for(Habitacion habitacion : habitaciones) {
-            if(habitacion.getTipo().equals(tipo.toUpperCase()) && habitacion.isDisponible()) {
-                esVip(cliente);
-                Reserva reserva = new Reserva(reservasPorHabitacion.size() + 1, habitacion, cliente, fechaEntrada, fechaSalida);
-                reservasPorHabitacion.get(habitacion.getNumero()).add(reserva);
-                habitacion.reservar();
-                System.out.println("Reserva realizada con éxito");
-                return habitacion.getNumero();
+        RegistroDenso<Habitacion> candidatas = habitacionesPorTipo.get(tipo.toUpperCase());
+        return asignarHabitacion(candidatas, tipo, cliente, (int) fechaEntrada.toEpochDay(),
+            (int) fechaSalida.toEpochDay(), hoy().haceUnAnio);
+    }
+
+    /**
+     * Realiza un lote de reservas. Las solicitudes se agrupan por tipo de habitación y cada
+     * grupo se asigna en un solo barrido por orden de fecha de entrada: las habitaciones del
+     * tipo se bloquean una vez, como en {@link #reoptimizar}, y cada una se recorre con un
+     * cursor sobre sus estancias que solo avanza, así que no hace falta una búsqueda binaria
+     * por habitación y solicitud ni volver a elegir porque otro hilo se adelante. El cliente,
+     * el tipo y la fecha de referencia para el estado VIP se resuelven una sola vez por lote.
+     *
+     * <p>Como en {@link #reservarHabitacion}, cada reserva ocupa la habitación libre del
+     * tipo que elija la {@link EstrategiaAsignacion}; al procesarlas por orden de entrada se
+     * aprovechan mejor las habitaciones que quedan libres entre estancias. Mientras se
+     * barre un tipo, las reservas, cancelaciones y cambios de sus habitaciones esperan. Solo
+     * se notifican las reservas realizadas y los pasos a VIP, después de desbloquear las
+     * habitaciones; los errores se devuelven únicamente como código.</p>
+     *
+     * @param solicitudes Solicitudes de reserva.
+     * @return Para cada solicitud, en el mismo orden, el número de habitación reservada o el
+     * mismo código de error que devolvería {@link #reservarHabitacion}.
+     */
+    public int[] reservarLote(List<SolicitudReserva> solicitudes) {
+        MetricasHotel metricas = this.metricas;
+        long inicioOperacion = metricas.iniciar();
+        int[] resultados = reservarTodas(solicitudes);
+        for (int resultado : resultados) {
+            metricas.resultadoReserva(resultado);
+        }
+        metricas.terminar(MetricasHotel.Operacion.RESERVAR_LOTE, inicioOperacion);
+        return resultados;
+    }
+
+    private int[] reservarTodas(List<SolicitudReserva> solicitudes) {
+        int[] resultados = new int[solicitudes.size()];
+        if (habitaciones.isEmpty()) {
+            Arrays.fill(resultados, ERROR_NO_HABITACIONES);
+            return resultados;
+        }
+
+        Cliente[] clientesLote = new Cliente[resultados.length];
+        int[] inicios = new int[resultados.length];
+        int[] fines = new int[resultados.length];
+        Map<String,List<Integer>> posicionesPorTipo = new HashMap<>();
+        Map<String,String> tiposNormalizados = new HashMap<>();
+        for (int i = 0; i < resultados.length; i++) {
+            SolicitudReserva solicitud = solicitudes.get(i);
+            clientesLote[i] = clientes.get(solicitud.getClienteId());
+            inicios[i] = (int) solicitud.getFechaEntrada().toEpochDay();
+            fines[i] = (int) solicitud.getFechaSalida().toEpochDay();
+            if (clientesLote[i] == null) {
+                resultados[i] = ERROR_CLIENTE_NO_EXISTE;
+            } else if (inicios[i] >= fines[i]) {
+                resultados[i] = ERROR_FECHAS_INVALIDAS;
+            } else {
+                String tipo = tiposNormalizados.computeIfAbsent(solicitud.getTipo(), String::toUpperCase);
+                posicionesPorTipo.computeIfAbsent(tipo, t -> new ArrayList<>()).add(i);
+            }
+        }
+
+        int haceUnAnio = hoy().haceUnAnio;
+        Comparator<Integer> porEntrada = Comparator.comparingInt(i -> inicios[i]);
+        posicionesPorTipo.forEach((tipo, posiciones) -> {
+            RegistroDenso<Habitacion> candidatas = habitacionesPorTipo.get(tipo);
+            if (candidatas == null) {
+                for (int i : posiciones) {
+                    resultados[i] = ERROR_TIPO_NO_DISPONIBLE;
+                }
+                return;
+            }
+            posiciones.sort(porEntrada);
+            barrer(candidatas.stream().toArray(Habitacion[]::new), posiciones, clientesLote, inicios, fines,
+                haceUnAnio, resultados);
+        });
+        return resultados;
+    }
+
+    /**
+     * Asigna en un solo barrido las solicitudes de un tipo, ya ordenadas por entrada, a sus
+     * habitaciones. Con las habitaciones bloqueadas solo este barrido cambia su ocupación,
+     * así que basta la versión de cada una al empezar más la última estancia que le ha
+     * asignado el propio lote, que es la que sale más tarde porque se asignan por entrada.
+     */
+    private void barrer(Habitacion[] salas, List<Integer> posiciones, Cliente[] clientesLote, int[] inicios,
+                        int[] fines, int haceUnAnio, int[] resultados) {
+        MetricasHotel metricas = this.metricas;
+        EstrategiaAsignacion estrategia = this.estrategia;
+        Ocupacion.Recorrido[] recorridos = new Ocupacion.Recorrido[salas.length];
+        int[] finLote = new int[salas.length];
+        Arrays.fill(finLote, Integer.MIN_VALUE);
+        Reserva[] realizadas = new Reserva[posiciones.size()];
+        int[] cambiosVip = new int[posiciones.size()];
+        int bloqueadas = 0;
+        try {
+            // Por orden de número, igual que las reoptimizaciones
+            for (; bloqueadas < salas.length; bloqueadas++) {
+                bloquear(salas[bloqueadas]);
+            }
+            int primerDia = inicios[posiciones.get(0)];
+            for (int h = 0; h < salas.length; h++) {
+                recorridos[h] = salas[h].recorrerOcupacion(primerDia);
             }
+            for (int j = 0; j < posiciones.size(); j++) {
+                int i = posiciones.get(j);
+                int inicio = inicios[i];
+                int fin = fines[i];
+                int elegida = -1;
+                long mejor = Long.MAX_VALUE;
+                int recorridas = 0;
+                for (int h = 0; h < salas.length; h++) {
+                    recorridas++;
+                    Ocupacion.Recorrido recorrido = recorridos[h];
+                    recorrido.avanzar(inicio);
+                    int anterior = Math.max(recorrido.finAnterior(), finLote[h]);
+                    int siguiente = recorrido.inicioSiguiente();
+                    if (anterior > inicio || siguiente < fin) {
+                        continue;
+                    }
+                    int antes = anterior == Integer.MIN_VALUE ? EstrategiaAsignacion.SIN_LIMITE : inicio - anterior;
+                    int despues = siguiente == Integer.MAX_VALUE ? EstrategiaAsignacion.SIN_LIMITE : siguiente - fin;
+                    long puntuacion = estrategia.puntuar(salas[h], antes, despues);
+                    if (elegida < 0 || puntuacion < mejor) {
+                        elegida = h;
+                        mejor = puntuacion;
+                        if (puntuacion <= 0) {
+                            break;
+                        }
+                    }
+                }
+                metricas.habitacionesRecorridas(recorridas);
+                if (elegida < 0) {
+                    resultados[i] = ERROR_TIPO_NO_DISPONIBLE;
+                    continue;
+                }
+                Habitacion habitacion = salas[elegida];
+                synchronized (habitacion) {
+                    if (!habitacion.ocupar(inicio, fin)) {
+                        // No puede pasar: nadie más cambia la ocupación de una habitación bloqueada
+                        throw new IllegalStateException("Estancia solapada al reservar en lote la habitación #"
+                            + habitacion.getNumero());
+                    }
+                    cambiosVip[j] = esVip(clientesLote[i], haceUnAnio);
+                    realizadas[j] = registrarEstancia(habitacion, clientesLote[i], inicio, fin);
+                }
+                finLote[elegida] = fin;
+                resultados[i] = habitacion.getNumero();
+            }
+        } finally {
+            for (int h = 0; h < bloqueadas; h++) {
+                desbloquear(salas[h]);
+            }
+        }
+        for (int j = 0; j < realizadas.length; j++) {
+            Reserva reserva = realizadas[j];
+            if (reserva != null) {
+                notificarCambioVip(reserva.getCliente(), cambiosVip[j]);
+                reservasCambiadas(reserva.getHabitacion(), reserva.getCliente(), reserva.getDiaInicio(),
+                    reserva.getDiaFin());
+                eventos.reservaRealizada(reserva);
+            }
+        }
+    }
+
+    /**
+     * Reserva para el cliente la habitación de las candidatas libres entre las fechas
+     * indicadas que elija la estrategia de asignación. Las candidatas se puntúan sin tomar
+     * ningún cerrojo; si otro hilo ocupa la elegida antes de reservarla, se vuelve a elegir.
+     *
+     * @param candidatas   Habitaciones del tipo solicitado o {@code null} si no hay ninguna.
+     * @param tipo         Tipo solicitado para notificar que no hay habitaciones libres, o
+     *                     {@code null} para no notificarlo.
+     * @param cliente      Cliente que reserva.
+     * @param inicio       Día de entrada desde la época.
+     * @param fin          Día de salida desde la época.
+     * @param haceUnAnio   Día (desde la época) a partir del cual se cuentan las reservas para el estado VIP.
+     * @return Identificador de la reserva en los 32 bits altos y número de habitación en los
+     * bajos, o {@code -1} si no hay ninguna libre.
+     */
+    private long asignarHabitacion(RegistroDenso<Habitacion> candidatas, String tipo, Cliente cliente,
+                                  int inicio, int fin, int haceUnAnio) {
+        if (candidatas == null) {
+            return tipoNoDisponible(tipo);
+        }
+        MetricasHotel metricas = this.metricas;
+        EstrategiaAsignacion estrategia = this.estrategia;
+        int recorridas = 0;
+        while (true) {
+            Habitacion habitacion = null;
+            long mejor = Long.MAX_VALUE;
+            for (Habitacion candidata : candidatas) {
+                recorridas++;
+                long hueco = candidata.hueco(inicio, fin);
+                if (hueco < 0) {
+                    continue;
+                }
+                long puntuacion = estrategia.puntuar(candidata, (int) (hueco >>> 32), (int) hueco);
+                if (habitacion == null || puntuacion < mejor) {
+                    habitacion = candidata;
+                    mejor = puntuacion;
+                    if (puntuacion <= 0) {
+                        break;
+                    }
+                }
+            }
+            if (habitacion == null) {
+                metricas.habitacionesRecorridas(recorridas);
+                return tipoNoDisponible(tipo);
+            }
+            Reserva reserva;
+            int cambioVip;
+            synchronized (habitacion) {
+                esperarReoptimizacion(habitacion);
+                // Comprueba y ocupa en un solo paso con el monitor de la habitación tomado
+                if(!habitacion.ocupar(inicio, fin)) {
+                    continue;
+                }
+                cambioVip = esVip(cliente, haceUnAnio);
+                reserva = registrarEstancia(habitacion, cliente, inicio, fin);
+            }
+            notificarCambioVip(cliente, cambioVip);
+            reservasCambiadas(habitacion, cliente, inicio, fin);
+            metricas.habitacionesRecorridas(recorridas);
+            eventos.reservaRealizada(reserva);
+            return (long) reserva.getId() << 32 | habitacion.getNumero();
+        }
+    }
+
+    /**
+     * Crea y anota la reserva de una estancia que se acaba de ocupar en la habitación y la
+     * añade a los índices. Se llama con el monitor de la habitación tomado; si no se puede
+     * crear la reserva, deja la estancia libre de nuevo.
+     */
+    private Reserva registrarEstancia(Habitacion habitacion, Cliente cliente, int inicio, int fin) {
+        MetricasHotel metricas = this.metricas;
+        Reserva reserva;
+        try {
+            long inicioPrecio = metricas.iniciar();
+            double precio = precios.cotizar(habitacion.getTipo(), habitacion.getPrecioBase(), cliente.esVip,
+                inicio, fin);
+            metricas.terminar(MetricasHotel.Operacion.CALCULAR_PRECIO, inicioPrecio);
+            reserva = new Reserva(siguienteReservaId.getAndIncrement(), habitacion, cliente, inicio, fin, precio);
+            eventos.anotarReserva(reserva);
+        } catch (RuntimeException e) {
+            habitacion.liberar(inicio, fin);
+            throw e;
+        }
+        precios.ocupar(habitacion.getTipo(), inicio, fin);
+        reservasDe(habitacion).anadir(reserva.getId(), cliente.id, inicio, fin, reserva.getPrecioTotal());
+        ubicaciones.poner(reserva.getId(), habitacion.getNumero());
+        cliente.historial.registrar(inicio);
+        return reserva;
+    }
+
+    /**
+     * Espera a que una reoptimización deje de bloquear la habitación. Se llama con su monitor
+     * tomado antes de cambiar sus reservas; si el hilo se interrumpe, sigue esperando y
+     * conserva el estado de interrupción.
+     */
+    private void esperarReoptimizacion(Habitacion habitacion) {
+        boolean interrumpido = false;
+        while (reservasDe(habitacion).bloqueada) {
+            try {
+                habitacion.wait();
+            } catch (InterruptedException e) {
+                interrumpido = true;
+            }
+        }
+        if (interrumpido) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Descarta de la caché lo que depende de una estancia que se acaba de ocupar o liberar.
+     */
+    private void reservasCambiadas(Habitacion habitacion, Cliente cliente, int inicio, int fin) {
+        CacheHotel cache = this.cache;
+        cache.invalidarCotizaciones(habitacion.getTipo(), inicio, fin);
+        cache.invalidarVip(cliente.id);
+    }
+
+    private int tipoNoDisponible(String tipo) {
+        if (tipo != null) {
+            eventos.tipoNoDisponible(tipo);
         }
-        System.out.println("No hay habitaciones disponibles del tipo " + tipo);
         return ERROR_TIPO_NO_DISPONIBLE;
     }
 
+    /**
+     * Cancela una reserva y deja libre su habitación para esas noches. El historial del
+     * cliente deja de contarla para el estado VIP, aunque un cliente que ya es VIP lo sigue
+     * siendo. Localizar la reserva y actualizar los índices cuesta O(log n) búsquedas; solo
+     * la copia de la ocupación de la habitación es lineal en sus estancias.
+     *
+     * @param reservaId Identificador de la reserva.
+     * @return {@code true} si se ha cancelado, {@code false} si no existe o ya estaba cancelada.
+     */
+    public boolean cancelarReserva(int reservaId) {
+        MetricasHotel metricas = this.metricas;
+        long inicioOperacion = metricas.iniciar();
+        Reserva cancelada = null;
+        Habitacion habitacion;
+        while ((habitacion = getHabitacion(ubicaciones.get(reservaId))) != null) {
+            synchronized (habitacion) {
+                esperarReoptimizacion(habitacion);
+                ReservasHabitacion reservas = reservasDe(habitacion);
+                int posicion = reservas.buscar(reservaId);
+                if (posicion < 0) {
+                    continue; // La ha movido una reoptimización o la ha cancelado otro hilo
+                }
+                cancelada = reserva(habitacion, reservas, posicion);
+                eventos.anotarCancelacion(cancelada);
+                int inicio = reservas.getInicio(posicion);
+                int fin = reservas.getFin(posicion);
+                habitacion.liberar(inicio, fin);
+                precios.liberar(habitacion.getTipo(), inicio, fin);
+                cancelada.getCliente().historial.eliminar(inicio);
+                reservas.cancelar(posicion);
+                ubicaciones.poner(reservaId, 0);
+                reservasCambiadas(habitacion, cancelada.getCliente(), inicio, fin);
+            }
+            break;
+        }
+        if (cancelada != null) {
+            eventos.reservaCancelada(cancelada);
+        }
+        metricas.terminar(MetricasHotel.Operacion.CANCELAR, inicioOperacion);
+        return cancelada != null;
+    }
+
+    /**
+     * Cambia las fechas de una reserva sin cambiarla de habitación y recalcula su precio con
+     * el estado VIP actual del cliente. Si la habitación no está libre en las nuevas fechas,
+     * sin contar la propia reserva, la reserva no cambia.
+     *
+     * @param reservaId    Identificador de la reserva.
+     * @param fechaEntrada Nueva fecha de entrada.
+     * @param fechaSalida  Nueva fecha de salida.
+     * @return Número de la habitación reservada o un código de error si falla:
+     * <ul>
+     *     <li>-1: La habitación no está libre en las nuevas fechas.</li>
+     *     <li>-2: Las fechas no son válidas.</li>
+     *     <li>-5: La reserva no existe o está cancelada.</li>
+     * </ul>
+     */
+    public int modificarReserva(int reservaId, LocalDate fechaEntrada, LocalDate fechaSalida) {
+        MetricasHotel metricas = this.metricas;
+        long inicioOperacion = metricas.iniciar();
+        int resultado = modificar(reservaId, fechaEntrada, fechaSalida);
+        metricas.terminar(MetricasHotel.Operacion.MODIFICAR, inicioOperacion);
+        return resultado;
+    }
+
+    private int modificar(int reservaId, LocalDate fechaEntrada, LocalDate fechaSalida) {
+        if (!fechaEntrada.isBefore(fechaSalida)) {
+            eventos.fechasInvalidas(fechaEntrada, fechaSalida);
+            return ERROR_FECHAS_INVALIDAS;
+        }
+        int inicio = (int) fechaEntrada.toEpochDay();
+        int fin = (int) fechaSalida.toEpochDay();
+        Habitacion habitacion;
+        while ((habitacion = getHabitacion(ubicaciones.get(reservaId))) != null) {
+            Reserva anterior;
+            Reserva nueva;
+            synchronized (habitacion) {
+                esperarReoptimizacion(habitacion);
+                ReservasHabitacion reservas = reservasDe(habitacion);
+                int posicion = reservas.buscar(reservaId);
+                if (posicion < 0) {
+                    continue; // La ha movido una reoptimización o la ha cancelado otro hilo
+                }
+                anterior = reserva(habitacion, reservas, posicion);
+                int inicioAnterior = reservas.getInicio(posicion);
+                int finAnterior = reservas.getFin(posicion);
+                habitacion.liberar(inicioAnterior, finAnterior);
+                if (!habitacion.ocupar(inicio, fin)) {
+                    habitacion.ocupar(inicioAnterior, finAnterior);
+                    return ERROR_TIPO_NO_DISPONIBLE;
+                }
+                Cliente cliente = anterior.getCliente();
+                try {
+                    double precio = precios.cotizar(habitacion.getTipo(), habitacion.getPrecioBase(), cliente.esVip,
+                        inicio, fin);
+                    nueva = new Reserva(reservaId, habitacion, cliente, inicio, fin, precio);
+                    eventos.anotarModificacion(anterior, nueva);
+                } catch (RuntimeException e) {
+                    habitacion.liberar(inicio, fin);
+                    habitacion.ocupar(inicioAnterior, finAnterior);
+                    throw e;
+                }
+                precios.liberar(habitacion.getTipo(), inicioAnterior, finAnterior);
+                precios.ocupar(habitacion.getTipo(), inicio, fin);
+                cliente.historial.eliminar(inicioAnterior);
+                cliente.historial.registrar(inicio);
+                reservas.modificar(posicion, inicio, fin, nueva.getPrecioTotal());
+                reservasCambiadas(habitacion, cliente, inicioAnterior, finAnterior);
+                reservasCambiadas(habitacion, cliente, inicio, fin);
+            }
+            eventos.reservaModificada(anterior, nueva);
+            return habitacion.getNumero();
+        }
+        return ERROR_RESERVA_NO_EXISTE;
+    }
+
+    /**
+     * Reparte de nuevo entre las habitaciones de un tipo las reservas que empiezan a partir
+     * de una fecha, sin límite de tiempo. Ver {@link #reoptimizar(String, LocalDate, Duration)}.
+     *
+     * @param tipo  Tipo de habitación.
+     * @param desde Fecha a partir de la cual empiezan las reservas que se pueden mover.
+     * @return Resultado de la reoptimización.
+     */
+    public ResultadoReoptimizacion reoptimizar(String tipo, LocalDate desde) {
+        return reoptimizar(tipo, desde, Long.MAX_VALUE);
+    }
+
+    /**
+     * Reparte de nuevo entre las habitaciones de un tipo las reservas que empiezan a partir
+     * de una fecha para que las estancias queden juntas y las noches libres, seguidas. Las
+     * reservas se recorren por fecha de entrada y cada una ocupa la habitación que se quedó
+     * libre más tarde sin solaparse con ella (el mejor ajuste por la izquierda). Así nunca
+     * hacen falta más habitaciones de las que hay, de modo que toda reserva conserva
+     * habitación, y las que quedan vacías siguen vacías. Con n reservas y m habitaciones
+     * cuesta O(n log m). Las reservas anteriores a la fecha no se mueven, y ninguna cambia
+     * de fechas, cliente ni precio.
+     *
+     * <p>Mientras se ejecuta, las habitaciones del tipo quedan bloqueadas: se bloquean por
+     * orden de número y las reservas, cancelaciones y cambios que les afecten esperan a que
+     * termine, así que la nueva asignación se calcula y se aplica sobre las mismas reservas y
+     * nadie ve una asignación a medias. Las consultas no esperan. Si se agota el tiempo antes
+     * de terminar el cálculo no se cambia nada. Si alguna reserva cambia de habitación se
+     * notifica {@link EventosHotel#reservasReoptimizadas}; el resultado solo depende de las
+     * reservas, así que repetirla con los mismos datos da la misma asignación.</p>
+     *
+     * @param tipo   Tipo de habitación.
+     * @param desde  Fecha a partir de la cual empiezan las reservas que se pueden mover.
+     * @param limite Tiempo máximo para calcular la nueva asignación.
+     * @return Resultado de la reoptimización; sin cambios si el tipo no existe.
+     */
+    public ResultadoReoptimizacion reoptimizar(String tipo, LocalDate desde, Duration limite) {
+        return reoptimizar(tipo, desde, limite.toNanos());
+    }
+
+    private ResultadoReoptimizacion reoptimizar(String tipo, LocalDate desde, long limiteNanos) {
+        long comienzo = System.nanoTime();
+        String clave = tipo.toUpperCase();
+        RegistroDenso<Habitacion> candidatas = habitacionesPorTipo.get(clave);
+        if (candidatas == null) {
+            return new ResultadoReoptimizacion(true, 0, 0, 0);
+        }
+        Habitacion[] salas = candidatas.stream().toArray(Habitacion[]::new);
+        ResultadoReoptimizacion resultado;
+        int bloqueadas = 0;
+        try {
+            // Siempre por orden de número, así que dos reoptimizaciones del mismo tipo no se esperan en círculo
+            for (; bloqueadas < salas.length; bloqueadas++) {
+                bloquear(salas[bloqueadas]);
+            }
+            resultado = reoptimizar(clave, (int) desde.toEpochDay(), salas, comienzo, limiteNanos);
+        } finally {
+            for (int h = 0; h < bloqueadas; h++) {
+                desbloquear(salas[h]);
+            }
+        }
+        if (resultado.getMovidas() > 0) {
+            eventos.reservasReoptimizadas(clave, desde);
+        }
+        return resultado;
+    }
+
+    private void bloquear(Habitacion habitacion) {
+        synchronized (habitacion) {
+            esperarReoptimizacion(habitacion);
+            reservasDe(habitacion).bloqueada = true;
+        }
+    }
+
+    private void desbloquear(Habitacion habitacion) {
+        synchronized (habitacion) {
+            reservasDe(habitacion).bloqueada = false;
+            habitacion.notifyAll();
+        }
+    }
+
+    /**
+     * Ejecuta una acción sin que cambie el estado del hotel mientras dura: bloquea todas las
+     * habitaciones, como {@link #reoptimizar} las de un tipo, y no deja registrar
+     * habitaciones ni clientes. Sirve para copiar un estado coherente, por ejemplo para una
+     * instantánea. Las reservas, cancelaciones y cambios esperan a que termine, así que la
+     * acción debe ser breve; las consultas se siguen atendiendo.
+     *
+     * @param accion Acción a ejecutar.
+     * @param <T>    Tipo del resultado de la acción.
+     * @return Resultado de la acción.
+     */
+    public <T> T congelar(Supplier<T> accion) {
+        synchronized (habitaciones) {
+            synchronized (clientesPorDni) {
+                int bloqueadas = 0;
+                try {
+                    // Por orden de número, igual que las reoptimizaciones
+                    for (; bloqueadas < habitaciones.size(); bloqueadas++) {
+                        bloquear(habitaciones.get(bloqueadas));
+                    }
+                    return accion.get();
+                } finally {
+                    for (int h = 0; h < bloqueadas; h++) {
+                        desbloquear(habitaciones.get(h));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Calcula y aplica la nueva asignación de las reservas de unas habitaciones bloqueadas.
+     */
+    private ResultadoReoptimizacion reoptimizar(String clave, int dia, Habitacion[] salas, long comienzo,
+                                                long limiteNanos) {
+        // Foto de las reservas movibles y del día en que cada habitación queda libre de las fijas
+        int[] liberacion = new int[salas.length];
+        ReservasHabitacion[] copias = new ReservasHabitacion[salas.length];
+        int total = 0;
+        int huecosAntes = 0;
+        for (int h = 0; h < salas.length; h++) {
+            liberacion[h] = dia;
+            copias[h] = new ReservasHabitacion();
+            synchronized (salas[h]) {
+                huecosAntes += salas[h].contarHuecos(dia);
+                ReservasHabitacion reservas = reservasDe(salas[h]);
+                for (int i = 0; i < reservas.size(); i++) {
+                    if (!reservas.isActiva(i)) {
+                        continue;
+                    }
+                    if (reservas.getInicio(i) < dia) {
+                        liberacion[h] = Math.max(liberacion[h], reservas.getFin(i));
+                    } else {
+                        copias[h].anadir(reservas.getId(i), reservas.getClienteId(i), reservas.getInicio(i),
+                            reservas.getFin(i), reservas.getPrecio(i));
+                    }
+                }
+            }
+            total += copias[h].size();
+        }
+        int[] origen = new int[total];
+        int[] ids = new int[total];
+        int[] clientesMovidos = new int[total];
+        int[] inicios = new int[total];
+        int[] fines = new int[total];
+        double[] importes = new double[total];
+        for (int h = 0, k = 0; h < salas.length; h++) {
+            for (int i = 0; i < copias[h].size(); i++, k++) {
+                origen[k] = h;
+                ids[k] = copias[h].getId(i);
+                clientesMovidos[k] = copias[h].getClienteId(i);
+                inicios[k] = copias[h].getInicio(i);
+                fines[k] = copias[h].getFin(i);
+                importes[k] = copias[h].getPrecio(i);
+            }
+        }
+
+        // Orden por entrada y, a igualdad, por identificador, para que no dependa de dónde
+        // estaban las reservas. Se ordena por rangos de identificador para no crear objetos
+        long[] porId = new long[total];
+        for (int k = 0; k < total; k++) {
+            porId[k] = (long) ids[k] << 32 | k;
+        }
+        Arrays.sort(porId);
+        long[] porEntrada = new long[total];
+        for (int rango = 0; rango < total; rango++) {
+            porEntrada[rango] = (long) inicios[(int) porId[rango]] << 32 | rango;
+        }
+        Arrays.sort(porEntrada);
+        for (int j = 0; j < total; j++) {
+            porEntrada[j] = porId[(int) porEntrada[j]];
+        }
+        // Cada habitación libre se guarda como (día en que queda libre, número invertido) para
+        // que floor() dé la que quedó libre más tarde y, a igualdad, la de menor número
+        TreeSet<Long> libres = new TreeSet<>();
+        for (int h = 0; h < salas.length; h++) {
+            libres.add((long) liberacion[h] << 32 | (Integer.MAX_VALUE - h));
+        }
+        int[] destino = new int[total];
+        int movidas = 0;
+        for (int j = 0; j < total; j++) {
+            if ((j & 0xFFF) == 0 && System.nanoTime() - comienzo > limiteNanos) {
+                return new ResultadoReoptimizacion(false, 0, huecosAntes, huecosAntes);
+            }
+            int k = (int) porEntrada[j];
+            Long libre = libres.floor((long) inicios[k] << 32 | 0xFFFFFFFFL);
+            if (libre == null) {
+                // No puede pasar: cada reserva dejó libre una habitación al empezar
+                throw new IllegalStateException("No queda habitación para la reserva #" + ids[k] + " al reoptimizar");
+            }
+            libres.remove(libre);
+            int h = Integer.MAX_VALUE - (int) (long) libre;
+            destino[k] = h;
+            if (h != origen[k]) {
+                movidas++;
+            }
+            libres.add((long) fines[k] << 32 | (Integer.MAX_VALUE - h));
+        }
+        if (movidas == 0) {
+            return new ResultadoReoptimizacion(true, 0, huecosAntes, huecosAntes);
+        }
+
+        // Agrupa las reservas por habitación de destino conservando el orden de entrada
+        int[] primera = new int[salas.length + 1];
+        for (int k = 0; k < total; k++) {
+            primera[destino[k] + 1]++;
+        }
+        for (int h = 0; h < salas.length; h++) {
+            primera[h + 1] += primera[h];
+        }
+        int[] agrupadas = new int[total];
+        int[] siguiente = primera.clone();
+        for (long entrada : porEntrada) {
+            int k = (int) entrada;
+            agrupadas[siguiente[destino[k]]++] = k;
+        }
+        // Se comprueba todo antes de cambiar nada, para no dejar una asignación a medias
+        int[][] iniciosSala = new int[salas.length][];
+        int[][] finesSala = new int[salas.length][];
+        for (int h = 0; h < salas.length; h++) {
+            int cuantas = primera[h + 1] - primera[h];
+            iniciosSala[h] = new int[cuantas];
+            finesSala[h] = new int[cuantas];
+            int finAnterior = liberacion[h];
+            for (int i = 0; i < cuantas; i++) {
+                int k = agrupadas[primera[h] + i];
+                if (inicios[k] < finAnterior) {
+                    throw new IllegalStateException("Reserva solapada al reoptimizar la habitación #" + salas[h].getNumero());
+                }
+                iniciosSala[h][i] = inicios[k];
+                finesSala[h][i] = fines[k];
+                finAnterior = fines[k];
+            }
+        }
+        int[] reubicadas = new int[movidas];
+        int[] nuevasHabitaciones = new int[movidas];
+        for (int k = 0, m = 0; k < total; k++) {
+            if (destino[k] != origen[k]) {
+                reubicadas[m] = ids[k];
+                nuevasHabitaciones[m++] = salas[destino[k]].getNumero();
+            }
+        }
+        eventos.anotarReubicacion(clave, reubicadas, nuevasHabitaciones);
+
+        int huecosDespues = 0;
+        for (int h = 0; h < salas.length; h++) {
+            synchronized (salas[h]) {
+                salas[h].reemplazarDesde(dia, iniciosSala[h], finesSala[h], iniciosSala[h].length);
+                ReservasHabitacion reservas = reservasDe(salas[h]);
+                reservas.retirarDesde(dia);
+                for (int i = primera[h]; i < primera[h + 1]; i++) {
+                    int k = agrupadas[i];
+                    reservas.anadir(ids[k], clientesMovidos[k], inicios[k], fines[k], importes[k]);
+                    ubicaciones.poner(ids[k], salas[h].getNumero());
+                }
+                huecosDespues += salas[h].contarHuecos(dia);
+            }
+        }
+        cache.invalidarCotizaciones(clave);
+        return new ResultadoReoptimizacion(true, movidas, huecosAntes, huecosDespues);
+    }
+
     /**
      * Comprueba si hay habitaciones registradas en el hotel.
      *
@@ -130,7 +1238,7 @@ public class Hotel {
      */
     private boolean hayHabitaciones() {
         if (habitaciones.isEmpty()) {
-            System.out.println("No hay habitaciones en el hotel");
+            eventos.sinHabitaciones();
             return false;
         }
         return true;
@@ -138,17 +1246,83 @@ public class Hotel {
 
     /**
      * Comprueba si un cliente debe ser ascendido a VIP según el número de reservas
-     * en el último año. Si cumple los requisitos, se actualiza su estado.
+     * en el último año, o dejar de serlo si lo era por sus reservas y ya no tiene
+     * suficientes. Si cambia, se actualiza su estado, pero no se notifica: se puede llamar
+     * con el monitor de una habitación tomado, y el llamante notifica el cambio con
+     * {@link #notificarCambioVip} después de soltarlo.
+     *
+     * @param cliente    Cliente a comprobar.
+     * @param haceUnAnio Día (desde la época) a partir del cual se cuentan las reservas.
+     * @return {@code 1} si el cliente pasa a ser VIP, {@code -1} si deja de serlo y
+     * {@code 0} si no cambia.
+     */
+    private int esVip(Cliente cliente, int haceUnAnio) {
+        int numReservas = cliente.historial.contarPosterioresA(haceUnAnio);
+
+        synchronized (cliente) {
+            if(numReservas > RESERVAS_VIP && !cliente.esVip) {
+                cliente.esVip = true;
+                cliente.vipPorReservas = true;
+                return 1;
+            } else if (numReservas <= RESERVAS_VIP && cliente.vipPorReservas) {
+                cliente.esVip = false;
+                cliente.vipPorReservas = false;
+                return -1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Notifica el cambio de estado VIP que devolvió {@link #esVip}, si lo hubo.
      *
-     * @param cliente Cliente a comprobar.
+     * @param cliente Cliente comprobado.
+     * @param cambio  Resultado de {@link #esVip}.
      */
-    private void esVip(Cliente cliente) {
-        int numReservas = contarReservasUltimoAnio(cliente);
+    private void notificarCambioVip(Cliente cliente, int cambio) {
+        if (cambio > 0) {
+            metricas.promocionVip();
+            eventos.clientePromovidoVip(cliente);
+        } else if (cambio < 0) {
+            eventos.clienteDegradadoVip(cliente);
+        }
+    }
 
-        if(numReservas > 3 && !cliente.esVip) {
-            cliente.esVip = true;
-            System.out.println("El cliente " + cliente.nombre + " ha pasado a ser VIP");
+    /**
+     * Indica si un cliente es VIP hoy. Un cliente que lo era por sus reservas deja de serlo
+     * en cuanto no tiene suficientes en el último año, aunque no vuelva a reservar. Si hay
+     * una {@link CacheHotel}, el estado se guarda hasta el día en que caduca o hasta la
+     * siguiente reserva del cliente.
+     *
+     * @param clienteId ID del cliente.
+     * @return {@code true} si el cliente existe y es VIP.
+     */
+    public boolean esClienteVip(int clienteId) {
+        Cliente cliente = clientes.get(clienteId);
+        if (cliente == null) {
+            return false;
+        }
+        CacheHotel cache = this.cache;
+        Dia hoy = hoy();
+        int estado = cache.estadoVip(clienteId, hoy.hoy);
+        if (estado != CacheHotel.SIN_DATO) {
+            return estado == 1;
+        }
+        long version = cache.versionVip(clienteId);
+        notificarCambioVip(cliente, esVip(cliente, hoy.haceUnAnio));
+        boolean vip;
+        int caduca = Integer.MAX_VALUE;
+        synchronized (cliente) {
+            vip = cliente.esVip;
+            if (cliente.vipPorReservas) {
+                // Caduca el primer día en que la cuarta reserva más tardía queda fuera del último año
+                LocalDate limite = LocalDate.ofEpochDay(cliente.historial.inicioDesdeElFinal(RESERVAS_VIP + 1));
+                LocalDate dia = limite.plusYears(1);
+                caduca = (int) (dia.minusYears(1).isBefore(limite) ? dia.plusDays(1) : dia).toEpochDay();
+            }
         }
+        cache.guardarVip(clienteId, version, vip, caduca);
+        return vip;
     }
 
     /**
@@ -160,7 +1334,7 @@ public class Hotel {
     private Cliente getCliente(int clienteId) {
         Cliente cliente = clientes.get(clienteId);
         if (cliente == null) {
-            System.out.println("No existe el cliente con id " + clienteId);
+            eventos.clienteNoExiste(clienteId);
             return null;
         }
         return cliente;
@@ -168,56 +1342,539 @@ public class Hotel {
 
 
     /**
-     * Cuenta las reservas realizadas por un cliente en el último año.
+     * Cuenta las reservas realizadas en el último año por el cliente con el ID indicado.
+     *
+     * @param clienteId ID del cliente.
+     * @return Número de reservas del último año o {@code -3} si el cliente no existe.
+     */
+    public int contarReservasUltimoAnio(int clienteId) {
+        MetricasHotel metricas = this.metricas;
+        long inicioOperacion = metricas.iniciar();
+        Cliente cliente = clientes.get(clienteId);
+        int reservas = cliente == null ? ERROR_CLIENTE_NO_EXISTE : contarReservasUltimoAnio(cliente);
+        metricas.terminar(MetricasHotel.Operacion.CONTAR_RESERVAS_ULTIMO_ANIO, inicioOperacion);
+        return reservas;
+    }
+
+    /**
+     * Cuenta las reservas realizadas por un cliente en el último año, es decir, las que
+     * empiezan después de la fecha de hoy hace un año. Consulta el historial ordenado del
+     * cliente, por lo que no recorre las reservas del resto del hotel.
      *
      * @param cliente Cliente del que se quieren contar las reservas.
      * @return Número de reservas realizadas en el último año.
      */
     private int contarReservasUltimoAnio(Cliente cliente){
-        int numReservas = 0;
+        return cliente.historial.contarPosterioresA(hoy().haceUnAnio);
+    }
 
-        for (List<Reserva> reservasHabitacion : reservasPorHabitacion.values()) {
-            for (Reserva reservaCliente : reservasHabitacion) {
-                if(reservaCliente.getCliente().equals(cliente)) {
-                    if(reservaCliente.getFechaInicio().isAfter(LocalDate.now().minusYears(1))) {
-                        numReservas++;
+    /**
+     * Lista todas las reservas agrupadas por habitación, mostrando la información por consola.
+     */
+    public void listarReservas() {
+        for(Habitacion habitacion : habitaciones) {
+            synchronized (habitacion) {
+                System.out.println("Habitación #" + habitacion.getNumero());
+                ReservasHabitacion reservas = reservasDe(habitacion);
+                for (int i = 0; i < reservas.size(); i++) {
+                    if (reservas.isActiva(i)) {
+                        reserva(habitacion, reservas, i).mostrarReserva();
                     }
                 }
             }
         }
-        return numReservas;
+    }
 
+    /**
+     * Lista todos los clientes registrados, mostrando su información por consola.
+     */
+    public void listarClientes() {
+        for(Cliente cliente : getClientes()) {
+            System.out.println("Cliente #" + cliente.id + " - Nombre: " + cliente.nombre + " - DNI: " + cliente.dni + " - VIP: " + cliente.esVip);
+        }
     }
 
     /**
-     * Lista todas las reservas agrupadas por habitación, mostrando la información por consola.
+     * Devuelve un flujo con las habitaciones registradas, ordenadas por número. Recorre las
+     * habitaciones que había al llamarlo sin copiarlas.
+     *
+     * @return Flujo de habitaciones.
      */
-    public void listarReservas() {
-        reservasPorHabitacion.forEach((key, value) -> {
-            System.out.println("Habitación #" + key);
-            value.forEach(Reserva::mostrarReserva);
-        });
+    public Stream<Habitacion> streamHabitaciones() {
+        return habitaciones.stream();
     }
 
     /**
-     * Lista todos los clientes registrados, mostrando su información por consola.
+     * Devuelve un flujo perezoso con las habitaciones libres entre dos fechas, ordenadas
+     * por número. La disponibilidad de cada habitación se comprueba al recorrerla.
+     *
+     * @param fechaEntrada Fecha de entrada.
+     * @param fechaSalida  Fecha de salida.
+     * @return Flujo de habitaciones libres.
+     * @throws IllegalArgumentException si la fecha de entrada no es anterior a la de salida
      */
-    public void listarClientes() {
-        for(Cliente cliente : clientes.values()) {
-            System.out.println("Cliente #" + cliente.id + " - Nombre: " + cliente.nombre + " - DNI: " + cliente.dni + " - VIP: " + cliente.esVip);
+    public Stream<Habitacion> streamHabitacionesDisponibles(LocalDate fechaEntrada, LocalDate fechaSalida) {
+        validarPeriodo(fechaEntrada, fechaSalida);
+        int inicio = (int) fechaEntrada.toEpochDay();
+        int fin = (int) fechaSalida.toEpochDay();
+        return habitaciones.stream().filter(habitacion -> habitacion.estaLibre(inicio, fin));
+    }
+
+    /**
+     * Devuelve un flujo perezoso con los clientes ordenados por ID.
+     *
+     * @return Flujo de clientes.
+     */
+    public Stream<Cliente> streamClientes() {
+        return IntStream.range(1, siguienteClienteId.get()).mapToObj(clientes::get).filter(Objects::nonNull);
+    }
+
+    /**
+     * Devuelve un flujo perezoso con las reservas que cumplen un filtro, ordenadas por
+     * habitación y, dentro de cada habitación, por orden de realización. Las reservas
+     * aceptadas de cada habitación se copian con su monitor tomado al llegar a ella, así que
+     * nunca se materializa el listado completo.
+     *
+     * @param filtro Filtro de reservas; {@link FiltroReservas#TODAS} para no filtrar.
+     * @return Flujo de reservas.
+     */
+    public Stream<Reserva> streamReservas(FiltroReservas filtro) {
+        return StreamSupport.stream(new RecorridoReservas(filtro), false);
+    }
+
+    /**
+     * Devuelve una página de habitaciones ordenadas por número.
+     *
+     * @param cursor  {@link Pagina#INICIO} o el cursor de la página anterior.
+     * @param tamanio Número máximo de habitaciones de la página.
+     * @return Página de habitaciones.
+     */
+    public Pagina<Habitacion> paginarHabitaciones(long cursor, int tamanio) {
+        List<Habitacion> pagina = new ArrayList<>(tamanio);
+        int numero = (int) Math.max(cursor, 1);
+        int limite = cursor == Pagina.FIN ? 0 : habitaciones.size();
+        for (; numero <= limite && pagina.size() < tamanio; numero++) {
+            pagina.add(getHabitacion(numero));
+        }
+        return new Pagina<>(pagina, numero <= limite ? numero : Pagina.FIN);
+    }
+
+    /**
+     * Devuelve una página de clientes ordenados por ID.
+     *
+     * @param cursor  {@link Pagina#INICIO} o el cursor de la página anterior.
+     * @param tamanio Número máximo de clientes de la página.
+     * @return Página de clientes.
+     */
+    public Pagina<Cliente> paginarClientes(long cursor, int tamanio) {
+        List<Cliente> pagina = new ArrayList<>(tamanio);
+        int id = (int) Math.max(cursor, 1);
+        int limite = cursor == Pagina.FIN ? 0 : siguienteClienteId.get() - 1;
+        for (; id <= limite && pagina.size() < tamanio; id++) {
+            Cliente cliente = clientes.get(id);
+            if (cliente != null) {
+                pagina.add(cliente);
+            }
         }
+        return new Pagina<>(pagina, id <= limite ? id : Pagina.FIN);
     }
 
     /**
-     * Registra un nuevo cliente en el sistema.
+     * Devuelve una página de las reservas que cumplen un filtro, en el mismo orden que
+     * {@link #streamReservas}. El cursor guarda la habitación y el identificador de la reserva
+     * por la que continuar, no su posición, que cambia al compactar, reoptimizar o insertar
+     * reservas restauradas.
+     *
+     * @param filtro  Filtro de reservas; {@link FiltroReservas#TODAS} para no filtrar.
+     * @param cursor  {@link Pagina#INICIO} o el cursor de la página anterior.
+     * @param tamanio Número máximo de reservas de la página.
+     * @return Página de reservas.
+     */
+    public Pagina<Reserva> paginarReservas(FiltroReservas filtro, long cursor, int tamanio) {
+        List<Reserva> pagina = new ArrayList<>(tamanio);
+        if (cursor == Pagina.FIN) {
+            return new Pagina<>(pagina, Pagina.FIN);
+        }
+        int numero = Math.max((int) (cursor >>> 32), 1);
+        int desdeId = (int) cursor;
+        int limite = habitaciones.size();
+        if (filtro.getNumeroHabitacion() != 0) {
+            if (numero < filtro.getNumeroHabitacion()) {
+                numero = filtro.getNumeroHabitacion();
+                desdeId = 0;
+            }
+            limite = Math.min(limite, filtro.getNumeroHabitacion());
+        }
+        for (; numero <= limite; numero++, desdeId = 0) {
+            Habitacion habitacion = getHabitacion(numero);
+            synchronized (habitacion) {
+                ReservasHabitacion reservas = reservasDe(habitacion);
+                for (int posicion = reservas.buscarPosicion(desdeId); posicion < reservas.size(); posicion++) {
+                    if (pagina.size() == tamanio) {
+                        return new Pagina<>(pagina, (long) numero << 32 | reservas.getId(posicion));
+                    }
+                    if (reservas.isActiva(posicion) && filtro.acepta(numero, reservas.getClienteId(posicion),
+                            reservas.getInicio(posicion), reservas.getFin(posicion))) {
+                        pagina.add(reserva(habitacion, reservas, posicion));
+                    }
+                }
+            }
+        }
+        return new Pagina<>(pagina, Pagina.FIN);
+    }
+
+    /**
+     * Registra un nuevo cliente en el sistema. Los datos se validan y se comprueba que no
+     * haya otro cliente con el mismo DNI o email antes de asignar el identificador, para no
+     * dejar huecos en la numeración.
      *
      * @param nombre Nombre del cliente.
      * @param email  Email del cliente.
      * @param dni    DNI del cliente.
      * @param esVip  Indica si el cliente es VIP al registrarse.
+     * @return ID asignado al cliente.
+     * @throws IllegalArgumentException si alguno de los datos no es válido o ya hay un
+     *                                  cliente con el mismo DNI o email
+     */
+    public int registrarCliente(String nombre, String email, String dni, boolean esVip) {
+        Cliente.validarNombre(nombre);
+        Cliente.validarDni(dni);
+        Cliente.validarEmail(email);
+        long claveDni = Cliente.claveDni(dni);
+        String claveEmail = Cliente.claveEmail(email);
+        Cliente cliente;
+        synchronized (clientesPorDni) {
+            comprobarUnico(claveDni, dni, claveEmail, email);
+            cliente = new Cliente(siguienteClienteId.get(), nombre, dni, email, esVip);
+            eventos.anotarCliente(cliente);
+            siguienteClienteId.incrementAndGet();
+            publicarCliente(cliente, claveDni, claveEmail);
+        }
+        eventos.clienteRegistrado(cliente);
+        return cliente.id;
+    }
+
+    /**
+     * Registra un lote de clientes con identificadores consecutivos. Los datos de todos se
+     * validan en paralelo y se comprueba que no repitan ningún DNI o email antes de asignar
+     * ningún identificador, de modo que si alguno no es válido no se registra ninguno. Los
+     * clientes se crean en paralelo y después se anotan, se publican y se notifican en orden
+     * de identificador.
+     *
+     * @param solicitudes Datos de los clientes.
+     * @return ID asignado al primer cliente; el resto tienen los siguientes en el mismo orden.
+     * @throws IllegalArgumentException si los datos de algún cliente no son válidos o repiten
+     *                                  el DNI o el email de otro cliente
+     */
+    public int registrarClientes(List<SolicitudCliente> solicitudes) {
+        Cliente[] nuevos = new Cliente[solicitudes.size()];
+        long[] clavesDni = new long[nuevos.length];
+        String[] clavesEmail = new String[nuevos.length];
+        IntStream.range(0, nuevos.length).parallel().forEach(i -> {
+            SolicitudCliente solicitud = solicitudes.get(i);
+            Cliente.validarNombre(solicitud.getNombre());
+            clavesDni[i] = Cliente.claveDni(solicitud.getDni());
+            Cliente.validarEmail(solicitud.getEmail());
+            clavesEmail[i] = Cliente.claveEmail(solicitud.getEmail());
+        });
+        long[] dnisOrdenados = clavesDni.clone();
+        Arrays.parallelSort(dnisOrdenados);
+        for (int i = 1; i < dnisOrdenados.length; i++) {
+            if (dnisOrdenados[i] == dnisOrdenados[i - 1]) {
+                throw new IllegalArgumentException("El lote repite un DNI");
+            }
+        }
+        Set<String> emailsLote = new HashSet<>();
+        for (String claveEmail : clavesEmail) {
+            if (!emailsLote.add(claveEmail)) {
+                throw new IllegalArgumentException("El lote repite el email " + claveEmail);
+            }
+        }
+        int primerId;
+        synchronized (clientesPorDni) {
+            for (int i = 0; i < nuevos.length; i++) {
+                SolicitudCliente solicitud = solicitudes.get(i);
+                comprobarUnico(clavesDni[i], solicitud.getDni(), clavesEmail[i], solicitud.getEmail());
+            }
+            primerId = siguienteClienteId.get();
+            IntStream.range(0, nuevos.length).parallel().forEach(i -> {
+                SolicitudCliente solicitud = solicitudes.get(i);
+                nuevos[i] = new Cliente(primerId + i, solicitud.getNombre(), solicitud.getDni(),
+                    solicitud.getEmail(), solicitud.isVip());
+            });
+            // Si falla una anotación se publican solo los clientes ya anotados, con los que
+            // coinciden la numeración y lo anotado
+            int anotados = 0;
+            try {
+                for (; anotados < nuevos.length; anotados++) {
+                    eventos.anotarCliente(nuevos[anotados]);
+                }
+            } finally {
+                siguienteClienteId.set(primerId + anotados);
+                int publicados = anotados;
+                IntStream.range(0, publicados).parallel().forEach(i -> clientesPorEmail.put(clavesEmail[i], nuevos[i]));
+                // Los índices densos se llenan en este hilo porque sus inserciones toman un monitor
+                for (int i = 0; i < publicados; i++) {
+                    clientes.anadir(nuevos[i].id, nuevos[i]);
+                    clientesPorDni.anadir(clavesDni[i], nuevos[i]);
+                }
+            }
+        }
+        for (Cliente cliente : nuevos) {
+            eventos.clienteRegistrado(cliente);
+        }
+        return primerId;
+    }
+
+    /**
+     * Comprueba que no haya ningún cliente con el DNI o el email indicados. Se llama con el
+     * monitor de {@code clientesPorDni} tomado.
+     */
+    private void comprobarUnico(long claveDni, String dni, String claveEmail, String email) {
+        if (clientesPorDni.get(claveDni) != null) {
+            throw new IllegalArgumentException("Ya existe un cliente con el DNI " + dni);
+        }
+        if (clientesPorEmail.containsKey(claveEmail)) {
+            throw new IllegalArgumentException("Ya existe un cliente con el email " + email);
+        }
+    }
+
+    private void publicarCliente(Cliente cliente, long claveDni, String claveEmail) {
+        clientes.anadir(cliente.id, cliente);
+        clientesPorEmail.put(claveEmail, cliente);
+        clientesPorDni.anadir(claveDni, cliente);
+    }
+
+    /**
+     * Vuelve a dar de alta un cliente con un identificador ya asignado, por ejemplo al
+     * recuperar el hotel de un almacenamiento persistente. No notifica ningún evento. Si
+     * los datos guardados repiten un DNI o un email, las búsquedas devuelven el primer
+     * cliente restaurado con él.
+     *
+     * @param id     Identificador del cliente.
+     * @param nombre Nombre del cliente.
+     * @param email  Email del cliente.
+     * @param dni    DNI del cliente.
+     * @param esVip  Indica si el cliente es VIP.
+     * @throws IllegalArgumentException si los datos no son válidos o el identificador ya existe
+     */
+    public void restaurarCliente(int id, String nombre, String email, String dni, boolean esVip) {
+        Cliente cliente = new Cliente(id, nombre, dni, email, esVip);
+        synchronized (clientesPorDni) {
+            if (!clientes.anadir(id, cliente)) {
+                throw new IllegalArgumentException("Ya existe el cliente con id " + id);
+            }
+            clientesPorEmail.putIfAbsent(Cliente.claveEmail(email), cliente);
+            clientesPorDni.anadir(Cliente.claveDni(dni), cliente);
+            siguienteClienteId.accumulateAndGet(id + 1, Math::max);
+        }
+    }
+
+    /**
+     * Vuelve a registrar una reserva ya realizada en una habitación concreta, por ejemplo al
+     * recuperar el hotel de un almacenamiento persistente. No recalcula el precio ni el
+     * estado VIP y no notifica ningún evento.
+     *
+     * @param id               Identificador de la reserva.
+     * @param numeroHabitacion Número de la habitación reservada.
+     * @param clienteId        ID del cliente.
+     * @param fechaEntrada     Fecha de entrada.
+     * @param fechaSalida      Fecha de salida.
+     * @param precioTotal      Precio total de la reserva.
+     * @param clienteVip       Indica si el cliente era VIP tras la reserva.
+     * @throws IllegalArgumentException si la habitación o el cliente no existen
+     * @throws IllegalStateException    si la habitación ya está ocupada en esas fechas
+     */
+    public void restaurarReserva(int id, int numeroHabitacion, int clienteId, LocalDate fechaEntrada,
+                                 LocalDate fechaSalida, double precioTotal, boolean clienteVip) {
+        Habitacion habitacion = getHabitacion(numeroHabitacion);
+        Cliente cliente = clientes.get(clienteId);
+        if (habitacion == null || cliente == null) {
+            throw new IllegalArgumentException("Reserva #" + id + " con habitación o cliente inexistente");
+        }
+        int inicio = (int) fechaEntrada.toEpochDay();
+        int fin = (int) fechaSalida.toEpochDay();
+        synchronized (habitacion) {
+            esperarReoptimizacion(habitacion);
+            if (!habitacion.ocupar(inicio, fin)) {
+                throw new IllegalStateException("Reserva #" + id + " solapada en la habitación #" + numeroHabitacion);
+            }
+            precios.ocupar(habitacion.getTipo(), inicio, fin);
+            reservasDe(habitacion).anadir(id, clienteId, inicio, fin, precioTotal);
+            ubicaciones.poner(id, numeroHabitacion);
+            cliente.historial.registrar(inicio);
+        }
+        reservasCambiadas(habitacion, cliente, inicio, fin);
+        synchronized (cliente) {
+            if (clienteVip && !cliente.esVip) {
+                cliente.esVip = true;
+                cliente.vipPorReservas = true;
+            } else if (!clienteVip && cliente.vipPorReservas) {
+                cliente.esVip = false;
+                cliente.vipPorReservas = false;
+            }
+        }
+        siguienteReservaId.accumulateAndGet(id + 1, Math::max);
+    }
+
+    /**
+     * Identificador que recibirá la próxima reserva. Las reservas canceladas no devuelven el
+     * suyo, así que puede ser mayor que el de la última reserva activa más uno.
+     *
+     * @return Siguiente identificador de reserva.
+     */
+    public int getSiguienteReservaId() {
+        return siguienteReservaId.get();
+    }
+
+    /**
+     * Hace que las próximas reservas reciban identificadores a partir del indicado, por
+     * ejemplo al recuperar el hotel de un almacenamiento persistente, para no repetir los de
+     * reservas ya canceladas. Nunca retrasa el contador.
+     *
+     * @param id Siguiente identificador de reserva guardado.
+     */
+    public void restaurarSiguienteReservaId(int id) {
+        siguienteReservaId.accumulateAndGet(id, Math::max);
+    }
+
+    /**
+     * Vuelve a cambiar de habitación unas reservas como lo hizo una reoptimización, por
+     * ejemplo al recuperar el hotel de un almacenamiento persistente. Primero se sacan todas
+     * de sus habitaciones y después se ponen en las nuevas, así que dos reservas pueden
+     * intercambiarse. Las reservas que no existen o que ya están en su nueva habitación no
+     * cambian. No recalcula nada y no notifica ningún evento.
+     *
+     * @param reservas     Identificadores de las reservas.
+     * @param habitaciones Número de la nueva habitación de cada reserva, en el mismo orden.
+     * @throws IllegalArgumentException si alguna habitación no existe
+     * @throws IllegalStateException    si alguna reserva se solapa en su nueva habitación
      */
-    public void registrarCliente(String nombre, String email, String dni, boolean esVip) {
-        Cliente cliente = new Cliente(clientes.size() + 1, nombre, dni, email, esVip);
-        clientes.put(cliente.id, cliente);
+    public void restaurarReubicacion(int[] reservas, int[] habitaciones) {
+        int[] clientesMovidos = new int[reservas.length];
+        int[] inicios = new int[reservas.length];
+        int[] fines = new int[reservas.length];
+        double[] importes = new double[reservas.length];
+        boolean[] sacadas = new boolean[reservas.length];
+        for (int i = 0; i < reservas.length; i++) {
+            if (getHabitacion(habitaciones[i]) == null) {
+                throw new IllegalArgumentException("Reubicación de la reserva #" + reservas[i]
+                    + " en una habitación inexistente");
+            }
+            Habitacion origen = getHabitacion(ubicaciones.get(reservas[i]));
+            if (origen == null || origen.getNumero() == habitaciones[i]) {
+                continue;
+            }
+            synchronized (origen) {
+                esperarReoptimizacion(origen);
+                ReservasHabitacion actuales = reservasDe(origen);
+                int posicion = actuales.buscar(reservas[i]);
+                clientesMovidos[i] = actuales.getClienteId(posicion);
+                inicios[i] = actuales.getInicio(posicion);
+                fines[i] = actuales.getFin(posicion);
+                importes[i] = actuales.getPrecio(posicion);
+                origen.liberar(inicios[i], fines[i]);
+                precios.liberar(origen.getTipo(), inicios[i], fines[i]);
+                actuales.cancelar(posicion);
+                ubicaciones.poner(reservas[i], 0);
+            }
+            sacadas[i] = true;
+            cache.invalidarCotizaciones(origen.getTipo(), inicios[i], fines[i]);
+        }
+        for (int i = 0; i < reservas.length; i++) {
+            if (!sacadas[i]) {
+                continue;
+            }
+            Habitacion destino = getHabitacion(habitaciones[i]);
+            synchronized (destino) {
+                esperarReoptimizacion(destino);
+                if (!destino.ocupar(inicios[i], fines[i])) {
+                    throw new IllegalStateException("Reserva #" + reservas[i] + " solapada en la habitación #"
+                        + habitaciones[i]);
+                }
+                precios.ocupar(destino.getTipo(), inicios[i], fines[i]);
+                reservasDe(destino).anadir(reservas[i], clientesMovidos[i], inicios[i], fines[i], importes[i]);
+                ubicaciones.poner(reservas[i], habitaciones[i]);
+            }
+            cache.invalidarCotizaciones(destino.getTipo(), inicios[i], fines[i]);
+        }
+    }
+
+    /**
+     * Recorre las reservas que cumplen un filtro habitación por habitación. Al llegar a una
+     * habitación copia las reservas que acepta el filtro con el monitor tomado y las entrega
+     * una a una.
+     */
+    private final class RecorridoReservas extends Spliterators.AbstractSpliterator<Reserva> {
+        private final FiltroReservas filtro;
+        private final int ultima;
+        private int numero;
+        private List<Reserva> actuales = List.of();
+        private int posicion;
+
+        private RecorridoReservas(FiltroReservas filtro) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.filtro = filtro;
+            int unica = filtro.getNumeroHabitacion();
+            this.numero = unica != 0 ? unica : 1;
+            this.ultima = unica != 0 ? Math.min(unica, habitaciones.size()) : habitaciones.size();
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Reserva> accion) {
+            while (true) {
+                if (posicion < actuales.size()) {
+                    accion.accept(actuales.get(posicion++));
+                    return true;
+                }
+                if (numero > ultima) {
+                    return false;
+                }
+                Habitacion habitacion = getHabitacion(numero++);
+                List<Reserva> aceptadas = new ArrayList<>();
+                synchronized (habitacion) {
+                    ReservasHabitacion reservas = reservasDe(habitacion);
+                    for (int i = 0; i < reservas.size(); i++) {
+                        if (reservas.isActiva(i) && filtro.acepta(habitacion.getNumero(), reservas.getClienteId(i),
+                                reservas.getInicio(i), reservas.getFin(i))) {
+                            aceptadas.add(reserva(habitacion, reservas, i));
+                        }
+                    }
+                }
+                actuales = aceptadas;
+                posicion = 0;
+            }
+        }
+    }
+
+    /**
+     * Día actual según un reloj, con el mismo día de hace un año y el intervalo de instantes
+     * en que sigue siendo válido.
+     */
+    private static final class Dia {
+        private final Clock reloj;
+        private final int hoy; // Días desde la época
+        private final int haceUnAnio;
+        private final long desde; // Milisegundos desde la época
+        private final long hasta;
+
+        private Dia(Clock reloj, int hoy, int haceUnAnio, long desde, long hasta) {
+            this.reloj = reloj;
+            this.hoy = hoy;
+            this.haceUnAnio = haceUnAnio;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        private static Dia calcular(Clock reloj) {
+            LocalDate hoy = LocalDate.now(reloj);
+            long desde = hoy.atStartOfDay(reloj.getZone()).toInstant().toEpochMilli();
+            long hasta = hoy.plusDays(1).atStartOfDay(reloj.getZone()).toInstant().toEpochMilli();
+            return new Dia(reloj, (int) hoy.toEpochDay(), (int) hoy.minusYears(1).toEpochDay(), desde, hasta);
+        }
+
+        private boolean contiene(long instante) {
+            return instante >= desde && instante < hasta;
+        }
     }
 }
@@ -0,0 +1,105 @@
+package org.ed06.model;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Índice de solo inserción de claves {@code long} a valores, seguro para varios hilos.
+ *
+ * <p>Las claves se guardan en un array de {@code long} con direccionamiento abierto, así
+ * que ni las búsquedas ni las inserciones crean objetos para envolver la clave. Como en
+ * {@link RegistroDenso}, las inserciones se serializan con el monitor del propio índice y
+ * las lecturas no bloquean: cada valor se escribe antes de publicar su clave, y al crecer
+ * se publica una tabla nueva completa.</p>
+ *
+ * @param <T> Tipo de los valores.
+ * @author Patricia Cid González
+ */
+final class IndiceClaves<T> {
+    private static final VarHandle CLAVES = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int CAPACIDAD_INICIAL = 16; // Siempre potencia de dos
+    private static final long VACIA = 0;
+
+    private record Tabla(long[] claves, Object[] valores) {
+    }
+
+    private volatile Tabla tabla = new Tabla(new long[CAPACIDAD_INICIAL], new Object[CAPACIDAD_INICIAL]);
+    private int tamanio;
+
+    /**
+     * Busca el valor de una clave.
+     *
+     * @param clave Clave a buscar.
+     * @return Valor de la clave o {@code null} si no está.
+     */
+    @SuppressWarnings("unchecked")
+    T get(long clave) {
+        Tabla actual = tabla;
+        int mascara = actual.claves.length - 1;
+        for (int i = posicion(clave, mascara); ; i = (i + 1) & mascara) {
+            long encontrada = (long) CLAVES.getAcquire(actual.claves, i);
+            if (encontrada == clave) {
+                return (T) actual.valores[i];
+            }
+            if (encontrada == VACIA) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Añade una clave si no estaba ya en el índice.
+     *
+     * @param clave Clave distinta de 0.
+     * @param valor Valor de la clave.
+     * @return {@code true} si se ha añadido, {@code false} si la clave ya estaba.
+     * @throws IllegalArgumentException si la clave es 0
+     */
+    synchronized boolean anadir(long clave, T valor) {
+        if (clave == VACIA) {
+            throw new IllegalArgumentException("La clave 0 no se puede indexar");
+        }
+        if (get(clave) != null) {
+            return false;
+        }
+        Tabla actual = tabla;
+        if ((tamanio + 1) * 2 > actual.claves.length) {
+            actual = crecer(actual);
+            tabla = actual;
+        }
+        insertar(actual, clave, valor);
+        tamanio++;
+        return true;
+    }
+
+    synchronized int size() {
+        return tamanio;
+    }
+
+    private static Tabla crecer(Tabla actual) {
+        int capacidad = actual.claves.length * 2;
+        Tabla nueva = new Tabla(new long[capacidad], new Object[capacidad]);
+        for (int i = 0; i < actual.claves.length; i++) {
+            if (actual.claves[i] != VACIA) {
+                insertar(nueva, actual.claves[i], actual.valores[i]);
+            }
+        }
+        return nueva;
+    }
+
+    private static void insertar(Tabla tabla, long clave, Object valor) {
+        int mascara = tabla.claves.length - 1;
+        int i = posicion(clave, mascara);
+        while (tabla.claves[i] != VACIA) {
+            i = (i + 1) & mascara;
+        }
+        tabla.valores[i] = valor;
+        // La clave se publica después del valor para que quien la vea lea también el valor
+        CLAVES.setRelease(tabla.claves, i, clave);
+    }
+
+    private static int posicion(long clave, int mascara) {
+        long mezcla = clave * 0x9E3779B97F4A7C15L;
+        return (int) (mezcla ^ (mezcla >>> 32)) & mascara;
+    }
+}
@@ -0,0 +1,157 @@
+package org.ed06.model;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Informe de ocupación e ingresos de un hotel entre dos fechas, desglosado por tipo de
+ * habitación y por día. A partir de él se obtienen las {@link MetricasOcupacion} de
+ * cualquier tipo, día o mes del periodo. Se considera que todas las habitaciones están
+ * disponibles todos los días del periodo. El informe no cambia una vez creado.
+ *
+ * @author Patricia Cid González
+ */
+public final class InformeOcupacion {
+    private final LocalDate desde;
+    private final int dias;
+    private final Map<String,SerieOcupacion> series;
+
+    /**
+     * Crea un informe a partir de las series de cada tipo, de las que pasa a ser dueño.
+     */
+    InformeOcupacion(LocalDate desde, int dias, Map<String,SerieOcupacion> series) {
+        this.desde = desde;
+        this.dias = dias;
+        this.series = series;
+    }
+
+    /**
+     * Primer día del periodo.
+     *
+     * @return Fecha de inicio.
+     */
+    public LocalDate getDesde() {
+        return desde;
+    }
+
+    /**
+     * Día siguiente al último día del periodo.
+     *
+     * @return Fecha de fin (excluida).
+     */
+    public LocalDate getHasta() {
+        return desde.plusDays(dias);
+    }
+
+    /**
+     * Tipos de habitación del informe, ordenados alfabéticamente.
+     *
+     * @return Tipos de habitación.
+     */
+    public Set<String> getTipos() {
+        return Collections.unmodifiableSet(new TreeSet<>(series.keySet()));
+    }
+
+    /**
+     * Métricas de todo el hotel en todo el periodo.
+     *
+     * @return Métricas totales.
+     */
+    public MetricasOcupacion getTotal() {
+        return sumar(null, 0, dias);
+    }
+
+    /**
+     * Métricas de un tipo de habitación en todo el periodo.
+     *
+     * @param tipo Tipo de habitación.
+     * @return Métricas del tipo; vacías si no hay habitaciones de ese tipo.
+     */
+    public MetricasOcupacion getTipo(String tipo) {
+        return sumar(tipo, 0, dias);
+    }
+
+    /**
+     * Métricas de todo el hotel en un día.
+     *
+     * @param dia Día del periodo.
+     * @return Métricas del día.
+     * @throws IllegalArgumentException si el día está fuera del periodo
+     */
+    public MetricasOcupacion getDia(LocalDate dia) {
+        return getDia(null, dia);
+    }
+
+    /**
+     * Métricas de un tipo de habitación en un día.
+     *
+     * @param tipo Tipo de habitación, o {@code null} para todo el hotel.
+     * @param dia  Día del periodo.
+     * @return Métricas del tipo en ese día.
+     * @throws IllegalArgumentException si el día está fuera del periodo
+     */
+    public MetricasOcupacion getDia(String tipo, LocalDate dia) {
+        int posicion = (int) (dia.toEpochDay() - desde.toEpochDay());
+        if (posicion < 0 || posicion >= dias) {
+            throw new IllegalArgumentException("El día " + dia + " está fuera del informe");
+        }
+        return sumar(tipo, posicion, posicion + 1);
+    }
+
+    /**
+     * Métricas de todo el hotel en la parte de un mes que cae dentro del periodo.
+     *
+     * @param mes Mes.
+     * @return Métricas del mes; vacías si el mes no se solapa con el periodo.
+     */
+    public MetricasOcupacion getMes(YearMonth mes) {
+        return getMes(null, mes);
+    }
+
+    /**
+     * Métricas de un tipo de habitación en la parte de un mes que cae dentro del periodo.
+     *
+     * @param tipo Tipo de habitación, o {@code null} para todo el hotel.
+     * @param mes  Mes.
+     * @return Métricas del tipo en ese mes; vacías si el mes no se solapa con el periodo.
+     */
+    public MetricasOcupacion getMes(String tipo, YearMonth mes) {
+        long primerDia = desde.toEpochDay();
+        int inicio = (int) Math.max(mes.atDay(1).toEpochDay() - primerDia, 0);
+        int fin = (int) Math.min(mes.plusMonths(1).atDay(1).toEpochDay() - primerDia, dias);
+        return sumar(tipo, inicio, Math.max(inicio, fin));
+    }
+
+    private MetricasOcupacion sumar(String tipo, int inicio, int fin) {
+        long disponibles = 0;
+        long vendidas = 0;
+        double ingresos = 0;
+        for (Map.Entry<String,SerieOcupacion> entrada : series.entrySet()) {
+            if (tipo != null && !tipo.equals(entrada.getKey())) {
+                continue;
+            }
+            SerieOcupacion serie = entrada.getValue();
+            disponibles += (long) serie.habitaciones * (fin - inicio);
+            for (int dia = inicio; dia < fin; dia++) {
+                vendidas += serie.nochesVendidas[dia];
+                ingresos += serie.ingresos[dia];
+            }
+        }
+        return new MetricasOcupacion(disponibles, vendidas, ingresos);
+    }
+
+    /**
+     * Muestra por consola las métricas totales y las de cada tipo de habitación.
+     */
+    public void mostrarInforme() {
+        System.out.println("Informe de ocupación del " + desde + " al " + getHasta().minusDays(1));
+        System.out.println("Total - " + getTotal());
+        for (String tipo : getTipos()) {
+            System.out.println(tipo + " - " + getTipo(tipo));
+        }
+    }
+}
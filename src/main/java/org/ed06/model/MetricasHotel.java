@@ -0,0 +1,180 @@
+package org.ed06.model;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas de las operaciones de un {@link Hotel}: latencia de cada operación, resultado
+ * de las reservas por código de error, pasos a VIP y habitaciones recorridas por reserva.
+ *
+ * <p>Los contadores son {@link LongAdder} y los histogramas usan contadores atómicos, así
+ * que las operaciones de varios hilos se registran sin cerrojos. Un hotel recién creado
+ * usa {@link #DESACTIVADAS}, que no mide nada: sin métricas, cada operación solo comprueba
+ * un indicador y ni siquiera consulta el reloj.</p>
+ *
+ * <p>Ejemplo de uso:</p>
+ * <pre>
+ * MetricasHotel metricas = new MetricasHotel();
+ * hotel.setMetricas(metricas);
+ * ...
+ * System.out.println(metricas.getResumen());
+ * </pre>
+ *
+ * @author Patricia Cid González
+ */
+public final class MetricasHotel {
+
+    /**
+     * Métricas que no registran nada. Son las que usa un hotel recién creado.
+     */
+    public static final MetricasHotel DESACTIVADAS = new MetricasHotel(false);
+
+    /**
+     * Operaciones de las que se mide la latencia.
+     */
+    public enum Operacion {
+        RESERVAR("reservarHabitacion"),
+        RESERVAR_LOTE("reservarLote"),
+        CALCULAR_PRECIO("calcularPrecio"),
+        CONTAR_RESERVAS_ULTIMO_ANIO("contarReservasUltimoAnio"),
+        CONSULTAR_DISPONIBILIDAD("consultarDisponibilidad"),
+        BUSCAR_DISPONIBILIDAD("buscarDisponibilidad"),
+        ANALIZAR_OCUPACION("analizarOcupacion"),
+        CANCELAR("cancelarReserva"),
+        MODIFICAR("modificarReserva");
+
+        private final String nombre;
+
+        Operacion(String nombre) {
+            this.nombre = nombre;
+        }
+
+        /**
+         * Nombre del método de {@link Hotel} que se mide.
+         *
+         * @return Nombre de la operación.
+         */
+        public String getNombre() {
+            return nombre;
+        }
+    }
+
+    static final int CODIGOS_RESULTADO = 5; // Reserva realizada y los cuatro códigos de error
+
+    private final boolean activas;
+    private final Histograma[] latencias;
+    private final LongAdder[] resultados;
+    private final LongAdder promocionesVip;
+    private final Histograma habitacionesRecorridas;
+
+    /**
+     * Crea unas métricas activas y vacías.
+     */
+    public MetricasHotel() {
+        this(true);
+    }
+
+    private MetricasHotel(boolean activas) {
+        this.activas = activas;
+        if (activas) {
+            latencias = new Histograma[Operacion.values().length];
+            for (int i = 0; i < latencias.length; i++) {
+                latencias[i] = new Histograma();
+            }
+            resultados = new LongAdder[CODIGOS_RESULTADO];
+            for (int i = 0; i < resultados.length; i++) {
+                resultados[i] = new LongAdder();
+            }
+            promocionesVip = new LongAdder();
+            habitacionesRecorridas = new Histograma();
+        } else {
+            latencias = null;
+            resultados = null;
+            promocionesVip = null;
+            habitacionesRecorridas = null;
+        }
+    }
+
+    public boolean isActivas() {
+        return activas;
+    }
+
+    /**
+     * Marca el inicio de una operación.
+     *
+     * @return Instante actual en nanosegundos, o 0 si las métricas están desactivadas.
+     */
+    long iniciar() {
+        return activas ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Registra la latencia de una operación que empezó en {@code inicio}.
+     *
+     * @param operacion Operación terminada.
+     * @param inicio    Valor devuelto por {@link #iniciar()} al empezarla.
+     */
+    void terminar(Operacion operacion, long inicio) {
+        if (activas) {
+            latencias[operacion.ordinal()].registrar(System.nanoTime() - inicio);
+        }
+    }
+
+    /**
+     * Cuenta el resultado de una reserva.
+     *
+     * @param resultado Número de habitación reservada o código de error.
+     */
+    void resultadoReserva(int resultado) {
+        if (activas) {
+            resultados[Math.max(0, -resultado)].increment();
+        }
+    }
+
+    /**
+     * Cuenta un paso a VIP.
+     */
+    void promocionVip() {
+        if (activas) {
+            promocionesVip.increment();
+        }
+    }
+
+    /**
+     * Registra cuántas habitaciones se han comprobado para asignar una reserva.
+     *
+     * @param habitaciones Habitaciones comprobadas.
+     */
+    void habitacionesRecorridas(int habitaciones) {
+        if (activas) {
+            habitacionesRecorridas.registrar(habitaciones);
+        }
+    }
+
+    /**
+     * Copia el estado actual de las métricas. La copia no es atómica: las operaciones que
+     * terminen mientras se hace pueden aparecer solo en parte de los contadores.
+     *
+     * @return Resumen de las métricas; vacío si están desactivadas.
+     */
+    public ResumenMetricas getResumen() {
+        Map<Operacion,Distribucion> copiaLatencias = new EnumMap<>(Operacion.class);
+        long[] copiaResultados = new long[CODIGOS_RESULTADO];
+        if (!activas) {
+            Distribucion vacia = new Histograma().distribucion();
+            for (Operacion operacion : Operacion.values()) {
+                copiaLatencias.put(operacion, vacia);
+            }
+            return new ResumenMetricas(copiaLatencias, copiaResultados, 0, vacia);
+        }
+        for (Operacion operacion : Operacion.values()) {
+            copiaLatencias.put(operacion, latencias[operacion.ordinal()].distribucion());
+        }
+        for (int i = 0; i < CODIGOS_RESULTADO; i++) {
+            copiaResultados[i] = resultados[i].sum();
+        }
+        return new ResumenMetricas(copiaLatencias, copiaResultados, promocionesVip.sum(),
+            habitacionesRecorridas.distribucion());
+    }
+}
@@ -0,0 +1,76 @@
+package org.ed06.model;
+
+/**
+ * Métricas de ocupación e ingresos de un conjunto de habitaciones durante un periodo.
+ *
+ * <ul>
+ *     <li>Ocupación: noches vendidas entre noches disponibles.</li>
+ *     <li>ADR (tarifa media diaria): ingresos entre noches vendidas.</li>
+ *     <li>RevPAR (ingresos por habitación disponible): ingresos entre noches disponibles.</li>
+ * </ul>
+ *
+ * @author Patricia Cid González
+ */
+public final class MetricasOcupacion {
+    private final long nochesDisponibles;
+    private final long nochesVendidas;
+    private final double ingresos;
+
+    /**
+     * Crea las métricas a partir de sus totales.
+     *
+     * @param nochesDisponibles Noches-habitación disponibles en el periodo.
+     * @param nochesVendidas    Noches-habitación reservadas en el periodo.
+     * @param ingresos          Ingresos de las noches reservadas.
+     */
+    public MetricasOcupacion(long nochesDisponibles, long nochesVendidas, double ingresos) {
+        this.nochesDisponibles = nochesDisponibles;
+        this.nochesVendidas = nochesVendidas;
+        this.ingresos = ingresos;
+    }
+
+    public long getNochesDisponibles() {
+        return nochesDisponibles;
+    }
+
+    public long getNochesVendidas() {
+        return nochesVendidas;
+    }
+
+    public double getIngresos() {
+        return ingresos;
+    }
+
+    /**
+     * Fracción de noches disponibles que se han vendido.
+     *
+     * @return Ocupación entre 0 y 1, o 0 si no hay noches disponibles.
+     */
+    public double getOcupacion() {
+        return nochesDisponibles == 0 ? 0 : (double) nochesVendidas / nochesDisponibles;
+    }
+
+    /**
+     * Tarifa media diaria (ADR).
+     *
+     * @return Ingresos por noche vendida, o 0 si no se ha vendido ninguna.
+     */
+    public double getAdr() {
+        return nochesVendidas == 0 ? 0 : ingresos / nochesVendidas;
+    }
+
+    /**
+     * Ingresos por habitación disponible (RevPAR).
+     *
+     * @return Ingresos por noche disponible, o 0 si no hay noches disponibles.
+     */
+    public double getRevPar() {
+        return nochesDisponibles == 0 ? 0 : ingresos / nochesDisponibles;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Ocupación: %.1f %% - ADR: %.2f € - RevPAR: %.2f € - Ingresos: %.2f €",
+            getOcupacion() * 100, getAdr(), getRevPar(), ingresos);
+    }
+}
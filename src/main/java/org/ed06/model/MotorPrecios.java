@@ -0,0 +1,254 @@
+package org.ed06.model;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Motor que calcula el precio de las estancias aplicando una cadena de {@link ReglaPrecio}.
+ *
+ * <p>Las reglas se fijan al crear el motor. Las reglas por noche se compilan, para cada
+ * tipo de habitación, en una tabla con la suma acumulada de los factores de cada día de un
+ * horizonte de fechas; así, el precio de una estancia dentro del horizonte se obtiene
+ * restando dos posiciones de la tabla, sea cual sea su duración. Las noches fuera del
+ * horizonte se evalúan una a una. La tabla de un tipo se construye la primera vez que se
+ * cotiza ese tipo y no cambia después.</p>
+ *
+ * <p>Si alguna regla usa la ocupación, el motor lleva la cuenta de las habitaciones de
+ * cada tipo y de las noches reservadas dentro del horizonte; el {@link Hotel} que lo usa
+ * se la notifica. La clase es segura para varios hilos.</p>
+ *
+ * @author Patricia Cid González
+ */
+public final class MotorPrecios {
+    private static final int DIAS_PASADOS = 366;
+    private static final int DIAS_FUTUROS = 3 * 366;
+
+    private final ReglaPrecio.PorNoche[] reglasNoche;
+    private final ReglaPrecio.PorEstancia[] reglasEstancia;
+    private final boolean usaOcupacion;
+    private final int primerDia;
+    private final int dias;
+    private final Map<String,double[]> tarifas = new ConcurrentHashMap<>(); // Suma acumulada de factores por tipo
+    private final Map<String,OcupacionTipo> ocupacion = new ConcurrentHashMap<>();
+
+    /**
+     * Crea un motor con un horizonte precalculado desde un año antes hasta tres años
+     * después de hoy según el reloj del sistema.
+     *
+     * @param reglas Reglas a aplicar, en orden.
+     */
+    public MotorPrecios(List<? extends ReglaPrecio> reglas) {
+        this(reglas, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Crea un motor con un horizonte precalculado desde un año antes hasta tres años
+     * después del día actual de un reloj, normalmente el del hotel que lo usa.
+     *
+     * @param reglas Reglas a aplicar, en orden.
+     * @param reloj  Reloj del que se toma el día actual.
+     */
+    public MotorPrecios(List<? extends ReglaPrecio> reglas, Clock reloj) {
+        this(reglas, LocalDate.now(reloj).minusDays(DIAS_PASADOS), LocalDate.now(reloj).plusDays(DIAS_FUTUROS));
+    }
+
+    /**
+     * Crea un motor con un horizonte precalculado concreto.
+     *
+     * @param reglas Reglas a aplicar, en orden.
+     * @param desde  Primera noche del horizonte.
+     * @param hasta  Día siguiente a la última noche del horizonte.
+     * @throws IllegalArgumentException si el horizonte no es válido
+     */
+    public MotorPrecios(List<? extends ReglaPrecio> reglas, LocalDate desde, LocalDate hasta) {
+        if (hasta.isBefore(desde)) {
+            throw new IllegalArgumentException("El horizonte de precios termina antes de empezar");
+        }
+        List<ReglaPrecio.PorNoche> porNoche = new ArrayList<>();
+        List<ReglaPrecio.PorEstancia> porEstancia = new ArrayList<>();
+        for (ReglaPrecio regla : reglas) {
+            switch (regla) {
+                case ReglaPrecio.PorNoche noche -> porNoche.add(noche);
+                case ReglaPrecio.PorEstancia estancia -> porEstancia.add(estancia);
+            }
+        }
+        this.reglasNoche = porNoche.toArray(new ReglaPrecio.PorNoche[0]);
+        this.reglasEstancia = porEstancia.toArray(new ReglaPrecio.PorEstancia[0]);
+        this.usaOcupacion = porEstancia.stream().anyMatch(ReglaPrecio.PorEstancia::usaOcupacion);
+        this.primerDia = (int) desde.toEpochDay();
+        this.dias = (int) (hasta.toEpochDay() - desde.toEpochDay());
+    }
+
+    /**
+     * Crea un motor con las reglas de siempre del hotel: descuento para clientes VIP y
+     * descuento para estancias de más de 7 noches.
+     *
+     * @return Motor con las reglas predeterminadas.
+     */
+    public static MotorPrecios predeterminado() {
+        return predeterminado(Clock.systemDefaultZone());
+    }
+
+    /**
+     * Crea un motor con las reglas predeterminadas y el horizonte centrado en el día actual
+     * de un reloj.
+     *
+     * @param reloj Reloj del que se toma el día actual.
+     * @return Motor con las reglas predeterminadas.
+     */
+    public static MotorPrecios predeterminado(Clock reloj) {
+        return new MotorPrecios(List.of(
+            ReglaPrecio.descuentoVip(Reserva.DESCUENTO_VIP),
+            ReglaPrecio.estanciaLarga(7, Reserva.DESCUENTO_ESTANCIA_LARGA)), reloj);
+    }
+
+    /**
+     * Calcula el precio de una estancia en una habitación.
+     *
+     * @param habitacion   Habitación.
+     * @param vip          Indica si el cliente es VIP.
+     * @param fechaEntrada Fecha de entrada.
+     * @param fechaSalida  Fecha de salida.
+     * @return Precio total de la estancia.
+     */
+    public double cotizar(Habitacion habitacion, boolean vip, LocalDate fechaEntrada, LocalDate fechaSalida) {
+        return cotizar(habitacion.getTipo(), habitacion.getPrecioBase(), vip,
+            (int) fechaEntrada.toEpochDay(), (int) fechaSalida.toEpochDay());
+    }
+
+    /**
+     * Calcula el precio de una estancia a partir del tipo y el precio base de la habitación.
+     *
+     * @param tipo       Tipo de habitación.
+     * @param precioBase Precio base por noche.
+     * @param vip        Indica si el cliente es VIP.
+     * @param inicio     Día de entrada, como días desde la época.
+     * @param fin        Día de salida, como días desde la época.
+     * @return Precio total de la estancia.
+     */
+    public double cotizar(String tipo, double precioBase, boolean vip, int inicio, int fin) {
+        String clave = tipo.toUpperCase();
+        double precio = precioBase * sumarFactores(clave, inicio, fin);
+        if (reglasEstancia.length > 0) {
+            ReglaPrecio.Estancia estancia = new ReglaPrecio.Estancia(clave, fin - inicio, vip,
+                usaOcupacion ? fraccionOcupada(clave, inicio) : 0);
+            for (ReglaPrecio.PorEstancia regla : reglasEstancia) {
+                precio = regla.aplicar(estancia, precio);
+            }
+        }
+        return precio;
+    }
+
+    /**
+     * Suma los factores de las noches de una estancia, que multiplicada por el precio base
+     * da el precio antes de las reglas por estancia.
+     */
+    private double sumarFactores(String tipo, int inicio, int fin) {
+        if (reglasNoche.length == 0) {
+            return fin - inicio;
+        }
+        int desde = Math.clamp(inicio, primerDia, primerDia + dias);
+        int hasta = Math.clamp(fin, primerDia, primerDia + dias);
+        double suma = 0;
+        if (desde < hasta) {
+            double[] acumulados = tarifas.computeIfAbsent(tipo, this::compilar);
+            suma = acumulados[hasta - primerDia] - acumulados[desde - primerDia];
+        }
+        // Noches fuera del horizonte precalculado
+        for (int dia = inicio; dia < Math.min(fin, primerDia); dia++) {
+            suma += factorNoche(tipo, dia);
+        }
+        for (int dia = Math.max(inicio, primerDia + dias); dia < fin; dia++) {
+            suma += factorNoche(tipo, dia);
+        }
+        return suma;
+    }
+
+    private double[] compilar(String tipo) {
+        double[] acumulados = new double[dias + 1];
+        for (int i = 0; i < dias; i++) {
+            acumulados[i + 1] = acumulados[i] + factorNoche(tipo, primerDia + i);
+        }
+        return acumulados;
+    }
+
+    private double factorNoche(String tipo, int dia) {
+        LocalDate noche = LocalDate.ofEpochDay(dia);
+        double factor = 1;
+        for (ReglaPrecio.PorNoche regla : reglasNoche) {
+            factor *= regla.factor(tipo, noche);
+        }
+        return factor;
+    }
+
+    private double fraccionOcupada(String tipo, int dia) {
+        OcupacionTipo ocupacionTipo = ocupacion.get(tipo);
+        int posicion = dia - primerDia;
+        if (ocupacionTipo == null || posicion < 0 || posicion >= dias) {
+            return 0;
+        }
+        return (double) ocupacionTipo.noches.get(posicion) / ocupacionTipo.habitaciones.get();
+    }
+
+    /**
+     * Anota una nueva habitación de un tipo para calcular la ocupación.
+     *
+     * @param tipo Tipo de la habitación.
+     */
+    void habitacionRegistrada(String tipo) {
+        if (usaOcupacion) {
+            ocupacion.computeIfAbsent(tipo.toUpperCase(), t -> new OcupacionTipo(dias)).habitaciones.incrementAndGet();
+        }
+    }
+
+    /**
+     * Anota las noches de una reserva para calcular la ocupación.
+     *
+     * @param tipo   Tipo de la habitación reservada.
+     * @param inicio Día de entrada, como días desde la época.
+     * @param fin    Día de salida, como días desde la época.
+     */
+    void ocupar(String tipo, int inicio, int fin) {
+        anotarNoches(tipo, inicio, fin, 1);
+    }
+
+    /**
+     * Descuenta las noches de una reserva cancelada o modificada.
+     *
+     * @param tipo   Tipo de la habitación reservada.
+     * @param inicio Día de entrada, como días desde la época.
+     * @param fin    Día de salida, como días desde la época.
+     */
+    void liberar(String tipo, int inicio, int fin) {
+        anotarNoches(tipo, inicio, fin, -1);
+    }
+
+    private void anotarNoches(String tipo, int inicio, int fin, int delta) {
+        if (!usaOcupacion) {
+            return;
+        }
+        OcupacionTipo ocupacionTipo = ocupacion.get(tipo.toUpperCase());
+        int hasta = Math.min(fin - primerDia, dias);
+        for (int posicion = Math.max(inicio - primerDia, 0); posicion < hasta; posicion++) {
+            ocupacionTipo.noches.addAndGet(posicion, delta);
+        }
+    }
+
+    /**
+     * Número de habitaciones de un tipo y noches ocupadas de cada día del horizonte.
+     */
+    private static final class OcupacionTipo {
+        private final AtomicInteger habitaciones = new AtomicInteger();
+        private final AtomicIntegerArray noches;
+
+        private OcupacionTipo(int dias) {
+            this.noches = new AtomicIntegerArray(dias);
+        }
+    }
+}
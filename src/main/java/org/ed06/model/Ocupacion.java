@@ -0,0 +1,269 @@
+package org.ed06.model;
+
+/**
+ * Índice de ocupación de una habitación basado en intervalos de fechas.
+ *
+ * <p>Las estancias se guardan como intervalos semiabiertos {@code [inicio, fin)} expresados
+ * en días desde la época ({@link java.time.LocalDate#toEpochDay()}). Los intervalos se
+ * mantienen ordenados y sin solapes en dos arrays paralelos de enteros, de modo que
+ * comprobar si un rango está libre es una búsqueda binaria en O(log n).</p>
+ *
+ * <p>Los arrays no se modifican nunca: cada estancia nueva publica una copia ampliada. Así,
+ * las consultas leen una versión inmutable sin tomar ningún cerrojo y no bloquean ni son
+ * bloqueadas por las reservas; las escrituras se serializan con el monitor de la
+ * habitación.</p>
+ *
+ * <p>El precio es que {@link #ocupar} y {@link #liberar} copian los dos arrays, así que
+ * cuestan O(k) con k estancias de la habitación y llenarla una a una cuesta O(k²). Se
+ * acepta porque k está acotado por las noches de una sola habitación (unas 365 por año de
+ * historial como mucho) y la copia es un {@code System.arraycopy} de enteros: con un año
+ * de estancias de una noche supone del orden de medio microsegundo por reserva, y con diez
+ * años unos pocos, frente a las decenas que cuesta la reserva completa. Los cambios de
+ * muchas estancias a la vez, como las reoptimizaciones, publican una sola copia con
+ * {@link #reemplazarDesde}. Si una habitación llegara a acumular muchos más años de
+ * historial, habría que repartir las estancias en bloques para copiar solo el afectado.</p>
+ *
+ * @author Patricia Cid González
+ */
+final class Ocupacion {
+    private static final int[] VACIO = new int[0];
+
+    /**
+     * Estancias ordenadas en un momento dado. Nunca se modifican una vez publicadas.
+     */
+    private record Intervalos(int[] inicios, int[] fines) {
+    }
+
+    private volatile Intervalos intervalos = new Intervalos(VACIO, VACIO);
+
+    /**
+     * Comprueba si el intervalo {@code [inicio, fin)} no se solapa con ninguna estancia.
+     *
+     * @param inicio Primer día de la estancia (día desde la época).
+     * @param fin    Día de salida (excluido).
+     * @return {@code true} si el intervalo está libre.
+     */
+    boolean estaLibre(int inicio, int fin) {
+        return estaLibre(intervalos, inicio, fin);
+    }
+
+    private static boolean estaLibre(Intervalos actuales, int inicio, int fin) {
+        int posicion = posicionInsercion(actuales.inicios(), inicio);
+        // La estancia anterior debe terminar antes de que empiece la nueva
+        if (posicion > 0 && actuales.fines()[posicion - 1] > inicio) {
+            return false;
+        }
+        // La estancia siguiente debe empezar después de que termine la nueva
+        return posicion == actuales.inicios().length || actuales.inicios()[posicion] >= fin;
+    }
+
+    /**
+     * Calcula las noches libres alrededor del intervalo {@code [inicio, fin)} si está libre.
+     *
+     * @param inicio Primer día de la estancia (día desde la época).
+     * @param fin    Día de salida (excluido).
+     * @return Noches libres antes de la entrada en los 32 bits altos y después de la salida
+     * en los bajos, cada una {@link EstrategiaAsignacion#SIN_LIMITE} si no hay estancia a ese
+     * lado; o {@code -1} si el intervalo no está libre.
+     */
+    long hueco(int inicio, int fin) {
+        Intervalos actuales = intervalos;
+        int posicion = posicionInsercion(actuales.inicios(), inicio);
+        int antes = EstrategiaAsignacion.SIN_LIMITE;
+        int despues = EstrategiaAsignacion.SIN_LIMITE;
+        if (posicion > 0) {
+            antes = inicio - actuales.fines()[posicion - 1];
+            if (antes < 0) {
+                return -1;
+            }
+        }
+        if (posicion < actuales.inicios().length) {
+            despues = actuales.inicios()[posicion] - fin;
+            if (despues < 0) {
+                return -1;
+            }
+        }
+        return (long) antes << 32 | despues;
+    }
+
+    /**
+     * Cuenta los periodos libres entre dos estancias que terminan después de un día.
+     *
+     * @param dia Día desde la época.
+     * @return Número de huecos entre estancias posteriores a {@code dia}.
+     */
+    int contarHuecos(int dia) {
+        Intervalos actuales = intervalos;
+        int huecos = 0;
+        for (int i = posicionInsercion(actuales.inicios(), dia + 1); i < actuales.inicios().length; i++) {
+            if (i > 0 && actuales.fines()[i - 1] < actuales.inicios()[i]) {
+                huecos++;
+            }
+        }
+        return huecos;
+    }
+
+    /**
+     * Sustituye las estancias que empiezan en un día o después por otras, publicando una
+     * sola versión nueva. Las llamadas deben estar serializadas por quien use el índice.
+     *
+     * @param dia     Día desde la época a partir del cual se sustituyen las estancias.
+     * @param inicios Inicios de las nuevas estancias, ordenados y no anteriores a {@code dia}.
+     * @param fines   Fines de las nuevas estancias.
+     * @param cuantas Número de estancias nuevas.
+     * @return {@code true} si se han sustituido, {@code false} si las nuevas se solapan entre
+     * sí o con las anteriores a {@code dia}, en cuyo caso no cambia nada.
+     */
+    boolean reemplazarDesde(int dia, int[] inicios, int[] fines, int cuantas) {
+        Intervalos actuales = intervalos;
+        int conservadas = posicionInsercion(actuales.inicios(), dia);
+        int finAnterior = conservadas > 0 ? actuales.fines()[conservadas - 1] : Integer.MIN_VALUE;
+        for (int i = 0; i < cuantas; i++) {
+            if (inicios[i] < finAnterior || inicios[i] < dia) {
+                return false;
+            }
+            finAnterior = fines[i];
+        }
+        int[] nuevosInicios = new int[conservadas + cuantas];
+        int[] nuevosFines = new int[conservadas + cuantas];
+        System.arraycopy(actuales.inicios(), 0, nuevosInicios, 0, conservadas);
+        System.arraycopy(actuales.fines(), 0, nuevosFines, 0, conservadas);
+        System.arraycopy(inicios, 0, nuevosInicios, conservadas, cuantas);
+        System.arraycopy(fines, 0, nuevosFines, conservadas, cuantas);
+        intervalos = new Intervalos(nuevosInicios, nuevosFines);
+        return true;
+    }
+
+    /**
+     * Marca el intervalo {@code [inicio, fin)} como ocupado si está libre. Las llamadas
+     * deben estar serializadas por quien use el índice.
+     *
+     * @param inicio Primer día de la estancia (día desde la época).
+     * @param fin    Día de salida (excluido).
+     * @return {@code true} si se ha ocupado, {@code false} si se solapaba con otra estancia.
+     */
+    boolean ocupar(int inicio, int fin) {
+        Intervalos actuales = intervalos;
+        if (!estaLibre(actuales, inicio, fin)) {
+            return false;
+        }
+        int tamanio = actuales.inicios().length;
+        int posicion = posicionInsercion(actuales.inicios(), inicio);
+        int[] inicios = new int[tamanio + 1];
+        int[] fines = new int[tamanio + 1];
+        System.arraycopy(actuales.inicios(), 0, inicios, 0, posicion);
+        System.arraycopy(actuales.fines(), 0, fines, 0, posicion);
+        System.arraycopy(actuales.inicios(), posicion, inicios, posicion + 1, tamanio - posicion);
+        System.arraycopy(actuales.fines(), posicion, fines, posicion + 1, tamanio - posicion);
+        inicios[posicion] = inicio;
+        fines[posicion] = fin;
+        intervalos = new Intervalos(inicios, fines);
+        return true;
+    }
+
+    /**
+     * Libera la estancia {@code [inicio, fin)} si está registrada tal cual. Las llamadas
+     * deben estar serializadas por quien use el índice.
+     *
+     * @param inicio Primer día de la estancia (día desde la época).
+     * @param fin    Día de salida (excluido).
+     * @return {@code true} si se ha liberado, {@code false} si no había esa estancia.
+     */
+    boolean liberar(int inicio, int fin) {
+        Intervalos actuales = intervalos;
+        int tamanio = actuales.inicios().length;
+        int posicion = posicionInsercion(actuales.inicios(), inicio);
+        if (posicion == tamanio || actuales.inicios()[posicion] != inicio || actuales.fines()[posicion] != fin) {
+            return false;
+        }
+        int[] inicios = new int[tamanio - 1];
+        int[] fines = new int[tamanio - 1];
+        System.arraycopy(actuales.inicios(), 0, inicios, 0, posicion);
+        System.arraycopy(actuales.fines(), 0, fines, 0, posicion);
+        System.arraycopy(actuales.inicios(), posicion + 1, inicios, posicion, tamanio - posicion - 1);
+        System.arraycopy(actuales.fines(), posicion + 1, fines, posicion, tamanio - posicion - 1);
+        intervalos = new Intervalos(inicios, fines);
+        return true;
+    }
+
+    /**
+     * Empieza un recorrido de las estancias actuales desde la primera que empieza en
+     * {@code dia} o después.
+     *
+     * @param dia Día desde la época.
+     * @return Recorrido sobre la versión publicada en este momento.
+     */
+    Recorrido recorrer(int dia) {
+        Intervalos actuales = intervalos;
+        return new Recorrido(actuales, posicionInsercion(actuales.inicios(), dia));
+    }
+
+    /**
+     * Cursor que avanza por las estancias de una versión de la ocupación para consultar, con
+     * días de entrada crecientes, qué estancias quedan justo antes y justo después. Recorrer
+     * así n días cuesta O(n + k) en total en lugar de una búsqueda binaria por día.
+     */
+    static final class Recorrido {
+        private final int[] inicios;
+        private final int[] fines;
+        private int posicion;
+
+        private Recorrido(Intervalos intervalos, int posicion) {
+            this.inicios = intervalos.inicios();
+            this.fines = intervalos.fines();
+            this.posicion = posicion;
+        }
+
+        /**
+         * Avanza hasta la primera estancia que empieza en {@code dia} o después. Los días
+         * no pueden ser anteriores a los de llamadas previas.
+         */
+        void avanzar(int dia) {
+            while (posicion < inicios.length && inicios[posicion] < dia) {
+                posicion++;
+            }
+        }
+
+        /**
+         * Día de salida de la última estancia que empieza antes del día actual, o
+         * {@link Integer#MIN_VALUE} si no hay ninguna.
+         */
+        int finAnterior() {
+            return posicion > 0 ? fines[posicion - 1] : Integer.MIN_VALUE;
+        }
+
+        /**
+         * Día de entrada de la primera estancia que empieza en el día actual o después, o
+         * {@link Integer#MAX_VALUE} si no hay ninguna.
+         */
+        int inicioSiguiente() {
+            return posicion < inicios.length ? inicios[posicion] : Integer.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Número de estancias registradas.
+     *
+     * @return Número de intervalos ocupados.
+     */
+    int getTamanio() {
+        return intervalos.inicios().length;
+    }
+
+    /**
+     * Devuelve la primera posición cuyo inicio es mayor o igual que {@code inicio}.
+     */
+    private static int posicionInsercion(int[] inicios, int inicio) {
+        int bajo = 0;
+        int alto = inicios.length;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (inicios[medio] < inicio) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+}
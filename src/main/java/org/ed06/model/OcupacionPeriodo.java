@@ -0,0 +1,108 @@
+package org.ed06.model;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Receptor de eventos que mantiene al día el informe de ocupación de un periodo, de
+ * forma que consultarlo no obliga a recorrer todas las reservas del hotel.
+ *
+ * <p>Cada habitación registrada y cada reserva realizada se anotan al recibir el evento;
+ * las reservas canceladas o modificadas se descuentan igual.
+ * Para incluir lo que ya tenía el hotel, se llama a {@link #cargar(Hotel)} antes de
+ * conectarlo con {@link Hotel#setEventos} (por ejemplo, mediante
+ * {@link EventosHotel#combinar}) y antes de que el hotel empiece a recibir operaciones.</p>
+ *
+ * <p>Ejemplo de uso:</p>
+ * <pre>
+ * OcupacionPeriodo mes = OcupacionPeriodo.mesActual();
+ * mes.cargar(hotel);
+ * hotel.setEventos(EventosHotel.combinar(new EventosConsola(), mes));
+ * ...
+ * mes.getInforme().mostrarInforme();
+ * </pre>
+ *
+ * @author Patricia Cid González
+ */
+public final class OcupacionPeriodo implements EventosHotel {
+    private final LocalDate desde;
+    private final int primerDia;
+    private final int dias;
+    private final Map<String,SerieOcupacion> series = new HashMap<>(); // Protegido por this
+
+    /**
+     * Crea el acumulador de un periodo.
+     *
+     * @param desde Primer día del periodo.
+     * @param hasta Día siguiente al último día del periodo.
+     * @throws IllegalArgumentException si el periodo está vacío
+     */
+    public OcupacionPeriodo(LocalDate desde, LocalDate hasta) {
+        if (!desde.isBefore(hasta)) {
+            throw new IllegalArgumentException("La fecha de inicio debe ser anterior a la de fin");
+        }
+        this.desde = desde;
+        this.primerDia = (int) desde.toEpochDay();
+        this.dias = (int) (hasta.toEpochDay() - desde.toEpochDay());
+    }
+
+    /**
+     * Crea el acumulador del mes en curso.
+     *
+     * @return Acumulador del mes actual.
+     */
+    public static OcupacionPeriodo mesActual() {
+        YearMonth mes = YearMonth.now();
+        return new OcupacionPeriodo(mes.atDay(1), mes.plusMonths(1).atDay(1));
+    }
+
+    /**
+     * Anota las habitaciones y reservas que ya tiene un hotel.
+     *
+     * @param hotel Hotel del que se cargan los datos.
+     */
+    public synchronized void cargar(Hotel hotel) {
+        for (int numero = 1; numero <= hotel.getNumeroHabitaciones(); numero++) {
+            habitacionRegistrada(hotel.getHabitacion(numero));
+            hotel.getReservas(numero).forEach(this::reservaRealizada);
+        }
+    }
+
+    /**
+     * Devuelve una copia del informe del periodo con lo anotado hasta ahora.
+     *
+     * @return Informe del periodo.
+     */
+    public synchronized InformeOcupacion getInforme() {
+        Map<String,SerieOcupacion> copia = new HashMap<>();
+        series.forEach((tipo, serie) -> copia.put(tipo, serie.copia()));
+        return new InformeOcupacion(desde, dias, copia);
+    }
+
+    @Override
+    public synchronized void habitacionRegistrada(Habitacion habitacion) {
+        serie(habitacion.getTipo()).habitaciones++;
+    }
+
+    @Override
+    public synchronized void reservaRealizada(Reserva reserva) {
+        serie(reserva.getHabitacion().getTipo()).anotar(reserva);
+    }
+
+    @Override
+    public synchronized void reservaCancelada(Reserva reserva) {
+        serie(reserva.getHabitacion().getTipo()).quitar(reserva);
+    }
+
+    @Override
+    public synchronized void reservaModificada(Reserva anterior, Reserva nueva) {
+        serie(anterior.getHabitacion().getTipo()).quitar(anterior);
+        serie(nueva.getHabitacion().getTipo()).anotar(nueva);
+    }
+
+    private SerieOcupacion serie(String tipo) {
+        return series.computeIfAbsent(tipo, t -> new SerieOcupacion(primerDia, dias));
+    }
+}
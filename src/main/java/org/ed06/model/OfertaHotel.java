@@ -0,0 +1,42 @@
+package org.ed06.model;
+
+/**
+ * Disponibilidad de un tipo de habitación en un hotel concreto de una {@link Cadena}.
+ *
+ * @author Patricia Cid González
+ */
+public final class OfertaHotel {
+    private final int hotelId;
+    private final String hotel;
+    private final Disponibilidad disponibilidad;
+
+    /**
+     * Crea una oferta.
+     *
+     * @param hotelId        Identificador del hotel en la cadena.
+     * @param hotel          Nombre del hotel.
+     * @param disponibilidad Disponibilidad del tipo de habitación en ese hotel.
+     */
+    public OfertaHotel(int hotelId, String hotel, Disponibilidad disponibilidad) {
+        this.hotelId = hotelId;
+        this.hotel = hotel;
+        this.disponibilidad = disponibilidad;
+    }
+
+    public int getHotelId() {
+        return hotelId;
+    }
+
+    public String getHotel() {
+        return hotel;
+    }
+
+    public Disponibilidad getDisponibilidad() {
+        return disponibilidad;
+    }
+
+    @Override
+    public String toString() {
+        return "Hotel #" + hotelId + " (" + hotel + ") - " + disponibilidad;
+    }
+}
@@ -0,0 +1,54 @@
+package org.ed06.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Página de resultados de un listado de {@link Hotel}. Junto con los elementos incluye un
+ * cursor opaco que se pasa a la siguiente llamada para continuar donde terminó esta. Los
+ * cursores no dependen de un desplazamiento, así que pedir una página cuesta lo mismo
+ * aunque esté al final de un listado muy largo.
+ *
+ * @param <T> Tipo de los elementos.
+ * @author Patricia Cid González
+ */
+public final class Pagina<T> {
+    /**
+     * Cursor con el que se pide la primera página.
+     */
+    public static final long INICIO = 0;
+    /**
+     * Cursor que indica que no hay más páginas.
+     */
+    public static final long FIN = -1;
+
+    private final List<T> elementos;
+    private final long siguiente;
+
+    Pagina(List<T> elementos, long siguiente) {
+        this.elementos = Collections.unmodifiableList(elementos);
+        this.siguiente = siguiente;
+    }
+
+    public List<T> getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Cursor para pedir la página siguiente.
+     *
+     * @return Cursor de la página siguiente o {@link #FIN} si esta es la última.
+     */
+    public long getSiguiente() {
+        return siguiente;
+    }
+
+    /**
+     * Indica si quedan más páginas.
+     *
+     * @return {@code true} si hay una página siguiente.
+     */
+    public boolean hayMas() {
+        return siguiente != FIN;
+    }
+}
@@ -0,0 +1,110 @@
+package org.ed06.model;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lista de solo inserción con acceso por posición, segura para varios hilos.
+ *
+ * <p>Las inserciones se serializan con el monitor del propio registro, mientras que las
+ * lecturas no bloquean: el tamaño es {@code volatile} y se publica después de escribir el
+ * elemento, de modo que cualquier posición menor que el tamaño leído es visible.</p>
+ *
+ * @param <T> Tipo de los elementos.
+ * @author Patricia Cid González
+ */
+final class RegistroDenso<T> implements Iterable<T> {
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    private volatile Object[] elementos = new Object[CAPACIDAD_INICIAL];
+    private volatile int tamanio;
+
+    /**
+     * Añade un elemento al final del registro.
+     *
+     * @param elemento Elemento a añadir.
+     */
+    synchronized void anadir(T elemento) {
+        Object[] actuales = elementos;
+        if (tamanio == actuales.length) {
+            actuales = Arrays.copyOf(actuales, tamanio * 2);
+            elementos = actuales;
+        }
+        actuales[tamanio] = elemento;
+        tamanio = tamanio + 1;
+    }
+
+    /**
+     * Devuelve el elemento de una posición.
+     *
+     * @param posicion Posición empezando en 0.
+     * @return El elemento o {@code null} si la posición está fuera del registro.
+     */
+    @SuppressWarnings("unchecked")
+    T get(int posicion) {
+        int limite = tamanio;
+        if (posicion < 0 || posicion >= limite) {
+            return null;
+        }
+        return (T) elementos[posicion];
+    }
+
+    /**
+     * Número de elementos publicados.
+     *
+     * @return Tamaño del registro.
+     */
+    int size() {
+        return tamanio;
+    }
+
+    boolean isEmpty() {
+        return tamanio == 0;
+    }
+
+    /**
+     * Recorre los elementos publicados en el momento de crear el iterador.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        final int limite = tamanio;
+        final Object[] vista = elementos;
+        return new Iterator<T>() {
+            private int siguiente;
+
+            @Override
+            public boolean hasNext() {
+                return siguiente < limite;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (siguiente >= limite) {
+                    throw new NoSuchElementException();
+                }
+                return (T) vista[siguiente++];
+            }
+        };
+    }
+
+    /**
+     * Devuelve un flujo con los elementos publicados en el momento de llamarlo. Conoce su
+     * tamaño, así que se puede dividir de forma equilibrada si se usa en paralelo.
+     *
+     * @return Flujo secuencial de los elementos.
+     */
+    @SuppressWarnings("unchecked")
+    Stream<T> stream() {
+        final int limite = tamanio;
+        final Object[] vista = elementos;
+        Spliterator<?> division = Spliterators.spliterator(vista, 0, limite,
+            Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.NONNULL);
+        return StreamSupport.stream((Spliterator<T>) division, false);
+    }
+}
@@ -0,0 +1,74 @@
+package org.ed06.model;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Tabla de elementos indexada por un identificador entero desde 1, segura para varios hilos.
+ *
+ * <p>Pensada para identificadores consecutivos, como los de los clientes: cada elemento
+ * ocupa la posición de su identificador en un array, sin envolver la clave en un
+ * {@link Integer} ni crear un nodo por entrada. Admite huecos, que se leen como
+ * {@code null}. Como en {@link RegistroDenso}, las inserciones se serializan con el monitor
+ * de la propia tabla y las lecturas no bloquean: cada elemento se publica con una escritura
+ * de liberación, y al crecer se publica un array nuevo completo.</p>
+ *
+ * @param <T> Tipo de los elementos.
+ * @author Patricia Cid González
+ */
+final class RegistroPorId<T> {
+    private static final VarHandle ELEMENTOS = MethodHandles.arrayElementVarHandle(Object[].class);
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    private volatile Object[] elementos = new Object[CAPACIDAD_INICIAL];
+    private int tamanio;
+
+    /**
+     * Devuelve el elemento de un identificador.
+     *
+     * @param id Identificador.
+     * @return El elemento o {@code null} si no hay ninguno con ese identificador.
+     */
+    @SuppressWarnings("unchecked")
+    T get(int id) {
+        Object[] actuales = elementos;
+        if (id < 1 || id > actuales.length) {
+            return null;
+        }
+        return (T) ELEMENTOS.getAcquire(actuales, id - 1);
+    }
+
+    /**
+     * Añade un elemento con su identificador si no había ya otro.
+     *
+     * @param id       Identificador, desde 1.
+     * @param elemento Elemento a añadir.
+     * @return {@code true} si se ha añadido, {@code false} si el identificador estaba ocupado.
+     * @throws IllegalArgumentException si el identificador no es positivo
+     */
+    synchronized boolean anadir(int id, T elemento) {
+        if (id < 1) {
+            throw new IllegalArgumentException("Identificador no válido: " + id);
+        }
+        Object[] actuales = elementos;
+        if (id > actuales.length) {
+            actuales = Arrays.copyOf(actuales, Math.max(id, actuales.length * 2));
+            elementos = actuales;
+        } else if (actuales[id - 1] != null) {
+            return false;
+        }
+        ELEMENTOS.setRelease(actuales, id - 1, elemento);
+        tamanio++;
+        return true;
+    }
+
+    /**
+     * Número de elementos añadidos.
+     *
+     * @return Tamaño de la tabla.
+     */
+    synchronized int size() {
+        return tamanio;
+    }
+}
@@ -0,0 +1,135 @@
+package org.ed06.model;
+
+import java.time.LocalDate;
+
+/**
+ * Regla que interviene en el cálculo del precio de una estancia en un {@link MotorPrecios}.
+ *
+ * <p>Hay dos clases de reglas. Las reglas {@link PorNoche} dan un factor que multiplica el
+ * precio base de cada noche según el tipo de habitación y la fecha (temporadas, recargos
+ * por tipo); el motor las precalcula en una tabla de tarifas, así que no se evalúan al
+ * cotizar. Las reglas {@link PorEstancia} ajustan el precio total de la estancia (clientes
+ * VIP, estancias largas, ocupación) y se aplican en el orden en que se pasan al motor.</p>
+ *
+ * @author Patricia Cid González
+ */
+public sealed interface ReglaPrecio permits ReglaPrecio.PorNoche, ReglaPrecio.PorEstancia {
+
+    /**
+     * Regla que multiplica el precio de cada noche por un factor.
+     */
+    @FunctionalInterface
+    non-sealed interface PorNoche extends ReglaPrecio {
+        /**
+         * Factor que se aplica al precio base de una noche.
+         *
+         * @param tipo  Tipo de habitación, en mayúsculas.
+         * @param noche Fecha de la noche.
+         * @return Factor multiplicador; {@code 1} si la regla no afecta a esa noche.
+         */
+        double factor(String tipo, LocalDate noche);
+    }
+
+    /**
+     * Regla que ajusta el precio total de una estancia.
+     */
+    @FunctionalInterface
+    non-sealed interface PorEstancia extends ReglaPrecio {
+        /**
+         * Ajusta el precio de la estancia.
+         *
+         * @param estancia Datos de la estancia.
+         * @param precio   Precio calculado hasta esta regla.
+         * @return Precio ajustado.
+         */
+        double aplicar(Estancia estancia, double precio);
+
+        /**
+         * Indica si la regla consulta la ocupación. El motor solo lleva la cuenta de las
+         * noches ocupadas si alguna de sus reglas la necesita.
+         *
+         * @return {@code true} si la regla usa {@link Estancia#ocupacion()}.
+         */
+        default boolean usaOcupacion() {
+            return false;
+        }
+    }
+
+    /**
+     * Datos de una estancia que reciben las reglas {@link PorEstancia}.
+     *
+     * @param tipo      Tipo de habitación, en mayúsculas.
+     * @param noches    Número de noches.
+     * @param vip       Indica si el cliente es VIP.
+     * @param ocupacion Fracción de habitaciones del tipo ocupadas la noche de entrada, entre
+     *                  0 y 1; siempre 0 si ninguna regla del motor usa la ocupación.
+     */
+    record Estancia(String tipo, int noches, boolean vip, double ocupacion) {
+    }
+
+    /**
+     * Tarifa de temporada: multiplica el precio de las noches comprendidas entre dos fechas.
+     *
+     * @param desde  Primera noche de la temporada.
+     * @param hasta  Día siguiente a la última noche de la temporada.
+     * @param factor Factor que se aplica a esas noches.
+     * @return Regla de temporada.
+     */
+    static PorNoche temporada(LocalDate desde, LocalDate hasta, double factor) {
+        return (tipo, noche) -> !noche.isBefore(desde) && noche.isBefore(hasta) ? factor : 1;
+    }
+
+    /**
+     * Recargo por tipo de habitación: multiplica el precio de todas las noches de un tipo.
+     *
+     * @param tipoHabitacion Tipo de habitación afectado.
+     * @param factor         Factor que se aplica a cada noche.
+     * @return Regla de recargo.
+     */
+    static PorNoche recargoTipo(String tipoHabitacion, double factor) {
+        return (tipo, noche) -> tipo.equalsIgnoreCase(tipoHabitacion) ? factor : 1;
+    }
+
+    /**
+     * Descuento para clientes VIP.
+     *
+     * @param factor Factor que se aplica al precio de la estancia.
+     * @return Regla de descuento.
+     */
+    static PorEstancia descuentoVip(double factor) {
+        return (estancia, precio) -> estancia.vip() ? precio * factor : precio;
+    }
+
+    /**
+     * Descuento por estancia larga.
+     *
+     * @param noches Número de noches que hay que superar para tener el descuento.
+     * @param factor Factor que se aplica al precio de la estancia.
+     * @return Regla de descuento.
+     */
+    static PorEstancia estanciaLarga(int noches, double factor) {
+        return (estancia, precio) -> estancia.noches() > noches ? precio * factor : precio;
+    }
+
+    /**
+     * Ajuste por ocupación: modifica el precio cuando la ocupación del tipo la noche de
+     * entrada alcanza un umbral.
+     *
+     * @param umbral Fracción de ocupación a partir de la que se aplica, entre 0 y 1.
+     * @param factor Factor que se aplica al precio de la estancia.
+     * @return Regla de ocupación.
+     */
+    static PorEstancia ocupacion(double umbral, double factor) {
+        return new PorEstancia() {
+            @Override
+            public double aplicar(Estancia estancia, double precio) {
+                return estancia.ocupacion() >= umbral ? precio * factor : precio;
+            }
+
+            @Override
+            public boolean usaOcupacion() {
+                return true;
+            }
+        };
+    }
+}
@@ -7,7 +7,11 @@ import java.time.LocalDate;
  * La clase gestiona los detalles de la habitación reservada,
  * el cliente que hace la reserva y las fechas de la estancia.
  * Además, calcula el precio final de la reserva aplicando descuentos
- * según el tipo de cliente (VIP) y la duración de la estancia.
+ * según el tipo de cliente (VIP) y la duración de la estancia, con las reglas de
+ * {@link MotorPrecios#predeterminado()}.
+ *
+ * <p>Las fechas se guardan como días desde la época, así que comparar fechas y contar
+ * noches son operaciones con enteros; los {@link LocalDate} solo se crean al pedirlos.</p>
  *
  * @author Patricia Cid González
  */
@@ -15,11 +19,12 @@ public class Reserva {
 
     public static final double DESCUENTO_VIP = 0.9;       // Descuento aplicado a los clientes VIP
     public static final double DESCUENTO_ESTANCIA_LARGA = 0.95;  // Descuento aplicado a las estancias largas (por ejemplo, más de 7 días)
+    private static final MotorPrecios PRECIOS = MotorPrecios.predeterminado();
     private final int id;
     private final Habitacion habitacion;
     private final Cliente cliente;
-    private final LocalDate fechaInicio;
-    private final LocalDate fechaFin;
+    private final int inicio; // Días desde la época
+    private final int fin;
     private final double precioTotal;
 
 
@@ -36,43 +41,101 @@ public class Reserva {
         this.id = id;
         this.habitacion = habitacion;
         this.cliente = cliente;
-        this.fechaInicio = fechaInicio;
-        this.fechaFin = fechaFin;
+        this.inicio = (int) fechaInicio.toEpochDay();
+        this.fin = (int) fechaFin.toEpochDay();
         this.precioTotal = calcularPrecioFinal();
     }
 
+    /**
+     * Crea una reserva con un precio total ya calculado, por ejemplo al recuperarla de
+     * un almacenamiento persistente.
+     *
+     * @param id           ID único de la reserva.
+     * @param habitacion   Habitación reservada.
+     * @param cliente      Cliente que hace la reserva.
+     * @param fechaInicio  Fecha de inicio de la reserva.
+     * @param fechaFin     Fecha de fin de la reserva.
+     * @param precioTotal  Precio total de la reserva.
+     */
+    public Reserva(int id, Habitacion habitacion, Cliente cliente, LocalDate fechaInicio, LocalDate fechaFin,
+                   double precioTotal) {
+        this(id, habitacion, cliente, (int) fechaInicio.toEpochDay(), (int) fechaFin.toEpochDay(), precioTotal);
+    }
+
+    /**
+     * Crea una reserva con las fechas como días desde la época y un precio ya calculado.
+     */
+    Reserva(int id, Habitacion habitacion, Cliente cliente, int inicio, int fin, double precioTotal) {
+        this.id = id;
+        this.habitacion = habitacion;
+        this.cliente = cliente;
+        this.inicio = inicio;
+        this.fin = fin;
+        this.precioTotal = precioTotal;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public Habitacion getHabitacion() {
+        return habitacion;
+    }
 
     public Cliente getCliente() {
         return cliente;
     }
 
     public LocalDate getFechaInicio() {
-        return fechaInicio;
+        return LocalDate.ofEpochDay(inicio);
     }
 
+    public LocalDate getFechaFin() {
+        return LocalDate.ofEpochDay(fin);
+    }
 
     /**
-     * Calcula el precio total de la reserva. El precio base se multiplica por el número de días
-     * de la estancia, y luego se aplican los descuentos si el cliente es VIP o si la estancia
-     * es más larga que 7 días.
+     * Día de entrada como días desde la época.
      *
-     * @return El precio total de la reserva.
+     * @return Día de entrada.
      */
-    public double calcularPrecioFinal() {
+    public int getDiaInicio() {
+        return inicio;
+    }
 
-        int diasReserva = fechaFin.getDayOfYear() - fechaInicio.getDayOfYear();
+    /**
+     * Día de salida como días desde la época.
+     *
+     * @return Día de salida.
+     */
+    public int getDiaFin() {
+        return fin;
+    }
 
-        double precioFinal = habitacion.getPrecioBase() * diasReserva;
+    /**
+     * Número de noches de la estancia.
+     *
+     * @return Noches entre la entrada y la salida.
+     */
+    public int getNoches() {
+        return fin - inicio;
+    }
 
-        if (cliente.esVip) {
-            precioFinal *= DESCUENTO_VIP;
-        }
+    public double getPrecioTotal() {
+        return precioTotal;
+    }
 
-        if (diasReserva > 7) {
-            precioFinal *= DESCUENTO_ESTANCIA_LARGA;
-        }
 
-        return precioFinal;
+    /**
+     * Calcula el precio total de la reserva. El precio base se multiplica por el número de noches
+     * de la estancia, y luego se aplican los descuentos si el cliente es VIP o si la estancia
+     * es más larga que 7 noches. Las noches se cuentan con la diferencia de días desde la
+     * época, por lo que las estancias que cruzan un cambio de año se calculan bien.
+     *
+     * @return El precio total de la reserva.
+     */
+    public double calcularPrecioFinal() {
+        return PRECIOS.cotizar(habitacion.getTipo(), habitacion.getPrecioBase(), cliente.esVip, inicio, fin);
     }
 
     /**
@@ -83,8 +146,8 @@ public class Reserva {
         System.out.println("Reserva #" + id);
         System.out.println("Habitación #" + habitacion.getNumero() + " - Tipo: " + habitacion.getTipo() + " - Precio base: " + habitacion.getPrecioBase());
         System.out.println("Cliente: " + cliente.nombre);
-        System.out.println("Fecha de inicio: " + fechaInicio.toString());
-        System.out.println("Fecha de fin: " + fechaFin.toString());
+        System.out.println("Fecha de inicio: " + getFechaInicio());
+        System.out.println("Fecha de fin: " + getFechaFin());
         System.out.printf("Precio total: %.2f €\n", precioTotal);
     }
 
@@ -0,0 +1,194 @@
+package org.ed06.model;
+
+import java.util.Arrays;
+
+/**
+ * Reservas de una habitación guardadas por columnas en un único array de {@code long},
+ * ordenadas por identificador, que es el orden en que se realizan.
+ *
+ * <p>Cada reserva ocupa {@value #CAMPOS} posiciones: identificador y cliente, día de
+ * entrada y de salida (desde la época) y los bits del precio. Así una reserva ocupa 24
+ * bytes, frente a los casi 100 de un objeto {@link Reserva} con sus dos {@code LocalDate},
+ * y el {@link Hotel} solo crea objetos {@link Reserva} cuando se los piden.</p>
+ *
+ * <p>Cancelar una reserva solo la marca como cancelada, dejando su posición; los
+ * recorridos saltan las canceladas con {@link #isActiva}. Cuando las canceladas pasan de la
+ * mitad se compacta el array, así que su coste se reparte entre las cancelaciones y los
+ * recorridos nunca cruzan más del doble de filas de las que hay activas.</p>
+ *
+ * <p>No es segura para varios hilos por sí misma: el hotel la protege con el monitor de
+ * su habitación.</p>
+ *
+ * @author Patricia Cid González
+ */
+final class ReservasHabitacion {
+    private static final int CAMPOS = 3;
+    private static final int CAPACIDAD_INICIAL = 4;
+    private static final int CANCELADAS_MINIMAS = 8; // Por debajo no merece la pena compactar
+    private static final int CANCELADA = 0;         // Cliente de una reserva cancelada; los IDs empiezan en 1
+    private static final long[] VACIO = new long[0];
+
+    private long[] datos = VACIO;
+    private int tamanio;
+    private int canceladas;
+
+    /**
+     * Indica que una reoptimización está repartiendo las reservas de la habitación; mientras
+     * tanto el hotel no las cambia.
+     */
+    boolean bloqueada;
+
+    /**
+     * Añade una reserva en su posición por identificador; casi siempre, al final. Si hay
+     * una reserva cancelada con el mismo identificador, la sustituye.
+     *
+     * @param id        Identificador de la reserva.
+     * @param clienteId ID del cliente.
+     * @param inicio    Día de entrada desde la época.
+     * @param fin       Día de salida desde la época.
+     * @param precio    Precio total.
+     * @throws IllegalStateException si ya hay una reserva activa con ese identificador
+     */
+    void anadir(int id, int clienteId, int inicio, int fin, double precio) {
+        int posicion = tamanio;
+        if (tamanio > 0 && getId(tamanio - 1) >= id) {
+            posicion = buscarPosicion(id);
+            if (posicion < tamanio && getId(posicion) == id) {
+                if (isActiva(posicion)) {
+                    throw new IllegalStateException("La reserva #" + id + " ya está en la habitación");
+                }
+                canceladas--;
+                escribir(posicion, id, clienteId, inicio, fin, precio);
+                return;
+            }
+        }
+        if (tamanio * CAMPOS == datos.length) {
+            datos = Arrays.copyOf(datos, Math.max(CAPACIDAD_INICIAL, tamanio * 2) * CAMPOS);
+        }
+        System.arraycopy(datos, posicion * CAMPOS, datos, (posicion + 1) * CAMPOS, (tamanio - posicion) * CAMPOS);
+        escribir(posicion, id, clienteId, inicio, fin, precio);
+        tamanio++;
+    }
+
+    /**
+     * Busca una reserva activa por su identificador en O(log n).
+     *
+     * @param id Identificador de la reserva.
+     * @return Posición de la reserva o {@code -1} si no está o está cancelada.
+     */
+    int buscar(int id) {
+        int posicion = buscarPosicion(id);
+        return posicion < tamanio && getId(posicion) == id && isActiva(posicion) ? posicion : -1;
+    }
+
+    /**
+     * Cambia las fechas y el precio de una reserva sin moverla de posición.
+     *
+     * @param posicion Posición de una reserva activa.
+     * @param inicio   Nuevo día de entrada desde la época.
+     * @param fin      Nuevo día de salida desde la época.
+     * @param precio   Nuevo precio total.
+     */
+    void modificar(int posicion, int inicio, int fin, double precio) {
+        escribir(posicion, getId(posicion), getClienteId(posicion), inicio, fin, precio);
+    }
+
+    /**
+     * Marca como cancelada una reserva activa y compacta si hay demasiadas canceladas, lo
+     * que cambia las posiciones del resto.
+     *
+     * @param posicion Posición de la reserva.
+     */
+    void cancelar(int posicion) {
+        datos[posicion * CAMPOS] = (long) getId(posicion) << 32 | CANCELADA;
+        canceladas++;
+        if (canceladas >= CANCELADAS_MINIMAS && canceladas * 2 > tamanio) {
+            compactar();
+        }
+    }
+
+    /**
+     * Quita las reservas que empiezan en un día o después y las canceladas, conservando el
+     * orden del resto.
+     *
+     * @param dia Día desde la época.
+     */
+    void retirarDesde(int dia) {
+        int conservadas = 0;
+        for (int i = 0; i < tamanio; i++) {
+            if (isActiva(i) && getInicio(i) < dia) {
+                System.arraycopy(datos, i * CAMPOS, datos, conservadas * CAMPOS, CAMPOS);
+                conservadas++;
+            }
+        }
+        tamanio = conservadas;
+        canceladas = 0;
+    }
+
+    /**
+     * Número de posiciones ocupadas, incluidas las de reservas canceladas.
+     *
+     * @return Tamaño para recorrer las posiciones.
+     */
+    int size() {
+        return tamanio;
+    }
+
+    boolean isActiva(int posicion) {
+        return getClienteId(posicion) != CANCELADA;
+    }
+
+    int getId(int posicion) {
+        return (int) (datos[posicion * CAMPOS] >>> 32);
+    }
+
+    int getClienteId(int posicion) {
+        return (int) datos[posicion * CAMPOS];
+    }
+
+    int getInicio(int posicion) {
+        return (int) (datos[posicion * CAMPOS + 1] >> 32);
+    }
+
+    int getFin(int posicion) {
+        return (int) datos[posicion * CAMPOS + 1];
+    }
+
+    double getPrecio(int posicion) {
+        return Double.longBitsToDouble(datos[posicion * CAMPOS + 2]);
+    }
+
+    private void escribir(int posicion, int id, int clienteId, int inicio, int fin, double precio) {
+        datos[posicion * CAMPOS] = (long) id << 32 | (clienteId & 0xFFFFFFFFL);
+        datos[posicion * CAMPOS + 1] = (long) inicio << 32 | (fin & 0xFFFFFFFFL);
+        datos[posicion * CAMPOS + 2] = Double.doubleToRawLongBits(precio);
+    }
+
+    private void compactar() {
+        retirarDesde(Integer.MAX_VALUE);
+        if (tamanio * CAMPOS * 4 < datos.length) {
+            datos = Arrays.copyOf(datos, Math.max(CAPACIDAD_INICIAL, tamanio * 2) * CAMPOS);
+        }
+    }
+
+    /**
+     * Devuelve la primera posición cuyo identificador es mayor o igual que {@code id}, esté
+     * activa o cancelada.
+     *
+     * @param id Identificador de la reserva.
+     * @return Posición encontrada, o {@link #size()} si todas tienen un identificador menor.
+     */
+    int buscarPosicion(int id) {
+        int bajo = 0;
+        int alto = tamanio;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (getId(medio) < id) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+}
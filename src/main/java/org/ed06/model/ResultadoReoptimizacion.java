@@ -0,0 +1,54 @@
+package org.ed06.model;
+
+/**
+ * Resultado de {@link Hotel#reoptimizar}: si se ha aplicado la nueva asignación, cuántas
+ * reservas han cambiado de habitación y cuántos huecos había antes y después.
+ *
+ * <p>Un hueco es un periodo libre entre dos estancias de una misma habitación que termina
+ * después de la fecha desde la que se reoptimiza. Menos huecos significa más noches libres
+ * seguidas para las reservas nuevas.</p>
+ *
+ * @author Patricia Cid González
+ */
+public final class ResultadoReoptimizacion {
+    private final boolean aplicada;
+    private final int movidas;
+    private final int huecosAntes;
+    private final int huecosDespues;
+
+    ResultadoReoptimizacion(boolean aplicada, int movidas, int huecosAntes, int huecosDespues) {
+        this.aplicada = aplicada;
+        this.movidas = movidas;
+        this.huecosAntes = huecosAntes;
+        this.huecosDespues = huecosDespues;
+    }
+
+    /**
+     * Indica si se ha aplicado la nueva asignación. No se aplica nada si se agota el tiempo
+     * antes de calcularla.
+     *
+     * @return {@code true} si las reservas ya están en sus nuevas habitaciones.
+     */
+    public boolean isAplicada() {
+        return aplicada;
+    }
+
+    public int getMovidas() {
+        return movidas;
+    }
+
+    public int getHuecosAntes() {
+        return huecosAntes;
+    }
+
+    public int getHuecosDespues() {
+        return huecosDespues;
+    }
+
+    @Override
+    public String toString() {
+        return aplicada
+            ? movidas + " reservas movidas, huecos " + huecosAntes + " -> " + huecosDespues
+            : "Sin aplicar por falta de tiempo, " + huecosAntes + " huecos";
+    }
+}
@@ -0,0 +1,49 @@
+package org.ed06.model;
+
+/**
+ * Resultado de {@link Hotel#realizarReserva}: la habitación y el identificador de la reserva
+ * realizada, o el código de error si no se ha podido reservar.
+ *
+ * @author Patricia Cid González
+ */
+public final class ResultadoReserva {
+    private final int codigo;
+    private final int reservaId;
+
+    ResultadoReserva(int codigo, int reservaId) {
+        this.codigo = codigo;
+        this.reservaId = reservaId;
+    }
+
+    /**
+     * Indica si se ha realizado la reserva.
+     *
+     * @return {@code true} si hay habitación y reserva.
+     */
+    public boolean isRealizada() {
+        return codigo > 0;
+    }
+
+    /**
+     * Número de la habitación reservada o código de error, como en {@link Hotel#reservarHabitacion}.
+     *
+     * @return Número de habitación si se ha reservado; si no, el código de error.
+     */
+    public int getCodigo() {
+        return codigo;
+    }
+
+    /**
+     * Identificador de la reserva realizada.
+     *
+     * @return Identificador de la reserva, o {@code 0} si no se ha realizado.
+     */
+    public int getReservaId() {
+        return reservaId;
+    }
+
+    @Override
+    public String toString() {
+        return isRealizada() ? "Habitación " + codigo + ", reserva " + reservaId : "Error " + codigo;
+    }
+}
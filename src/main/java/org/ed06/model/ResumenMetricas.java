@@ -0,0 +1,92 @@
+package org.ed06.model;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Copia inmutable de las {@link MetricasHotel} de un hotel en un momento dado.
+ *
+ * <p>Su {@link #toString()} es un volcado en texto pensado para registros y consolas: una
+ * línea por operación con las latencias en microsegundos, seguida de los resultados de las
+ * reservas, los pasos a VIP y las habitaciones recorridas por reserva.</p>
+ *
+ * @author Patricia Cid González
+ */
+public final class ResumenMetricas {
+    private static final String[] RESULTADOS = {
+        "realizadas", "tipo no disponible (-1)", "fechas no válidas (-2)", "cliente no existe (-3)",
+        "sin habitaciones (-4)"
+    };
+
+    private final Map<MetricasHotel.Operacion,Distribucion> latencias;
+    private final long[] resultados;
+    private final long promocionesVip;
+    private final Distribucion habitacionesRecorridas;
+
+    ResumenMetricas(Map<MetricasHotel.Operacion,Distribucion> latencias, long[] resultados, long promocionesVip,
+                    Distribucion habitacionesRecorridas) {
+        this.latencias = latencias;
+        this.resultados = resultados;
+        this.promocionesVip = promocionesVip;
+        this.habitacionesRecorridas = habitacionesRecorridas;
+    }
+
+    /**
+     * Latencias de una operación.
+     *
+     * @param operacion Operación.
+     * @return Distribución de sus latencias en nanosegundos.
+     */
+    public Distribucion getLatencias(MetricasHotel.Operacion operacion) {
+        return latencias.get(operacion);
+    }
+
+    /**
+     * Número de reservas que han terminado con un resultado.
+     *
+     * @param codigo {@code 0} para las reservas realizadas o uno de los códigos de error
+     *               de {@link Hotel#reservarHabitacion} ({@code -1} a {@code -4}).
+     * @return Número de reservas con ese resultado.
+     * @throws IllegalArgumentException si el código no existe
+     */
+    public long getResultados(int codigo) {
+        if (codigo > 0 || -codigo >= resultados.length) {
+            throw new IllegalArgumentException("Código de resultado no válido: " + codigo);
+        }
+        return resultados[-codigo];
+    }
+
+    public long getPromocionesVip() {
+        return promocionesVip;
+    }
+
+    /**
+     * Habitaciones comprobadas en cada reserva hasta encontrar una libre o agotar las del
+     * tipo solicitado.
+     *
+     * @return Distribución del número de habitaciones recorridas.
+     */
+    public Distribucion getHabitacionesRecorridas() {
+        return habitacionesRecorridas;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder texto = new StringBuilder();
+        texto.append(String.format(Locale.ROOT, "%-26s %10s %10s %10s %10s %10s%n", "Operación (µs)", "cuenta",
+            "media", "p50", "p99", "máx"));
+        latencias.forEach((operacion, distribucion) -> texto.append(String.format(Locale.ROOT,
+            "%-26s %10d %10.1f %10.1f %10.1f %10.1f%n", operacion.getNombre(), distribucion.getCuenta(),
+            distribucion.getMedia() / 1e3, distribucion.getPercentil(0.5) / 1e3,
+            distribucion.getPercentil(0.99) / 1e3, distribucion.getMaximo() / 1e3)));
+        texto.append("Reservas:");
+        for (int i = 0; i < resultados.length; i++) {
+            texto.append(i == 0 ? " " : ", ").append(RESULTADOS[i]).append(' ').append(resultados[i]);
+        }
+        texto.append(System.lineSeparator());
+        texto.append("Pasos a VIP: ").append(promocionesVip).append(System.lineSeparator());
+        texto.append("Habitaciones recorridas por reserva: ").append(habitacionesRecorridas)
+            .append(System.lineSeparator());
+        return texto.toString();
+    }
+}
@@ -0,0 +1,92 @@
+package org.ed06.model;
+
+/**
+ * Noches vendidas e ingresos de cada día de un periodo para un tipo de habitación, junto
+ * con el número de habitaciones de ese tipo. No es segura para varios hilos.
+ *
+ * @author Patricia Cid González
+ */
+final class SerieOcupacion {
+    final int primerDia;
+    final int[] nochesVendidas;
+    final double[] ingresos;
+    int habitaciones;
+
+    /**
+     * Crea una serie vacía.
+     *
+     * @param primerDia Primer día del periodo, como días desde la época.
+     * @param dias      Número de días del periodo.
+     */
+    SerieOcupacion(int primerDia, int dias) {
+        this.primerDia = primerDia;
+        this.nochesVendidas = new int[dias];
+        this.ingresos = new double[dias];
+    }
+
+    /**
+     * Anota las noches de una reserva que caen dentro del periodo. El precio total se
+     * reparte a partes iguales entre todas las noches de la estancia.
+     *
+     * @param reserva Reserva a anotar.
+     */
+    void anotar(Reserva reserva) {
+        anotar(reserva.getDiaInicio(), reserva.getDiaFin(),
+            reserva.getPrecioTotal());
+    }
+
+    /**
+     * Anota las noches de una estancia dada por sus días, sin necesidad de un objeto
+     * {@link Reserva}.
+     *
+     * @param inicio      Día de entrada desde la época.
+     * @param fin         Día de salida desde la época.
+     * @param precioTotal Precio total de la estancia.
+     */
+    void anotar(int inicio, int fin, double precioTotal) {
+        sumar(inicio, fin, precioTotal, 1);
+    }
+
+    /**
+     * Descuenta las noches de una reserva anotada antes, por ejemplo al cancelarla.
+     *
+     * @param reserva Reserva a descontar.
+     */
+    void quitar(Reserva reserva) {
+        sumar(reserva.getDiaInicio(), reserva.getDiaFin(),
+            reserva.getPrecioTotal(), -1);
+    }
+
+    private void sumar(int inicio, int fin, double precioTotal, int signo) {
+        double porNoche = signo * precioTotal / (fin - inicio);
+        int hasta = Math.min(fin - primerDia, nochesVendidas.length);
+        for (int dia = Math.max(inicio - primerDia, 0); dia < hasta; dia++) {
+            nochesVendidas[dia] += signo;
+            ingresos[dia] += porNoche;
+        }
+    }
+
+    /**
+     * Suma a esta serie otra del mismo periodo.
+     *
+     * @param otra Serie a sumar.
+     * @return Esta misma serie.
+     */
+    SerieOcupacion combinar(SerieOcupacion otra) {
+        habitaciones += otra.habitaciones;
+        for (int dia = 0; dia < nochesVendidas.length; dia++) {
+            nochesVendidas[dia] += otra.nochesVendidas[dia];
+            ingresos[dia] += otra.ingresos[dia];
+        }
+        return this;
+    }
+
+    /**
+     * Devuelve una copia independiente de la serie.
+     *
+     * @return Copia de la serie.
+     */
+    SerieOcupacion copia() {
+        return new SerieOcupacion(primerDia, nochesVendidas.length).combinar(this);
+    }
+}
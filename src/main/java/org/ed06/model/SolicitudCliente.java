@@ -0,0 +1,45 @@
+package org.ed06.model;
+
+/**
+ * Datos de un cliente dentro de un lote enviado a {@link Hotel#registrarClientes}.
+ * Contiene los mismos datos que recibe {@link Hotel#registrarCliente}.
+ *
+ * @author Patricia Cid González
+ */
+public final class SolicitudCliente {
+    private final String nombre;
+    private final String email;
+    private final String dni;
+    private final boolean esVip;
+
+    /**
+     * Crea una nueva solicitud de alta de cliente.
+     *
+     * @param nombre Nombre del cliente.
+     * @param email  Email del cliente.
+     * @param dni    DNI del cliente.
+     * @param esVip  Indica si el cliente es VIP al registrarse.
+     */
+    public SolicitudCliente(String nombre, String email, String dni, boolean esVip) {
+        this.nombre = nombre;
+        this.email = email;
+        this.dni = dni;
+        this.esVip = esVip;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getDni() {
+        return dni;
+    }
+
+    public boolean isVip() {
+        return esVip;
+    }
+}
@@ -0,0 +1,47 @@
+package org.ed06.model;
+
+import java.time.LocalDate;
+
+/**
+ * Petición de reserva dentro de un lote enviado a {@link Hotel#reservarLote}.
+ * Contiene los mismos datos que recibe {@link Hotel#reservarHabitacion}.
+ *
+ * @author Patricia Cid González
+ */
+public final class SolicitudReserva {
+    private final int clienteId;
+    private final String tipo;
+    private final LocalDate fechaEntrada;
+    private final LocalDate fechaSalida;
+
+    /**
+     * Crea una nueva solicitud de reserva.
+     *
+     * @param clienteId    ID del cliente que desea reservar.
+     * @param tipo         Tipo de habitación deseado.
+     * @param fechaEntrada Fecha de entrada.
+     * @param fechaSalida  Fecha de salida.
+     */
+    public SolicitudReserva(int clienteId, String tipo, LocalDate fechaEntrada, LocalDate fechaSalida) {
+        this.clienteId = clienteId;
+        this.tipo = tipo;
+        this.fechaEntrada = fechaEntrada;
+        this.fechaSalida = fechaSalida;
+    }
+
+    public int getClienteId() {
+        return clienteId;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public LocalDate getFechaEntrada() {
+        return fechaEntrada;
+    }
+
+    public LocalDate getFechaSalida() {
+        return fechaSalida;
+    }
+}
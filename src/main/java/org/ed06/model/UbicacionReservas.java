@@ -0,0 +1,76 @@
+package org.ed06.model;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Número de la habitación en la que está cada reserva, indexado por el identificador de la
+ * reserva, seguro para varios hilos.
+ *
+ * <p>Los números se guardan en páginas de {@code int} que se crean al llegar a ellas, de
+ * modo que cada reserva ocupa 4 bytes sin envolver nada. A diferencia de
+ * {@link RegistroPorId}, las escrituras no toman ningún cerrojo, porque las hace el hotel
+ * con el monitor de la habitación de la reserva tomado y ninguna otra reserva usa la misma
+ * posición; solo crear una página o ampliar el directorio se serializa con el monitor del
+ * índice, y eso ocurre una vez cada {@value #TAMANIO_PAGINA} reservas.</p>
+ *
+ * @author Patricia Cid González
+ */
+final class UbicacionReservas {
+    private static final VarHandle PAGINAS = MethodHandles.arrayElementVarHandle(int[][].class);
+    private static final VarHandle NUMEROS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final int BITS_PAGINA = 12;
+    private static final int TAMANIO_PAGINA = 1 << BITS_PAGINA;
+    private static final int MASCARA = TAMANIO_PAGINA - 1;
+    private static final int NINGUNA = 0;
+
+    private volatile int[][] paginas = new int[16][];
+
+    /**
+     * Devuelve la habitación de una reserva.
+     *
+     * @param id Identificador de la reserva.
+     * @return Número de la habitación o {@code 0} si la reserva no existe o está cancelada.
+     */
+    int get(int id) {
+        int[][] actuales = paginas;
+        int pagina = id >>> BITS_PAGINA;
+        if (id < 1 || pagina >= actuales.length) {
+            return NINGUNA;
+        }
+        int[] numeros = (int[]) PAGINAS.getAcquire(actuales, pagina);
+        return numeros == null ? NINGUNA : (int) NUMEROS.getAcquire(numeros, id & MASCARA);
+    }
+
+    /**
+     * Anota la habitación de una reserva.
+     *
+     * @param id     Identificador de la reserva, desde 1.
+     * @param numero Número de la habitación o {@code 0} si la reserva se ha cancelado.
+     */
+    void poner(int id, int numero) {
+        int pagina = id >>> BITS_PAGINA;
+        int[][] actuales = paginas;
+        int[] numeros = pagina < actuales.length ? (int[]) PAGINAS.getAcquire(actuales, pagina) : null;
+        if (numeros == null) {
+            numeros = crearPagina(pagina);
+        }
+        NUMEROS.setRelease(numeros, id & MASCARA, numero);
+    }
+
+    private synchronized int[] crearPagina(int pagina) {
+        // El directorio solo se amplía y se rellena aquí, así que la copia no pierde páginas
+        int[][] actuales = paginas;
+        if (pagina >= actuales.length) {
+            actuales = Arrays.copyOf(actuales, Math.max(pagina + 1, actuales.length * 2));
+            paginas = actuales;
+        }
+        int[] numeros = actuales[pagina];
+        if (numeros == null) {
+            numeros = new int[TAMANIO_PAGINA];
+            PAGINAS.setRelease(actuales, pagina, numeros);
+        }
+        return numeros;
+    }
+}
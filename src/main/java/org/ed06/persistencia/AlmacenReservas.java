@@ -0,0 +1,230 @@
+package org.ed06.persistencia;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Almacén columnar de reservas proyectado en memoria desde la instantánea de un hotel.
+ *
+ * <p>Las reservas se guardan fuera del montículo como columnas contiguas de enteros
+ * (identificador, número de habitación, ID del cliente, día de entrada y día de salida
+ * desde la época) y una columna de {@code double} con el precio total, lo que ocupa
+ * 28 bytes por reserva. Recorrerlas es una lectura secuencial del fichero proyectado que no
+ * crea objetos: {@link VistaReserva} es una vista reutilizable que apunta a una fila.
+ * Los datos se guardan en orden little-endian para que el fichero sea portable.</p>
+ *
+ * <p>Todas las columnas se proyectan en un solo {@link ByteBuffer}, cuyas posiciones son
+ * {@code int}, así que un almacén admite como mucho {@value #MAXIMO_RESERVAS} reservas.</p>
+ *
+ * @author Patricia Cid González
+ */
+public final class AlmacenReservas {
+    /**
+     * Número máximo de reservas cuyas columnas caben en una sola proyección.
+     */
+    static final int MAXIMO_RESERVAS = (Integer.MAX_VALUE - 7) / (5 * Integer.BYTES + Double.BYTES);
+
+    private final int tamanio;
+    private final IntBuffer ids;
+    private final IntBuffer habitaciones;
+    private final IntBuffer clientes;
+    private final IntBuffer inicios;
+    private final IntBuffer fines;
+    private final DoubleBuffer precios;
+
+    private AlmacenReservas(ByteBuffer columnas, int tamanio) {
+        this.tamanio = tamanio;
+        this.ids = columna(columnas, 0, tamanio).asIntBuffer();
+        this.habitaciones = columna(columnas, tamanio * 4L, tamanio).asIntBuffer();
+        this.clientes = columna(columnas, tamanio * 8L, tamanio).asIntBuffer();
+        this.inicios = columna(columnas, tamanio * 12L, tamanio).asIntBuffer();
+        this.fines = columna(columnas, tamanio * 16L, tamanio).asIntBuffer();
+        this.precios = columna(columnas, offsetPrecios(tamanio), tamanio * 2).asDoubleBuffer();
+    }
+
+    /**
+     * Proyecta en memoria, en modo lectura, las reservas de una instantánea.
+     *
+     * @param instantanea Fichero de instantánea escrito por {@link DiarioHotel}.
+     * @return Almacén con las reservas de la instantánea.
+     * @throws IOException si no se puede leer el fichero, no es una instantánea válida o
+     *                     tiene más reservas de las que se pueden proyectar
+     */
+    public static AlmacenReservas abrir(Path instantanea) throws IOException {
+        try (FileChannel canal = FileChannel.open(instantanea, StandardOpenOption.READ)) {
+            Instantanea.Cabecera cabecera = Instantanea.leerCabecera(canal);
+            comprobarTamanio(cabecera.numReservas());
+            MappedByteBuffer columnas = canal.map(FileChannel.MapMode.READ_ONLY, cabecera.offsetColumnas(),
+                tamanioColumnas(cabecera.numReservas()));
+            return new AlmacenReservas(columnas, cabecera.numReservas());
+        }
+    }
+
+    /**
+     * Proyecta en memoria, en modo escritura, la zona de columnas de un fichero.
+     *
+     * @param canal    Canal abierto en lectura y escritura.
+     * @param offset   Posición de la zona de columnas; debe ser múltiplo de 8.
+     * @param tamanio  Número de reservas.
+     * @return Buffer proyectado con las columnas vacías, en orden little-endian.
+     * @throws IOException si no se puede proyectar o hay más de {@link #MAXIMO_RESERVAS}
+     *                     reservas
+     */
+    static MappedByteBuffer proyectarEscritura(FileChannel canal, long offset, int tamanio) throws IOException {
+        comprobarTamanio(tamanio);
+        MappedByteBuffer columnas = canal.map(FileChannel.MapMode.READ_WRITE, offset, tamanioColumnas(tamanio));
+        columnas.order(ByteOrder.LITTLE_ENDIAN);
+        return columnas;
+    }
+
+    /**
+     * Escribe una fila en las columnas devueltas por {@link #proyectarEscritura}.
+     *
+     * @throws IndexOutOfBoundsException si la fila no está entre 0 y {@code tamanio} - 1
+     */
+    static void escribirFila(ByteBuffer columnas, int tamanio, int fila, int id, int habitacion, int cliente,
+                             int inicio, int fin, double precio) {
+        if (fila < 0 || fila >= tamanio) {
+            throw new IndexOutOfBoundsException(fila);
+        }
+        columnas.putInt(posicion((long) fila * Integer.BYTES), id);
+        columnas.putInt(posicion(((long) tamanio + fila) * Integer.BYTES), habitacion);
+        columnas.putInt(posicion(((long) tamanio * 2 + fila) * Integer.BYTES), cliente);
+        columnas.putInt(posicion(((long) tamanio * 3 + fila) * Integer.BYTES), inicio);
+        columnas.putInt(posicion(((long) tamanio * 4 + fila) * Integer.BYTES), fin);
+        columnas.putDouble(posicion(offsetPrecios(tamanio) + (long) fila * Double.BYTES), precio);
+    }
+
+    private static void comprobarTamanio(int tamanio) throws IOException {
+        if (tamanio < 0 || tamanio > MAXIMO_RESERVAS) {
+            throw new IOException("No se pueden proyectar " + tamanio + " reservas; el máximo es "
+                + MAXIMO_RESERVAS);
+        }
+    }
+
+    /**
+     * Convierte un desplazamiento calculado en {@code long} en una posición del buffer.
+     */
+    private static int posicion(long offset) {
+        if (offset > Integer.MAX_VALUE) {
+            throw new IndexOutOfBoundsException("Desplazamiento fuera del buffer: " + offset);
+        }
+        return (int) offset;
+    }
+
+    /**
+     * Bytes que ocupan las columnas de {@code tamanio} reservas.
+     */
+    static long tamanioColumnas(int tamanio) {
+        return offsetPrecios(tamanio) + (long) tamanio * Double.BYTES;
+    }
+
+    private static long offsetPrecios(int tamanio) {
+        // La columna de precios se alinea a 8 bytes
+        return ((long) tamanio * 20 + 7) & ~7L;
+    }
+
+    private static ByteBuffer columna(ByteBuffer columnas, long offset, int enteros) {
+        return columnas.slice(posicion(offset), enteros * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Número de reservas del almacén.
+     *
+     * @return Número de reservas.
+     */
+    public int size() {
+        return tamanio;
+    }
+
+    /**
+     * Recorre todas las reservas en orden con una única vista reutilizada. La vista solo
+     * es válida durante la llamada a la acción.
+     *
+     * @param accion Acción a aplicar a cada reserva.
+     */
+    public void recorrer(Consumer<VistaReserva> accion) {
+        VistaReserva vista = new VistaReserva();
+        for (int fila = 0; fila < tamanio; fila++) {
+            vista.fila = fila;
+            accion.accept(vista);
+        }
+    }
+
+    /**
+     * Devuelve una vista situada en una fila concreta.
+     *
+     * @param fila Posición de la reserva, de 0 a {@link #size()} - 1.
+     * @return Vista de la reserva.
+     */
+    public VistaReserva get(int fila) {
+        if (fila < 0 || fila >= tamanio) {
+            throw new IndexOutOfBoundsException(fila);
+        }
+        VistaReserva vista = new VistaReserva();
+        vista.fila = fila;
+        return vista;
+    }
+
+    /**
+     * Vista ligera de una reserva del almacén. No copia los datos: cada método lee la
+     * columna correspondiente de la fila a la que apunta.
+     */
+    public final class VistaReserva {
+        private int fila;
+
+        private VistaReserva() {
+        }
+
+        public int getId() {
+            return ids.get(fila);
+        }
+
+        public int getNumeroHabitacion() {
+            return habitaciones.get(fila);
+        }
+
+        public int getClienteId() {
+            return clientes.get(fila);
+        }
+
+        /**
+         * Día de entrada como días desde la época.
+         *
+         * @return Día de entrada.
+         */
+        public int getDiaInicio() {
+            return inicios.get(fila);
+        }
+
+        /**
+         * Día de salida como días desde la época.
+         *
+         * @return Día de salida.
+         */
+        public int getDiaFin() {
+            return fines.get(fila);
+        }
+
+        public LocalDate getFechaInicio() {
+            return LocalDate.ofEpochDay(getDiaInicio());
+        }
+
+        public LocalDate getFechaFin() {
+            return LocalDate.ofEpochDay(getDiaFin());
+        }
+
+        public double getPrecioTotal() {
+            return precios.get(fila);
+        }
+    }
+}
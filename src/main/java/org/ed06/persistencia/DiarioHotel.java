@@ -0,0 +1,771 @@
+package org.ed06.persistencia;
+
+import org.ed06.model.Cliente;
+import org.ed06.model.EventosHotel;
+import org.ed06.model.Habitacion;
+import org.ed06.model.Hotel;
+import org.ed06.model.Reserva;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Diario de solo inserción que guarda en disco las altas de habitaciones y clientes, las
+ * reservas con sus cancelaciones y cambios y los cambios de habitación de las
+ * reoptimizaciones de un {@link Hotel},
+ * junto con instantáneas periódicas de su estado.
+ *
+ * <p>El diario se registra en el hotel como receptor de eventos. Cada evento se codifica
+ * en binario y se encola; un hilo de fondo escribe los eventos encolados en un solo
+ * {@link FileChannel#write(ByteBuffer[])} y, según la {@link PoliticaSincronizacion}, fuerza
+ * la escritura a disco una vez por lote (escritura agrupada). Cada registro lleva su
+ * longitud y un CRC, de modo que un registro a medio escribir tras una caída se detecta y
+ * se descarta al recuperar.</p>
+ *
+ * <p>Las altas, reservas, cancelaciones y cambios se codifican y se encolan en los métodos
+ * {@code anotar...}, que el hotel llama con el monitor que protege el cambio tomado y antes
+ * de hacerlo visible; así los registros de cada habitación quedan en el orden en que cambió
+ * y la reproducción nunca encuentra, por ejemplo, una reserva de unas noches antes de la
+ * cancelación que las dejó libres, ni una reserva antes del alta de su habitación o de su
+ * cliente. Con la política {@link PoliticaSincronizacion#SIEMPRE}, la espera a que el
+ * registro llegue al disco se hace en el evento que el hotel notifica después, ya sin el
+ * monitor.</p>
+ *
+ * <p>De una reoptimización se guardan las reservas que cambian de habitación y su nueva
+ * habitación, no el cálculo: repetirlo al recuperar podría repartir también reservas
+ * posteriores y no coincidir con las habitaciones de los registros siguientes.</p>
+ *
+ * <p>El diario se divide en segmentos numerados. Al hacer una instantánea se empieza un
+ * segmento nuevo, se guarda el estado completo del hotel indicando desde qué segmento hay
+ * que reproducir y se borran los segmentos anteriores. Al arrancar, {@link #recuperar}
+ * carga la instantánea y reproduce los segmentos posteriores. El cambio de segmento y la
+ * copia del estado se hacen con el hotel congelado, así que cada cambio está en la
+ * instantánea o en los segmentos posteriores, nunca en ambos: si la copia incluyera una
+ * reserva ya cancelada en el segmento nuevo, por ejemplo, repetir la reserva podría chocar
+ * con otra posterior.</p>
+ *
+ * <p>Además de las instantáneas que se pidan, el diario hace una por su cuenta en un hilo
+ * aparte cada vez que se escriben cierta cantidad de bytes desde la anterior, de modo que
+ * ni los segmentos ni el tiempo de recuperación crecen sin límite aunque el hotel no se
+ * cierre nunca de forma ordenada. Los segmentos se reproducen proyectando en memoria
+ * ventanas de tamaño fijo, así que su tamaño no está limitado por el de un
+ * {@link MappedByteBuffer}.</p>
+ *
+ * <p>Uso típico:</p>
+ * <pre>{@code
+ * DiarioHotel diario = DiarioHotel.abrir(directorio, PoliticaSincronizacion.SIEMPRE);
+ * Hotel hotel = diario.recuperar("El mirador", "Calle ...", "123456789");
+ * hotel.setEventos(diario);
+ * ...
+ * diario.instantanea(hotel);
+ * ...
+ * diario.close();
+ * }</pre>
+ *
+ * @author Patricia Cid González
+ */
+public final class DiarioHotel implements EventosHotel, AutoCloseable {
+    static final String PREFIJO_SEGMENTO = "diario-";
+    static final String EXTENSION_SEGMENTO = ".log";
+    static final String FICHERO_INSTANTANEA = "instantanea.bin";
+
+    private static final byte HABITACION = 1;
+    private static final byte CLIENTE = 2;
+    private static final byte RESERVA = 3;
+    private static final byte REOPTIMIZACION = 4; // Solo en diarios anteriores a REUBICACION
+    private static final byte CANCELACION = 5;
+    private static final byte MODIFICACION = 6;
+    private static final byte REUBICACION = 7;
+    private static final int CABECERA_REGISTRO = Integer.BYTES * 2; // Longitud y CRC
+    private static final Duration INTERVALO_POR_DEFECTO = Duration.ofMillis(100);
+    private static final long BYTES_ENTRE_INSTANTANEAS_POR_DEFECTO = 64L << 20;
+    private static final int VENTANA_LECTURA = 64 << 20;
+
+    private final Path directorio;
+    private final PoliticaSincronizacion politica;
+    private final long intervaloNanos;
+    private final long bytesEntreInstantaneas;
+
+    private final Object cerrojo = new Object(); // Protege la cola y los contadores
+    private List<ByteBuffer> pendientes = new ArrayList<>();
+    private long encolados;
+    private long escritos;
+    private boolean cerrado;
+    private IOException error;
+    private Thread instantaneaAutomatica;
+
+    private final Object cerrojoInstantanea = new Object(); // Una instantánea cada vez
+
+    private final Object cerrojoCanal = new Object(); // Protege el segmento abierto
+    private FileChannel canal;
+    private int segmento;
+    private long bytesDesdeInstantanea;
+    private volatile Thread escritor;
+    private Hotel hotel;
+
+    private DiarioHotel(Path directorio, PoliticaSincronizacion politica, Duration intervalo,
+                        long bytesEntreInstantaneas) {
+        this.directorio = directorio;
+        this.politica = politica;
+        this.intervaloNanos = intervalo.toNanos();
+        this.bytesEntreInstantaneas = bytesEntreInstantaneas;
+    }
+
+    /**
+     * Abre el diario de un directorio, creándolo si no existe. Antes de registrar eventos
+     * hay que llamar a {@link #recuperar}.
+     *
+     * @param directorio Directorio del diario.
+     * @param politica   Política de sincronización con el disco.
+     * @return Diario abierto.
+     * @throws IOException si no se puede crear el directorio
+     */
+    public static DiarioHotel abrir(Path directorio, PoliticaSincronizacion politica) throws IOException {
+        return abrir(directorio, politica, INTERVALO_POR_DEFECTO);
+    }
+
+    /**
+     * Abre el diario de un directorio indicando el intervalo de la política
+     * {@link PoliticaSincronizacion#PERIODICA}.
+     *
+     * @param directorio Directorio del diario.
+     * @param politica   Política de sincronización con el disco.
+     * @param intervalo  Intervalo entre sincronizaciones periódicas.
+     * @return Diario abierto.
+     * @throws IOException si no se puede crear el directorio
+     */
+    public static DiarioHotel abrir(Path directorio, PoliticaSincronizacion politica, Duration intervalo)
+        throws IOException {
+        return abrir(directorio, politica, intervalo, BYTES_ENTRE_INSTANTANEAS_POR_DEFECTO);
+    }
+
+    /**
+     * Abre el diario de un directorio indicando también cada cuántos bytes escritos se hace
+     * una instantánea automática.
+     *
+     * @param directorio             Directorio del diario.
+     * @param politica               Política de sincronización con el disco.
+     * @param intervalo              Intervalo entre sincronizaciones periódicas.
+     * @param bytesEntreInstantaneas Bytes escritos tras los que se hace una instantánea, o 0
+     *                               para hacerlas solo cuando se pidan.
+     * @return Diario abierto.
+     * @throws IOException si no se puede crear el directorio
+     */
+    public static DiarioHotel abrir(Path directorio, PoliticaSincronizacion politica, Duration intervalo,
+                                    long bytesEntreInstantaneas) throws IOException {
+        if (bytesEntreInstantaneas < 0) {
+            throw new IllegalArgumentException("El número de bytes entre instantáneas no puede ser negativo");
+        }
+        Files.createDirectories(directorio);
+        return new DiarioHotel(directorio, politica, intervalo, bytesEntreInstantaneas);
+    }
+
+    /**
+     * Reconstruye el hotel a partir de la última instantánea y de los segmentos del diario
+     * y prepara un segmento nuevo para los eventos siguientes. Los datos del hotel solo se
+     * usan si todavía no hay instantánea.
+     *
+     * @param nombre    Nombre del hotel.
+     * @param direccion Dirección del hotel.
+     * @param telefono  Teléfono de contacto.
+     * @return Hotel recuperado, sin receptor de eventos asignado.
+     * @throws IOException si no se pueden leer los ficheros
+     */
+    public Hotel recuperar(String nombre, String direccion, String telefono) throws IOException {
+        synchronized (cerrojoCanal) {
+            if (escritor != null) {
+                throw new IllegalStateException("El diario ya se ha recuperado");
+            }
+            Path ficheroInstantanea = directorio.resolve(FICHERO_INSTANTANEA);
+            Hotel hotel;
+            int primerSegmento;
+            BitSet reservas = new BitSet();
+            if (Files.exists(ficheroInstantanea)) {
+                Instantanea.Leida leida = Instantanea.leer(ficheroInstantanea, reservas);
+                hotel = leida.hotel();
+                primerSegmento = leida.primerSegmento();
+            } else {
+                hotel = new Hotel(nombre, direccion, telefono);
+                primerSegmento = 1;
+            }
+
+            BitSet clientes = new BitSet();
+            for (Cliente cliente : hotel.getClientes()) {
+                clientes.set(cliente.id);
+            }
+            int ultimo = primerSegmento - 1;
+            for (var entrada : segmentos().tailMap(primerSegmento).entrySet()) {
+                reproducir(entrada.getValue(), hotel, clientes, reservas);
+                ultimo = entrada.getKey();
+            }
+
+            abrirSegmento(ultimo + 1);
+            this.hotel = hotel;
+            escritor = new Thread(this::escribirPendientes, "diario-hotel");
+            escritor.setDaemon(true);
+            escritor.start();
+            return hotel;
+        }
+    }
+
+    /**
+     * Guarda una instantánea del estado del hotel y borra los segmentos del diario que ya
+     * no son necesarios. Se puede llamar mientras el hotel sigue recibiendo operaciones: el
+     * hotel se congela ({@link Hotel#congelar}) solo mientras se cambia de segmento y se copia
+     * su estado en memoria, de modo que la instantánea refleja exactamente los registros de
+     * los segmentos anteriores y ninguno de los siguientes; el fichero se escribe después.
+     * Las instantáneas se hacen de una en una, para que una anterior no sustituya a otra
+     * posterior después de que esta haya borrado sus segmentos.
+     *
+     * @param hotel Hotel cuyo estado se guarda.
+     * @throws IOException si no se puede escribir la instantánea
+     */
+    public void instantanea(Hotel hotel) throws IOException {
+        synchronized (cerrojoInstantanea) {
+            Instantanea.Foto foto;
+            try {
+                foto = hotel.congelar(() -> {
+                    try {
+                        return Instantanea.capturar(hotel, cambiarSegmento());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            Instantanea.escribir(foto, directorio.resolve(FICHERO_INSTANTANEA));
+            for (var entrada : segmentos().headMap(foto.primerSegmento()).entrySet()) {
+                Files.deleteIfExists(entrada.getValue());
+            }
+        }
+    }
+
+    /**
+     * Cuerpo del hilo de las instantáneas automáticas. Si falla, el diario sigue completo y
+     * se vuelve a intentar cuando se escriban otros tantos bytes.
+     */
+    private void hacerInstantaneaAutomatica() {
+        try {
+            instantanea(hotel);
+        } catch (IOException | RuntimeException e) {
+            boolean cerrando;
+            synchronized (cerrojo) {
+                cerrando = cerrado;
+            }
+            if (!cerrando) {
+                System.err.println("Error al hacer la instantánea automática: " + e.getMessage());
+            }
+        } finally {
+            synchronized (cerrojo) {
+                instantaneaAutomatica = null;
+            }
+        }
+    }
+
+    /**
+     * Espera a que se escriban todos los registros encolados, cierra el segmento abierto y
+     * abre el siguiente. Con el hotel congelado no se encola nada mientras tanto, así que
+     * todo lo anotado hasta ahora queda en segmentos anteriores.
+     *
+     * @return Número del segmento nuevo.
+     */
+    private int cambiarSegmento() throws IOException {
+        synchronized (cerrojo) {
+            comprobarAbierto();
+            esperarEscritos(encolados);
+        }
+        synchronized (cerrojoCanal) {
+            if (canal == null || !canal.isOpen()) {
+                throw new IllegalStateException("El diario no está abierto");
+            }
+            canal.force(true);
+            canal.close();
+            abrirSegmento(segmento + 1);
+            bytesDesdeInstantanea = 0;
+            return segmento;
+        }
+    }
+
+    /**
+     * Proyecta en memoria las reservas de la última instantánea para recorrer el histórico
+     * sin cargarlo en el montículo.
+     *
+     * @return Reservas de la instantánea, o {@code null} si todavía no se ha guardado ninguna.
+     * @throws IOException si no se puede leer la instantánea
+     */
+    public AlmacenReservas reservasInstantanea() throws IOException {
+        Path ficheroInstantanea = directorio.resolve(FICHERO_INSTANTANEA);
+        return Files.exists(ficheroInstantanea) ? AlmacenReservas.abrir(ficheroInstantanea) : null;
+    }
+
+    /**
+     * Escribe los eventos pendientes, los fuerza a disco y cierra el segmento abierto.
+     *
+     * @throws IOException si falla la última escritura
+     */
+    @Override
+    public void close() throws IOException {
+        Thread automatica;
+        synchronized (cerrojo) {
+            if (cerrado) {
+                return;
+            }
+            cerrado = true;
+            cerrojo.notifyAll();
+            automatica = instantaneaAutomatica;
+        }
+        if (automatica != null) {
+            try {
+                automatica.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (escritor != null) {
+            try {
+                escritor.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (cerrojoCanal) {
+            if (canal != null) {
+                canal.force(true);
+                canal.close();
+            }
+        }
+        synchronized (cerrojo) {
+            if (error != null) {
+                throw error;
+            }
+        }
+    }
+
+    @Override
+    public void anotarHabitacion(Habitacion habitacion) {
+        byte[] tipo = habitacion.getTipo().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer registro = nuevoRegistro(HABITACION, Integer.BYTES + cadena(tipo) + Double.BYTES);
+        registro.putInt(habitacion.getNumero());
+        ponerCadena(registro, tipo);
+        registro.putDouble(habitacion.getPrecioBase());
+        encolar(registro);
+    }
+
+    @Override
+    public void anotarCliente(Cliente cliente) {
+        byte[] nombre = cliente.nombre.getBytes(StandardCharsets.UTF_8);
+        byte[] email = cliente.email.getBytes(StandardCharsets.UTF_8);
+        byte[] dni = cliente.dni.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer registro = nuevoRegistro(CLIENTE, Integer.BYTES + cadena(nombre) + cadena(email) + cadena(dni) + 1);
+        registro.putInt(cliente.id);
+        ponerCadena(registro, nombre);
+        ponerCadena(registro, email);
+        ponerCadena(registro, dni);
+        registro.put((byte) (cliente.esVip ? 1 : 0));
+        encolar(registro);
+    }
+
+    @Override
+    public void habitacionRegistrada(Habitacion habitacion) {
+        esperarEscritura();
+    }
+
+    @Override
+    public void clienteRegistrado(Cliente cliente) {
+        esperarEscritura();
+    }
+
+    @Override
+    public void anotarReserva(Reserva reserva) {
+        encolar(registroReserva(RESERVA, reserva));
+    }
+
+    @Override
+    public void anotarCancelacion(Reserva reserva) {
+        ByteBuffer registro = nuevoRegistro(CANCELACION, Integer.BYTES);
+        registro.putInt(reserva.getId());
+        encolar(registro);
+    }
+
+    @Override
+    public void anotarModificacion(Reserva anterior, Reserva nueva) {
+        encolar(registroReserva(MODIFICACION, nueva));
+    }
+
+    @Override
+    public void reservaRealizada(Reserva reserva) {
+        esperarEscritura();
+    }
+
+    @Override
+    public void reservaCancelada(Reserva reserva) {
+        esperarEscritura();
+    }
+
+    @Override
+    public void reservaModificada(Reserva anterior, Reserva nueva) {
+        esperarEscritura();
+    }
+
+    private static ByteBuffer registroReserva(byte tipo, Reserva reserva) {
+        ByteBuffer registro = nuevoRegistro(tipo, Integer.BYTES * 5 + Double.BYTES + 1);
+        registro.putInt(reserva.getId());
+        registro.putInt(reserva.getHabitacion().getNumero());
+        registro.putInt(reserva.getCliente().id);
+        registro.putInt(reserva.getDiaInicio());
+        registro.putInt(reserva.getDiaFin());
+        registro.putDouble(reserva.getPrecioTotal());
+        registro.put((byte) (reserva.getCliente().esVip ? 1 : 0));
+        return registro;
+    }
+
+    @Override
+    public void anotarReubicacion(String tipo, int[] reservas, int[] habitaciones) {
+        byte[] bytes = tipo.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer registro = nuevoRegistro(REUBICACION, cadena(bytes) + Integer.BYTES
+            + reservas.length * Integer.BYTES * 2);
+        ponerCadena(registro, bytes);
+        registro.putInt(reservas.length);
+        for (int i = 0; i < reservas.length; i++) {
+            registro.putInt(reservas[i]);
+            registro.putInt(habitaciones[i]);
+        }
+        encolar(registro);
+    }
+
+    @Override
+    public void reservasReoptimizadas(String tipo, LocalDate desde) {
+        esperarEscritura();
+    }
+
+    /**
+     * Reserva un registro con espacio para la cabecera, el tipo y {@code tamanio} bytes.
+     */
+    private static ByteBuffer nuevoRegistro(byte tipo, int tamanio) {
+        ByteBuffer registro = ByteBuffer.allocate(CABECERA_REGISTRO + 1 + tamanio);
+        registro.position(CABECERA_REGISTRO);
+        registro.put(tipo);
+        return registro;
+    }
+
+    private static int cadena(byte[] bytes) {
+        return Short.BYTES + bytes.length;
+    }
+
+    private static void ponerCadena(ByteBuffer destino, byte[] bytes) {
+        destino.putShort((short) bytes.length);
+        destino.put(bytes);
+    }
+
+    private static String leerCadena(ByteBuffer origen) {
+        byte[] bytes = new byte[Short.toUnsignedInt(origen.getShort())];
+        origen.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Completa la cabecera del registro y lo encola sin esperar a que se escriba.
+     */
+    private void encolar(ByteBuffer registro) {
+        int longitud = registro.position() - CABECERA_REGISTRO;
+        CRC32C crc = new CRC32C();
+        crc.update(registro.array(), CABECERA_REGISTRO, longitud);
+        registro.putInt(0, longitud);
+        registro.putInt(Integer.BYTES, (int) crc.getValue());
+        registro.flip();
+
+        synchronized (cerrojo) {
+            comprobarAbierto();
+            pendientes.add(registro);
+            encolados++;
+            cerrojo.notifyAll();
+        }
+    }
+
+    /**
+     * Con la política {@link PoliticaSincronizacion#SIEMPRE}, espera a que estén en disco
+     * todos los registros encolados hasta ahora, entre ellos los que haya encolado este hilo.
+     */
+    private void esperarEscritura() {
+        if (politica != PoliticaSincronizacion.SIEMPRE) {
+            return;
+        }
+        synchronized (cerrojo) {
+            esperarEscritos(encolados);
+        }
+    }
+
+    /**
+     * Espera, con el cerrojo tomado, a que el hilo de fondo haya escrito los registros
+     * encolados hasta {@code secuencia}.
+     */
+    private void esperarEscritos(long secuencia) {
+        boolean interrumpido = false;
+        while (escritos < secuencia && error == null) {
+            try {
+                cerrojo.wait();
+            } catch (InterruptedException e) {
+                interrumpido = true;
+            }
+        }
+        if (interrumpido) {
+            Thread.currentThread().interrupt();
+        }
+        comprobarError();
+    }
+
+    private void comprobarAbierto() {
+        comprobarError();
+        if (escritor == null || (cerrado && Thread.currentThread() != escritor)) {
+            throw new IllegalStateException("El diario no está abierto");
+        }
+    }
+
+    private void comprobarError() {
+        if (error != null) {
+            throw new UncheckedIOException("El diario ha dejado de escribir", error);
+        }
+    }
+
+    /**
+     * Bucle del hilo de fondo: escribe los lotes de registros y fuerza a disco según la política.
+     */
+    private void escribirPendientes() {
+        long ultimaSincronizacion = System.nanoTime();
+        boolean sucio = false;
+        while (true) {
+            List<ByteBuffer> lote;
+            long hasta;
+            synchronized (cerrojo) {
+                while (pendientes.isEmpty() && !cerrado) {
+                    if (politica == PoliticaSincronizacion.PERIODICA && sucio) {
+                        long restante = intervaloNanos - (System.nanoTime() - ultimaSincronizacion);
+                        if (restante <= 0) {
+                            break;
+                        }
+                        esperar(Math.max(1, restante / 1_000_000));
+                    } else {
+                        esperar(0);
+                    }
+                }
+                if (pendientes.isEmpty() && cerrado) {
+                    return;
+                }
+                lote = pendientes;
+                pendientes = new ArrayList<>();
+                hasta = encolados;
+            }
+            try {
+                synchronized (cerrojoCanal) {
+                    ByteBuffer[] buffers = lote.toArray(new ByteBuffer[0]);
+                    long restantes = 0;
+                    for (ByteBuffer buffer : buffers) {
+                        restantes += buffer.remaining();
+                    }
+                    bytesDesdeInstantanea += restantes;
+                    while (restantes > 0) {
+                        restantes -= canal.write(buffers);
+                    }
+                    sucio |= !lote.isEmpty();
+                    long ahora = System.nanoTime();
+                    if (sucio && (politica == PoliticaSincronizacion.SIEMPRE || (politica == PoliticaSincronizacion.PERIODICA
+                        && ahora - ultimaSincronizacion >= intervaloNanos))) {
+                        canal.force(false);
+                        ultimaSincronizacion = ahora;
+                        sucio = false;
+                    }
+                }
+                synchronized (cerrojo) {
+                    escritos = hasta;
+                    cerrojo.notifyAll();
+                }
+                comprobarInstantaneaAutomatica();
+            } catch (IOException e) {
+                synchronized (cerrojo) {
+                    error = e;
+                    cerrojo.notifyAll();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Lanza una instantánea automática en otro hilo si se han escrito bastantes bytes desde
+     * la anterior y no hay otra en curso. No puede hacerla este hilo, porque la instantánea
+     * espera a que él escriba lo encolado.
+     */
+    private void comprobarInstantaneaAutomatica() {
+        if (bytesEntreInstantaneas == 0) {
+            return;
+        }
+        synchronized (cerrojoCanal) {
+            if (bytesDesdeInstantanea < bytesEntreInstantaneas) {
+                return;
+            }
+        }
+        synchronized (cerrojo) {
+            if (cerrado || instantaneaAutomatica != null) {
+                return;
+            }
+            instantaneaAutomatica = new Thread(this::hacerInstantaneaAutomatica, "diario-instantanea");
+            instantaneaAutomatica.setDaemon(true);
+            instantaneaAutomatica.start();
+        }
+    }
+
+    private void esperar(long milisegundos) {
+        try {
+            cerrojo.wait(milisegundos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void abrirSegmento(int numero) throws IOException {
+        segmento = numero;
+        canal = FileChannel.open(rutaSegmento(numero), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private Path rutaSegmento(int numero) {
+        return directorio.resolve(String.format("%s%06d%s", PREFIJO_SEGMENTO, numero, EXTENSION_SEGMENTO));
+    }
+
+    /**
+     * Segmentos existentes en el directorio ordenados por número.
+     */
+    private TreeMap<Integer, Path> segmentos() throws IOException {
+        TreeMap<Integer, Path> segmentos = new TreeMap<>();
+        try (Stream<Path> ficheros = Files.list(directorio)) {
+            ficheros.forEach(fichero -> {
+                String nombre = fichero.getFileName().toString();
+                if (nombre.startsWith(PREFIJO_SEGMENTO) && nombre.endsWith(EXTENSION_SEGMENTO)) {
+                    String numero = nombre.substring(PREFIJO_SEGMENTO.length(), nombre.length() - EXTENSION_SEGMENTO.length());
+                    segmentos.put(Integer.parseInt(numero), fichero);
+                }
+            });
+        }
+        return segmentos;
+    }
+
+    /**
+     * Aplica al hotel los registros de un segmento que todavía no estén en él. Se detiene en
+     * el primer registro incompleto o con CRC incorrecto. El segmento se proyecta por ventanas
+     * de {@link #VENTANA_LECTURA} bytes; cuando un registro no cabe en lo que queda de la
+     * ventana, la siguiente empieza en él y se amplía si hace falta para contenerlo entero.
+     */
+    private static void reproducir(Path fichero, Hotel hotel, BitSet clientes, BitSet reservas) throws IOException {
+        try (FileChannel lectura = FileChannel.open(fichero, StandardOpenOption.READ)) {
+            long tamanio = lectura.size();
+            long posicion = 0;
+            long inicioVentana = 0;
+            MappedByteBuffer ventana = null;
+            CRC32C crc = new CRC32C();
+            while (tamanio - posicion >= CABECERA_REGISTRO) {
+                if (ventana == null || posicion + CABECERA_REGISTRO > inicioVentana + ventana.limit()) {
+                    inicioVentana = posicion;
+                    ventana = lectura.map(FileChannel.MapMode.READ_ONLY, posicion,
+                        Math.min(VENTANA_LECTURA, tamanio - posicion));
+                }
+                int longitud = ventana.getInt((int) (posicion - inicioVentana));
+                int esperado = ventana.getInt((int) (posicion - inicioVentana) + Integer.BYTES);
+                long fin = posicion + CABECERA_REGISTRO + longitud;
+                if (longitud <= 0 || fin > tamanio || fin - posicion > Integer.MAX_VALUE) {
+                    return;
+                }
+                if (fin > inicioVentana + ventana.limit()) {
+                    inicioVentana = posicion;
+                    ventana = lectura.map(FileChannel.MapMode.READ_ONLY, posicion,
+                        Math.max(Math.min(VENTANA_LECTURA, tamanio - posicion), fin - posicion));
+                }
+                ByteBuffer registro = ventana.slice((int) (posicion - inicioVentana) + CABECERA_REGISTRO, longitud);
+                crc.reset();
+                crc.update(registro.duplicate());
+                if ((int) crc.getValue() != esperado) {
+                    return;
+                }
+                posicion = fin;
+                aplicar(registro, hotel, clientes, reservas);
+            }
+        }
+    }
+
+    private static void aplicar(ByteBuffer registro, Hotel hotel, BitSet clientes, BitSet reservas) {
+        switch (registro.get()) {
+            case HABITACION -> {
+                int numero = registro.getInt();
+                String tipo = leerCadena(registro);
+                double precioBase = registro.getDouble();
+                if (numero == hotel.getNumeroHabitaciones() + 1) {
+                    hotel.registrarHabitacion(tipo, precioBase);
+                }
+            }
+            case CLIENTE -> {
+                int id = registro.getInt();
+                String nombre = leerCadena(registro);
+                String email = leerCadena(registro);
+                String dni = leerCadena(registro);
+                boolean esVip = registro.get() != 0;
+                if (!clientes.get(id)) {
+                    hotel.restaurarCliente(id, nombre, email, dni, esVip);
+                    clientes.set(id);
+                }
+            }
+            case RESERVA, MODIFICACION -> {
+                boolean modificacion = registro.get(0) == MODIFICACION;
+                int id = registro.getInt();
+                int numeroHabitacion = registro.getInt();
+                int clienteId = registro.getInt();
+                LocalDate entrada = LocalDate.ofEpochDay(registro.getInt());
+                LocalDate salida = LocalDate.ofEpochDay(registro.getInt());
+                double precioTotal = registro.getDouble();
+                boolean clienteVip = registro.get() != 0;
+                if (modificacion) {
+                    // La reserva puede estar ya modificada en la instantánea; se sustituye igualmente
+                    hotel.cancelarReserva(id);
+                }
+                if (modificacion || !reservas.get(id)) {
+                    hotel.restaurarReserva(id, numeroHabitacion, clienteId, entrada, salida, precioTotal, clienteVip);
+                    reservas.set(id);
+                }
+            }
+            case CANCELACION -> {
+                hotel.cancelarReserva(registro.getInt());
+            }
+            case REUBICACION -> {
+                leerCadena(registro); // Tipo de habitación
+                int[] ids = new int[registro.getInt()];
+                int[] habitaciones = new int[ids.length];
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = registro.getInt();
+                    habitaciones[i] = registro.getInt();
+                }
+                hotel.restaurarReubicacion(ids, habitaciones);
+            }
+            case REOPTIMIZACION -> {
+                // Los diarios anteriores solo guardaban el tipo y la fecha: se repite el cálculo
+                String tipo = leerCadena(registro);
+                LocalDate desde = LocalDate.ofEpochDay(registro.getInt());
+                hotel.reoptimizar(tipo, desde);
+            }
+            default -> throw new IllegalStateException("Tipo de registro desconocido en el diario");
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package org.ed06.persistencia;
+
+import org.ed06.model.Cliente;
+import org.ed06.model.Reserva;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exporta reservas y clientes de un hotel a ficheros de texto en formato CSV o JSON Lines.
+ *
+ * <p>Los elementos se leen de un {@link Stream} (por ejemplo, {@link
+ * org.ed06.model.Hotel#streamReservas}) y se escriben uno a uno a través de un
+ * {@link BufferedWriter}, de modo que se pueden exportar millones de filas sin tenerlas
+ * todas en memoria. Cada fila se compone en un único {@link StringBuilder} reutilizado y
+ * las fechas se escriben sin crear cadenas intermedias.</p>
+ *
+ * <p>Ejemplo de uso:</p>
+ * <pre>
+ * try (Stream&lt;Reserva&gt; reservas = hotel.streamReservas(FiltroReservas.TODAS)) {
+ *     ExportadorHotel.exportarReservas(reservas, Path.of("reservas.csv"), ExportadorHotel.Formato.CSV);
+ * }
+ * </pre>
+ *
+ * @author Patricia Cid González
+ */
+public final class ExportadorHotel {
+    private static final int TAMANIO_BUFFER = 1 << 16;
+
+    /**
+     * Formatos de exportación.
+     */
+    public enum Formato {
+        /**
+         * Valores separados por comas con una fila de cabecera.
+         */
+        CSV,
+        /**
+         * Un objeto JSON por línea.
+         */
+        JSONL
+    }
+
+    private final Writer salida;
+    private final Formato formato;
+    private final StringBuilder fila = new StringBuilder(256);
+    private char[] caracteres = new char[256];
+
+    private ExportadorHotel(Writer salida, Formato formato) {
+        this.salida = salida;
+        this.formato = formato;
+    }
+
+    /**
+     * Exporta reservas a un fichero, que se crea o se sobrescribe.
+     *
+     * @param reservas Reservas a exportar.
+     * @param destino  Fichero de destino.
+     * @param formato  Formato de exportación.
+     * @return Número de reservas exportadas.
+     * @throws IOException si no se puede escribir el fichero
+     */
+    public static long exportarReservas(Stream<Reserva> reservas, Path destino, Formato formato) throws IOException {
+        try (Writer salida = new OutputStreamWriter(Files.newOutputStream(destino), StandardCharsets.UTF_8)) {
+            return exportarReservas(reservas, salida, formato);
+        }
+    }
+
+    /**
+     * Exporta reservas a un {@link Writer}, que no se cierra.
+     *
+     * @param reservas Reservas a exportar.
+     * @param salida   Destino de la exportación.
+     * @param formato  Formato de exportación.
+     * @return Número de reservas exportadas.
+     * @throws IOException si no se puede escribir
+     */
+    public static long exportarReservas(Stream<Reserva> reservas, Writer salida, Formato formato) throws IOException {
+        BufferedWriter buffer = new BufferedWriter(salida, TAMANIO_BUFFER);
+        ExportadorHotel exportador = new ExportadorHotel(buffer, formato);
+        if (formato == Formato.CSV) {
+            buffer.write("id,habitacion,tipo,cliente,entrada,salida,precio\n");
+        }
+        long filas = 0;
+        for (Iterator<Reserva> it = reservas.iterator(); it.hasNext(); filas++) {
+            exportador.escribir(it.next());
+        }
+        buffer.flush();
+        return filas;
+    }
+
+    /**
+     * Exporta clientes a un fichero, que se crea o se sobrescribe.
+     *
+     * @param clientes Clientes a exportar.
+     * @param destino  Fichero de destino.
+     * @param formato  Formato de exportación.
+     * @return Número de clientes exportados.
+     * @throws IOException si no se puede escribir el fichero
+     */
+    public static long exportarClientes(Stream<Cliente> clientes, Path destino, Formato formato) throws IOException {
+        try (Writer salida = new OutputStreamWriter(Files.newOutputStream(destino), StandardCharsets.UTF_8)) {
+            return exportarClientes(clientes, salida, formato);
+        }
+    }
+
+    /**
+     * Exporta clientes a un {@link Writer}, que no se cierra.
+     *
+     * @param clientes Clientes a exportar.
+     * @param salida   Destino de la exportación.
+     * @param formato  Formato de exportación.
+     * @return Número de clientes exportados.
+     * @throws IOException si no se puede escribir
+     */
+    public static long exportarClientes(Stream<Cliente> clientes, Writer salida, Formato formato) throws IOException {
+        BufferedWriter buffer = new BufferedWriter(salida, TAMANIO_BUFFER);
+        ExportadorHotel exportador = new ExportadorHotel(buffer, formato);
+        if (formato == Formato.CSV) {
+            buffer.write("id,nombre,email,dni,vip\n");
+        }
+        long filas = 0;
+        for (Iterator<Cliente> it = clientes.iterator(); it.hasNext(); filas++) {
+            exportador.escribir(it.next());
+        }
+        buffer.flush();
+        return filas;
+    }
+
+    private void escribir(Reserva reserva) throws IOException {
+        fila.setLength(0);
+        if (formato == Formato.CSV) {
+            fila.append(reserva.getId()).append(',')
+                .append(reserva.getHabitacion().getNumero()).append(',');
+            textoCsv(reserva.getHabitacion().getTipo()).append(',')
+                .append(reserva.getCliente().id).append(',');
+            fecha(reserva.getFechaInicio()).append(',');
+            fecha(reserva.getFechaFin()).append(',')
+                .append(reserva.getPrecioTotal());
+        } else {
+            fila.append("{\"id\":").append(reserva.getId())
+                .append(",\"habitacion\":").append(reserva.getHabitacion().getNumero())
+                .append(",\"tipo\":");
+            textoJson(reserva.getHabitacion().getTipo())
+                .append(",\"cliente\":").append(reserva.getCliente().id)
+                .append(",\"entrada\":\"");
+            fecha(reserva.getFechaInicio()).append("\",\"salida\":\"");
+            fecha(reserva.getFechaFin()).append("\",\"precio\":")
+                .append(reserva.getPrecioTotal()).append('}');
+        }
+        volcarFila();
+    }
+
+    private void escribir(Cliente cliente) throws IOException {
+        fila.setLength(0);
+        if (formato == Formato.CSV) {
+            fila.append(cliente.id).append(',');
+            textoCsv(cliente.nombre).append(',');
+            textoCsv(cliente.email).append(',');
+            textoCsv(cliente.dni).append(',')
+                .append(cliente.esVip);
+        } else {
+            fila.append("{\"id\":").append(cliente.id).append(",\"nombre\":");
+            textoJson(cliente.nombre).append(",\"email\":");
+            textoJson(cliente.email).append(",\"dni\":");
+            textoJson(cliente.dni).append(",\"vip\":")
+                .append(cliente.esVip).append('}');
+        }
+        volcarFila();
+    }
+
+    /**
+     * Escribe la fila compuesta copiándola en un array reutilizado, ya que
+     * {@link Writer#append(CharSequence)} crearía una cadena por fila.
+     */
+    private void volcarFila() throws IOException {
+        fila.append('\n');
+        if (caracteres.length < fila.length()) {
+            caracteres = new char[Math.max(fila.length(), caracteres.length * 2)];
+        }
+        fila.getChars(0, fila.length(), caracteres, 0);
+        salida.write(caracteres, 0, fila.length());
+    }
+
+    /**
+     * Añade una fecha en formato ISO ({@code aaaa-mm-dd}).
+     */
+    private StringBuilder fecha(LocalDate fecha) {
+        int anio = fecha.getYear();
+        if (anio < 1000 || anio > 9999) {
+            return fila.append(fecha);
+        }
+        fila.append(anio).append('-');
+        dosCifras(fecha.getMonthValue()).append('-');
+        return dosCifras(fecha.getDayOfMonth());
+    }
+
+    private StringBuilder dosCifras(int valor) {
+        return fila.append((char) ('0' + valor / 10)).append((char) ('0' + valor % 10));
+    }
+
+    /**
+     * Añade un texto como campo CSV, entre comillas si contiene separadores o comillas.
+     */
+    private StringBuilder textoCsv(String texto) {
+        boolean comillas = false;
+        for (int i = 0; i < texto.length() && !comillas; i++) {
+            char c = texto.charAt(i);
+            comillas = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!comillas) {
+            return fila.append(texto);
+        }
+        fila.append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '"') {
+                fila.append('"');
+            }
+            fila.append(c);
+        }
+        return fila.append('"');
+    }
+
+    /**
+     * Añade un texto como cadena JSON, escapando comillas, barras y caracteres de control.
+     */
+    private StringBuilder textoJson(String texto) {
+        fila.append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"' -> fila.append("\\\"");
+                case '\\' -> fila.append("\\\\");
+                case '\n' -> fila.append("\\n");
+                case '\r' -> fila.append("\\r");
+                case '\t' -> fila.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        fila.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        fila.append(c);
+                    }
+                }
+            }
+        }
+        return fila.append('"');
+    }
+}
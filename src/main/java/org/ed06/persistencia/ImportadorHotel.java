@@ -0,0 +1,369 @@
+package org.ed06.persistencia;
+
+import org.ed06.model.Cliente;
+import org.ed06.model.Hotel;
+import org.ed06.model.SolicitudCliente;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Importa clientes y habitaciones a un hotel desde ficheros CSV, como los que genera
+ * {@link ExportadorHotel}.
+ *
+ * <p>El fichero se lee por bloques de {@value #FILAS_POR_BLOQUE} líneas, así que se
+ * pueden importar millones de filas sin tenerlas todas en memoria. Las filas de cada bloque
+ * se separan en campos y se validan en paralelo con los validadores de {@link Cliente};
+ * después se descartan en orden las filas que repiten un DNI o un email, tanto dentro del
+ * fichero como respecto a los clientes que ya tenía el hotel, y las filas válidas se dan de alta de una vez con
+ * {@link Hotel#registrarClientes}. Las filas incorrectas no detienen la importación: se
+ * devuelven en el {@link ResultadoImportacion} con su número de línea y el motivo.</p>
+ *
+ * <p>La primera línea es la cabecera e indica el orden de las columnas; las columnas que
+ * no se usan (por ejemplo, el {@code id} que escribe el exportador) se ignoran y las líneas
+ * vacías se saltan. Los campos pueden ir entre comillas dobles, con las comillas internas
+ * duplicadas, pero no pueden contener saltos de línea.</p>
+ *
+ * <ul>
+ *     <li>Clientes: columnas {@code nombre}, {@code email} y {@code dni}, y opcionalmente
+ *     {@code vip} ({@code true} o {@code false}; por defecto {@code false}).</li>
+ *     <li>Habitaciones: columnas {@code tipo} y {@code precio}. El tipo se guarda en
+ *     mayúsculas, que es como lo buscan las reservas.</li>
+ * </ul>
+ *
+ * <p>Si otro hilo registra durante la importación un cliente con el mismo DNI o email que
+ * una fila del bloque en curso, {@link Hotel#registrarClientes} rechaza el bloque entero
+ * con una {@link IllegalArgumentException}.</p>
+ *
+ * @author Patricia Cid González
+ */
+public final class ImportadorHotel {
+    private static final int FILAS_POR_BLOQUE = 1 << 16;
+    private static final String FILA_INCOMPLETA = "Faltan columnas o hay comillas sin cerrar";
+
+    private ImportadorHotel() {
+    }
+
+    /**
+     * Importa clientes desde un fichero CSV en UTF-8.
+     *
+     * @param hotel  Hotel en el que se dan de alta.
+     * @param origen Fichero CSV.
+     * @return Filas importadas y rechazadas.
+     * @throws IOException si no se puede leer el fichero o no tiene las columnas necesarias
+     */
+    public static ResultadoImportacion importarClientes(Hotel hotel, Path origen) throws IOException {
+        try (BufferedReader entrada = Files.newBufferedReader(origen, StandardCharsets.UTF_8)) {
+            return importarClientes(hotel, entrada);
+        }
+    }
+
+    /**
+     * Importa clientes desde un {@link Reader} con formato CSV, que no se cierra.
+     *
+     * @param hotel   Hotel en el que se dan de alta.
+     * @param entrada Origen de los datos.
+     * @return Filas importadas y rechazadas.
+     * @throws IOException si no se puede leer o no tiene las columnas necesarias
+     */
+    public static ResultadoImportacion importarClientes(Hotel hotel, Reader entrada) throws IOException {
+        Lector lector = new Lector(entrada);
+        int[] columnas = lector.columnas(3, "nombre", "email", "dni", "vip");
+        List<ResultadoImportacion.Rechazo> rechazadas = new ArrayList<>();
+        // Filas ya aceptadas del bloque en curso; las de bloques anteriores ya están en los índices del hotel
+        Map<Long,Long> dnis = new HashMap<>(); // Clave del DNI y línea en la que aparece
+        Map<String,Long> emails = new HashMap<>();
+
+        long importadas = 0;
+        String[] lineas = new String[FILAS_POR_BLOQUE];
+        SolicitudCliente[] solicitudes = new SolicitudCliente[FILAS_POR_BLOQUE];
+        String[] motivos = new String[FILAS_POR_BLOQUE];
+        int leidas;
+        while ((leidas = lector.leerBloque(lineas)) > 0) {
+            IntStream.range(0, leidas).parallel().forEach(i -> {
+                solicitudes[i] = null;
+                motivos[i] = null;
+                if (lineas[i].isEmpty()) {
+                    return;
+                }
+                String[] campos = campos(lineas[i], columnas);
+                if (campos == null) {
+                    motivos[i] = FILA_INCOMPLETA;
+                    return;
+                }
+                try {
+                    Cliente.validarNombre(campos[0]);
+                    Cliente.validarEmail(campos[1]);
+                    Cliente.validarDni(campos[2]);
+                    solicitudes[i] = new SolicitudCliente(campos[0], campos[1], campos[2], booleano(campos[3]));
+                } catch (IllegalArgumentException e) {
+                    motivos[i] = e.getMessage();
+                }
+            });
+
+            List<SolicitudCliente> validas = new ArrayList<>(leidas);
+            long primeraLinea = lector.getLinea() - leidas + 1;
+            for (int i = 0; i < leidas; i++) {
+                long linea = primeraLinea + i;
+                if (motivos[i] != null) {
+                    rechazadas.add(new ResultadoImportacion.Rechazo(linea, motivos[i]));
+                } else if (solicitudes[i] != null) {
+                    String motivo = repetido(hotel, solicitudes[i], linea, dnis, emails);
+                    if (motivo == null) {
+                        validas.add(solicitudes[i]);
+                    } else {
+                        rechazadas.add(new ResultadoImportacion.Rechazo(linea, motivo));
+                    }
+                }
+            }
+            hotel.registrarClientes(validas);
+            dnis.clear();
+            emails.clear();
+            importadas += validas.size();
+        }
+        return new ResultadoImportacion(importadas, rechazadas);
+    }
+
+    /**
+     * Importa habitaciones desde un fichero CSV en UTF-8.
+     *
+     * @param hotel  Hotel en el que se dan de alta.
+     * @param origen Fichero CSV.
+     * @return Filas importadas y rechazadas.
+     * @throws IOException si no se puede leer el fichero o no tiene las columnas necesarias
+     */
+    public static ResultadoImportacion importarHabitaciones(Hotel hotel, Path origen) throws IOException {
+        try (BufferedReader entrada = Files.newBufferedReader(origen, StandardCharsets.UTF_8)) {
+            return importarHabitaciones(hotel, entrada);
+        }
+    }
+
+    /**
+     * Importa habitaciones desde un {@link Reader} con formato CSV, que no se cierra. Las
+     * habitaciones se numeran en el orden del fichero.
+     *
+     * @param hotel   Hotel en el que se dan de alta.
+     * @param entrada Origen de los datos.
+     * @return Filas importadas y rechazadas.
+     * @throws IOException si no se puede leer o no tiene las columnas necesarias
+     */
+    public static ResultadoImportacion importarHabitaciones(Hotel hotel, Reader entrada) throws IOException {
+        Lector lector = new Lector(entrada);
+        int[] columnas = lector.columnas(2, "tipo", "precio");
+        List<ResultadoImportacion.Rechazo> rechazadas = new ArrayList<>();
+        long importadas = 0;
+        String[] lineas = new String[FILAS_POR_BLOQUE];
+        int leidas;
+        while ((leidas = lector.leerBloque(lineas)) > 0) {
+            long primeraLinea = lector.getLinea() - leidas + 1;
+            for (int i = 0; i < leidas; i++) {
+                if (lineas[i].isEmpty()) {
+                    continue;
+                }
+                String[] campos = campos(lineas[i], columnas);
+                if (campos == null) {
+                    rechazadas.add(new ResultadoImportacion.Rechazo(primeraLinea + i, FILA_INCOMPLETA));
+                    continue;
+                }
+                try {
+                    String tipo = campos[0].trim().toUpperCase();
+                    if (tipo.isEmpty()) {
+                        throw new IllegalArgumentException("El tipo no es válido");
+                    }
+                    double precio = precio(campos[1]);
+                    hotel.registrarHabitacion(tipo, precio);
+                    importadas++;
+                } catch (IllegalArgumentException e) {
+                    rechazadas.add(new ResultadoImportacion.Rechazo(primeraLinea + i, e.getMessage()));
+                }
+            }
+        }
+        return new ResultadoImportacion(importadas, rechazadas);
+    }
+
+    /**
+     * Comprueba si una fila repite el DNI o el email de un cliente del hotel o de una fila
+     * anterior del mismo bloque y, si no, anota los suyos.
+     *
+     * @return Motivo del rechazo o {@code null} si no repite ninguno.
+     */
+    private static String repetido(Hotel hotel, SolicitudCliente solicitud, long linea, Map<Long,Long> dnis,
+                                   Map<String,Long> emails) {
+        if (hotel.getClientePorDni(solicitud.getDni()) != null) {
+            return "El DNI ya está registrado en el hotel";
+        }
+        if (hotel.getClientePorEmail(solicitud.getEmail()) != null) {
+            return "El email ya está registrado en el hotel";
+        }
+        long claveDni = Cliente.claveDni(solicitud.getDni());
+        String claveEmail = Cliente.claveEmail(solicitud.getEmail());
+        Long anterior = dnis.get(claveDni);
+        if (anterior != null) {
+            return "DNI repetido de la línea " + anterior;
+        }
+        anterior = emails.get(claveEmail);
+        if (anterior != null) {
+            return "Email repetido de la línea " + anterior;
+        }
+        dnis.put(claveDni, linea);
+        emails.put(claveEmail, linea);
+        return null;
+    }
+
+    private static double precio(String texto) {
+        try {
+            double precio = Double.parseDouble(texto);
+            if (precio > 0 && Double.isFinite(precio)) {
+                return precio;
+            }
+        } catch (NumberFormatException e) {
+            // Se rechaza igual que un precio no positivo
+        }
+        throw new IllegalArgumentException("El precio no es válido");
+    }
+
+    private static boolean booleano(String texto) {
+        if (texto.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (texto.equalsIgnoreCase("false") || texto.isEmpty()) {
+            return false;
+        }
+        throw new IllegalArgumentException("El valor de VIP no es válido");
+    }
+
+    /**
+     * Separa una línea CSV y devuelve los campos de las columnas indicadas.
+     *
+     * @param linea    Línea sin el salto final.
+     * @param columnas Posición en la línea de cada campo a devolver, o -1 para devolverlo vacío.
+     * @return Campos en el orden de {@code columnas}, o {@code null} si faltan columnas o
+     * hay comillas sin cerrar.
+     */
+    private static String[] campos(String linea, int[] columnas) {
+        String[] campos = new String[columnas.length];
+        Arrays.fill(campos, "");
+        int columna = 0;
+        int posicion = 0;
+        int encontradas = 0;
+        StringBuilder texto = null;
+        while (true) {
+            String campo;
+            if (posicion < linea.length() && linea.charAt(posicion) == '"') {
+                if (texto == null) {
+                    texto = new StringBuilder();
+                }
+                texto.setLength(0);
+                int i = posicion + 1;
+                while (true) {
+                    if (i >= linea.length()) {
+                        return null;
+                    }
+                    char c = linea.charAt(i++);
+                    if (c == '"') {
+                        if (i < linea.length() && linea.charAt(i) == '"') {
+                            i++;
+                        } else {
+                            break;
+                        }
+                    }
+                    texto.append(c);
+                }
+                campo = texto.toString();
+                posicion = i;
+            } else {
+                int coma = linea.indexOf(',', posicion);
+                int fin = coma < 0 ? linea.length() : coma;
+                campo = linea.substring(posicion, fin);
+                posicion = fin;
+            }
+            for (int i = 0; i < columnas.length; i++) {
+                if (columnas[i] == columna) {
+                    campos[i] = campo;
+                    encontradas++;
+                }
+            }
+            if (posicion >= linea.length()) {
+                break;
+            }
+            if (linea.charAt(posicion) != ',') {
+                return null;
+            }
+            posicion++;
+            columna++;
+        }
+        int necesarias = 0;
+        for (int indice : columnas) {
+            if (indice >= 0) {
+                necesarias++;
+            }
+        }
+        return encontradas == necesarias ? campos : null;
+    }
+
+    /**
+     * Lee el fichero por bloques de líneas llevando la cuenta de la línea actual.
+     */
+    private static final class Lector {
+        private final BufferedReader entrada;
+        private long linea;
+
+        private Lector(Reader entrada) {
+            this.entrada = entrada instanceof BufferedReader buffer ? buffer : new BufferedReader(entrada, 1 << 16);
+        }
+
+        /**
+         * Lee la cabecera y busca en ella las columnas indicadas.
+         *
+         * @param obligatorias Número de columnas, al principio de {@code nombres}, que no pueden faltar.
+         * @param nombres      Columnas a buscar.
+         * @return Posición de cada columna, o -1 si falta.
+         * @throws IOException si no se puede leer o falta alguna columna obligatoria
+         */
+        private int[] columnas(int obligatorias, String... nombres) throws IOException {
+            String cabecera = entrada.readLine();
+            if (cabecera == null) {
+                throw new IOException("El fichero está vacío");
+            }
+            linea = 1;
+            String[] titulos = cabecera.split(",", -1);
+            int[] columnas = new int[nombres.length];
+            for (int i = 0; i < nombres.length; i++) {
+                columnas[i] = -1;
+                for (int j = 0; j < titulos.length; j++) {
+                    if (titulos[j].trim().equalsIgnoreCase(nombres[i])) {
+                        columnas[i] = j;
+                    }
+                }
+                if (columnas[i] < 0 && i < obligatorias) {
+                    throw new IOException("Falta la columna " + nombres[i] + " en la cabecera");
+                }
+            }
+            return columnas;
+        }
+
+        private int leerBloque(String[] lineas) throws IOException {
+            int leidas = 0;
+            String texto;
+            while (leidas < lineas.length && (texto = entrada.readLine()) != null) {
+                lineas[leidas++] = texto;
+            }
+            linea += leidas;
+            return leidas;
+        }
+
+        private long getLinea() {
+            return linea;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package org.ed06.persistencia;
+
+import org.ed06.model.Cliente;
+import org.ed06.model.Habitacion;
+import org.ed06.model.Hotel;
+import org.ed06.model.Reserva;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Lectura y escritura de la instantánea binaria con el estado completo de un hotel.
+ *
+ * <p>El fichero empieza con una cabecera de tamaño fijo (número mágico, versión, primer
+ * segmento del diario que hay que reproducir, número de reservas, posición de las columnas
+ * y siguiente identificador de reserva, que no se deduce de las reservas porque las
+ * canceladas no devuelven el suyo). Después van los datos del hotel, sus habitaciones y sus
+ * clientes, con el VIP del alta separado del VIP por reservas para que este último se vuelva
+ * a perder si dejan de bastar, y al final,
+ * alineadas a 8 bytes, las reservas en el formato columnar de {@link AlmacenReservas}, que
+ * se escriben y se leen proyectando el fichero en memoria.</p>
+ *
+ * <p>La instantánea se escribe en un fichero temporal que se fuerza a disco y se renombra
+ * de forma atómica, de modo que siempre hay una instantánea completa.</p>
+ *
+ * @author Patricia Cid González
+ */
+final class Instantanea {
+    private static final int MAGICO = 0x484F544C; // "HOTL"
+    private static final int VERSION = 4;
+    private static final int VERSION_MINIMA = 2;
+    private static final int VERSION_CONTADOR = 3;         // Desde esta se guarda el siguiente identificador de reserva
+    private static final int VERSION_VIP_POR_RESERVAS = 4; // Desde esta se distingue el VIP del alta del de reservas
+    private static final int TAMANIO_CABECERA = 32;
+    private static final int TAMANIO_BUFFER = 1 << 16;
+
+    /**
+     * Hotel leído de una instantánea y segmento desde el que continuar.
+     */
+    record Leida(Hotel hotel, int primerSegmento) {
+    }
+
+    /**
+     * Datos de la cabecera de tamaño fijo.
+     */
+    record Cabecera(int version, int primerSegmento, int numReservas, long offsetColumnas, int siguienteReservaId) {
+    }
+
+    private Instantanea() {
+    }
+
+    /**
+     * Estado de un hotel copiado en memoria para escribirlo como instantánea.
+     */
+    record Foto(int primerSegmento, int siguienteReservaId, String nombre, String direccion, String telefono,
+                List<Habitacion> habitaciones, List<Cliente> clientes, List<Reserva> reservas) {
+    }
+
+    /**
+     * Copia el estado de un hotel. Para que coincida con un punto concreto del diario hay
+     * que llamarlo con el hotel congelado ({@link Hotel#congelar}).
+     *
+     * @param hotel          Hotel a copiar.
+     * @param primerSegmento Primer segmento del diario posterior a la copia.
+     * @return Estado copiado.
+     */
+    static Foto capturar(Hotel hotel, int primerSegmento) {
+        int numHabitaciones = hotel.getNumeroHabitaciones();
+        List<Habitacion> habitaciones = new ArrayList<>(numHabitaciones);
+        List<Reserva> reservas = new ArrayList<>();
+        for (int numero = 1; numero <= numHabitaciones; numero++) {
+            habitaciones.add(hotel.getHabitacion(numero));
+            reservas.addAll(hotel.getReservas(numero));
+        }
+        return new Foto(primerSegmento, hotel.getSiguienteReservaId(), hotel.getNombre(), hotel.getDireccion(), hotel.getTelefono(),
+            habitaciones, new ArrayList<>(hotel.getClientes()), reservas);
+    }
+
+    /**
+     * Escribe una instantánea. Solo se incluyen las reservas cuyo cliente y habitación
+     * también se han guardado; el resto se recupera del diario.
+     *
+     * @param foto    Estado del hotel que se guarda.
+     * @param destino Fichero de la instantánea.
+     * @throws IOException si no se puede escribir
+     */
+    static void escribir(Foto foto, Path destino) throws IOException {
+        Path temporal = destino.resolveSibling(destino.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            canal.position(TAMANIO_CABECERA);
+            DataOutputStream salida = new DataOutputStream(
+                new BufferedOutputStream(Channels.newOutputStream(canal), TAMANIO_BUFFER));
+            salida.writeUTF(foto.nombre());
+            salida.writeUTF(foto.direccion());
+            salida.writeUTF(foto.telefono());
+
+            salida.writeInt(foto.habitaciones().size());
+            for (Habitacion habitacion : foto.habitaciones()) {
+                salida.writeUTF(habitacion.getTipo());
+                salida.writeDouble(habitacion.getPrecioBase());
+            }
+
+            BitSet guardados = new BitSet();
+            salida.writeInt(foto.clientes().size());
+            for (Cliente cliente : foto.clientes()) {
+                salida.writeInt(cliente.id);
+                salida.writeUTF(cliente.nombre);
+                salida.writeUTF(cliente.email);
+                salida.writeUTF(cliente.dni);
+                // El VIP por reservas se guarda aparte para que al recuperar se pueda perder
+                salida.writeBoolean(cliente.isVipDesdeAlta());
+                salida.writeBoolean(cliente.isVipPorReservas());
+                guardados.set(cliente.id);
+            }
+            salida.flush();
+
+            List<Reserva> reservas = new ArrayList<>(foto.reservas().size());
+            for (Reserva reserva : foto.reservas()) {
+                if (guardados.get(reserva.getCliente().id)) {
+                    reservas.add(reserva);
+                }
+            }
+            long offsetColumnas = (canal.position() + 7) & ~7L;
+            MappedByteBuffer columnas = AlmacenReservas.proyectarEscritura(canal, offsetColumnas, reservas.size());
+            for (int fila = 0; fila < reservas.size(); fila++) {
+                Reserva reserva = reservas.get(fila);
+                AlmacenReservas.escribirFila(columnas, reservas.size(), fila, reserva.getId(),
+                    reserva.getHabitacion().getNumero(), reserva.getCliente().id,
+                    reserva.getDiaInicio(), reserva.getDiaFin(),
+                    reserva.getPrecioTotal());
+            }
+            columnas.force();
+
+            ByteBuffer cabecera = ByteBuffer.allocate(TAMANIO_CABECERA);
+            cabecera.putInt(MAGICO).putInt(VERSION).putInt(foto.primerSegmento()).putInt(reservas.size()).putLong(offsetColumnas)
+                .putInt(foto.siguienteReservaId());
+            cabecera.flip();
+            while (cabecera.hasRemaining()) {
+                canal.write(cabecera, cabecera.position());
+            }
+            canal.force(true);
+        }
+        Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Lee la cabecera de tamaño fijo de una instantánea.
+     *
+     * @param canal Canal abierto en lectura.
+     * @return Cabecera leída.
+     * @throws IOException si no se puede leer o el formato no es válido
+     */
+    static Cabecera leerCabecera(FileChannel canal) throws IOException {
+        ByteBuffer cabecera = ByteBuffer.allocate(TAMANIO_CABECERA);
+        while (cabecera.hasRemaining()) {
+            if (canal.read(cabecera, cabecera.position()) < 0) {
+                throw new IOException("Instantánea incompleta");
+            }
+        }
+        cabecera.flip();
+        int version = cabecera.getInt(4);
+        if (cabecera.getInt() != MAGICO || version < VERSION_MINIMA || version > VERSION) {
+            throw new IOException("Formato de instantánea no reconocido");
+        }
+        cabecera.getInt();
+        int primerSegmento = cabecera.getInt();
+        int numReservas = cabecera.getInt();
+        long offsetColumnas = cabecera.getLong();
+        // Las instantáneas antiguas no guardan el contador: se deduce de las reservas
+        int siguienteReservaId = version >= VERSION_CONTADOR ? cabecera.getInt() : 1;
+        return new Cabecera(version, primerSegmento, numReservas, offsetColumnas, siguienteReservaId);
+    }
+
+    /**
+     * Lee una instantánea y reconstruye el hotel.
+     *
+     * @param origen   Fichero de la instantánea.
+     * @param reservas Conjunto en el que se marcan los identificadores de reserva leídos.
+     * @return Hotel reconstruido y primer segmento del diario a reproducir.
+     * @throws IOException si no se puede leer o el formato no es válido
+     */
+    static Leida leer(Path origen, BitSet reservas) throws IOException {
+        Cabecera cabecera;
+        Hotel hotel;
+        BitSet vipPorReservas = new BitSet();
+        try (FileChannel canal = FileChannel.open(origen, StandardOpenOption.READ)) {
+            cabecera = leerCabecera(canal);
+            canal.position(TAMANIO_CABECERA);
+            DataInputStream entrada = new DataInputStream(
+                new BufferedInputStream(Channels.newInputStream(canal), TAMANIO_BUFFER));
+            hotel = new Hotel(entrada.readUTF(), entrada.readUTF(), entrada.readUTF());
+
+            int numHabitaciones = entrada.readInt();
+            for (int i = 0; i < numHabitaciones; i++) {
+                hotel.registrarHabitacion(entrada.readUTF(), entrada.readDouble());
+            }
+
+            int numClientes = entrada.readInt();
+            for (int i = 0; i < numClientes; i++) {
+                int id = entrada.readInt();
+                hotel.restaurarCliente(id, entrada.readUTF(), entrada.readUTF(), entrada.readUTF(),
+                    entrada.readBoolean());
+                if (cabecera.version() >= VERSION_VIP_POR_RESERVAS && entrada.readBoolean()) {
+                    vipPorReservas.set(id);
+                }
+            }
+        }
+
+        Hotel destino = hotel;
+        AlmacenReservas.abrir(origen).recorrer(vista -> {
+            destino.restaurarReserva(vista.getId(), vista.getNumeroHabitacion(), vista.getClienteId(),
+                vista.getFechaInicio(), vista.getFechaFin(), vista.getPrecioTotal(),
+                vipPorReservas.get(vista.getClienteId()));
+            reservas.set(vista.getId());
+        });
+        hotel.restaurarSiguienteReservaId(cabecera.siguienteReservaId());
+        return new Leida(hotel, cabecera.primerSegmento());
+    }
+}
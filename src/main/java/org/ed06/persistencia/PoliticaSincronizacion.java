@@ -0,0 +1,25 @@
+package org.ed06.persistencia;
+
+/**
+ * Indica cuándo fuerza el {@link DiarioHotel} la escritura de sus datos en disco
+ * ({@code fsync}).
+ *
+ * @author Patricia Cid González
+ */
+public enum PoliticaSincronizacion {
+    /**
+     * Cada lote de eventos se fuerza a disco y la operación que lo generó espera a que
+     * termine. Ningún evento notificado se pierde aunque se caiga el sistema.
+     */
+    SIEMPRE,
+    /**
+     * Los datos se fuerzan a disco cada cierto intervalo sin que las operaciones esperen.
+     * Ante una caída se pueden perder los eventos de ese último intervalo.
+     */
+    PERIODICA,
+    /**
+     * Nunca se fuerza la escritura; el sistema operativo decide cuándo llevar los datos a
+     * disco. Solo sobreviven de forma segura a un cierre ordenado.
+     */
+    NUNCA
+}
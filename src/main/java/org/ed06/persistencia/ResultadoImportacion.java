@@ -0,0 +1,52 @@
+package org.ed06.persistencia;
+
+import java.util.List;
+
+/**
+ * Resultado de una importación con {@link ImportadorHotel}: cuántas filas se han dado de
+ * alta y qué filas se han rechazado y por qué.
+ *
+ * @author Patricia Cid González
+ */
+public final class ResultadoImportacion {
+
+    /**
+     * Fila rechazada.
+     *
+     * @param linea  Número de línea en el fichero, empezando en 1 por la cabecera.
+     * @param motivo Motivo del rechazo.
+     */
+    public record Rechazo(long linea, String motivo) {
+
+        @Override
+        public String toString() {
+            return "Línea " + linea + ": " + motivo;
+        }
+    }
+
+    private final long importadas;
+    private final List<Rechazo> rechazadas;
+
+    ResultadoImportacion(long importadas, List<Rechazo> rechazadas) {
+        this.importadas = importadas;
+        this.rechazadas = List.copyOf(rechazadas);
+    }
+
+    public long getImportadas() {
+        return importadas;
+    }
+
+    /**
+     * Filas rechazadas en el orden del fichero.
+     *
+     * @return Lista inmutable de rechazos.
+     */
+    public List<Rechazo> getRechazadas() {
+        return rechazadas;
+    }
+
+    @Override
+    public String toString() {
+        return importadas + " filas importadas, " + rechazadas.size() + " rechazadas";
+    }
+}
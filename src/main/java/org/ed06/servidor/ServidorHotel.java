@@ -0,0 +1,264 @@
+package org.ed06.servidor;
+
+import org.ed06.model.Cliente;
+import org.ed06.model.Disponibilidad;
+import org.ed06.model.FiltroReservas;
+import org.ed06.model.Habitacion;
+import org.ed06.model.Hotel;
+import org.ed06.model.Pagina;
+import org.ed06.model.Reserva;
+import org.ed06.model.ResultadoReserva;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Servidor TCP que da acceso a un {@link Hotel} mediante un protocolo de líneas de texto.
+ *
+ * <p>Cada conexión se atiende en su propio hilo virtual, así que miles de clientes
+ * conectados a la vez no ocupan miles de hilos del sistema. El hotel ya es seguro para
+ * varios hilos, por lo que las peticiones de distintas conexiones se ejecutan en paralelo.
+ * Por defecto el servidor solo escucha en la interfaz local.</p>
+ *
+ * <p>Cada petición es una línea con el comando y sus argumentos separados por espacios;
+ * las fechas van en formato ISO ({@code aaaa-mm-dd}). La respuesta empieza por
+ * {@code OK} o por {@code ERROR} seguido del motivo. Los listados responden
+ * {@code OK <n> <cursor>} seguido de {@code n} líneas, y el cursor sirve para pedir la
+ * página siguiente ({@code -1} si no hay más).</p>
+ *
+ * <pre>
+ * HABITACION &lt;tipo&gt; &lt;precio&gt;                    -&gt; OK &lt;número&gt;
+ * CLIENTE &lt;vip&gt; &lt;email&gt; &lt;dni&gt; &lt;nombre...&gt;         -&gt; OK &lt;id&gt;
+ * RESERVAR &lt;cliente&gt; &lt;tipo&gt; &lt;entrada&gt; &lt;salida&gt;    -&gt; OK &lt;habitación&gt; &lt;reserva&gt; | ERROR &lt;código&gt;
+ * CANCELAR &lt;reserva&gt;                             -&gt; OK | ERROR -5
+ * MODIFICAR &lt;reserva&gt; &lt;entrada&gt; &lt;salida&gt;          -&gt; OK &lt;habitación&gt; | ERROR &lt;código&gt;
+ * DISPONIBLES &lt;entrada&gt; &lt;salida&gt; [vip]            -&gt; OK &lt;n&gt; -1 y n líneas "tipo libres precio"
+ * HABITACIONES &lt;cursor&gt; &lt;tamaño&gt;                 -&gt; OK &lt;n&gt; &lt;cursor&gt; y n líneas "número tipo precio"
+ * CLIENTES &lt;cursor&gt; &lt;tamaño&gt;                     -&gt; OK &lt;n&gt; &lt;cursor&gt; y n líneas "id vip email dni nombre"
+ * RESERVAS &lt;cursor&gt; &lt;tamaño&gt; [cliente]           -&gt; OK &lt;n&gt; &lt;cursor&gt; y n líneas "id habitación cliente entrada salida precio"
+ * METRICAS                                       -&gt; OK &lt;n&gt; -1 y n líneas con el resumen de {@link Hotel#getMetricas}
+ * SALIR                                          -&gt; cierra la conexión
+ * </pre>
+ *
+ * @author Patricia Cid González
+ */
+public final class ServidorHotel implements AutoCloseable {
+    private static final int TAMANIO_MAXIMO_PAGINA = 10_000;
+    private static final long ESPERA_TRAS_FALLO_MS = 100; // Pausa si accept falla sin cerrar el socket
+
+    private final Hotel hotel;
+    private final ServerSocket socket;
+    private final ExecutorService conexiones = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("servidor-hotel-", 0).factory());
+    private final Thread aceptador;
+
+    /**
+     * Abre el servidor en un puerto de la interfaz local y empieza a aceptar conexiones.
+     *
+     * @param hotel  Hotel al que se da acceso.
+     * @param puerto Puerto de escucha; {@code 0} para elegir uno libre.
+     * @throws IOException si no se puede abrir el puerto
+     */
+    public ServidorHotel(Hotel hotel, int puerto) throws IOException {
+        this(hotel, new InetSocketAddress(InetAddress.getLoopbackAddress(), puerto));
+    }
+
+    /**
+     * Abre el servidor en una dirección concreta y empieza a aceptar conexiones.
+     *
+     * @param hotel     Hotel al que se da acceso.
+     * @param direccion Dirección y puerto de escucha.
+     * @throws IOException si no se puede abrir el puerto
+     */
+    public ServidorHotel(Hotel hotel, InetSocketAddress direccion) throws IOException {
+        this.hotel = hotel;
+        this.socket = new ServerSocket();
+        socket.bind(direccion, 1024);
+        this.aceptador = Thread.ofPlatform().name("servidor-hotel-aceptador").daemon().start(this::aceptar);
+    }
+
+    /**
+     * Puerto en el que escucha el servidor.
+     *
+     * @return Puerto local.
+     */
+    public int getPuerto() {
+        return socket.getLocalPort();
+    }
+
+    private void aceptar() {
+        while (!socket.isClosed()) {
+            try {
+                Socket conexion = socket.accept();
+                conexiones.execute(() -> atender(conexion));
+            } catch (IOException e) {
+                if (socket.isClosed()) {
+                    return; // El servidor se está deteniendo
+                }
+                // Fallo pasajero, por ejemplo sin descriptores libres: se espera antes de
+                // reintentar para no ocupar la CPU en un bucle de errores
+                System.err.println("Error al aceptar una conexión: " + e.getMessage());
+                try {
+                    Thread.sleep(ESPERA_TRAS_FALLO_MS);
+                } catch (InterruptedException interrupcion) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void atender(Socket conexion) {
+        try (conexion;
+             BufferedReader entrada = new BufferedReader(
+                 new InputStreamReader(conexion.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter salida = new BufferedWriter(
+                 new OutputStreamWriter(conexion.getOutputStream(), StandardCharsets.UTF_8))) {
+            conexion.setTcpNoDelay(true);
+            String linea;
+            while ((linea = entrada.readLine()) != null && !linea.equals("SALIR")) {
+                procesar(linea, salida);
+                // Con peticiones encadenadas se responde a todas de una vez
+                if (!entrada.ready()) {
+                    salida.flush();
+                }
+            }
+        } catch (IOException e) {
+            // El cliente ha cerrado la conexión
+        }
+    }
+
+    /**
+     * Ejecuta una petición y escribe su respuesta.
+     *
+     * @param linea  Petición recibida.
+     * @param salida Destino de la respuesta.
+     * @throws IOException si no se puede escribir la respuesta
+     */
+    private void procesar(String linea, BufferedWriter salida) throws IOException {
+        String[] partes = linea.trim().split(" ", 5);
+        try {
+            switch (partes[0]) {
+                case "HABITACION" -> responder(salida, "OK " + hotel.registrarHabitacion(partes[1],
+                    Double.parseDouble(partes[2])));
+                case "CLIENTE" -> responder(salida, "OK " + hotel.registrarCliente(partes[4], partes[2], partes[3],
+                    Boolean.parseBoolean(partes[1])));
+                case "RESERVAR" -> {
+                    ResultadoReserva resultado = hotel.realizarReserva(Integer.parseInt(partes[1]), partes[2],
+                        LocalDate.parse(partes[3]), LocalDate.parse(partes[4]));
+                    responder(salida, resultado.isRealizada()
+                        ? "OK " + resultado.getCodigo() + " " + resultado.getReservaId()
+                        : "ERROR " + resultado.getCodigo());
+                }
+                case "CANCELAR" -> responder(salida, hotel.cancelarReserva(Integer.parseInt(partes[1])) ? "OK" : "ERROR -5");
+                case "MODIFICAR" -> {
+                    int resultado = hotel.modificarReserva(Integer.parseInt(partes[1]), LocalDate.parse(partes[2]),
+                        LocalDate.parse(partes[3]));
+                    responder(salida, (resultado > 0 ? "OK " : "ERROR ") + resultado);
+                }
+                case "DISPONIBLES" -> {
+                    boolean vip = partes.length > 3 && Boolean.parseBoolean(partes[3]);
+                    List<Disponibilidad> disponibles = hotel.buscarDisponibilidad(LocalDate.parse(partes[1]),
+                        LocalDate.parse(partes[2]), vip);
+                    responder(salida, "OK " + disponibles.size() + " " + Pagina.FIN);
+                    for (Disponibilidad disponibilidad : disponibles) {
+                        responder(salida, disponibilidad.getTipo() + " " + disponibilidad.getHabitacionesLibres() + " "
+                            + disponibilidad.getPrecio());
+                    }
+                }
+                case "HABITACIONES" -> {
+                    Pagina<Habitacion> pagina = hotel.paginarHabitaciones(Long.parseLong(partes[1]), tamanio(partes[2]));
+                    cabecera(salida, pagina);
+                    for (Habitacion habitacion : pagina.getElementos()) {
+                        responder(salida, habitacion.getNumero() + " " + habitacion.getTipo() + " "
+                            + habitacion.getPrecioBase());
+                    }
+                }
+                case "CLIENTES" -> {
+                    Pagina<Cliente> pagina = hotel.paginarClientes(Long.parseLong(partes[1]), tamanio(partes[2]));
+                    cabecera(salida, pagina);
+                    for (Cliente cliente : pagina.getElementos()) {
+                        responder(salida, cliente.id + " " + cliente.esVip + " " + cliente.email + " " + cliente.dni
+                            + " " + cliente.nombre);
+                    }
+                }
+                case "RESERVAS" -> {
+                    FiltroReservas filtro = partes.length > 3
+                        ? FiltroReservas.TODAS.cliente(Integer.parseInt(partes[3])) : FiltroReservas.TODAS;
+                    Pagina<Reserva> pagina = hotel.paginarReservas(filtro, Long.parseLong(partes[1]), tamanio(partes[2]));
+                    cabecera(salida, pagina);
+                    for (Reserva reserva : pagina.getElementos()) {
+                        responder(salida, reserva.getId() + " " + reserva.getHabitacion().getNumero() + " "
+                            + reserva.getCliente().id + " " + reserva.getFechaInicio() + " " + reserva.getFechaFin()
+                            + " " + reserva.getPrecioTotal());
+                    }
+                }
+                case "METRICAS" -> {
+                    String[] lineas = hotel.getMetricas().getResumen().toString().split("\\R");
+                    responder(salida, "OK " + lineas.length + " " + Pagina.FIN);
+                    for (String texto : lineas) {
+                        responder(salida, texto);
+                    }
+                }
+                default -> responder(salida, "ERROR Comando no reconocido: " + partes[0]);
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            responder(salida, "ERROR Faltan argumentos para " + partes[0]);
+        } catch (DateTimeParseException e) {
+            responder(salida, "ERROR Fecha no válida: " + e.getParsedString());
+        } catch (IllegalArgumentException e) {
+            // También recoge los NumberFormatException
+            responder(salida, "ERROR " + e.getMessage());
+        } catch (RuntimeException e) {
+            // Fallos del hotel o de sus componentes, como un diario cerrado: se responden
+            // para que la conexión siga atendiendo peticiones
+            responder(salida, "ERROR Error interno: " + (e.getMessage() != null ? e.getMessage()
+                : e.getClass().getSimpleName()));
+        }
+    }
+
+    private static int tamanio(String texto) {
+        int tamanio = Integer.parseInt(texto);
+        if (tamanio < 1 || tamanio > TAMANIO_MAXIMO_PAGINA) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + TAMANIO_MAXIMO_PAGINA);
+        }
+        return tamanio;
+    }
+
+    private static void cabecera(BufferedWriter salida, Pagina<?> pagina) throws IOException {
+        responder(salida, "OK " + pagina.getElementos().size() + " " + pagina.getSiguiente());
+    }
+
+    private static void responder(BufferedWriter salida, String linea) throws IOException {
+        salida.write(linea);
+        salida.write('\n');
+    }
+
+    /**
+     * Deja de aceptar conexiones y cierra las que estén abiertas.
+     *
+     * @throws IOException si falla el cierre del socket
+     */
+    @Override
+    public void close() throws IOException {
+        socket.close();
+        conexiones.shutdownNow();
+        try {
+            aceptador.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
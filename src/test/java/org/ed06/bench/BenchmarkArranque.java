@@ -0,0 +1,101 @@
+package org.ed06.bench;
+
+import org.ed06.model.Hotel;
+import org.ed06.persistencia.AlmacenReservas;
+import org.ed06.persistencia.DiarioHotel;
+import org.ed06.persistencia.PoliticaSincronizacion;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Benchmark del tiempo de arranque de un hotel persistido con {@link DiarioHotel}.
+ *
+ * <p>Genera un hotel con el tamaño indicado registrando todos sus eventos en un diario y
+ * mide cuánto se tarda en recuperarlo reproduciendo solo el diario y cuánto partiendo de
+ * una instantánea, y cuánto cuesta recorrer las reservas proyectadas en memoria desde la
+ * instantánea. También informa del tiempo de carga con cada política de
+ * sincronización para comparar el coste de la escritura agrupada.</p>
+ *
+ * <p>Uso: {@code java org.ed06.bench.BenchmarkArranque [tamaño] [política]}; por defecto
+ * 10<sup>6</sup> habitaciones, clientes y reservas con la política {@code PERIODICA}.</p>
+ *
+ * @author Patricia Cid González
+ */
+public class BenchmarkArranque {
+    private static final String NOMBRE = "Benchmark";
+    private static final String DIRECCION = "Calle Rendimiento 1";
+    private static final String TELEFONO = "000000000";
+
+    /**
+     * Ejecuta el benchmark.
+     *
+     * @param args Tamaño y política de sincronización (opcionales).
+     * @throws IOException si falla el acceso a los ficheros temporales
+     */
+    public static void main(String[] args) throws IOException {
+        int tamanio = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        PoliticaSincronizacion politica = args.length > 1
+            ? PoliticaSincronizacion.valueOf(args[1].toUpperCase()) : PoliticaSincronizacion.PERIODICA;
+        Path directorio = Files.createTempDirectory("diario-hotel");
+        try {
+            long inicio = System.nanoTime();
+            DiarioHotel diario = DiarioHotel.abrir(directorio, politica);
+            Hotel hotel = diario.recuperar(NOMBRE, DIRECCION, TELEFONO);
+            hotel.setEventos(diario);
+            BenchmarkHotel.poblar(hotel, tamanio, tamanio, tamanio);
+            diario.close();
+            int reservas = contarReservas(hotel);
+            informar("Carga con diario (" + politica + ")", inicio, tamanio * 2L + reservas);
+            System.out.println("Tamaño del diario: " + tamanioDirectorio(directorio) / 1024 + " KiB");
+
+            inicio = System.nanoTime();
+            diario = DiarioHotel.abrir(directorio, politica);
+            hotel = diario.recuperar(NOMBRE, DIRECCION, TELEFONO);
+            informar("Recuperación solo con diario", inicio, tamanio * 2L + contarReservas(hotel));
+
+            diario.instantanea(hotel);
+            diario.close();
+            System.out.println("Tamaño de la instantánea: " + tamanioDirectorio(directorio) / 1024 + " KiB");
+
+            inicio = System.nanoTime();
+            diario = DiarioHotel.abrir(directorio, politica);
+            hotel = diario.recuperar(NOMBRE, DIRECCION, TELEFONO);
+            informar("Recuperación con instantánea", inicio, tamanio * 2L + contarReservas(hotel));
+
+            inicio = System.nanoTime();
+            AlmacenReservas almacen = diario.reservasInstantanea();
+            double[] facturado = new double[1];
+            almacen.recorrer(reserva -> facturado[0] += reserva.getPrecioTotal());
+            informar("Recorrido de reservas proyectadas", inicio, almacen.size());
+            System.out.printf("Facturación total: %.2f%n", facturado[0]);
+            diario.close();
+        } finally {
+            try (Stream<Path> ficheros = Files.walk(directorio)) {
+                ficheros.sorted(Comparator.reverseOrder()).forEach(fichero -> fichero.toFile().delete());
+            }
+        }
+    }
+
+    private static int contarReservas(Hotel hotel) {
+        int reservas = 0;
+        for (int numero = 1; numero <= hotel.getNumeroHabitaciones(); numero++) {
+            reservas += hotel.getReservas(numero).size();
+        }
+        return reservas;
+    }
+
+    private static long tamanioDirectorio(Path directorio) throws IOException {
+        try (Stream<Path> ficheros = Files.list(directorio)) {
+            return ficheros.mapToLong(fichero -> fichero.toFile().length()).sum();
+        }
+    }
+
+    private static void informar(String fase, long inicio, long eventos) {
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        System.out.printf("%-40s %10d eventos %8.2f s %12.0f eventos/s%n", fase, eventos, segundos, eventos / segundos);
+    }
+}
@@ -0,0 +1,207 @@
+package org.ed06.bench;
+
+import org.ed06.model.EstrategiaAsignacion;
+import org.ed06.model.Hotel;
+import org.ed06.model.ResultadoReoptimizacion;
+import org.ed06.model.SolicitudCliente;
+import org.ed06.model.SolicitudReserva;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Compara las estrategias de asignación de habitaciones y mide el coste de
+ * {@link Hotel#reoptimizar}.
+ *
+ * <p>Primero pide las mismas reservas, en orden aleatorio de fecha, a un hotel con cada
+ * {@link EstrategiaAsignacion} y cuenta cuántas se aceptan. Después reoptimiza el hotel
+ * que ha usado la primera habitación libre y comprueba cuántas estancias largas más caben
+ * con y sin reoptimizar. Después compara el coste por reserva de pedir esa misma demanda
+ * con {@link Hotel#reservarHabitacion} y con {@link Hotel#reservarLote}. Por último mide
+ * cuánto tarda la reoptimización de un hotel grande con todas sus habitaciones ocupadas
+ * durante un año.</p>
+ *
+ * <p>Uso: {@code java org.ed06.bench.BenchmarkAsignacion [habitaciones] [habitacionesGrande]};
+ * por defecto 1.000 y 20.000 habitaciones.</p>
+ *
+ * @author Patricia Cid González
+ */
+public class BenchmarkAsignacion {
+    private static final String TIPO = "DOBLE";
+    private static final int DIAS_HORIZONTE = 90;
+    private static final int ESTANCIA_MAXIMA = 7;
+    private static final double DEMANDA = 0.9; // Noches pedidas por noche disponible
+    private static final int ESTANCIA_LARGA = 7;
+    private static final int DIAS_ANIO = 365;
+    private static final int CLIENTES = 10_000;
+    private static final int TAMANIO_LOTE = 1_000;
+    private static final int RONDAS_CALENTAMIENTO = 3;
+    private static final String LETRAS_DNI = "TRWAGMYFPDXBNJZSQVHLCKE";
+    private static final long SEMILLA = 42;
+
+    /**
+     * Ejecuta el benchmark.
+     *
+     * @param args Habitaciones para comparar estrategias y para reoptimizar (opcionales).
+     */
+    public static void main(String[] args) {
+        int habitaciones = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int habitacionesGrande = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        LocalDate hoy = LocalDate.now();
+
+        Hotel primera = llenar(habitaciones, EstrategiaAsignacion.PRIMERA_LIBRE, hoy, "Primera libre");
+        llenar(habitaciones, EstrategiaAsignacion.MEJOR_AJUSTE, hoy, "Mejor ajuste");
+
+        Hotel sinReoptimizar = llenar(habitaciones, EstrategiaAsignacion.PRIMERA_LIBRE, hoy, null);
+        long inicio = System.nanoTime();
+        ResultadoReoptimizacion resultado = primera.reoptimizar(TIPO, hoy);
+        System.out.printf("Reoptimizar (%,d habitaciones): %s en %,.1f ms%n", habitaciones, resultado,
+            (System.nanoTime() - inicio) / 1e6);
+        System.out.printf("Estancias de %d noches que aún caben: %,d sin reoptimizar, %,d reoptimizando%n",
+            ESTANCIA_LARGA, estanciasLargas(sinReoptimizar, hoy), estanciasLargas(primera, hoy));
+
+        compararLote(habitaciones, hoy);
+
+        Hotel grande = ocupar(habitacionesGrande, hoy);
+        inicio = System.nanoTime();
+        resultado = grande.reoptimizar(TIPO, hoy.plusDays(30));
+        System.out.printf("Reoptimizar (%,d habitaciones, un año): %s en %,.1f ms%n", habitacionesGrande, resultado,
+            (System.nanoTime() - inicio) / 1e6);
+    }
+
+    /**
+     * Pide a un hotel nuevo con la estrategia indicada la demanda del horizonte en orden
+     * aleatorio de fecha.
+     */
+    private static Hotel llenar(int habitaciones, EstrategiaAsignacion estrategia, LocalDate hoy, String nombre) {
+        Hotel hotel = nuevoHotel(habitaciones);
+        hotel.setEstrategiaAsignacion(estrategia);
+        SplittableRandom aleatorio = new SplittableRandom(SEMILLA);
+        long noches = (long) (habitaciones * DIAS_HORIZONTE * DEMANDA);
+        int pedidas = 0;
+        int aceptadas = 0;
+        long inicio = System.nanoTime();
+        for (long pedidasNoches = 0; pedidasNoches < noches; pedidas++) {
+            int estancia = 1 + aleatorio.nextInt(ESTANCIA_MAXIMA);
+            LocalDate entrada = hoy.plusDays(aleatorio.nextInt(DIAS_HORIZONTE - estancia + 1));
+            if (hotel.reservarHabitacion(1 + aleatorio.nextInt(CLIENTES), TIPO, entrada, entrada.plusDays(estancia)) > 0) {
+                aceptadas++;
+            }
+            pedidasNoches += estancia;
+        }
+        if (nombre != null) {
+            System.out.printf("%-14s %,d de %,d reservas aceptadas, %,.0f ns por reserva%n", nombre, aceptadas, pedidas,
+                (double) (System.nanoTime() - inicio) / pedidas);
+        }
+        return hotel;
+    }
+
+    /**
+     * Pide la demanda del horizonte a dos hoteles nuevos con el mejor ajuste, a uno reserva a
+     * reserva y al otro en lotes, y muestra el coste por reserva de cada forma. Antes repite
+     * la comparación sin mostrarla para que el compilador JIT optimice los dos caminos.
+     */
+    private static void compararLote(int habitaciones, LocalDate hoy) {
+        for (int ronda = 0; ronda < RONDAS_CALENTAMIENTO; ronda++) {
+            compararLote(habitaciones, hoy, false);
+        }
+        compararLote(habitaciones, hoy, true);
+    }
+
+    private static void compararLote(int habitaciones, LocalDate hoy, boolean mostrar) {
+        SplittableRandom aleatorio = new SplittableRandom(SEMILLA);
+        long noches = (long) (habitaciones * DIAS_HORIZONTE * DEMANDA);
+        List<SolicitudReserva> solicitudes = new ArrayList<>();
+        for (long pedidasNoches = 0; pedidasNoches < noches; ) {
+            int estancia = 1 + aleatorio.nextInt(ESTANCIA_MAXIMA);
+            LocalDate entrada = hoy.plusDays(aleatorio.nextInt(DIAS_HORIZONTE - estancia + 1));
+            solicitudes.add(new SolicitudReserva(1 + aleatorio.nextInt(CLIENTES), TIPO, entrada,
+                entrada.plusDays(estancia)));
+            pedidasNoches += estancia;
+        }
+
+        Hotel sueltas = nuevoHotel(habitaciones);
+        sueltas.setEstrategiaAsignacion(EstrategiaAsignacion.MEJOR_AJUSTE);
+        int aceptadas = 0;
+        long inicio = System.nanoTime();
+        for (SolicitudReserva solicitud : solicitudes) {
+            if (sueltas.reservarHabitacion(solicitud.getClienteId(), solicitud.getTipo(), solicitud.getFechaEntrada(),
+                solicitud.getFechaSalida()) > 0) {
+                aceptadas++;
+            }
+        }
+        double porReserva = (double) (System.nanoTime() - inicio) / solicitudes.size();
+        if (mostrar) {
+            System.out.printf("reservarHabitacion: %,d de %,d reservas aceptadas, %,.0f ns por reserva%n", aceptadas,
+                solicitudes.size(), porReserva);
+        }
+
+        Hotel enLotes = nuevoHotel(habitaciones);
+        enLotes.setEstrategiaAsignacion(EstrategiaAsignacion.MEJOR_AJUSTE);
+        aceptadas = 0;
+        inicio = System.nanoTime();
+        for (int desde = 0; desde < solicitudes.size(); desde += TAMANIO_LOTE) {
+            List<SolicitudReserva> lote = solicitudes.subList(desde, Math.min(desde + TAMANIO_LOTE, solicitudes.size()));
+            for (int resultado : enLotes.reservarLote(lote)) {
+                if (resultado > 0) {
+                    aceptadas++;
+                }
+            }
+        }
+        porReserva = (double) (System.nanoTime() - inicio) / solicitudes.size();
+        if (mostrar) {
+            System.out.printf("reservarLote (%,d por lote): %,d de %,d reservas aceptadas, %,.0f ns por reserva%n",
+                TAMANIO_LOTE, aceptadas, solicitudes.size(), porReserva);
+        }
+    }
+
+    /**
+     * Reserva estancias largas en todas las fechas del horizonte hasta que no cabe ninguna más.
+     */
+    private static int estanciasLargas(Hotel hotel, LocalDate hoy) {
+        int reservadas = 0;
+        for (int dia = 0; dia + ESTANCIA_LARGA <= DIAS_HORIZONTE; dia++) {
+            LocalDate entrada = hoy.plusDays(dia);
+            while (hotel.reservarHabitacion(1 + reservadas % CLIENTES, TIPO, entrada, entrada.plusDays(ESTANCIA_LARGA)) > 0) {
+                reservadas++;
+            }
+        }
+        return reservadas;
+    }
+
+    /**
+     * Crea un hotel con cada habitación ocupada durante un año por estancias cortas
+     * separadas por huecos de hasta tres noches, restauradas directamente en su habitación.
+     */
+    private static Hotel ocupar(int habitaciones, LocalDate hoy) {
+        Hotel hotel = nuevoHotel(habitaciones);
+        SplittableRandom aleatorio = new SplittableRandom(SEMILLA);
+        int id = 1;
+        for (int numero = 1; numero <= habitaciones; numero++) {
+            LocalDate entrada = hoy.plusDays(aleatorio.nextInt(4));
+            while (entrada.isBefore(hoy.plusDays(DIAS_ANIO))) {
+                LocalDate salida = entrada.plusDays(1 + aleatorio.nextInt(ESTANCIA_MAXIMA));
+                hotel.restaurarReserva(id, numero, 1 + id % CLIENTES, entrada, salida, 100, false);
+                id++;
+                entrada = salida.plusDays(aleatorio.nextInt(4));
+            }
+        }
+        return hotel;
+    }
+
+    private static Hotel nuevoHotel(int habitaciones) {
+        Hotel hotel = new Hotel("Asignación", "Calle Rendimiento 1", "000000000");
+        for (int i = 0; i < habitaciones; i++) {
+            hotel.registrarHabitacion(TIPO, 100);
+        }
+        List<SolicitudCliente> clientes = new ArrayList<>(CLIENTES);
+        for (int i = 0; i < CLIENTES; i++) {
+            clientes.add(new SolicitudCliente("Cliente" + i, "cliente" + i + "@hotel.com",
+                String.format("%08d%c", i, LETRAS_DNI.charAt(i % LETRAS_DNI.length())), false));
+        }
+        hotel.registrarClientes(clientes);
+        return hotel;
+    }
+}
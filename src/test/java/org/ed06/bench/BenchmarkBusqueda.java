@@ -0,0 +1,97 @@
+package org.ed06.bench;
+
+import org.ed06.model.Hotel;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Benchmark de las consultas de disponibilidad de {@link Hotel} con varios hilos.
+ *
+ * <p>Construye un hotel con el tamaño indicado y, para 1, 2, 4... hasta tantos hilos como
+ * procesadores, mide cuántas llamadas a {@link Hotel#consultarDisponibilidad} por segundo
+ * atienden los hilos lectores mientras otro hilo hace reservas sin parar. También informa
+ * de las reservas por segundo del hilo escritor para comprobar que las consultas no lo
+ * frenan.</p>
+ *
+ * <p>Uso: {@code java org.ed06.bench.BenchmarkBusqueda [tamaño] [milisegundos]}; por
+ * defecto 10<sup>4</sup> habitaciones, clientes y reservas y 2000 ms por medida.</p>
+ *
+ * @author Patricia Cid González
+ */
+public class BenchmarkBusqueda {
+    private static final int DIAS_HORIZONTE = 365;
+    private static final int ESTANCIA_MAXIMA = 14;
+    private static final long SEMILLA = 42;
+
+    /**
+     * Ejecuta el benchmark.
+     *
+     * @param args Tamaño del hotel y duración de cada medida (opcionales).
+     * @throws InterruptedException si se interrumpe la espera a los hilos
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int tamanio = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        long milisegundos = args.length > 1 ? Long.parseLong(args[1]) : 2_000;
+        PrintStream consola = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        Hotel hotel = BenchmarkHotel.crearHotel(tamanio, tamanio, tamanio);
+        System.setOut(consola);
+
+        int procesadores = Runtime.getRuntime().availableProcessors();
+        for (int hilos = 1; hilos <= procesadores; hilos *= 2) {
+            medir(hotel, tamanio, hilos, milisegundos);
+        }
+    }
+
+    private static void medir(Hotel hotel, int tamanio, int lectores, long milisegundos) throws InterruptedException {
+        int tipos = BenchmarkHotel.numeroTipos(tamanio);
+        LocalDate hoy = LocalDate.now();
+        AtomicBoolean parar = new AtomicBoolean();
+        LongAdder consultas = new LongAdder();
+        LongAdder reservas = new LongAdder();
+        List<Thread> hilos = new ArrayList<>();
+        for (int h = 0; h < lectores; h++) {
+            SplittableRandom aleatorio = new SplittableRandom(SEMILLA + h);
+            hilos.add(new Thread(() -> {
+                long hechas = 0;
+                while (!parar.get()) {
+                    LocalDate entrada = hoy.plusDays(aleatorio.nextInt(DIAS_HORIZONTE));
+                    hotel.consultarDisponibilidad(BenchmarkHotel.tipo(aleatorio.nextInt(tipos)), entrada,
+                        entrada.plusDays(1 + aleatorio.nextInt(ESTANCIA_MAXIMA)), false);
+                    hechas++;
+                }
+                consultas.add(hechas);
+            }));
+        }
+        SplittableRandom aleatorioEscritor = new SplittableRandom(SEMILLA - lectores);
+        hilos.add(new Thread(() -> {
+            long hechas = 0;
+            while (!parar.get()) {
+                LocalDate entrada = hoy.plusDays(aleatorioEscritor.nextInt(DIAS_HORIZONTE));
+                hotel.reservarHabitacion(1 + aleatorioEscritor.nextInt(tamanio),
+                    BenchmarkHotel.tipo(aleatorioEscritor.nextInt(tipos)), entrada,
+                    entrada.plusDays(1 + aleatorioEscritor.nextInt(ESTANCIA_MAXIMA)));
+                hechas++;
+            }
+            reservas.add(hechas);
+        }));
+
+        long inicio = System.nanoTime();
+        hilos.forEach(Thread::start);
+        Thread.sleep(milisegundos);
+        parar.set(true);
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        System.out.printf("%2d lectores: %12.0f consultas/s %10.0f reservas/s%n", lectores,
+            consultas.sum() / segundos, reservas.sum() / segundos);
+    }
+}
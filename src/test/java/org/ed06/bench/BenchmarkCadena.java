@@ -0,0 +1,92 @@
+package org.ed06.bench;
+
+import org.ed06.model.Cadena;
+import org.ed06.model.Hotel;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Benchmark de las reservas en una {@link Cadena} según su número de particiones.
+ *
+ * <p>Crea una cadena con el número de hoteles indicado, cada uno con
+ * {@value #HABITACIONES} habitaciones y {@value #CLIENTES} clientes, y envía
+ * {@value #RESERVAS} reservas repartidas entre todos los hoteles. Se repite con 1, 2, 4...
+ * hasta tantas particiones como procesadores e informa de las reservas por segundo, y
+ * termina con el tiempo de una búsqueda de disponibilidad en toda la cadena.</p>
+ *
+ * <p>Uso: {@code java org.ed06.bench.BenchmarkCadena [hoteles]}; por defecto 64.</p>
+ *
+ * @author Patricia Cid González
+ */
+public class BenchmarkCadena {
+    private static final int HABITACIONES = 1_000;
+    private static final int CLIENTES = 1_000;
+    private static final int RESERVAS = 200_000;
+    private static final int DIAS_HORIZONTE = 365;
+    private static final int ESTANCIA_MAXIMA = 7;
+    private static final long SEMILLA = 42;
+
+    /**
+     * Ejecuta el benchmark.
+     *
+     * @param args Número de hoteles (opcional).
+     */
+    public static void main(String[] args) {
+        int numeroHoteles = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int procesadores = Runtime.getRuntime().availableProcessors();
+        for (int particiones = 1; particiones <= procesadores; particiones *= 2) {
+            try (Cadena cadena = crearCadena(numeroHoteles, particiones)) {
+                medirReservas(cadena);
+                if (particiones * 2 > procesadores) {
+                    medirBusqueda(cadena);
+                }
+            }
+        }
+    }
+
+    private static Cadena crearCadena(int numeroHoteles, int particiones) {
+        Cadena cadena = new Cadena(particiones);
+        int tipos = BenchmarkHotel.numeroTipos(HABITACIONES);
+        for (int h = 0; h < numeroHoteles; h++) {
+            Hotel hotel = new Hotel("Hotel " + h, "Calle Rendimiento " + h, "000000000");
+            for (int i = 0; i < HABITACIONES; i++) {
+                hotel.registrarHabitacion(BenchmarkHotel.tipo(i % tipos), 50 + i % 200);
+            }
+            for (int i = 0; i < CLIENTES; i++) {
+                hotel.registrarCliente("Cliente" + i, "cliente" + i + "@hotel.com", String.format("%08dA", i), false);
+            }
+            cadena.registrarHotel(hotel);
+        }
+        return cadena;
+    }
+
+    private static void medirReservas(Cadena cadena) {
+        int tipos = BenchmarkHotel.numeroTipos(HABITACIONES);
+        SplittableRandom aleatorio = new SplittableRandom(SEMILLA);
+        LocalDate hoy = LocalDate.now();
+        List<CompletableFuture<Integer>> resultados = new ArrayList<>(RESERVAS);
+        long inicio = System.nanoTime();
+        for (int i = 0; i < RESERVAS; i++) {
+            LocalDate entrada = hoy.plusDays(aleatorio.nextInt(DIAS_HORIZONTE));
+            resultados.add(cadena.reservar(1 + aleatorio.nextInt(cadena.getNumeroHoteles()),
+                1 + aleatorio.nextInt(CLIENTES), BenchmarkHotel.tipo(aleatorio.nextInt(tipos)), entrada,
+                entrada.plusDays(1 + aleatorio.nextInt(ESTANCIA_MAXIMA))));
+        }
+        long realizadas = resultados.stream().map(CompletableFuture::join).filter(numero -> numero > 0).count();
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        System.out.printf("%2d particiones: %10.0f reservas/s (%d realizadas)%n", cadena.getNumeroParticiones(),
+            RESERVAS / segundos, realizadas);
+    }
+
+    private static void medirBusqueda(Cadena cadena) {
+        LocalDate entrada = LocalDate.now().plusDays(30);
+        long inicio = System.nanoTime();
+        int ofertas = cadena.buscarDisponibilidad(entrada, entrada.plusDays(3), false).join().size();
+        System.out.printf("Búsqueda en %d hoteles: %d ofertas en %.2f ms%n", cadena.getNumeroHoteles(), ofertas,
+            (System.nanoTime() - inicio) / 1e6);
+    }
+}
@@ -0,0 +1,214 @@
+package org.ed06.bench;
+
+import org.ed06.model.Cliente;
+import org.ed06.model.FiltroReservas;
+import org.ed06.model.Habitacion;
+import org.ed06.model.Hotel;
+import org.ed06.model.MetricasHotel;
+import org.ed06.model.Pagina;
+import org.ed06.model.Reserva;
+import org.ed06.model.SolicitudReserva;
+import org.ed06.persistencia.ExportadorHotel;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Benchmark de las operaciones principales del paquete {@code org.ed06.model}.
+ *
+ * <p>Para cada tamaño indicado se construye un hotel con ese número de habitaciones,
+ * clientes y reservas, y se mide el rendimiento y la memoria reservada por operación de
+ * {@link Hotel#reservarHabitacion}, {@link Hotel#contarReservasUltimoAnio(int)},
+ * {@link Hotel#getHabitacion}, {@link Hotel#getClientePorDni}, {@link Hotel#getClientePorEmail},
+ * {@link Hotel#listarHabitacionesDisponibles},
+ * {@link Hotel#reservarLote}, {@link Hotel#analizarOcupacion} (informe de un mes),
+ * {@link Hotel#paginarReservas}, la exportación a CSV de todas las reservas con
+ * {@link ExportadorHotel} y {@link Reserva#calcularPrecioFinal}. Al final repite las
+ * consultas y reservas con {@link MetricasHotel} activadas para medir su coste y muestra
+ * el resumen de métricas. El lote se mide por
+ * lotes de {@value #TAMANIO_LOTE} solicitudes, así que su tiempo por reserva es el tiempo
+ * por operación dividido entre ese tamaño.</p>
+ *
+ * <p>Las habitaciones se reparten en un tipo por cada {@value #HABITACIONES_POR_TIPO}
+ * habitaciones (con un mínimo de cuatro tipos) para que la carga inicial crezca de forma
+ * lineal con el tamaño. La salida por consola del modelo se descarta durante la medición.</p>
+ *
+ * <p>Uso: {@code java org.ed06.bench.BenchmarkHotel [tamaño...]}; por defecto se miden
+ * 10<sup>2</sup>, 10<sup>4</sup> y 10<sup>6</sup>.</p>
+ *
+ * @author Patricia Cid González
+ */
+public class BenchmarkHotel {
+    static final int HABITACIONES_POR_TIPO = 64;
+    private static final int DIAS_HORIZONTE = 365;
+    private static final int ESTANCIA_MAXIMA = 7;
+    private static final int OPERACIONES = 100_000;
+    private static final int TAMANIO_LOTE = 1_000;
+    private static final long SEMILLA = 42;
+
+    /**
+     * Ejecuta el benchmark.
+     *
+     * @param args Tamaños a medir (opcional).
+     */
+    public static void main(String[] args) {
+        int[] tamanios = args.length == 0 ? new int[] {100, 10_000, 1_000_000} : new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            tamanios[i] = Integer.parseInt(args[i]);
+        }
+
+        PrintStream consola = System.out;
+        for (int tamanio : tamanios) {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            Hotel hotel = crearHotel(tamanio, tamanio, tamanio);
+            System.setOut(consola);
+            System.out.println("== Habitaciones, clientes y reservas: " + tamanio);
+            medir(hotel, tamanio, consola);
+        }
+    }
+
+    /**
+     * Crea un hotel de prueba con datos generados a partir de una semilla fija.
+     *
+     * @param habitaciones Número de habitaciones.
+     * @param clientes     Número de clientes.
+     * @param reservas     Número de reservas a intentar.
+     * @return Hotel con los datos cargados.
+     */
+    static Hotel crearHotel(int habitaciones, int clientes, int reservas) {
+        return poblar(new Hotel("Benchmark", "Calle Rendimiento 1", "000000000"), habitaciones, clientes, reservas);
+    }
+
+    /**
+     * Carga en un hotel vacío datos generados a partir de una semilla fija.
+     *
+     * @param hotel        Hotel vacío.
+     * @param habitaciones Número de habitaciones.
+     * @param clientes     Número de clientes.
+     * @param reservas     Número de reservas a intentar.
+     * @return El mismo hotel, con los datos cargados.
+     */
+    static Hotel poblar(Hotel hotel, int habitaciones, int clientes, int reservas) {
+        int tipos = numeroTipos(habitaciones);
+        for (int i = 0; i < habitaciones; i++) {
+            hotel.registrarHabitacion(tipo(i % tipos), 50 + i % 200);
+        }
+        for (int i = 0; i < clientes; i++) {
+            hotel.registrarCliente("Cliente" + i, "cliente" + i + "@hotel.com", String.format("%08dA", i), false);
+        }
+        SplittableRandom aleatorio = new SplittableRandom(SEMILLA);
+        LocalDate base = LocalDate.now().minusDays(DIAS_HORIZONTE / 2);
+        for (int i = 0; i < reservas; i++) {
+            LocalDate entrada = base.plusDays(aleatorio.nextInt(DIAS_HORIZONTE));
+            hotel.reservarHabitacion(1 + aleatorio.nextInt(clientes), tipo(aleatorio.nextInt(tipos)),
+                entrada, entrada.plusDays(1 + aleatorio.nextInt(ESTANCIA_MAXIMA)));
+        }
+        return hotel;
+    }
+
+    static int numeroTipos(int habitaciones) {
+        return Math.max(4, habitaciones / HABITACIONES_POR_TIPO);
+    }
+
+    static String tipo(int indice) {
+        return "TIPO" + indice;
+    }
+
+    private static void medir(Hotel hotel, int tamanio, PrintStream consola) {
+        int tipos = numeroTipos(tamanio);
+        int[] clientes = new int[OPERACIONES];
+        int[] numeros = new int[OPERACIONES];
+        String[] tiposPedidos = new String[OPERACIONES];
+        LocalDate[] entradas = new LocalDate[OPERACIONES];
+        LocalDate[] salidas = new LocalDate[OPERACIONES];
+        SplittableRandom aleatorio = new SplittableRandom(SEMILLA + tamanio);
+        LocalDate base = LocalDate.now();
+        for (int i = 0; i < OPERACIONES; i++) {
+            clientes[i] = 1 + aleatorio.nextInt(tamanio);
+            numeros[i] = 1 + aleatorio.nextInt(tamanio);
+            tiposPedidos[i] = tipo(aleatorio.nextInt(tipos));
+            entradas[i] = base.plusDays(aleatorio.nextInt(DIAS_HORIZONTE));
+            salidas[i] = entradas[i].plusDays(1 + aleatorio.nextInt(ESTANCIA_MAXIMA));
+        }
+
+        Medidor.medir("getHabitacion", OPERACIONES, i -> hotel.getHabitacion(numeros[i]).getNumero());
+        String[] dnis = new String[OPERACIONES];
+        String[] emails = new String[OPERACIONES];
+        for (int i = 0; i < OPERACIONES; i++) {
+            // Mismos datos con los que crearHotel registra al cliente
+            dnis[i] = String.format("%08dA", clientes[i] - 1);
+            emails[i] = "Cliente" + (clientes[i] - 1) + "@Hotel.com";
+        }
+        Medidor.medir("getClientePorDni", OPERACIONES, i -> hotel.getClientePorDni(dnis[i]).id);
+        Medidor.medir("getClientePorEmail", OPERACIONES, i -> hotel.getClientePorEmail(emails[i]).id);
+        Medidor.medir("contarReservasUltimoAnio", OPERACIONES, i -> hotel.contarReservasUltimoAnio(clientes[i]));
+
+        Habitacion habitacion = hotel.getHabitacion(1);
+        Cliente cliente = new Cliente(0, "Benchmark", "00000000A", "bench@hotel.com", true);
+        Reserva reserva = new Reserva(0, habitacion, cliente, base, base.plusDays(10));
+        Medidor.medir("Reserva.calcularPrecioFinal", OPERACIONES, i -> (long) reserva.calcularPrecioFinal());
+
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        // Cada operación usa una solicitud distinta para no repetir peticiones ya atendidas
+        int[] siguiente = new int[1];
+        Medidor.Resultado reservar = Medidor.medir("reservarHabitacion", OPERACIONES / 10, i -> {
+            int j = siguiente[0]++ % OPERACIONES;
+            return hotel.reservarHabitacion(clientes[j], tiposPedidos[j], entradas[j], salidas[j]);
+        });
+        List<List<SolicitudReserva>> lotes = new ArrayList<>();
+        for (int inicio = 0; inicio < OPERACIONES; inicio += TAMANIO_LOTE) {
+            List<SolicitudReserva> lote = new ArrayList<>(TAMANIO_LOTE);
+            for (int i = inicio; i < inicio + TAMANIO_LOTE; i++) {
+                lote.add(new SolicitudReserva(clientes[i], tiposPedidos[i], entradas[i].plusDays(DIAS_HORIZONTE), salidas[i].plusDays(DIAS_HORIZONTE)));
+            }
+            lotes.add(lote);
+        }
+        int[] siguienteLote = new int[1];
+        Medidor.Resultado lote = Medidor.medir("reservarLote (" + TAMANIO_LOTE + " por operación)", 1,
+            i -> hotel.reservarLote(lotes.get(siguienteLote[0]++ % lotes.size())).length);
+        int listados = Math.max(1, 1_000_000 / tamanio);
+        Medidor.Resultado listar = Medidor.medir("listarHabitacionesDisponibles", listados, i -> {
+            hotel.listarHabitacionesDisponibles();
+            return i;
+        });
+        System.setOut(consola);
+        LocalDate inicioMes = base.withDayOfMonth(1);
+        Medidor.medir("analizarOcupacion (un mes)", Math.max(1, 100_000 / tamanio),
+            i -> hotel.analizarOcupacion(inicioMes, inicioMes.plusMonths(1)).getTotal().getNochesVendidas());
+        long[] cursor = {Pagina.INICIO};
+        Medidor.medir("paginarReservas (100 por página)", OPERACIONES / 10, i -> {
+            Pagina<Reserva> pagina = hotel.paginarReservas(FiltroReservas.TODAS, cursor[0], 100);
+            cursor[0] = pagina.hayMas() ? pagina.getSiguiente() : Pagina.INICIO;
+            return pagina.getElementos().size();
+        });
+        Medidor.medir("exportarReservas CSV (todas)", 1, i -> {
+            try {
+                return ExportadorHotel.exportarReservas(hotel.streamReservas(FiltroReservas.TODAS), Writer.nullWriter(),
+                    ExportadorHotel.Formato.CSV);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        System.out.println(reservar);
+        System.out.println(lote);
+        System.out.println(listar);
+
+        // Coste de las métricas: las mismas operaciones con ellas activadas
+        hotel.setMetricas(new MetricasHotel());
+        Medidor.medir("contarReservasUltimoAnio (con métricas)", OPERACIONES,
+            i -> hotel.contarReservasUltimoAnio(clientes[i]));
+        Medidor.medir("reservarHabitacion (con métricas)", OPERACIONES / 10, i -> {
+            int j = siguiente[0]++ % OPERACIONES;
+            return hotel.reservarHabitacion(clientes[j], tiposPedidos[j], entradas[j], salidas[j]);
+        });
+        System.out.print(hotel.getMetricas().getResumen());
+        hotel.setMetricas(MetricasHotel.DESACTIVADAS);
+    }
+}
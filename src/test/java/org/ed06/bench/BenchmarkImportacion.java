@@ -0,0 +1,68 @@
+package org.ed06.bench;
+
+import org.ed06.model.Hotel;
+import org.ed06.persistencia.ImportadorHotel;
+import org.ed06.persistencia.ResultadoImportacion;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Benchmark de la importación de clientes con {@link ImportadorHotel}.
+ *
+ * <p>Genera un fichero CSV temporal con el número de clientes indicado, de los que un 1 %
+ * tienen un email no válido y otro 1 % repiten el DNI de un cliente anterior, y mide
+ * varias importaciones completas, cada una en un hotel nuevo. Informa de las filas por
+ * segundo y de las filas rechazadas.</p>
+ *
+ * <p>Uso: {@code java org.ed06.bench.BenchmarkImportacion [clientes]}; por defecto un millón.</p>
+ *
+ * @author Patricia Cid González
+ */
+public class BenchmarkImportacion {
+    private static final int RONDAS = 5;
+    private static final long SEMILLA = 42;
+
+    /**
+     * Ejecuta el benchmark.
+     *
+     * @param args Número de clientes (opcional).
+     * @throws IOException si no se puede escribir o leer el fichero temporal
+     */
+    public static void main(String[] args) throws IOException {
+        int clientes = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path fichero = Files.createTempFile("clientes", ".csv");
+        try {
+            generar(fichero, clientes);
+            System.out.printf("== Importación de %d clientes (%d MB)%n", clientes, Files.size(fichero) >> 20);
+            for (int ronda = 1; ronda <= RONDAS; ronda++) {
+                Hotel hotel = new Hotel("Importación", "Calle Rendimiento 1", "000000000");
+                long inicio = System.nanoTime();
+                ResultadoImportacion resultado = ImportadorHotel.importarClientes(hotel, fichero);
+                double segundos = (System.nanoTime() - inicio) / 1e9;
+                System.out.printf("Ronda %d: %.2f s, %.0f filas/s - %s%n", ronda, segundos, clientes / segundos,
+                    resultado);
+            }
+        } finally {
+            Files.delete(fichero);
+        }
+    }
+
+    private static void generar(Path fichero, int clientes) throws IOException {
+        SplittableRandom aleatorio = new SplittableRandom(SEMILLA);
+        try (BufferedWriter salida = Files.newBufferedWriter(fichero, StandardCharsets.UTF_8)) {
+            salida.write("id,nombre,email,dni,vip\n");
+            for (int i = 0; i < clientes; i++) {
+                int eleccion = aleatorio.nextInt(100);
+                String email = eleccion == 0 ? "cliente" + i + "@sin-dominio" : "cliente" + i + "@hotel.com";
+                int dni = eleccion == 1 && i > 0 ? aleatorio.nextInt(i) : i;
+                salida.write(i + 1 + ",Cliente " + i + "," + email + "," + String.format("%08dA", dni) + ","
+                    + (i % 10 == 0) + "\n");
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.ed06.bench;
+
+import org.ed06.model.Hotel;
+import org.ed06.model.SolicitudCliente;
+import org.ed06.model.SolicitudReserva;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Mide la memoria del montículo que ocupa un {@link Hotel} por habitación, por cliente y
+ * por reserva.
+ *
+ * <p>Registra por fases las habitaciones, los clientes y las reservas indicados, y tras
+ * cada fase fuerza varias recolecciones y anota la memoria en uso, de modo que la
+ * diferencia entre fases es lo que retienen los datos de esa fase. Las reservas se piden
+ * por lotes hasta alcanzar el número indicado.</p>
+ *
+ * <p>Uso: {@code java org.ed06.bench.BenchmarkMemoria [reservas] [habitaciones] [clientes]};
+ * por defecto un millón de reservas en 10.000 habitaciones para 100.000 clientes.</p>
+ *
+ * @author Patricia Cid González
+ */
+public class BenchmarkMemoria {
+    private static final int DIAS_HORIZONTE = 2 * 365;
+    private static final int ESTANCIA_MAXIMA = 7;
+    private static final int TAMANIO_LOTE = 10_000;
+    private static final long SEMILLA = 42;
+    private static final MemoryMXBean MEMORIA = ManagementFactory.getMemoryMXBean();
+
+    /**
+     * Ejecuta la medición.
+     *
+     * @param args Reservas, habitaciones y clientes (opcionales).
+     */
+    public static void main(String[] args) {
+        int reservas = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int habitaciones = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int clientes = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+        int tipos = BenchmarkHotel.numeroTipos(habitaciones);
+
+        long inicial = usada();
+        Hotel hotel = new Hotel("Memoria", "Calle Rendimiento 1", "000000000");
+        for (int i = 0; i < habitaciones; i++) {
+            hotel.registrarHabitacion(BenchmarkHotel.tipo(i % tipos), 50 + i % 200);
+        }
+        long conHabitaciones = usada();
+
+        List<SolicitudCliente> altas = new ArrayList<>(clientes);
+        for (int i = 0; i < clientes; i++) {
+            altas.add(new SolicitudCliente("Cliente" + i, "cliente" + i + "@hotel.com", String.format("%08dA", i), false));
+        }
+        hotel.registrarClientes(altas);
+        altas = null;
+        long conClientes = usada();
+
+        SplittableRandom aleatorio = new SplittableRandom(SEMILLA);
+        LocalDate hoy = LocalDate.now();
+        int realizadas = 0;
+        while (realizadas < reservas) {
+            List<SolicitudReserva> lote = new ArrayList<>(TAMANIO_LOTE);
+            for (int i = 0; i < Math.min(TAMANIO_LOTE, reservas - realizadas); i++) {
+                LocalDate entrada = hoy.plusDays(aleatorio.nextInt(DIAS_HORIZONTE));
+                lote.add(new SolicitudReserva(1 + aleatorio.nextInt(clientes), BenchmarkHotel.tipo(aleatorio.nextInt(tipos)),
+                    entrada, entrada.plusDays(1 + aleatorio.nextInt(ESTANCIA_MAXIMA))));
+            }
+            for (int resultado : hotel.reservarLote(lote)) {
+                if (resultado > 0) {
+                    realizadas++;
+                }
+            }
+        }
+        long conReservas = usada();
+        Reference.reachabilityFence(hotel);
+
+        System.out.printf("Habitaciones: %,d -> %,.1f B por habitación%n", habitaciones,
+            (double) (conHabitaciones - inicial) / habitaciones);
+        System.out.printf("Clientes:     %,d -> %,.1f B por cliente%n", clientes,
+            (double) (conClientes - conHabitaciones) / clientes);
+        System.out.printf("Reservas:     %,d -> %,.1f B por reserva%n", realizadas,
+            (double) (conReservas - conClientes) / realizadas);
+        System.out.printf("Total:        %,.1f MB%n", (conReservas - inicial) / 1e6);
+    }
+
+    private static long usada() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return MEMORIA.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,71 @@
+package org.ed06.bench;
+
+import org.ed06.model.MotorPrecios;
+import org.ed06.model.ReglaPrecio;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Benchmark de la cotización de estancias con {@link MotorPrecios}.
+ *
+ * <p>Usa un motor con tarifas de temporada para cada mes, un recargo por cada tipo de
+ * habitación y los descuentos por cliente VIP, estancia larga y ocupación, y cotiza
+ * estancias de hasta {@value #ESTANCIA_MAXIMA} noches. Compara el motor con la tabla de
+ * tarifas precalculada con uno cuyo horizonte está vacío, que evalúa las reglas noche a
+ * noche.</p>
+ *
+ * <p>Uso: {@code java org.ed06.bench.BenchmarkPrecios}.</p>
+ *
+ * @author Patricia Cid González
+ */
+public class BenchmarkPrecios {
+    private static final int TIPOS = 8;
+    private static final int DIAS_HORIZONTE = 365;
+    private static final int ESTANCIA_MAXIMA = 28;
+    private static final int OPERACIONES = 1_000_000;
+    private static final long SEMILLA = 42;
+
+    /**
+     * Ejecuta el benchmark.
+     *
+     * @param args No se usan.
+     */
+    public static void main(String[] args) {
+        LocalDate hoy = LocalDate.now();
+        List<ReglaPrecio> reglas = new ArrayList<>();
+        for (int mes = 0; mes < 24; mes++) {
+            LocalDate inicioMes = hoy.withDayOfMonth(1).plusMonths(mes);
+            reglas.add(ReglaPrecio.temporada(inicioMes, inicioMes.plusMonths(1), 0.8 + (mes % 12) * 0.05));
+        }
+        for (int i = 0; i < TIPOS; i++) {
+            reglas.add(ReglaPrecio.recargoTipo(BenchmarkHotel.tipo(i), 1 + i * 0.1));
+        }
+        reglas.add(ReglaPrecio.descuentoVip(0.9));
+        reglas.add(ReglaPrecio.estanciaLarga(7, 0.95));
+        reglas.add(ReglaPrecio.ocupacion(0.8, 1.2));
+
+        MotorPrecios tabla = new MotorPrecios(reglas);
+        MotorPrecios porNoche = new MotorPrecios(reglas, hoy, hoy);
+
+        String[] tipos = new String[OPERACIONES];
+        int[] inicios = new int[OPERACIONES];
+        int[] fines = new int[OPERACIONES];
+        SplittableRandom aleatorio = new SplittableRandom(SEMILLA);
+        for (int i = 0; i < OPERACIONES; i++) {
+            tipos[i] = BenchmarkHotel.tipo(aleatorio.nextInt(TIPOS));
+            inicios[i] = (int) hoy.toEpochDay() + aleatorio.nextInt(DIAS_HORIZONTE);
+            fines[i] = inicios[i] + 1 + aleatorio.nextInt(ESTANCIA_MAXIMA);
+        }
+        for (int i = 0; i < TIPOS; i++) {
+            tabla.cotizar(BenchmarkHotel.tipo(i), 100, false, inicios[0], fines[0]);
+        }
+
+        Medidor.medir("cotizar con tabla de tarifas", OPERACIONES,
+            i -> (long) tabla.cotizar(tipos[i], 100, (i & 1) == 0, inicios[i], fines[i]));
+        Medidor.medir("cotizar noche a noche", OPERACIONES / 10,
+            i -> (long) porNoche.cotizar(tipos[i], 100, (i & 1) == 0, inicios[i], fines[i]));
+    }
+}
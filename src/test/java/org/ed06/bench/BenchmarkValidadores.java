@@ -0,0 +1,47 @@
+package org.ed06.bench;
+
+import org.ed06.model.Cliente;
+
+import java.util.SplittableRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Benchmark de la validación de DNI y email de {@link Cliente}.
+ *
+ * <p>Compara, sobre un millón de filas generadas, la validación anterior con
+ * {@link String#matches} (que compila el patrón en cada llamada), la misma expresión con
+ * el {@link Pattern} precompilado y los validadores que recorren los caracteres.</p>
+ *
+ * @author Patricia Cid González
+ */
+public class BenchmarkValidadores {
+    private static final int FILAS = 1_000_000;
+    private static final String REGEX_EMAIL = "[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}";
+    private static final String REGEX_DNI = "[0-9]{8}[A-Z]";
+    private static final Pattern PATRON_EMAIL = Pattern.compile(REGEX_EMAIL);
+    private static final Pattern PATRON_DNI = Pattern.compile(REGEX_DNI);
+
+    /**
+     * Ejecuta el benchmark.
+     *
+     * @param args No se utilizan.
+     */
+    public static void main(String[] args) {
+        String[] emails = new String[FILAS];
+        String[] dnis = new String[FILAS];
+        SplittableRandom aleatorio = new SplittableRandom(7);
+        for (int i = 0; i < FILAS; i++) {
+            emails[i] = "cliente." + aleatorio.nextInt(1_000_000) + "@dominio" + (i % 100) + ".com";
+            dnis[i] = String.format("%08d%c", aleatorio.nextInt(100_000_000), (char) ('A' + aleatorio.nextInt(26)));
+        }
+
+        System.out.println("== Validación de " + FILAS + " filas por ronda");
+        Medidor.medir("email String.matches", FILAS, i -> emails[i].matches(REGEX_EMAIL) ? 1 : 0);
+        Medidor.medir("email Pattern precompilado", FILAS, i -> PATRON_EMAIL.matcher(emails[i]).matches() ? 1 : 0);
+        Medidor.medir("email Cliente.esEmailValido", FILAS, i -> Cliente.esEmailValido(emails[i]) ? 1 : 0);
+        Medidor.medir("dni String.matches", FILAS, i -> dnis[i].matches(REGEX_DNI) ? 1 : 0);
+        Medidor.medir("dni Pattern precompilado", FILAS, i -> PATRON_DNI.matcher(dnis[i]).matches() ? 1 : 0);
+        Medidor.medir("dni Cliente.esDniValido", FILAS, i -> Cliente.esDniValido(dnis[i]) ? 1 : 0);
+        Medidor.medir("dni Cliente.esLetraDniCorrecta", FILAS, i -> Cliente.esLetraDniCorrecta(dnis[i]) ? 1 : 0);
+    }
+}
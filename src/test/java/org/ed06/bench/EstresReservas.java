@@ -0,0 +1,117 @@
+package org.ed06.bench;
+
+import org.ed06.model.Habitacion;
+import org.ed06.model.Hotel;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Prueba de estrés que lanza reservas concurrentes sobre un mismo hotel y comprueba
+ * que ninguna habitación queda reservada dos veces para la misma noche.
+ *
+ * <p>Cada hilo intenta reservar estancias aleatorias dentro de una ventana corta de días,
+ * de forma que la contención sobre las mismas habitaciones sea alta. Al terminar se
+ * reconstruye la ocupación de cada noche a partir de los números de habitación devueltos
+ * y se termina con código de salida 1 si se detecta una doble reserva.</p>
+ *
+ * <p>Uso: {@code java org.ed06.bench.EstresReservas [hilos] [reservasPorHilo] [habitaciones]}</p>
+ *
+ * @author Patricia Cid González
+ */
+public class EstresReservas {
+    private static final int DIAS_VENTANA = 30;
+    private static final int ESTANCIA_MAXIMA = 5;
+
+    /**
+     * Ejecuta la prueba de estrés.
+     *
+     * @param args Número de hilos, reservas por hilo y número de habitaciones (opcionales).
+     * @throws InterruptedException si se interrumpe la espera de los hilos
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int hilos = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors() * 2;
+        int reservasPorHilo = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        int numHabitaciones = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+        PrintStream salida = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        Hotel hotel = new Hotel("Estrés", "Calle Concurrencia 1", "000000000");
+        for (int i = 0; i < numHabitaciones; i++) {
+            hotel.registrarHabitacion("DOBLE", 80);
+        }
+        for (int i = 0; i < hilos; i++) {
+            hotel.registrarCliente("Cliente" + i, "cliente" + i + "@hotel.com", String.format("%08dA", i), false);
+        }
+
+        LocalDate base = LocalDate.now().plusDays(1);
+        // Noche (día desde la época) y habitación -> número de veces que se ha reservado
+        ConcurrentHashMap<Long, AtomicInteger> noches = new ConcurrentHashMap<>();
+        AtomicInteger realizadas = new AtomicInteger();
+        CountDownLatch salidaLista = new CountDownLatch(1);
+        List<Thread> trabajadores = new ArrayList<>();
+
+        for (int h = 0; h < hilos; h++) {
+            final int clienteId = h + 1;
+            Thread trabajador = new Thread(() -> {
+                try {
+                    salidaLista.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                for (int i = 0; i < reservasPorHilo; i++) {
+                    LocalDate entrada = base.plusDays(aleatorio.nextInt(DIAS_VENTANA));
+                    LocalDate fin = entrada.plusDays(1 + aleatorio.nextInt(ESTANCIA_MAXIMA));
+                    int numero = hotel.reservarHabitacion(clienteId, "DOBLE", entrada, fin);
+                    if (numero > 0) {
+                        realizadas.incrementAndGet();
+                        for (LocalDate noche = entrada; noche.isBefore(fin); noche = noche.plusDays(1)) {
+                            long clave = noche.toEpochDay() * 1_000_000L + numero;
+                            noches.computeIfAbsent(clave, k -> new AtomicInteger()).incrementAndGet();
+                        }
+                    }
+                }
+            });
+            trabajadores.add(trabajador);
+            trabajador.start();
+        }
+
+        long inicio = System.nanoTime();
+        salidaLista.countDown();
+        for (Thread trabajador : trabajadores) {
+            trabajador.join();
+        }
+        long duracion = System.nanoTime() - inicio;
+        System.setOut(salida);
+
+        long dobles = noches.values().stream().filter(contador -> contador.get() > 1).count();
+        long capacidad = (long) numHabitaciones * (DIAS_VENTANA + ESTANCIA_MAXIMA);
+        System.out.printf("Hilos: %d - Intentos: %d - Reservas realizadas: %d%n",
+            hilos, (long) hilos * reservasPorHilo, realizadas.get());
+        System.out.printf("Noches ocupadas: %d de %d - Dobles reservas: %d - Tiempo: %.1f ms%n",
+            noches.size(), capacidad, dobles, duracion / 1e6);
+
+        for (int numero = 1; numero <= numHabitaciones; numero++) {
+            Habitacion habitacion = hotel.getHabitacion(numero);
+            if (habitacion == null || habitacion.getNumero() != numero) {
+                System.out.println("Habitación #" + numero + " no encontrada");
+                System.exit(1);
+            }
+        }
+        if (dobles > 0) {
+            System.out.println("ERROR: se han detectado habitaciones reservadas dos veces");
+            System.exit(1);
+        }
+        System.out.println("OK: ninguna habitación se ha reservado dos veces");
+    }
+}
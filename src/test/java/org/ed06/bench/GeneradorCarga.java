@@ -0,0 +1,173 @@
+package org.ed06.bench;
+
+import org.ed06.model.Hotel;
+import org.ed06.servidor.ServidorHotel;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generador de carga para {@link ServidorHotel}.
+ *
+ * <p>Abre el número de conexiones indicado, cada una en un hilo virtual, y envía por cada
+ * una peticiones de una en una, esperando la respuesta antes de mandar la siguiente: un
+ * {@value #PORCENTAJE_RESERVAS} % son reservas, un {@value #PORCENTAJE_BUSQUEDAS} % son
+ * búsquedas de disponibilidad y el resto son páginas del listado de reservas. Al terminar
+ * informa de las peticiones por segundo y de la latencia media, p50, p99 y máxima.</p>
+ *
+ * <p>Si no se indica un puerto, arranca en el mismo proceso un servidor con un hotel
+ * nuevo; en ambos casos registra antes por el propio protocolo {@value #HABITACIONES}
+ * habitaciones y {@value #CLIENTES} clientes.</p>
+ *
+ * <p>Uso: {@code java org.ed06.bench.GeneradorCarga [conexiones] [peticiones por conexión] [puerto]};
+ * por defecto 64 conexiones y 2000 peticiones por conexión.</p>
+ *
+ * @author Patricia Cid González
+ */
+public class GeneradorCarga {
+    private static final int HABITACIONES = 1_000;
+    private static final int CLIENTES = 1_000;
+    private static final int TIPOS = 8;
+    private static final int DIAS_HORIZONTE = 365;
+    private static final int ESTANCIA_MAXIMA = 7;
+    private static final int PORCENTAJE_RESERVAS = 60;
+    private static final int PORCENTAJE_BUSQUEDAS = 30;
+    private static final long SEMILLA = 42;
+
+    /**
+     * Ejecuta el generador de carga.
+     *
+     * @param args Conexiones, peticiones por conexión y puerto (opcionales).
+     * @throws Exception si falla la conexión con el servidor
+     */
+    public static void main(String[] args) throws Exception {
+        int numeroConexiones = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int peticiones = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        ServidorHotel servidor = null;
+        int puerto;
+        if (args.length > 2) {
+            puerto = Integer.parseInt(args[2]);
+        } else {
+            servidor = new ServidorHotel(new Hotel("Carga", "Calle Rendimiento 1", "000000000"), 0);
+            puerto = servidor.getPuerto();
+        }
+
+        try (Conexion conexion = new Conexion(puerto)) {
+            for (int i = 0; i < HABITACIONES; i++) {
+                conexion.enviar("HABITACION " + BenchmarkHotel.tipo(i % TIPOS) + " " + (50 + i % 200), false);
+            }
+            for (int i = 0; i < CLIENTES; i++) {
+                conexion.enviar("CLIENTE false carga" + i + "@hotel.com " + String.format("%08dA", i) + " Cliente " + i,
+                    false);
+            }
+        }
+
+        long[][] latencias = new long[numeroConexiones][];
+        long inicio = System.nanoTime();
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<long[]>> resultados = new ArrayList<>();
+            for (int c = 0; c < numeroConexiones; c++) {
+                long semilla = SEMILLA + c;
+                resultados.add(hilos.submit(() -> lanzar(puerto, peticiones, semilla)));
+            }
+            for (int c = 0; c < numeroConexiones; c++) {
+                latencias[c] = resultados.get(c).get();
+            }
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        long[] todas = Arrays.stream(latencias).flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("%d conexiones, %d peticiones en %.2f s: %.0f peticiones/s%n", numeroConexiones,
+            todas.length, segundos, todas.length / segundos);
+        System.out.printf("Latencia media %.1f µs, p50 %.1f µs, p99 %.1f µs, máxima %.1f µs%n",
+            Arrays.stream(todas).average().orElse(0) / 1e3, percentil(todas, 0.50) / 1e3,
+            percentil(todas, 0.99) / 1e3, todas[todas.length - 1] / 1e3);
+        if (servidor != null) {
+            servidor.close();
+        }
+    }
+
+    private static long[] lanzar(int puerto, int peticiones, long semilla) throws IOException {
+        SplittableRandom aleatorio = new SplittableRandom(semilla);
+        LocalDate hoy = LocalDate.now();
+        long[] latencias = new long[peticiones];
+        try (Conexion conexion = new Conexion(puerto)) {
+            for (int i = 0; i < peticiones; i++) {
+                LocalDate entrada = hoy.plusDays(aleatorio.nextInt(DIAS_HORIZONTE));
+                LocalDate salida = entrada.plusDays(1 + aleatorio.nextInt(ESTANCIA_MAXIMA));
+                int eleccion = aleatorio.nextInt(100);
+                String peticion;
+                boolean listado = true;
+                if (eleccion < PORCENTAJE_RESERVAS) {
+                    listado = false;
+                    peticion = "RESERVAR " + (1 + aleatorio.nextInt(CLIENTES)) + " "
+                        + BenchmarkHotel.tipo(aleatorio.nextInt(TIPOS)) + " " + entrada + " " + salida;
+                } else if (eleccion < PORCENTAJE_RESERVAS + PORCENTAJE_BUSQUEDAS) {
+                    peticion = "DISPONIBLES " + entrada + " " + salida;
+                } else {
+                    peticion = "RESERVAS 0 20 " + (1 + aleatorio.nextInt(CLIENTES));
+                }
+                long inicio = System.nanoTime();
+                conexion.enviar(peticion, listado);
+                latencias[i] = System.nanoTime() - inicio;
+            }
+        }
+        return latencias;
+    }
+
+    private static double percentil(long[] ordenadas, double fraccion) {
+        return ordenadas[Math.min(ordenadas.length - 1, (int) (ordenadas.length * fraccion))];
+    }
+
+    /**
+     * Conexión con el servidor que envía una petición y lee su respuesta completa.
+     */
+    private static final class Conexion implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader entrada;
+        private final BufferedWriter salida;
+
+        private Conexion(int puerto) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), puerto);
+            socket.setTcpNoDelay(true);
+            entrada = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            salida = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        private void enviar(String peticion, boolean listado) throws IOException {
+            salida.write(peticion);
+            salida.write('\n');
+            salida.flush();
+            String respuesta = entrada.readLine();
+            if (respuesta == null) {
+                throw new IOException("El servidor ha cerrado la conexión");
+            }
+            // Los listados indican en la cabecera cuántas líneas les siguen
+            if (listado && respuesta.startsWith("OK ") && respuesta.indexOf(' ', 3) > 0) {
+                int lineas = Integer.parseInt(respuesta.substring(3, respuesta.indexOf(' ', 3)));
+                for (int i = 0; i < lineas; i++) {
+                    entrada.readLine();
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
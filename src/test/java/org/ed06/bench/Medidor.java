@@ -0,0 +1,99 @@
+package org.ed06.bench;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+/**
+ * Utilidad mínima para medir el rendimiento de una operación sin dependencias externas.
+ *
+ * <p>Cada medición ejecuta primero varias rondas de calentamiento para que el compilador JIT
+ * optimice el código y después varias rondas medidas. Se informa del rendimiento medio
+ * (operaciones por segundo), del tiempo medio por operación y de los bytes reservados en el
+ * montículo por operación, obtenidos del contador de asignación del hilo actual.</p>
+ *
+ * @author Patricia Cid González
+ */
+public final class Medidor {
+    private static final int RONDAS_CALENTAMIENTO = 3;
+    private static final int RONDAS_MEDIDAS = 5;
+
+    private static final com.sun.management.ThreadMXBean HILOS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Acumula los resultados para que el JIT no elimine las operaciones medidas
+    private static long sumidero;
+
+    private Medidor() {
+    }
+
+    /**
+     * Operación a medir. Recibe el número de iteración y devuelve un valor cualquiera
+     * derivado de su resultado.
+     */
+    @FunctionalInterface
+    public interface Operacion {
+        long ejecutar(int iteracion);
+    }
+
+    /**
+     * Resultado de una medición.
+     *
+     * @param nombre          Nombre de la operación.
+     * @param operacionesPorSegundo Rendimiento medio.
+     * @param nanosPorOperacion     Tiempo medio por operación.
+     * @param bytesPorOperacion     Bytes reservados por operación.
+     */
+    public record Resultado(String nombre, double operacionesPorSegundo, double nanosPorOperacion,
+                            double bytesPorOperacion) {
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-45s %14.1f ops/s %12.1f ns/op %12.1f B/op",
+                nombre, operacionesPorSegundo, nanosPorOperacion, bytesPorOperacion);
+        }
+    }
+
+    /**
+     * Mide una operación y muestra el resultado por consola.
+     *
+     * @param nombre      Nombre con el que se muestra la medición.
+     * @param operaciones Número de operaciones por ronda.
+     * @param operacion   Operación a medir.
+     * @return Resultado de la medición.
+     */
+    public static Resultado medir(String nombre, int operaciones, Operacion operacion) {
+        for (int ronda = 0; ronda < RONDAS_CALENTAMIENTO; ronda++) {
+            ejecutarRonda(operaciones, operacion);
+        }
+        long hilo = Thread.currentThread().threadId();
+        long bytesAntes = HILOS.getThreadAllocatedBytes(hilo);
+        long inicio = System.nanoTime();
+        for (int ronda = 0; ronda < RONDAS_MEDIDAS; ronda++) {
+            ejecutarRonda(operaciones, operacion);
+        }
+        long nanos = System.nanoTime() - inicio;
+        long bytes = HILOS.getThreadAllocatedBytes(hilo) - bytesAntes;
+
+        double total = (double) operaciones * RONDAS_MEDIDAS;
+        Resultado resultado = new Resultado(nombre, total * 1e9 / nanos, nanos / total, bytes / total);
+        System.out.println(resultado);
+        return resultado;
+    }
+
+    /**
+     * Valor acumulado por las operaciones medidas. Solo sirve para que su resultado se use.
+     *
+     * @return Suma de los valores devueltos por las operaciones.
+     */
+    public static long getSumidero() {
+        return sumidero;
+    }
+
+    private static void ejecutarRonda(int operaciones, Operacion operacion) {
+        long acumulado = 0;
+        for (int i = 0; i < operaciones; i++) {
+            acumulado += operacion.ejecutar(i);
+        }
+        sumidero += acumulado;
+    }
+}
@@ -0,0 +1,274 @@
+package org.ed06.bench;
+
+import org.ed06.model.Hotel;
+import org.ed06.model.MetricasHotel;
+import org.ed06.model.ResumenMetricas;
+
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Simulador de carga reproducible para el modelo de reservas.
+ *
+ * <p>A partir de una semilla genera un hotel sintético y una carga de trabajo completa antes
+ * de empezar a medir, de modo que la misma semilla produce siempre las mismas operaciones.
+ * El reloj del hotel se fija en la fecha de inicio de la simulación, así que el resultado
+ * tampoco depende del día en que se ejecute:</p>
+ * <ul>
+ *     <li>Las habitaciones se reparten entre los tipos de {@link #TIPOS} según su peso y con
+ *     precios base alrededor del precio de cada tipo.</li>
+ *     <li>Las llegadas de cada día simulado siguen un proceso de Poisson cuya intensidad
+ *     varía con la temporada: una curva anual con el máximo en verano.</li>
+ *     <li>Cada llegada reserva con una antelación y una estancia de distribución
+ *     geométrica, y elige cliente con sesgo hacia los más frecuentes, de forma que algunos
+ *     llegan a VIP.</li>
+ *     <li>Además de reservas, la carga incluye consultas de disponibilidad, cancelaciones y
+ *     cambios de fechas en la proporción indicada por las constantes {@code PORCENTAJE_*}.</li>
+ * </ul>
+ *
+ * <p>Las operaciones se reparten por turnos entre los hilos indicados. Con un solo hilo el
+ * resultado de cada operación también es reproducible, y la huella que se muestra al final
+ * permite comprobar que dos versiones del modelo se comportan igual; con varios hilos el
+ * orden entre ellos cambia en cada ejecución. Se informa del rendimiento, de la tasa de
+ * reservas realizadas, de los bytes reservados en el montículo por operación y del resumen
+ * de {@link MetricasHotel} con las latencias de cada operación.</p>
+ *
+ * <p>Uso: {@code java org.ed06.bench.SimuladorCarga [semilla] [hilos] [días] [llegadas por día]
+ * [habitaciones] [clientes] [inicio]}; por defecto semilla 42, un hilo, 365 días, 2000
+ * llegadas por día, 1000 habitaciones, 20000 clientes y {@link #INICIO} como fecha de
+ * inicio, en formato ISO (aaaa-mm-dd).</p>
+ *
+ * @author Patricia Cid González
+ */
+public class SimuladorCarga {
+    /**
+     * Fecha de inicio de la simulación si no se indica otra.
+     */
+    private static final LocalDate INICIO = LocalDate.of(2025, 1, 1);
+    private static final String[] TIPOS = {"SIMPLE", "DOBLE", "FAMILIAR", "SUITE"};
+    private static final int[] PESOS_TIPOS = {35, 40, 15, 10};
+    private static final int[] PRECIOS_TIPOS = {60, 90, 120, 250};
+    private static final double AMPLITUD_TEMPORADA = 0.5;
+    private static final int DIA_PICO = 200; // Mediados de julio, contando desde el 1 de enero
+    private static final double ANTELACION_MEDIA = 30;
+    private static final double ESTANCIA_MEDIA = 3;
+    private static final double SESGO_CLIENTES = 3; // Mayor cuanto más se concentran las reservas
+    private static final int PORCENTAJE_RESERVAS = 60;
+    private static final int PORCENTAJE_CONSULTAS = 30;
+    private static final int PORCENTAJE_CANCELACIONES = 6; // El resto son cambios de fechas
+
+    private static final byte RESERVAR = 0;
+    private static final byte CONSULTAR = 1;
+    private static final byte CANCELAR = 2;
+    private static final byte MODIFICAR = 3;
+
+    private static final com.sun.management.ThreadMXBean HILOS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * Operaciones generadas, por columnas. Las cancelaciones y los cambios afectan a un
+     * identificador elegido al azar entre 1 y el número de reservas intentadas antes que
+     * ellos. Como las reservas que fallan no consumen identificador, algunos no existen
+     * todavía o no llegan a existir, y esas operaciones cuentan como fallidas; con un solo
+     * hilo también eso es reproducible.
+     */
+    private static final class Carga {
+        private final byte[] operaciones;
+        private final int[] clientes;
+        private final byte[] tipos;
+        private final int[] entradas;   // Días desde la época
+        private final int[] salidas;
+        private final int[] reservas;   // Reserva afectada por las cancelaciones y cambios
+        private int tamanio;
+
+        private Carga(int capacidad) {
+            operaciones = new byte[capacidad];
+            clientes = new int[capacidad];
+            tipos = new byte[capacidad];
+            entradas = new int[capacidad];
+            salidas = new int[capacidad];
+            reservas = new int[capacidad];
+        }
+    }
+
+    /**
+     * Ejecuta la simulación.
+     *
+     * @param args Semilla, hilos, días, llegadas por día, habitaciones, clientes y fecha de
+     *             inicio (opcionales).
+     * @throws InterruptedException si se interrumpe la espera de los hilos
+     */
+    public static void main(String[] args) throws InterruptedException {
+        long semilla = args.length > 0 ? Long.parseLong(args[0]) : 42;
+        int hilos = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        int dias = args.length > 2 ? Integer.parseInt(args[2]) : 365;
+        int llegadasPorDia = args.length > 3 ? Integer.parseInt(args[3]) : 2_000;
+        int habitaciones = args.length > 4 ? Integer.parseInt(args[4]) : 1_000;
+        int clientes = args.length > 5 ? Integer.parseInt(args[5]) : 20_000;
+        LocalDate inicioSimulacion = args.length > 6 ? LocalDate.parse(args[6]) : INICIO;
+
+        SplittableRandom aleatorio = new SplittableRandom(semilla);
+        Hotel hotel = crearHotel(aleatorio.split(), habitaciones, clientes);
+        hotel.setReloj(Clock.fixed(inicioSimulacion.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC));
+        Carga carga = generar(aleatorio.split(), (int) inicioSimulacion.toEpochDay(), dias, llegadasPorDia,
+            clientes);
+        MetricasHotel metricas = new MetricasHotel();
+        hotel.setMetricas(metricas);
+
+        int[] resultados = new int[carga.tamanio];
+        long[] bytes = new long[hilos];
+        CountDownLatch salida = new CountDownLatch(1);
+        Thread[] trabajadores = new Thread[hilos];
+        for (int h = 0; h < hilos; h++) {
+            int primera = h;
+            trabajadores[h] = new Thread(() -> {
+                try {
+                    salida.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long hilo = Thread.currentThread().threadId();
+                long antes = HILOS.getThreadAllocatedBytes(hilo);
+                for (int i = primera; i < carga.tamanio; i += hilos) {
+                    resultados[i] = ejecutar(hotel, carga, i);
+                }
+                bytes[primera] = HILOS.getThreadAllocatedBytes(hilo) - antes;
+            }, "simulador-" + h);
+            trabajadores[h].start();
+        }
+        long inicio = System.nanoTime();
+        salida.countDown();
+        for (Thread trabajador : trabajadores) {
+            trabajador.join();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        informar(carga, resultados, Arrays.stream(bytes).sum(), segundos, hilos, metricas.getResumen());
+    }
+
+    private static Hotel crearHotel(SplittableRandom aleatorio, int habitaciones, int clientes) {
+        Hotel hotel = new Hotel("Simulación", "Calle Rendimiento 1", "000000000");
+        int pesoTotal = Arrays.stream(PESOS_TIPOS).sum();
+        for (int i = 0; i < habitaciones; i++) {
+            int tipo = elegirTipo(aleatorio.nextInt(pesoTotal));
+            // Precio base entre el 80 % y el 120 % del precio del tipo
+            hotel.registrarHabitacion(TIPOS[tipo], PRECIOS_TIPOS[tipo] * (0.8 + 0.4 * aleatorio.nextDouble()));
+        }
+        for (int i = 0; i < clientes; i++) {
+            hotel.registrarCliente("Cliente" + i, "simulado" + i + "@hotel.com", String.format("%08dA", i), false);
+        }
+        return hotel;
+    }
+
+    private static Carga generar(SplittableRandom aleatorio, int primerDia, int dias, int llegadasPorDia,
+                                 int clientes) {
+        int pesoTotal = Arrays.stream(PESOS_TIPOS).sum();
+        Carga carga = new Carga((int) Math.min(Integer.MAX_VALUE - 8,
+            (long) ((long) dias * llegadasPorDia * (1 + AMPLITUD_TEMPORADA) * 1.1) + 16));
+        int reservasIntentadas = 0;
+        for (int dia = 0; dia < dias; dia++) {
+            int diaDelAnio = LocalDate.ofEpochDay(primerDia + dia).getDayOfYear();
+            double intensidad = llegadasPorDia
+                * (1 + AMPLITUD_TEMPORADA * Math.cos(2 * Math.PI * (diaDelAnio - DIA_PICO) / 365.0));
+            // Llegadas de Poisson: tiempos entre llegadas exponenciales dentro del día
+            for (double t = exponencial(aleatorio, intensidad); t < 1 && carga.tamanio < carga.operaciones.length;
+                 t += exponencial(aleatorio, intensidad)) {
+                int i = carga.tamanio++;
+                int eleccion = aleatorio.nextInt(100);
+                byte operacion = eleccion < PORCENTAJE_RESERVAS ? RESERVAR
+                    : eleccion < PORCENTAJE_RESERVAS + PORCENTAJE_CONSULTAS ? CONSULTAR
+                    : eleccion < PORCENTAJE_RESERVAS + PORCENTAJE_CONSULTAS + PORCENTAJE_CANCELACIONES ? CANCELAR
+                    : MODIFICAR;
+                int entrada = primerDia + dia + geometrica(aleatorio, ANTELACION_MEDIA);
+                carga.operaciones[i] = operacion;
+                carga.clientes[i] = 1 + (int) (clientes * Math.pow(aleatorio.nextDouble(), SESGO_CLIENTES));
+                carga.tipos[i] = (byte) elegirTipo(aleatorio.nextInt(pesoTotal));
+                carga.entradas[i] = entrada;
+                carga.salidas[i] = entrada + 1 + geometrica(aleatorio, ESTANCIA_MEDIA - 1);
+                if (operacion == RESERVAR) {
+                    reservasIntentadas++;
+                } else if (operacion != CONSULTAR) {
+                    carga.reservas[i] = reservasIntentadas == 0 ? 1 : 1 + aleatorio.nextInt(reservasIntentadas);
+                }
+            }
+        }
+        return carga;
+    }
+
+    private static int ejecutar(Hotel hotel, Carga carga, int i) {
+        LocalDate entrada = LocalDate.ofEpochDay(carga.entradas[i]);
+        LocalDate salida = LocalDate.ofEpochDay(carga.salidas[i]);
+        return switch (carga.operaciones[i]) {
+            case RESERVAR -> hotel.reservarHabitacion(carga.clientes[i], TIPOS[carga.tipos[i]], entrada, salida);
+            case CONSULTAR -> hotel.consultarDisponibilidad(TIPOS[carga.tipos[i]], entrada, salida, false)
+                .getHabitacionesLibres();
+            case CANCELAR -> hotel.cancelarReserva(carga.reservas[i]) ? 1 : 0;
+            default -> hotel.modificarReserva(carga.reservas[i], entrada, salida);
+        };
+    }
+
+    private static void informar(Carga carga, int[] resultados, long bytes, double segundos, int hilos,
+                                 ResumenMetricas resumen) {
+        long[] intentos = new long[MODIFICAR + 1];
+        long[] aciertos = new long[MODIFICAR + 1];
+        long huella = 17;
+        for (int i = 0; i < carga.tamanio; i++) {
+            intentos[carga.operaciones[i]]++;
+            if (resultados[i] > 0) {
+                aciertos[carga.operaciones[i]]++;
+            }
+            huella = huella * 31 + resultados[i];
+        }
+        System.out.printf(Locale.ROOT, "%d operaciones con %d hilos en %.2f s: %.0f operaciones/s%n",
+            carga.tamanio, hilos, segundos, carga.tamanio / segundos);
+        System.out.printf(Locale.ROOT, "Reservas realizadas: %d de %d (%.1f %%)%n", aciertos[RESERVAR],
+            intentos[RESERVAR], porcentaje(aciertos[RESERVAR], intentos[RESERVAR]));
+        System.out.printf(Locale.ROOT, "Consultas con habitaciones libres: %d de %d (%.1f %%)%n", aciertos[CONSULTAR],
+            intentos[CONSULTAR], porcentaje(aciertos[CONSULTAR], intentos[CONSULTAR]));
+        System.out.printf(Locale.ROOT, "Cancelaciones: %d de %d - Cambios de fechas: %d de %d%n",
+            aciertos[CANCELAR], intentos[CANCELAR], aciertos[MODIFICAR], intentos[MODIFICAR]);
+        System.out.printf(Locale.ROOT, "Memoria reservada: %.1f B/operación, %.1f MB/s%n",
+            (double) bytes / carga.tamanio, bytes / segundos / 1e6);
+        System.out.println("Pasos a VIP: " + resumen.getPromocionesVip());
+        System.out.printf("Huella de resultados: %016x%n", huella);
+        System.out.print(resumen);
+    }
+
+    private static int elegirTipo(int peso) {
+        int tipo = 0;
+        while (peso >= PESOS_TIPOS[tipo]) {
+            peso -= PESOS_TIPOS[tipo++];
+        }
+        return tipo;
+    }
+
+    /**
+     * Tiempo hasta la siguiente llegada, en días, con la intensidad indicada por día.
+     */
+    private static double exponencial(SplittableRandom aleatorio, double intensidad) {
+        return -Math.log(1 - aleatorio.nextDouble()) / intensidad;
+    }
+
+    /**
+     * Número de fracasos antes del primer éxito de una distribución geométrica de media
+     * {@code media}.
+     */
+    private static int geometrica(SplittableRandom aleatorio, double media) {
+        if (media <= 0) {
+            return 0;
+        }
+        double exito = 1 / (media + 1);
+        return (int) (Math.log(1 - aleatorio.nextDouble()) / Math.log(1 - exito));
+    }
+
+    private static double porcentaje(long parte, long total) {
+        return total == 0 ? 0 : 100.0 * parte / total;
+    }
+}
@@ -0,0 +1,152 @@
+package org.ed06.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de {@link Hotel} con varios hilos reservando, cancelando, cambiando y
+ * reoptimizando las mismas habitaciones a la vez.
+ *
+ * @author Patricia Cid González
+ */
+class HotelConcurrenciaTest {
+    private static final LocalDate INICIO = LocalDate.of(2030, 1, 1);
+    private static final int HILOS = 8;
+    private static final int OPERACIONES = 2_000;
+    private static final int HABITACIONES = 12;
+    private static final int CLIENTES = 50;
+    private static final int DIAS = 60;
+    private static final int ESTANCIA_MAXIMA = 5;
+    private static final String LETRAS_DNI = "TRWAGMYFPDXBNJZSQVHLCKE";
+
+    @Test
+    void lasReservasActivasNoSeSolapanConVariosHilos() throws Exception {
+        Hotel hotel = nuevoHotel(HABITACIONES);
+        CountDownLatch salida = new CountDownLatch(1);
+        ExecutorService hilos = Executors.newFixedThreadPool(HILOS);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int h = 0; h < HILOS; h++) {
+            int semilla = h;
+            tareas.add(hilos.submit(() -> {
+                salida.await();
+                operar(hotel, new SplittableRandom(semilla), semilla == 0);
+                return null;
+            }));
+        }
+        salida.countDown();
+        try {
+            for (Future<?> tarea : tareas) {
+                tarea.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            hilos.shutdownNow();
+        }
+
+        Map<Integer,List<Reserva>> porHabitacion = new HashMap<>();
+        hotel.streamReservas(FiltroReservas.TODAS).forEach(reserva -> porHabitacion
+            .computeIfAbsent(reserva.getHabitacion().getNumero(), numero -> new ArrayList<>()).add(reserva));
+        assertFalse(porHabitacion.isEmpty(), "No se ha realizado ninguna reserva");
+        for (List<Reserva> reservas : porHabitacion.values()) {
+            reservas.sort(Comparator.comparing(Reserva::getFechaInicio));
+            for (int i = 1; i < reservas.size(); i++) {
+                Reserva anterior = reservas.get(i - 1);
+                Reserva siguiente = reservas.get(i);
+                assertFalse(siguiente.getFechaInicio().isBefore(anterior.getFechaFin()),
+                    "Las reservas #" + anterior.getId() + " y #" + siguiente.getId() + " se solapan en la habitación #"
+                        + siguiente.getHabitacion().getNumero());
+            }
+            for (Reserva reserva : reservas) {
+                assertFalse(reserva.getHabitacion().isDisponible(reserva.getFechaInicio(), reserva.getFechaFin()),
+                    "La habitación de la reserva #" + reserva.getId() + " figura libre");
+            }
+        }
+    }
+
+    @Test
+    void soloUnaPeticionSimultaneaConsigueLaUltimaHabitacion() throws Exception {
+        Hotel hotel = nuevoHotel(1);
+        CountDownLatch salida = new CountDownLatch(1);
+        ExecutorService hilos = Executors.newFixedThreadPool(HILOS);
+        List<Future<Integer>> tareas = new ArrayList<>();
+        for (int h = 0; h < HILOS; h++) {
+            int clienteId = 1 + h;
+            tareas.add(hilos.submit(() -> {
+                salida.await();
+                return hotel.reservarHabitacion(clienteId, "DOBLE", INICIO, INICIO.plusDays(3));
+            }));
+        }
+        salida.countDown();
+        int realizadas = 0;
+        try {
+            for (Future<Integer> tarea : tareas) {
+                if (tarea.get(1, TimeUnit.MINUTES) > 0) {
+                    realizadas++;
+                }
+            }
+        } finally {
+            hilos.shutdownNow();
+        }
+        assertEquals(1, realizadas);
+        assertEquals(1, hotel.streamReservas(FiltroReservas.TODAS).count());
+    }
+
+    /**
+     * Mezcla de reservas sueltas y en lote, cancelaciones y cambios de fechas sobre un
+     * horizonte corto, para que las peticiones choquen a menudo. Un hilo reoptimiza además
+     * de vez en cuando.
+     */
+    private static void operar(Hotel hotel, SplittableRandom aleatorio, boolean reoptimiza) {
+        for (int i = 0; i < OPERACIONES; i++) {
+            int dia = aleatorio.nextInt(DIAS);
+            LocalDate entrada = INICIO.plusDays(dia);
+            LocalDate salida = entrada.plusDays(1 + aleatorio.nextInt(ESTANCIA_MAXIMA));
+            int reservaId = 1 + aleatorio.nextInt(OPERACIONES * HILOS / 2);
+            switch (aleatorio.nextInt(5)) {
+                case 0, 1 -> hotel.reservarHabitacion(1 + aleatorio.nextInt(CLIENTES), "DOBLE", entrada, salida);
+                case 2 -> hotel.cancelarReserva(reservaId);
+                case 3 -> hotel.modificarReserva(reservaId, entrada, salida);
+                default -> {
+                    List<SolicitudReserva> lote = new ArrayList<>();
+                    for (int j = 0; j < 8; j++) {
+                        LocalDate desde = INICIO.plusDays(aleatorio.nextInt(DIAS));
+                        lote.add(new SolicitudReserva(1 + aleatorio.nextInt(CLIENTES), "DOBLE", desde,
+                            desde.plusDays(1 + aleatorio.nextInt(ESTANCIA_MAXIMA))));
+                    }
+                    int[] resultados = hotel.reservarLote(lote);
+                    assertEquals(lote.size(), resultados.length);
+                }
+            }
+            if (reoptimiza && i % 100 == 0) {
+                assertTrue(hotel.reoptimizar("DOBLE", INICIO.plusDays(dia)).isAplicada());
+            }
+        }
+    }
+
+    private static Hotel nuevoHotel(int habitaciones) {
+        Hotel hotel = new Hotel("Pruebas", "Calle Concurrencia 1", "000000000");
+        for (int i = 0; i < habitaciones; i++) {
+            hotel.registrarHabitacion("DOBLE", 100);
+        }
+        for (int i = 0; i < Math.max(CLIENTES, HILOS); i++) {
+            hotel.registrarCliente("Cliente " + i, "cliente" + i + "@hotel.com",
+                String.format("%08d%c", i, LETRAS_DNI.charAt(i % LETRAS_DNI.length())), false);
+        }
+        return hotel;
+    }
+}
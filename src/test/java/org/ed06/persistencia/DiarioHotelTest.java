@@ -0,0 +1,171 @@
+package org.ed06.persistencia;
+
+import org.ed06.model.Cliente;
+import org.ed06.model.EventosHotel;
+import org.ed06.model.FiltroReservas;
+import org.ed06.model.Hotel;
+import org.ed06.model.Reserva;
+import org.ed06.model.ResultadoReserva;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de {@link DiarioHotel}: un hotel recuperado solo del diario y otro recuperado de
+ * una instantánea deben quedar igual que el original, incluido lo que no se deduce de las
+ * reservas, como el siguiente identificador de reserva o el estado VIP por reservas.
+ *
+ * @author Patricia Cid González
+ */
+class DiarioHotelTest {
+    private static final LocalDate HOY = LocalDate.of(2030, 1, 1);
+    private static final Clock RELOJ = Clock.fixed(HOY.atTime(12, 0).toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+    private static final String DNI_ANA = "00000001R";
+    private static final String DNI_BERTA = "00000002W";
+    private static final String DNI_CARLOS = "00000003A";
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void elDiarioYLaInstantaneaRecuperanElMismoHotel() throws IOException {
+        Hotel original = ejecutar(directorio.resolve("diario"), MomentoInstantanea.NINGUNA);
+        Hotel soloDiario = recuperar(directorio.resolve("diario"));
+        ejecutar(directorio.resolve("final"), MomentoInstantanea.AL_FINAL);
+        Hotel deInstantanea = recuperar(directorio.resolve("final"));
+        ejecutar(directorio.resolve("medio"), MomentoInstantanea.EN_MEDIO);
+        Hotel mixto = recuperar(directorio.resolve("medio"));
+
+        for (Hotel recuperado : new Hotel[]{soloDiario, deInstantanea, mixto}) {
+            assertEquals(estado(original), estado(recuperado));
+            assertEquals(original.getSiguienteReservaId(), recuperado.getSiguienteReservaId());
+        }
+    }
+
+    @Test
+    void laInstantaneaConservaElSiguienteIdentificadorDeReserva() throws IOException {
+        Hotel original = ejecutar(directorio, MomentoInstantanea.AL_FINAL);
+        Hotel recuperado = recuperar(directorio);
+
+        // La última reserva está cancelada, así que no se deduce de las reservas guardadas
+        assertEquals(original.getSiguienteReservaId(), recuperado.getSiguienteReservaId());
+        ResultadoReserva esperada = original.realizarReserva(cliente(original, DNI_CARLOS), "DOBLE",
+            HOY.plusDays(200), HOY.plusDays(201));
+        ResultadoReserva obtenida = recuperado.realizarReserva(cliente(recuperado, DNI_CARLOS), "DOBLE",
+            HOY.plusDays(200), HOY.plusDays(201));
+        assertTrue(esperada.isRealizada());
+        assertEquals(esperada.getReservaId(), obtenida.getReservaId());
+    }
+
+    @Test
+    void elVipPorReservasSePierdeTambienTrasRecuperar() throws IOException {
+        ejecutar(directorio.resolve("diario"), MomentoInstantanea.NINGUNA);
+        ejecutar(directorio.resolve("final"), MomentoInstantanea.AL_FINAL);
+
+        for (String nombre : new String[]{"diario", "final"}) {
+            Hotel hotel = recuperar(directorio.resolve(nombre));
+            int ana = cliente(hotel, DNI_ANA);
+            int berta = cliente(hotel, DNI_BERTA);
+            assertTrue(hotel.esClienteVip(ana), nombre);
+            assertTrue(hotel.esClienteVip(berta), nombre);
+            assertFalse(hotel.esClienteVip(cliente(hotel, DNI_CARLOS)), nombre);
+
+            // Ana solo era VIP por sus reservas: al cancelarlas deja de serlo; Berta lo es desde el alta
+            hotel.streamReservas(FiltroReservas.TODAS.cliente(ana)).map(Reserva::getId).toList()
+                .forEach(hotel::cancelarReserva);
+            hotel.streamReservas(FiltroReservas.TODAS.cliente(berta)).map(Reserva::getId).toList()
+                .forEach(hotel::cancelarReserva);
+            assertFalse(hotel.esClienteVip(ana), nombre);
+            assertTrue(hotel.esClienteVip(berta), nombre);
+        }
+    }
+
+    /**
+     * Momento en que {@link #ejecutar} guarda una instantánea.
+     */
+    private enum MomentoInstantanea {
+        NINGUNA, EN_MEDIO, AL_FINAL
+    }
+
+    /**
+     * Registra habitaciones y clientes y hace reservas, cambios y cancelaciones con el diario
+     * abierto, guardando una instantánea cuando se indique, y cierra el diario. El hotel
+     * devuelto ya no anota nada.
+     */
+    private static Hotel ejecutar(Path ruta, MomentoInstantanea instantanea) throws IOException {
+        DiarioHotel diario = DiarioHotel.abrir(ruta, PoliticaSincronizacion.NUNCA, Duration.ofMillis(100), 0);
+        Hotel hotel = diario.recuperar("Pruebas", "Calle Diario 1", "000000000");
+        hotel.setReloj(RELOJ);
+        hotel.setEventos(diario);
+        for (int i = 0; i < 3; i++) {
+            hotel.registrarHabitacion("DOBLE", 100);
+        }
+        int ana = hotel.registrarCliente("Ana López", "ana@hotel.com", DNI_ANA, false);
+        int berta = hotel.registrarCliente("Berta Ruiz", "berta@hotel.com", DNI_BERTA, true);
+        int carlos = hotel.registrarCliente("Carlos Gil", "carlos@hotel.com", DNI_CARLOS, false);
+
+        // Más de tres reservas en el último año hacen VIP a Ana
+        for (int i = 0; i < 5; i++) {
+            assertTrue(hotel.reservarHabitacion(ana, "DOBLE", HOY.plusDays(10 + 2 * i), HOY.plusDays(11 + 2 * i)) > 0);
+        }
+        assertTrue(hotel.esClienteVip(ana));
+        if (instantanea == MomentoInstantanea.EN_MEDIO) {
+            diario.instantanea(hotel);
+        }
+        int deBerta = hotel.realizarReserva(berta, "DOBLE", HOY.plusDays(30), HOY.plusDays(33)).getReservaId();
+        assertTrue(hotel.modificarReserva(deBerta, HOY.plusDays(31), HOY.plusDays(35)) > 0);
+        assertTrue(hotel.reservarHabitacion(carlos, "DOBLE", HOY.plusDays(40), HOY.plusDays(42)) > 0);
+        int ultima = hotel.realizarReserva(carlos, "DOBLE", HOY.plusDays(50), HOY.plusDays(52)).getReservaId();
+        assertTrue(hotel.cancelarReserva(ultima));
+        if (instantanea == MomentoInstantanea.AL_FINAL) {
+            diario.instantanea(hotel);
+        }
+        diario.close();
+        hotel.setEventos(EventosHotel.NINGUNO);
+        return hotel;
+    }
+
+    private static Hotel recuperar(Path ruta) throws IOException {
+        try (DiarioHotel diario = DiarioHotel.abrir(ruta, PoliticaSincronizacion.NUNCA)) {
+            Hotel hotel = diario.recuperar("Otro", "Otra calle", "111111111");
+            hotel.setReloj(RELOJ);
+            return hotel;
+        }
+    }
+
+    private static int cliente(Hotel hotel, String dni) {
+        return hotel.getClientePorDni(dni).id;
+    }
+
+    /**
+     * Habitaciones, clientes y reservas activas del hotel en un texto comparable.
+     */
+    private static String estado(Hotel hotel) {
+        String habitaciones = hotel.streamHabitaciones()
+            .map(habitacion -> habitacion.getNumero() + " " + habitacion.getTipo() + " " + habitacion.getPrecioBase())
+            .collect(Collectors.joining("\n"));
+        String clientes = hotel.streamClientes()
+            .sorted(Comparator.comparingInt((Cliente cliente) -> cliente.id))
+            .map(cliente -> cliente.id + " " + cliente.nombre + " " + cliente.email + " " + cliente.dni + " "
+                + hotel.esClienteVip(cliente.id))
+            .collect(Collectors.joining("\n"));
+        String reservas = hotel.streamReservas(FiltroReservas.TODAS)
+            .sorted(Comparator.comparingInt(Reserva::getId))
+            .map(reserva -> reserva.getId() + " " + reserva.getHabitacion().getNumero() + " " + reserva.getCliente().id
+                + " " + reserva.getFechaInicio() + " " + reserva.getFechaFin() + " " + reserva.getPrecioTotal())
+            .collect(Collectors.joining("\n"));
+        return habitaciones + "\n\n" + clientes + "\n\n" + reservas;
+    }
+}